@@ -0,0 +1,76 @@
+package com.ogame.automation.auth;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token verification on every authenticated request: a token already in the verified-token
+ * cache, one that is not (signature check and decoding), and a forged one, which is never cached.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    // Well above the cache size, so cycling through them keeps missing
+    private static final int UNCACHED_TOKENS = 4096;
+
+    private JwtUtil cached;
+    private JwtUtil uncached;
+    private String token;
+    private String forged;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        cached = jwtUtil(10_000);
+        uncached = jwtUtil(16);
+        token = cached.generateToken("admin", "ADMIN", 1L);
+        forged = token.substring(0, token.lastIndexOf('.') + 1) + "c2lnbmF0dXJl";
+        tokens = new String[UNCACHED_TOKENS];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = uncached.generateToken("user" + i, "USER", (long) i);
+        }
+    }
+
+    private static JwtUtil jwtUtil(long cacheMaxSize) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "benchmarkSecretKey12345678901234567890");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", cacheMaxSize);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    @Benchmark
+    public Optional<JwtPrincipal> verifyCached() {
+        return cached.verify(token);
+    }
+
+    @Benchmark
+    public Optional<JwtPrincipal> verifyUncached() {
+        next = (next + 1) & (UNCACHED_TOKENS - 1);
+        return uncached.verify(tokens[next]);
+    }
+
+    @Benchmark
+    public Optional<JwtPrincipal> verifyForged() {
+        return cached.verify(forged);
+    }
+}
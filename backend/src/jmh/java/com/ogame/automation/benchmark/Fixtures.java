@@ -0,0 +1,60 @@
+package com.ogame.automation.benchmark;
+
+import com.ogame.automation.entity.Bot;
+import com.ogame.automation.entity.Task;
+import com.ogame.automation.entity.TaskResult;
+import com.ogame.automation.entity.Universe;
+
+import java.time.LocalDateTime;
+
+/**
+ * Detached entities shaped like production data, for benchmarks that do not touch the database.
+ */
+public final class Fixtures {
+
+    public static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    private Fixtures() {
+    }
+
+    public static Universe universe(long id) {
+        Universe universe = new Universe("Universe " + id, "https://s" + id + "-en.ogame.gameforge.com",
+                "https://discord.com/api/webhooks/" + id + "/token");
+        universe.setId(id);
+        return universe;
+    }
+
+    public static Bot bot(long id, Universe universe) {
+        Bot bot = new Bot(String.format("%08x-7d3b-4c2a-9e8f-1a2b3c4d5e6f", id), universe, "Bot " + id);
+        bot.setId(id);
+        bot.setLastSeenAt(NOW.minusSeconds(20));
+        bot.setCreatedAt(NOW.minusDays(30));
+        bot.setUpdatedAt(NOW.minusSeconds(20));
+        return bot;
+    }
+
+    /**
+     * An in-progress task claimed by the bot; recurring every 30 minutes when {@code recurring}.
+     */
+    public static Task task(long id, Universe universe, Bot bot, boolean recurring) {
+        Task task = new Task(Task.TaskType.values()[(int) (id % Task.TaskType.values().length)], universe, "Player" + id);
+        task.setId(id);
+        task.setParameters("{\"galaxy\":" + (id % 9 + 1) + ",\"system\":" + (id % 499 + 1) + ",\"position\":" + (id % 15 + 1) + "}");
+        task.setRecurrenceMinutes(recurring ? 30 : null);
+        task.setCreatedAt(NOW.minusHours(2));
+        task.setUpdatedAt(NOW.minusMinutes(1));
+        task.markInProgress(bot);
+        return task;
+    }
+
+    public static TaskResult result(Task task, boolean success) {
+        TaskResult result = new TaskResult();
+        result.setTask(task);
+        result.setSuccess(success);
+        result.setFullResult(success ? "{\"resources\":{\"metal\":1250000,\"crystal\":640000,\"deuterium\":210000}}" : null);
+        result.setErrorMessage(success ? null : "Target player is in vacation mode");
+        result.setExecutionTimeMs(1840L);
+        result.setCreatedAt(NOW);
+        return result;
+    }
+}
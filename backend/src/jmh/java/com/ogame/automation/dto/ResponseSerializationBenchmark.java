@@ -0,0 +1,77 @@
+package com.ogame.automation.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ogame.automation.benchmark.Fixtures;
+import com.ogame.automation.entity.Bot;
+import com.ogame.automation.entity.Universe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON rendering of the task and bot responses: a single task as returned to a polling bot, a
+ * task list page and the bot list. Configured like Spring Boot's default ObjectMapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private TaskView task;
+    private CursorPage<TaskView> taskPage;
+    private List<BotView> bots;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        Universe universe = Fixtures.universe(1);
+        List<TaskView> tasks = new ArrayList<>();
+        bots = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            Bot bot = Fixtures.bot(i, universe);
+            bots.add(BotView.from(bot));
+            tasks.add(TaskView.from(Fixtures.task(i, universe, bot, i % 3 == 0)));
+        }
+        task = tasks.get(0);
+        taskPage = new CursorPage<>(tasks, pageSize, 0, true, false, "MjAyNC0wNi0wMVQxMDowMDowMHwxMjM0NQ", null, null);
+    }
+
+    @Benchmark
+    public byte[] task() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(task);
+    }
+
+    @Benchmark
+    public byte[] taskPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(taskPage);
+    }
+
+    @Benchmark
+    public byte[] bots() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bots);
+    }
+}
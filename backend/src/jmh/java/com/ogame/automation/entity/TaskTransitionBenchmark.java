@@ -0,0 +1,61 @@
+package com.ogame.automation.entity;
+
+import com.ogame.automation.benchmark.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link Task} state transitions of a claim and completion, for one-time and recurring tasks
+ * (whose completion also schedules the next execution).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskTransitionBenchmark {
+
+    private Bot bot;
+    private Task oneTime;
+    private Task recurring;
+
+    @Setup
+    public void setUp() {
+        Universe universe = Fixtures.universe(1);
+        bot = Fixtures.bot(1, universe);
+        oneTime = Fixtures.task(1, universe, bot, false);
+        recurring = Fixtures.task(2, universe, bot, true);
+    }
+
+    @Benchmark
+    public Task claimAndFinish() {
+        oneTime.markInProgress(bot);
+        oneTime.markFinished();
+        return oneTime;
+    }
+
+    @Benchmark
+    public Task claimAndFailRecurring() {
+        recurring.markInProgress(bot);
+        recurring.markError();
+        return recurring;
+    }
+
+    @Benchmark
+    public Task claimAndRelease() {
+        oneTime.markInProgress(bot);
+        oneTime.release();
+        return oneTime;
+    }
+}
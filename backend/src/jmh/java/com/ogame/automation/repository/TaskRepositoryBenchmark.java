@@ -0,0 +1,173 @@
+package com.ogame.automation.repository;
+
+import com.ogame.automation.dto.TaskFilter;
+import com.ogame.automation.entity.Bot;
+import com.ogame.automation.entity.Task;
+import com.ogame.automation.entity.Universe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TaskRepository} calls of the bot and scheduler hot paths against embedded H2, on a
+ * seeded task table of {@code tasks} rows spread over 30 days and {@code universes} universes.
+ * Only the JPA layer is started, not the web application or the schedulers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskRepositoryBenchmark {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+    private static final int BOTS_PER_UNIVERSE = 10;
+
+    @Param({"10000", "100000"})
+    private int tasks;
+
+    @Param({"4"})
+    private int universes;
+
+    private ConfigurableApplicationContext context;
+    private TaskRepository taskRepository;
+    private TransactionTemplate transactionTemplate;
+    private final List<Long> universeIds = new ArrayList<>();
+    private final List<Long> botIds = new ArrayList<>();
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    // Not a @SpringBootConfiguration, so neither tests nor the application's component scan pick it up
+    @EnableAutoConfiguration
+    @EntityScan("com.ogame.automation.entity")
+    @EnableJpaRepositories("com.ogame.automation.repository")
+    static class JpaOnly {
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(JpaOnly.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1", "logging.level.root=WARN")
+                .run();
+        taskRepository = context.getBean(TaskRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private void seed() {
+        UniverseRepository universeRepository = context.getBean(UniverseRepository.class);
+        BotRepository botRepository = context.getBean(BotRepository.class);
+        for (int u = 0; u < universes; u++) {
+            Universe universe = universeRepository.save(new Universe("Universe " + u, "https://s" + u + "-en.ogame.gameforge.com",
+                    "https://discord.com/api/webhooks/" + u + "/token"));
+            universeIds.add(universe.getId());
+            for (int b = 0; b < BOTS_PER_UNIVERSE; b++) {
+                botIds.add(botRepository.save(new Bot(String.format("%08x-0000-4000-8000-000000000000", u * BOTS_PER_UNIVERSE + b),
+                        universe, "Bot " + b)).getId());
+            }
+        }
+
+        // Mostly finished history, with a queue and the in-progress work of the last hours
+        List<Object[]> rows = new ArrayList<>(tasks);
+        for (long id = 1; id <= tasks; id++) {
+            int universe = random.nextInt(universes);
+            Long botId = botIds.get(universe * BOTS_PER_UNIVERSE + random.nextInt(BOTS_PER_UNIVERSE));
+            LocalDateTime createdAt = NOW.minusSeconds((long) ((tasks - id) * (30.0 * 24 * 3600 / tasks)));
+            int roll = random.nextInt(100);
+            Task.TaskStatus status = roll < 70 ? Task.TaskStatus.FINISHED : roll < 80 ? Task.TaskStatus.ERROR
+                    : id > tasks - tasks / 10 ? (roll < 90 ? Task.TaskStatus.CREATED : Task.TaskStatus.IN_PROGRESS) : Task.TaskStatus.FINISHED;
+            boolean recurring = random.nextInt(5) == 0;
+            LocalDateTime startedAt = status == Task.TaskStatus.CREATED ? null : createdAt.plusSeconds(random.nextInt(600));
+            LocalDateTime finishedAt = status == Task.TaskStatus.FINISHED || status == Task.TaskStatus.ERROR
+                    ? startedAt.plusSeconds(1 + random.nextInt(60)) : null;
+            // Recurring tasks come due evenly over the next recurrence period, as the scheduler keeps requeueing them
+            LocalDateTime nextExecutionAt = recurring && finishedAt != null ? NOW.plusSeconds(random.nextInt(30 * 60)) : null;
+            rows.add(new Object[]{id, Task.TaskType.values()[random.nextInt(Task.TaskType.values().length)].name(), status.name(),
+                    universeIds.get(universe), status == Task.TaskStatus.CREATED ? null : botId, "Player" + random.nextInt(tasks / 4 + 1),
+                    recurring ? 30 : null, timestamp(nextExecutionAt), timestamp(createdAt), timestamp(finishedAt != null ? finishedAt : createdAt),
+                    timestamp(startedAt), timestamp(finishedAt)});
+        }
+        context.getBean(JdbcTemplate.class).batchUpdate("INSERT INTO task (id, type, status, universe_id, bot_id, player_name, " +
+                "recurrence_minutes, next_execution_at, created_at, updated_at, started_at, finished_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private static Timestamp timestamp(LocalDateTime dateTime) {
+        return dateTime != null ? Timestamp.valueOf(dateTime) : null;
+    }
+
+    private Long anyUniverse() {
+        return universeIds.get(random.nextInt(universeIds.size()));
+    }
+
+    @Benchmark
+    public Optional<Task> findWithReferencesById() {
+        return taskRepository.findWithReferencesById(1 + (long) random.nextInt(tasks));
+    }
+
+    @Benchmark
+    public Optional<Task> findFirstForAssignment() {
+        return transactionTemplate.execute(status -> taskRepository.findFirstForAssignmentByStatusAndUniverseIdOrderByCreatedAtAsc(
+                Task.TaskStatus.CREATED, anyUniverse()));
+    }
+
+    @Benchmark
+    public long countInProgressByBot() {
+        return taskRepository.countByBotIdAndStatus(botIds.get(random.nextInt(botIds.size())), Task.TaskStatus.IN_PROGRESS);
+    }
+
+    @Benchmark
+    public List<Task> findRecurringTasksToReschedule() {
+        // A scheduler run a minute on finds the tasks that came due in between
+        return taskRepository.findRecurringTasksToReschedule(NOW.plusMinutes(1));
+    }
+
+    @Benchmark
+    public List<Task> findStaleInProgress() {
+        return taskRepository.findByStatusAndStartedAtBefore(Task.TaskStatus.IN_PROGRESS, NOW.minusHours(1));
+    }
+
+    @Benchmark
+    public Window<Task> listFirstPage() {
+        TaskFilter filter = new TaskFilter(null, anyUniverse(), null, null, null, null, null);
+        return transactionTemplate.execute(status -> taskRepository.findBy(
+                TaskSpecifications.matching(filter).and(TaskSpecifications.fetchReferences()),
+                query -> query.sortBy(Sort.by(Sort.Direction.DESC, "createdAt", "id")).limit(20).scroll(ScrollPosition.keyset())));
+    }
+}
@@ -0,0 +1,66 @@
+package com.ogame.automation.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ogame.automation.benchmark.Fixtures;
+import com.ogame.automation.dto.UniverseRef;
+import com.ogame.automation.entity.Task;
+import com.ogame.automation.entity.TaskResult;
+import com.ogame.automation.entity.Universe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and serializing the Discord webhook payloads, i.e. everything but the HTTP call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiscordPayloadBenchmark {
+
+    private final DiscordNotificationService service = new DiscordNotificationService();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Task task;
+    private UniverseRef universe;
+    private TaskResult success;
+    private TaskResult failure;
+
+    @Setup
+    public void setUp() {
+        Universe entity = Fixtures.universe(1);
+        universe = UniverseRef.from(entity);
+        task = Fixtures.task(1, entity, Fixtures.bot(1, entity), true);
+        task.markFinished();
+        success = Fixtures.result(task, true);
+        failure = Fixtures.result(task, false);
+    }
+
+    @Benchmark
+    public byte[] taskCompleted() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(service.taskCompletedPayload(task, success));
+    }
+
+    @Benchmark
+    public byte[] taskFailed() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(service.taskCompletedPayload(task, failure));
+    }
+
+    @Benchmark
+    public byte[] taskCreated() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(service.taskCreatedPayload(task, universe));
+    }
+}
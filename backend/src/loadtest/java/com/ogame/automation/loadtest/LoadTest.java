@@ -0,0 +1,212 @@
+package com.ogame.automation.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.ogame.automation.OGameAutomationApplication;
+import com.ogame.automation.dto.BotView;
+import com.ogame.automation.entity.Task;
+import com.ogame.automation.entity.Universe;
+import com.ogame.automation.service.BotService;
+import com.ogame.automation.service.BulkTaskImportService;
+import com.ogame.automation.service.UniverseService;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Simulated bot fleet against an in-process instance of the application.
+ *
+ * Starts the application on a random port, on in-memory H2 by default or on the database given
+ * with {@code --profile=} and {@code --spring.datasource.*}, with a local sink standing in for the
+ * Discord webhooks. Each scenario creates its own universes, bots with API keys and queued tasks,
+ * runs {@code --bots} {@link SimulatedBot}s for {@code --warmup} and then measures them for
+ * {@code --duration}: throughput, latency percentiles and errors per request kind, and the SQL
+ * statements the application sent. The report is printed and written to {@code --output}.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        Instant startedAt = Instant.now();
+        HttpServer webhookSink = startWebhookSink();
+        ConfigurableApplicationContext context = start(options);
+        try {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            URI baseUri = URI.create("http://127.0.0.1:" + port);
+            String webhook = "http://127.0.0.1:" + webhookSink.getAddress().getPort() + "/webhook";
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            StatementCountingDataSource statements = (StatementCountingDataSource) context.getBean(DataSource.class);
+
+            List<ScenarioReport> reports = new ArrayList<>();
+            for (int scenario = 0; scenario < options.botCounts().size(); scenario++) {
+                ScenarioReport report = runScenario(context, options, scenario, baseUri, webhook, objectMapper, statements);
+                print(report);
+                reports.add(report);
+            }
+
+            ObjectNode output = objectMapper.createObjectNode();
+            output.put("startedAt", startedAt.toString());
+            output.set("options", objectMapper.valueToTree(options));
+            output.set("scenarios", objectMapper.valueToTree(reports));
+            Files.createDirectories(options.output().toAbsolutePath().getParent());
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(options.output().toFile(), output);
+            System.out.println("Report written to " + options.output().toAbsolutePath());
+        } finally {
+            context.close();
+            webhookSink.stop(0);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(LoadTestOptions options) {
+        List<String> args = new ArrayList<>(options.applicationArgs());
+        if (args.stream().noneMatch(arg -> arg.startsWith("--server.port="))) {
+            args.add("--server.port=0");
+        }
+        if (args.stream().noneMatch(arg -> arg.startsWith("--logging."))) {
+            // Per-bot INFO lines would drown the report
+            args.addAll(List.of("--logging.level.root=WARN", "--logging.level.com.ogame.automation=WARN"));
+        }
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(OGameAutomationApplication.class)
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                    @Override
+                    public Object postProcessAfterInitialization(Object bean, String beanName) {
+                        return bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)
+                                ? new StatementCountingDataSource(dataSource) : bean;
+                    }
+                }));
+        if (!options.profile().isBlank()) {
+            builder.profiles(options.profile());
+        }
+        return builder.run(args.toArray(String[]::new));
+    }
+
+    /**
+     * Accepts every webhook call, as Discord would, without the network.
+     */
+    private static HttpServer startWebhookSink() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            try (InputStream body = exchange.getRequestBody()) {
+                body.transferTo(OutputStream.nullOutputStream());
+            }
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        return server;
+    }
+
+    private static ScenarioReport runScenario(ConfigurableApplicationContext context, LoadTestOptions options, int scenario,
+                                              URI baseUri, String webhook, ObjectMapper objectMapper,
+                                              StatementCountingDataSource statements) throws Exception {
+        int botCount = options.botCounts().get(scenario);
+        SplittableRandom random = new SplittableRandom(scenario);
+        String run = UUID.randomUUID().toString().substring(0, 8);
+
+        UniverseService universeService = context.getBean(UniverseService.class);
+        BotService botService = context.getBean(BotService.class);
+        List<Long> universeIds = new ArrayList<>();
+        for (int u = 0; u < options.universes(); u++) {
+            universeIds.add(universeService.createUniverse(new Universe("Load test " + run + "-" + u,
+                    "https://s" + (u + 1) + "-en.ogame.gameforge.com", webhook)).getId());
+        }
+        importTasks(context.getBean(BulkTaskImportService.class), options, universeIds, random);
+
+        AtomicReference<ScenarioStats> stats = new AtomicReference<>();
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        List<SimulatedBot> bots = new ArrayList<>();
+        for (int b = 0; b < botCount; b++) {
+            long universeId = universeIds.get(b % universeIds.size());
+            BotView bot = botService.createBot(UUID.randomUUID().toString(), "Load bot " + run + "-" + b, universeId);
+            String apiKey = botService.issueApiKey(bot.id()).orElseThrow();
+            bots.add(new SimulatedBot(http, objectMapper, baseUri, apiKey, universeId, options, stats::get, random.nextLong()));
+        }
+
+        System.out.printf("Scenario %d: %d bots, %d universes, %d one-time and %d recurring tasks%n",
+                scenario + 1, botCount, options.universes(), options.tasks(), options.recurringTasks());
+        List<Thread> threads = bots.stream().map(bot -> Thread.ofVirtual().name("bot-", 0).start(bot)).toList();
+        Thread.sleep(options.warmup());
+
+        Map<StatementCountingDataSource.Kind, Long> before = statements.snapshot();
+        stats.set(new ScenarioStats(options.duration().plusMinutes(1)));
+        long start = System.nanoTime();
+        Thread.sleep(options.duration());
+        ScenarioStats measured = stats.getAndSet(null);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        Map<StatementCountingDataSource.Kind, Long> sent = new EnumMap<>(StatementCountingDataSource.Kind.class);
+        statements.snapshot().forEach((kind, count) -> sent.put(kind, count - before.get(kind)));
+
+        bots.forEach(SimulatedBot::stop);
+        threads.forEach(Thread::interrupt);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        http.close();
+        return measured.report(botCount, elapsed, sent);
+    }
+
+    private static void importTasks(BulkTaskImportService importService, LoadTestOptions options, List<Long> universeIds,
+                                    SplittableRandom random) throws IOException {
+        StringBuilder ndjson = new StringBuilder();
+        Task.TaskType[] types = Task.TaskType.values();
+        for (int i = 0; i < options.tasks() + options.recurringTasks(); i++) {
+            ndjson.append("{\"type\":\"").append(types[random.nextInt(types.length)])
+                    .append("\",\"universeId\":").append(universeIds.get(random.nextInt(universeIds.size())))
+                    .append(",\"playerName\":\"Player").append(random.nextInt(100_000)).append('"');
+            if (i >= options.tasks()) {
+                ndjson.append(",\"recurrenceMinutes\":").append(options.recurrenceMinutes());
+            }
+            ndjson.append(",\"parameters\":{\"galaxy\":").append(1 + random.nextInt(9))
+                    .append(",\"system\":").append(1 + random.nextInt(499))
+                    .append(",\"position\":").append(1 + random.nextInt(15)).append("}}\n");
+        }
+        importService.importTasks(new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)),
+                BulkTaskImportService.Format.NDJSON);
+    }
+
+    private static void print(ScenarioReport report) {
+        System.out.printf("%d bots over %.0f s: %d tasks completed (%.1f/s), %.1f requests/s, error rate %.2f%%, "
+                        + "%d claim conflicts, %d idle polls%n",
+                report.bots(), report.seconds(), report.completedTasks(), report.tasksPerSecond(), report.requestsPerSecond(),
+                report.errorRate() * 100, report.claimConflicts(), report.idlePolls());
+        System.out.printf("  %-10s %9s %7s %9s %9s %9s %9s%n", "request", "count", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        report.requests().forEach((request, stats) -> System.out.printf("  %-10s %9d %7d %9.1f %9.1f %9.1f %9.1f%n",
+                request, stats.count(), stats.errors(), orZero(stats.p50Ms()), orZero(stats.p95Ms()), orZero(stats.p99Ms()), stats.maxMs()));
+        System.out.printf("  SQL statements %s, %s per completed task%n", report.statements(),
+                report.statementsPerTask() != null ? String.format("%.1f", report.statementsPerTask()) : "n/a");
+    }
+
+    private static double orZero(Double value) {
+        return value != null ? value : 0;
+    }
+}
@@ -0,0 +1,89 @@
+package com.ogame.automation.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Command line of the load test: {@code --name=value} options, with {@code --spring.*},
+ * {@code --app.*}, {@code --server.*} and {@code --logging.*} passed through to the application
+ * under test.
+ *
+ * @param botCounts one scenario per entry, run one after the other
+ * @param universes universes the bots and tasks of a scenario are spread over
+ * @param tasks one-time tasks queued per scenario
+ * @param recurringTasks recurring tasks queued per scenario
+ * @param recurrenceMinutes recurrence of the recurring tasks
+ * @param warmup time bots run before measuring starts
+ * @param duration measured time per scenario
+ * @param minExecution shortest simulated execution of a task
+ * @param maxExecution longest simulated execution of a task
+ * @param resultBytes approximate size of a successful task's result
+ * @param failureRate share of executions reported as failed
+ * @param pollInterval pause of a bot that found no task
+ * @param heartbeatInterval interval of a bot's heartbeats
+ * @param profile Spring profile of the application; {@code test} runs on in-memory H2
+ * @param output JSON report
+ * @param applicationArgs arguments passed to the application
+ */
+record LoadTestOptions(
+        List<Integer> botCounts,
+        int universes,
+        int tasks,
+        int recurringTasks,
+        int recurrenceMinutes,
+        Duration warmup,
+        Duration duration,
+        Duration minExecution,
+        Duration maxExecution,
+        int resultBytes,
+        double failureRate,
+        Duration pollInterval,
+        Duration heartbeatInterval,
+        String profile,
+        Path output,
+        List<String> applicationArgs) {
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> options = new TreeMap<>();
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--spring.") || arg.startsWith("--app.") || arg.startsWith("--server.")
+                    || arg.startsWith("--logging.")) {
+                applicationArgs.add(arg);
+            } else if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            } else if (!arg.isBlank()) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+        }
+        String[] execution = options.getOrDefault("execution", "PT0.2S-PT2S").split("-");
+        LoadTestOptions parsed = new LoadTestOptions(
+                Arrays.stream(options.getOrDefault("bots", "10,50").split(",")).map(String::trim).map(Integer::valueOf).toList(),
+                Integer.parseInt(options.getOrDefault("universes", "2")),
+                Integer.parseInt(options.getOrDefault("tasks", "2000")),
+                Integer.parseInt(options.getOrDefault("recurring", "500")),
+                Integer.parseInt(options.getOrDefault("recurrence-minutes", "1")),
+                Duration.parse(options.getOrDefault("warmup", "PT10S")),
+                Duration.parse(options.getOrDefault("duration", "PT60S")),
+                Duration.parse(execution[0]),
+                Duration.parse(execution.length > 1 ? execution[1] : execution[0]),
+                Integer.parseInt(options.getOrDefault("result-bytes", "4096")),
+                Double.parseDouble(options.getOrDefault("failure-rate", "0.05")),
+                Duration.parse(options.getOrDefault("poll-interval", "PT1S")),
+                Duration.parse(options.getOrDefault("heartbeat-interval", "PT30S")),
+                options.getOrDefault("profile", "test"),
+                Path.of(options.getOrDefault("output", "target/loadtest-result.json")),
+                List.copyOf(applicationArgs));
+        options.keySet().removeAll(List.of("bots", "universes", "tasks", "recurring", "recurrence-minutes", "warmup", "duration",
+                "execution", "result-bytes", "failure-rate", "poll-interval", "heartbeat-interval", "profile", "output"));
+        if (!options.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options " + options.keySet());
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,27 @@
+package com.ogame.automation.loadtest;
+
+import java.util.Map;
+
+/**
+ * Results of one scenario, as printed and written to the JSON report.
+ *
+ * @param errorRate failed requests over all requests; claim conflicts are not failures
+ * @param statements SQL statements sent during the measurement, by kind
+ * @param statementsPerTask all statements over completed tasks, heartbeats and polls included
+ */
+record ScenarioReport(
+        int bots,
+        double seconds,
+        long completedTasks,
+        double tasksPerSecond,
+        double requestsPerSecond,
+        double errorRate,
+        long claimConflicts,
+        long idlePolls,
+        Map<ScenarioStats.Request, RequestStats> requests,
+        Map<StatementCountingDataSource.Kind, Long> statements,
+        Double statementsPerTask) {
+
+    record RequestStats(long count, long errors, double perSecond, Double p50Ms, Double p95Ms, Double p99Ms, double maxMs) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.ogame.automation.loadtest;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * What the simulated bots observed during the measured part of one scenario.
+ */
+class ScenarioStats {
+
+    /**
+     * Requests a bot sends; {@code POLL} lists the available tasks, {@code CLAIM} assigns one.
+     */
+    enum Request {
+        HEARTBEAT, POLL, CLAIM, COMPLETE
+    }
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Map<Request, Timer> latencies = new EnumMap<>(Request.class);
+    private final Map<Request, LongAdder> errors = new EnumMap<>(Request.class);
+    private final LongAdder claimConflicts = new LongAdder();
+    private final LongAdder completedTasks = new LongAdder();
+    private final LongAdder idlePolls = new LongAdder();
+
+    ScenarioStats(Duration window) {
+        for (Request request : Request.values()) {
+            latencies.put(request, Timer.builder("loadtest.requests")
+                    .tag("request", request.name())
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .percentilePrecision(2)
+                    // One window spanning the whole measurement
+                    .distributionStatisticExpiry(window)
+                    .distributionStatisticBufferLength(1)
+                    .register(registry));
+            errors.put(request, new LongAdder());
+        }
+    }
+
+    void record(Request request, long startNanos, boolean error) {
+        latencies.get(request).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (error) {
+            errors.get(request).increment();
+        }
+    }
+
+    /**
+     * Another bot claimed the task first; expected under contention, not an error.
+     */
+    void claimConflict() {
+        claimConflicts.increment();
+    }
+
+    void completed() {
+        completedTasks.increment();
+    }
+
+    void idlePoll() {
+        idlePolls.increment();
+    }
+
+    ScenarioReport report(int bots, Duration elapsed, Map<StatementCountingDataSource.Kind, Long> statements) {
+        double seconds = elapsed.toNanos() / 1e9;
+        long requests = 0;
+        long failed = 0;
+        Map<Request, ScenarioReport.RequestStats> byRequest = new LinkedHashMap<>();
+        for (Request request : Request.values()) {
+            HistogramSnapshot snapshot = latencies.get(request).takeSnapshot();
+            Map<String, Double> percentiles = new LinkedHashMap<>();
+            for (ValueAtPercentile value : snapshot.percentileValues()) {
+                percentiles.put("p" + Math.round(value.percentile() * 100), value.value(TimeUnit.MILLISECONDS));
+            }
+            long count = snapshot.count();
+            long errorCount = errors.get(request).sum();
+            requests += count;
+            failed += errorCount;
+            byRequest.put(request, new ScenarioReport.RequestStats(count, errorCount, count / seconds,
+                    percentiles.get("p50"), percentiles.get("p95"), percentiles.get("p99"), snapshot.max(TimeUnit.MILLISECONDS)));
+        }
+        long completed = completedTasks.sum();
+        long totalStatements = statements.values().stream().mapToLong(Long::longValue).sum();
+        return new ScenarioReport(bots, seconds, completed, completed / seconds, requests / seconds,
+                requests == 0 ? 0 : (double) failed / requests, claimConflicts.sum(), idlePolls.sum(), byRequest,
+                statements, completed == 0 ? null : (double) totalStatements / completed);
+    }
+}
@@ -0,0 +1,186 @@
+package com.ogame.automation.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * One bot polling over REST with its API key: heartbeat every {@code heartbeatInterval}, list the
+ * queued tasks of its universe, claim one, "execute" it by sleeping a random time, and complete it
+ * with a result of about {@code resultBytes}. Finding nothing, or losing every claim, it waits
+ * {@code pollInterval} (with jitter) before polling again.
+ */
+class SimulatedBot implements Runnable {
+
+    private static final int POLL_SIZE = 5;
+
+    private final HttpClient http;
+    private final ObjectMapper objectMapper;
+    private final URI baseUri;
+    private final String apiKey;
+    private final long universeId;
+    private final LoadTestOptions options;
+    private final Supplier<ScenarioStats> stats;
+    private final SplittableRandom random;
+
+    private volatile boolean running = true;
+
+    SimulatedBot(HttpClient http, ObjectMapper objectMapper, URI baseUri, String apiKey, long universeId,
+                 LoadTestOptions options, Supplier<ScenarioStats> stats, long seed) {
+        this.http = http;
+        this.objectMapper = objectMapper;
+        this.baseUri = baseUri;
+        this.apiKey = apiKey;
+        this.universeId = universeId;
+        this.options = options;
+        this.stats = stats;
+        this.random = new SplittableRandom(seed);
+    }
+
+    void stop() {
+        running = false;
+    }
+
+    @Override
+    public void run() {
+        long nextHeartbeat = 0;
+        try {
+            while (running) {
+                if (System.nanoTime() - nextHeartbeat >= 0) {
+                    send(ScenarioStats.Request.HEARTBEAT, "PUT", "/api/bots/me/heartbeat", null);
+                    nextHeartbeat = System.nanoTime() + options.heartbeatInterval().toNanos();
+                }
+                Optional<Long> task = claim();
+                if (task.isEmpty()) {
+                    sleep(jitter(options.pollInterval()));
+                    continue;
+                }
+                long executionMillis = random.nextLong(options.minExecution().toMillis(), options.maxExecution().toMillis() + 1);
+                sleep(Duration.ofMillis(executionMillis));
+                complete(task.get(), executionMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Optional<Long> claim() throws InterruptedException {
+        Optional<HttpResponse<String>> available = send(ScenarioStats.Request.POLL, "GET",
+                "/api/tasks/universe/" + universeId + "/available?size=" + POLL_SIZE, null);
+        if (available.isEmpty()) {
+            return Optional.empty();
+        }
+        JsonNode content = readTree(available.get().body()).path("content");
+        if (content.isEmpty()) {
+            record(ScenarioStats::idlePoll);
+            return Optional.empty();
+        }
+        for (JsonNode task : content) {
+            long taskId = task.path("id").asLong();
+            Optional<HttpResponse<String>> claimed = send(ScenarioStats.Request.CLAIM, "PUT",
+                    "/api/tasks/" + taskId + "/assign", "{}");
+            if (claimed.isPresent()) {
+                return Optional.of(taskId);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void complete(long taskId, long executionMillis) throws InterruptedException {
+        ObjectNode body = objectMapper.createObjectNode();
+        boolean success = random.nextDouble() >= options.failureRate();
+        body.put("success", success);
+        body.put("executionTimeMs", executionMillis);
+        if (success) {
+            body.put("result", result());
+        } else {
+            body.put("errorMessage", "Target player is in vacation mode");
+        }
+        if (send(ScenarioStats.Request.COMPLETE, "PUT", "/api/tasks/" + taskId + "/complete", body.toString()).isPresent()) {
+            record(ScenarioStats::completed);
+        }
+    }
+
+    /**
+     * An espionage-report-like JSON document of about {@code resultBytes}.
+     */
+    private String result() {
+        StringBuilder result = new StringBuilder("{\"resources\":{\"metal\":").append(random.nextInt(10_000_000))
+                .append(",\"crystal\":").append(random.nextInt(5_000_000))
+                .append(",\"deuterium\":").append(random.nextInt(2_000_000)).append("},\"fleet\":[");
+        int approximateBytes = (int) (options.resultBytes() * (0.5 + random.nextDouble()));
+        while (result.length() < approximateBytes) {
+            result.append("{\"ship\":").append(200 + random.nextInt(20)).append(",\"count\":").append(random.nextInt(100_000)).append("},");
+        }
+        result.setLength(result.length() - (result.charAt(result.length() - 1) == ',' ? 1 : 0));
+        return result.append("]}").toString();
+    }
+
+    /**
+     * Sends the request and records it. A 400 on a claim means another bot was faster.
+     *
+     * @return the response if it was successful
+     */
+    private Optional<HttpResponse<String>> send(ScenarioStats.Request request, String method, String path, String body)
+            throws InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("X-Bot-Key", apiKey)
+                .timeout(Duration.ofSeconds(30));
+        if (body != null) {
+            builder.header("Content-Type", "application/json");
+        }
+        builder.method(method, body != null ? HttpRequest.BodyPublishers.ofString(body) : HttpRequest.BodyPublishers.noBody());
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = http.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            record(stats -> stats.record(request, start, true));
+            return Optional.empty();
+        }
+        int status = response.statusCode();
+        boolean conflict = request == ScenarioStats.Request.CLAIM && status == 400;
+        record(stats -> stats.record(request, start, status >= 300 && !conflict));
+        if (conflict) {
+            record(ScenarioStats::claimConflict);
+        }
+        return status < 300 ? Optional.of(response) : Optional.empty();
+    }
+
+    /**
+     * Records only once measuring has started.
+     */
+    private void record(Consumer<ScenarioStats> action) {
+        ScenarioStats current = stats.get();
+        if (current != null) {
+            action.accept(current);
+        }
+    }
+
+    private JsonNode readTree(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            return objectMapper.missingNode();
+        }
+    }
+
+    private Duration jitter(Duration interval) {
+        return Duration.ofMillis((long) (interval.toMillis() * (0.5 + random.nextDouble())));
+    }
+
+    private void sleep(Duration duration) throws InterruptedException {
+        Thread.sleep(duration);
+    }
+}
@@ -0,0 +1,110 @@
+package com.ogame.automation.loadtest;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the SQL statements the application sends, by kind, whether through Hibernate or JDBC.
+ * A prepared statement counts once per preparation, so a JDBC batch counts as one.
+ */
+class StatementCountingDataSource extends DelegatingDataSource {
+
+    enum Kind {
+        SELECT, INSERT, UPDATE, DELETE, OTHER;
+
+        static Kind of(String sql) {
+            String verb = sql.stripLeading();
+            int end = 0;
+            while (end < verb.length() && Character.isLetter(verb.charAt(end))) {
+                end++;
+            }
+            return switch (verb.substring(0, end).toUpperCase(Locale.ROOT)) {
+                case "SELECT", "WITH" -> SELECT;
+                case "INSERT", "MERGE" -> INSERT;
+                case "UPDATE" -> UPDATE;
+                case "DELETE" -> DELETE;
+                default -> OTHER;
+            };
+        }
+    }
+
+    private static final Set<String> PREPARE = Set.of("prepareStatement", "prepareCall");
+    private static final Set<String> EXECUTE = Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "addBatch");
+
+    private final Map<Kind, LongAdder> counts = new EnumMap<>(Kind.class);
+
+    StatementCountingDataSource(DataSource target) {
+        super(target);
+        for (Kind kind : Kind.values()) {
+            counts.put(kind, new LongAdder());
+        }
+    }
+
+    Map<Kind, Long> snapshot() {
+        Map<Kind, Long> snapshot = new EnumMap<>(Kind.class);
+        counts.forEach((kind, count) -> snapshot.put(kind, count.sum()));
+        return snapshot;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(super.getConnection(username, password));
+    }
+
+    private Connection counting(Connection connection) {
+        return proxy(Connection.class, connection, (method, args) -> {
+            if (PREPARE.contains(method.getName()) && args != null && args[0] instanceof String sql) {
+                count(sql);
+            }
+        }, true);
+    }
+
+    private void count(String sql) {
+        counts.get(Kind.of(sql)).increment();
+    }
+
+    private interface Listener {
+        void before(Method method, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<T> type, T target, Listener listener, boolean wrapStatements) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            listener.before(method, args);
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (wrapStatements && method.getName().equals("createStatement")) {
+                return proxy(Statement.class, (Statement) result, (statementMethod, statementArgs) -> {
+                    if (EXECUTE.contains(statementMethod.getName()) && statementArgs != null
+                            && statementArgs.length > 0 && statementArgs[0] instanceof String sql) {
+                        count(sql);
+                    }
+                }, false);
+            }
+            return result;
+        };
+        return (T) Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
@@ -0,0 +1,46 @@
+package com.ogame.automation.auth;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Authenticates bots by the {@value #HEADER} header as {@link BotPrincipal} with role BOT.
+ * Requests carrying a user JWT are left to {@link JwtAuthenticationFilter}.
+ */
+@Component
+public class BotApiKeyAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Bot-Key";
+
+    @Autowired
+    private BotApiKeyStore botApiKeyStore;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String apiKey = request.getHeader(HEADER);
+
+        if (apiKey != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            botApiKeyStore.resolve(apiKey).ifPresent(bot -> {
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        bot, null, List.of(new SimpleGrantedAuthority("ROLE_" + BotPrincipal.ROLE)));
+                authToken.setDetails(bot.botId());
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+            });
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,198 @@
+package com.ogame.automation.auth;
+
+import com.ogame.automation.config.PrimaryReads;
+import com.ogame.automation.dto.BotApiKey;
+import com.ogame.automation.repository.BotRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory table of bot API keys: HMAC-SHA256 of the key → bot id, UUID and universe, so a
+ * bot request is usually authenticated with one hash and one map lookup and no query.
+ *
+ * Keys are 256-bit random values, so a fast keyed hash is sufficient; the HMAC secret means a
+ * leaked {@code api_key_hash} column cannot be used to forge keys. The table is loaded at startup
+ * and updated after commit by {@link com.ogame.automation.service.BotService}; changing
+ * {@code app.bot-auth.key-secret} invalidates every issued key.
+ *
+ * Other instances issue and revoke keys too, so the table is not authoritative: a key missing
+ * from it is looked up by {@code api_key_hash} (a unique index), and an entry older than
+ * {@code app.bot-auth.key-ttl} is checked against the database again before it is trusted. A key
+ * revoked or rotated elsewhere therefore stops working here within that TTL. Keys are read from
+ * the primary ({@link PrimaryReads}), never from a lagging replica.
+ */
+@Component
+public class BotApiKeyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(BotApiKeyStore.class);
+
+    static final String KEY_PREFIX = "ogb_";
+    private static final int KEY_BYTES = 32;
+
+    @Autowired
+    private BotRepository botRepository;
+
+    @Autowired
+    private PrimaryReads primaryReads;
+
+    @Value("${app.bot-auth.key-secret}")
+    private String keySecret;
+
+    @Value("${app.bot-auth.key-ttl:PT30S}")
+    private Duration keyTtl;
+
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, Entry> botsByKeyHash = new ConcurrentHashMap<>();
+    private final Map<Long, String> keyHashesByBot = new ConcurrentHashMap<>();
+
+    private LongSupplier nanoTime = System::nanoTime;
+
+    private record Entry(BotPrincipal bot, long checkedAt) {
+    }
+
+    private ThreadLocal<Mac> macs;
+
+    @PostConstruct
+    void init() {
+        SecretKeySpec key = new SecretKeySpec(keySecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        });
+        load();
+    }
+
+    private void load() {
+        for (BotApiKey apiKey : primaryReads.read(botRepository::findApiKeys)) {
+            put(apiKey.apiKeyHash(), principal(apiKey));
+        }
+        logger.info("Loaded {} bot API keys", botsByKeyHash.size());
+    }
+
+    /**
+     * @return the bot the key belongs to, or empty if the key is unknown or revoked
+     */
+    public Optional<BotPrincipal> resolve(String apiKey) {
+        if (apiKey == null || !apiKey.startsWith(KEY_PREFIX)) {
+            return Optional.empty();
+        }
+        String apiKeyHash = hash(apiKey);
+        Entry entry = botsByKeyHash.get(apiKeyHash);
+        if (entry != null && nanoTime.getAsLong() - entry.checkedAt() < keyTtl.toNanos()) {
+            return Optional.of(entry.bot());
+        }
+        Optional<BotPrincipal> bot = primaryReads.read(() -> botRepository.findApiKeyByHash(apiKeyHash))
+                .map(BotApiKeyStore::principal);
+        if (bot.isPresent()) {
+            remove(bot.get().botId());
+            put(apiKeyHash, bot.get());
+        } else if (entry != null) {
+            // Revoked or replaced through another instance
+            remove(entry.bot().botId(), apiKeyHash);
+        }
+        return bot;
+    }
+
+    public String generateKey() {
+        byte[] bytes = new byte[KEY_BYTES];
+        random.nextBytes(bytes);
+        return KEY_PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    public String hash(String apiKey) {
+        return HexFormat.of().formatHex(macs.get().doFinal(apiKey.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Makes the key resolve to the bot once the current transaction commits, replacing any
+     * previous key of that bot.
+     */
+    public void putAfterCommit(String apiKeyHash, BotPrincipal bot) {
+        afterCommit(() -> {
+            remove(bot.botId());
+            put(apiKeyHash, bot);
+        });
+    }
+
+    /**
+     * Updates the identity behind the bot's key, if it has one, e.g. after a universe change.
+     */
+    public void refreshAfterCommit(BotPrincipal bot) {
+        afterCommit(() -> {
+            String apiKeyHash = keyHashesByBot.get(bot.botId());
+            if (apiKeyHash != null) {
+                botsByKeyHash.put(apiKeyHash, new Entry(bot, nanoTime.getAsLong()));
+            }
+        });
+    }
+
+    public void removeAfterCommit(Long botId) {
+        afterCommit(() -> remove(botId));
+    }
+
+    public int size() {
+        return botsByKeyHash.size();
+    }
+
+    private void put(String apiKeyHash, BotPrincipal bot) {
+        botsByKeyHash.put(apiKeyHash, new Entry(bot, nanoTime.getAsLong()));
+        keyHashesByBot.put(bot.botId(), apiKeyHash);
+    }
+
+    private void remove(Long botId) {
+        String previous = keyHashesByBot.remove(botId);
+        if (previous != null) {
+            botsByKeyHash.remove(previous);
+        }
+    }
+
+    private void remove(Long botId, String apiKeyHash) {
+        keyHashesByBot.remove(botId, apiKeyHash);
+        botsByKeyHash.remove(apiKeyHash);
+    }
+
+    private static BotPrincipal principal(BotApiKey apiKey) {
+        return new BotPrincipal(apiKey.botId(), apiKey.uuid(), apiKey.universeId());
+    }
+
+    void setNanoTime(LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
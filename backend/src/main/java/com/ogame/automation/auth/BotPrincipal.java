@@ -0,0 +1,43 @@
+package com.ogame.automation.auth;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.security.Principal;
+import java.util.Optional;
+
+/**
+ * A bot authenticated by API key, with the universe it is scoped to.
+ */
+public record BotPrincipal(Long botId, String uuid, Long universeId) implements Principal {
+
+    public static final String ROLE = "BOT";
+
+    @Override
+    public String getName() {
+        return uuid;
+    }
+
+    /**
+     * @return the calling bot, or empty if the request is not authenticated by API key
+     */
+    public static Optional<BotPrincipal> current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof BotPrincipal bot) {
+            return Optional.of(bot);
+        }
+        return Optional.empty();
+    }
+
+    public boolean isBot(Long id) {
+        return botId.equals(id);
+    }
+
+    public boolean isBot(String otherUuid) {
+        return uuid.equals(otherUuid);
+    }
+
+    public boolean canAccessUniverse(Long otherUniverseId) {
+        return universeId.equals(otherUniverseId);
+    }
+}
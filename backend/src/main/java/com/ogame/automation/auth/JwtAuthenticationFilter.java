@@ -29,20 +29,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
 
-            if (jwtUtil.validateToken(token)) {
-                String username = jwtUtil.getUsernameFromToken(token);
-                String role = jwtUtil.getRoleFromToken(token);
-                Long userId = jwtUtil.getUserIdFromToken(token);
-
-                if (username != null && role != null) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            username, null, List.of(new SimpleGrantedAuthority("ROLE_" + role)));
-                    
-                    // Add user ID to authentication details
-                    authToken.setDetails(userId);
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
-            }
+            jwtUtil.verify(token).ifPresent(principal -> {
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        principal.username(), null, List.of(new SimpleGrantedAuthority("ROLE_" + principal.role())));
+
+                // Add user ID to authentication details
+                authToken.setDetails(principal.userId());
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+            });
         }
 
         filterChain.doFilter(request, response);
@@ -0,0 +1,9 @@
+package com.ogame.automation.auth;
+
+import java.time.Instant;
+
+/**
+ * Claims of a verified token, decoded once per token rather than once per claim.
+ */
+public record JwtPrincipal(String username, String role, Long userId, Instant expiresAt) {
+}
@@ -5,11 +5,32 @@ import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.Optional;
 
+/**
+ * Issues and verifies tokens. The HMAC algorithm and verifier are built once; verified tokens
+ * are cached by SHA-256 hash until their {@code exp}, so a bot polling with the same token pays
+ * for one signature check per token rather than per request. Rejected tokens are never cached.
+ */
 @Component
 public class JwtUtil {
 
@@ -19,8 +40,51 @@ public class JwtUtil {
     @Value("${app.jwt.expiration}")
     private Long expiration;
 
+    @Value("${app.jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private Clock clock = Clock.systemUTC();
+    private Ticker ticker = Ticker.systemTicker();
+
+    private Algorithm algorithm;
+    private JWTVerifier verifier;
+    private Cache<String, JwtPrincipal> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        algorithm = Algorithm.HMAC256(secret);
+        verifier = JWT.require(algorithm).build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<String, JwtPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String key, JwtPrincipal principal, long currentTime) {
+                        return untilExpiry(principal);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+                        return untilExpiry(principal);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .ticker(ticker)
+                .recordStats()
+                .build();
+
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified-tokens");
+        }
+    }
+
     public String generateToken(String username, String role, Long userId) {
-        Algorithm algorithm = Algorithm.HMAC256(secret);
         return JWT.create()
                 .withSubject(username)
                 .withClaim("role", role)
@@ -30,47 +94,84 @@ public class JwtUtil {
                 .sign(algorithm);
     }
 
-    public boolean validateToken(String token) {
-        try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            JWTVerifier verifier = JWT.require(algorithm).build();
-            verifier.verify(token);
-            return true;
-        } catch (JWTVerificationException e) {
-            return false;
+    /**
+     * Verifies the token and decodes its claims in one pass.
+     *
+     * @return the principal, or empty if the token is invalid, expired or lacks a subject or role
+     */
+    public Optional<JwtPrincipal> verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        String key = hash(token);
+        JwtPrincipal cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        JwtPrincipal principal = decode(token);
+        if (principal != null) {
+            verifiedTokens.put(key, principal);
         }
+        return Optional.ofNullable(principal);
+    }
+
+    public boolean validateToken(String token) {
+        return verify(token).isPresent();
     }
 
     public String getUsernameFromToken(String token) {
-        try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            JWTVerifier verifier = JWT.require(algorithm).build();
-            DecodedJWT decodedJWT = verifier.verify(token);
-            return decodedJWT.getSubject();
-        } catch (JWTVerificationException e) {
-            return null;
-        }
+        return verify(token).map(JwtPrincipal::username).orElse(null);
     }
 
     public String getRoleFromToken(String token) {
+        return verify(token).map(JwtPrincipal::role).orElse(null);
+    }
+
+    public Long getUserIdFromToken(String token) {
+        return verify(token).map(JwtPrincipal::userId).orElse(null);
+    }
+
+    /**
+     * Hit ratio of the verified-token cache since startup.
+     */
+    public double cacheHitRatio() {
+        return verifiedTokens.stats().hitRate();
+    }
+
+    void setClock(Clock clock, Ticker ticker) {
+        this.clock = clock;
+        this.ticker = ticker;
+    }
+
+    private JwtPrincipal decode(String token) {
+        DecodedJWT decodedJWT;
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            JWTVerifier verifier = JWT.require(algorithm).build();
-            DecodedJWT decodedJWT = verifier.verify(token);
-            return decodedJWT.getClaim("role").asString();
+            decodedJWT = verifier.verify(token);
         } catch (JWTVerificationException e) {
             return null;
         }
+
+        String username = decodedJWT.getSubject();
+        String role = decodedJWT.getClaim("role").asString();
+        Instant expiresAt = decodedJWT.getExpiresAtAsInstant();
+        if (username == null || role == null || expiresAt == null) {
+            // Tokens without exp would otherwise stay valid (and cached) indefinitely
+            return null;
+        }
+        return new JwtPrincipal(username, role, decodedJWT.getClaim("userId").asLong(), expiresAt);
     }
 
-    public Long getUserIdFromToken(String token) {
+    private long untilExpiry(JwtPrincipal principal) {
+        return Math.max(0, Duration.between(clock.instant(), principal.expiresAt()).toNanos());
+    }
+
+    private static String hash(String token) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            JWTVerifier verifier = JWT.require(algorithm).build();
-            DecodedJWT decodedJWT = verifier.verify(token);
-            return decodedJWT.getClaim("userId").asLong();
-        } catch (JWTVerificationException e) {
-            return null;
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 }
@@ -0,0 +1,44 @@
+package com.ogame.automation.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs reads that must see the latest committed data on the primary database, even when called
+ * from a read-only transaction (or outside one, where repository methods start a read-only one),
+ * which {@link ReadReplicaRoutingDataSource} would send to a lagging replica. Meant for loaders
+ * of in-process caches: a row read from a replica just before a write reaches it would otherwise
+ * stay cached after the write's eviction.
+ *
+ * Inside a read-write transaction the read simply joins it; otherwise it runs in a read-write
+ * transaction of its own, which costs a second connection while a read-only one is open.
+ */
+@Component
+public class PrimaryReads {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate newTransaction;
+
+    @PostConstruct
+    void init() {
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public <T> T read(Supplier<T> read) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return read.get();
+        }
+        return newTransaction.execute(status -> read.get());
+    }
+}
@@ -0,0 +1,118 @@
+package com.ogame.automation.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas, enabled by {@code app.datasource.replicas.urls}. The application's
+ * {@link DataSource} becomes a {@link LazyConnectionDataSourceProxy} over a
+ * {@link ReadReplicaRoutingDataSource}: {@code @Transactional(readOnly = true)} work, including
+ * the read-only transactions of repository methods called outside a service transaction, reads
+ * from a replica lagging at most {@code app.datasource.replicas.max-lag}; everything else, and
+ * read-only work while no replica qualifies, uses the primary configured by {@code spring.datasource.*}.
+ *
+ * Replica pools copy the primary's {@code spring.datasource.hikari.*} settings and are read-only.
+ *
+ * Read-only transactions, and repository calls outside a transaction (Spring Data runs those in a
+ * read-only one), may therefore see data up to {@code max-lag} plus {@code check-interval} old.
+ * That covers listings, views, statistics and the shared {@code last_seen_at} check of the
+ * presence tracker, none of which keeps what it read. What is kept is read from the primary:
+ * the reference data cache and bot API key loaders go through {@link PrimaryReads}, and read-only
+ * transactions do not put entities or query results into the second-level cache
+ * ({@link ReplicaAwareJpaDialect}).
+ */
+@Configuration
+// Read through the environment rather than a placeholder, which would break on quotes in a URL
+@ConditionalOnExpression("!environment.getProperty('app.datasource.replicas.urls', '').isBlank()")
+public class ReadReplicaConfig {
+
+    @Value("${app.datasource.replicas.urls}")
+    private List<String> urls;
+
+    @Value("${app.datasource.replicas.username:${spring.datasource.username:}}")
+    private String username;
+
+    @Value("${app.datasource.replicas.password:${spring.datasource.password:}}")
+    private String password;
+
+    @Value("${app.datasource.replicas.max-lag:PT5S}")
+    private Duration maxLag;
+
+    @Value("${app.datasource.replicas.connection-timeout:PT2S}")
+    private Duration connectionTimeout;
+
+    @Autowired
+    private ObjectProvider<ReadReplicaRoutingDataSource> routingDataSource;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadReplicaRoutingDataSource readReplicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        List<ReadReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            String name = "replica-" + (i + 1);
+            HikariDataSource replica = new HikariDataSource();
+            primaryDataSource.copyStateTo(replica);
+            replica.setPoolName(primaryDataSource.getPoolName() + "-" + name);
+            replica.setJdbcUrl(urls.get(i).trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setReadOnly(true);
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            // Start even while the replica is down; the pool connects once it is back
+            replica.setInitializationFailTimeout(-1);
+            meterRegistry.ifAvailable(registry -> replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(new ReadReplicaRoutingDataSource.Replica(name, replica));
+        }
+        return new ReadReplicaRoutingDataSource(primaryDataSource, replicas, maxLag, Clock.systemUTC(), meterRegistry.getIfAvailable());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadReplicaRoutingDataSource readReplicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readReplicaRoutingDataSource);
+    }
+
+    @Bean
+    static BeanPostProcessor replicaAwareJpaDialect() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof LocalContainerEntityManagerFactoryBean entityManagerFactory) {
+                    entityManagerFactory.setJpaDialect(new ReplicaAwareJpaDialect());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.check-interval:PT1S}")
+    public void checkReplicaLag() {
+        routingDataSource.ifAvailable(ReadReplicaRoutingDataSource::checkLag);
+    }
+}
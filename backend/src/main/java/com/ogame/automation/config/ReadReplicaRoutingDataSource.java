@@ -0,0 +1,233 @@
+package com.ogame.automation.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections of read-only transactions to a read replica and everything else to the
+ * primary. Must sit behind a {@code LazyConnectionDataSourceProxy}, so the connection is fetched
+ * once the transaction's read-only flag is set rather than when it begins.
+ *
+ * A replica is used only while its lag is known to be within {@code maxLag}. {@link #checkLag()}
+ * measures it with a heartbeat: it writes this instance's row of {@code replica_heartbeat} on the
+ * primary and reads it back from each replica, the age of the value read being an upper bound on
+ * the lag. Both sides use this instance's clock, so clock skew between hosts does not matter.
+ * Read-only connections go round-robin over the usable replicas; when none is usable, or a
+ * replica refuses a connection (which also takes it out until the next check), they fall back to
+ * the primary.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final Clock clock;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryReads;
+
+    static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile Duration lag;
+        private volatile boolean usable;
+        private Counter reads;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        String name() {
+            return name;
+        }
+
+        boolean isUsable() {
+            return usable;
+        }
+
+        Duration lag() {
+            return lag;
+        }
+    }
+
+    ReadReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, Duration maxLag, Clock clock, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.maxLag = maxLag;
+        this.clock = clock;
+        this.primaryReads = meterRegistry != null ? reads(meterRegistry, PRIMARY) : null;
+        if (meterRegistry != null) {
+            for (Replica replica : this.replicas) {
+                replica.reads = reads(meterRegistry, replica.name);
+                Gauge.builder("datasource.replica.lag", replica, r -> r.lag != null ? r.lag.toNanos() / 1e9 : Double.NaN)
+                        .tag("replica", replica.name)
+                        .baseUnit("seconds")
+                        .description("Age of the newest heartbeat visible on the replica; NaN when unknown")
+                        .register(meterRegistry);
+                Gauge.builder("datasource.replica.usable", replica, r -> r.usable ? 1 : 0)
+                        .tag("replica", replica.name)
+                        .description("1 while read-only transactions may use the replica")
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    private static Counter reads(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("datasource.reads")
+                .tag("target", target)
+                .description("Connections of read-only transactions, by where they went")
+                .register(meterRegistry);
+    }
+
+    List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Opens a connection on the chosen target, with the pool's credentials or given ones.
+     */
+    @FunctionalInterface
+    private interface Connector {
+        Connection connect(DataSource target) throws SQLException;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    /**
+     * Routes like {@link #getConnection()} and passes the credentials on to the target, as
+     * Spring's {@code AbstractRoutingDataSource} does; Hikari pools refuse them.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(target -> target.getConnection(username, password));
+    }
+
+    private Connection route(Connector connector) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return connector.connect(primary);
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.usable) {
+                continue;
+            }
+            try {
+                Connection connection = connector.connect(replica.dataSource);
+                increment(replica.reads);
+                return connection;
+            } catch (SQLFeatureNotSupportedException e) {
+                // Not a fault of the replica: the primary's pool would refuse the same call
+                throw e;
+            } catch (SQLException | RuntimeException e) {
+                // Hikari reports a pool that cannot start as a RuntimeException
+                replica.usable = false;
+                logger.warn("Read replica {} refused a connection, using it again once a lag check succeeds: {}", replica.name, e.getMessage());
+            }
+        }
+        increment(primaryReads);
+        return connector.connect(primary);
+    }
+
+    /**
+     * Writes a heartbeat on the primary, then re-evaluates every replica from the heartbeat it
+     * shows. A replica that cannot be reached, or does not show this instance's heartbeat yet, is
+     * not used until it does.
+     */
+    public void checkLag() {
+        long now = clock.millis();
+        try (Connection connection = primary.getConnection()) {
+            connection.setAutoCommit(true);
+            try (PreparedStatement update = connection.prepareStatement(
+                    "UPDATE replica_heartbeat SET beat_millis = ? WHERE instance_id = ?")) {
+                update.setLong(1, now);
+                update.setString(2, instanceId);
+                if (update.executeUpdate() == 0) {
+                    try (PreparedStatement insert = connection.prepareStatement(
+                            "INSERT INTO replica_heartbeat (instance_id, beat_millis) VALUES (?, ?)")) {
+                        insert.setString(1, instanceId);
+                        insert.setLong(2, now);
+                        insert.executeUpdate();
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.warn("Could not write the replication heartbeat, reading from the primary: {}", e.getMessage());
+            replicas.forEach(replica -> replica.usable = false);
+            return;
+        }
+
+        for (Replica replica : replicas) {
+            Duration lag = null;
+            try (Connection connection = replica.dataSource.getConnection();
+                 PreparedStatement select = connection.prepareStatement("SELECT beat_millis FROM replica_heartbeat WHERE instance_id = ?")) {
+                select.setString(1, instanceId);
+                try (ResultSet resultSet = select.executeQuery()) {
+                    if (resultSet.next()) {
+                        lag = Duration.ofMillis(Math.max(0, clock.millis() - resultSet.getLong(1)));
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                logger.debug("Lag check of read replica {} failed: {}", replica.name, e.getMessage());
+            }
+            replica.lag = lag;
+            boolean usable = lag != null && lag.compareTo(maxLag) <= 0;
+            if (usable != replica.usable) {
+                logger.info("Read replica {} {} (lag {})", replica.name, usable ? "in use" : "out of use", replica.lag);
+            }
+            replica.usable = usable;
+        }
+    }
+
+    /**
+     * Removes this instance's heartbeat row and closes the replica pools.
+     */
+    @Override
+    public void close() throws Exception {
+        try (Connection connection = primary.getConnection();
+             PreparedStatement delete = connection.prepareStatement("DELETE FROM replica_heartbeat WHERE instance_id = ?")) {
+            connection.setAutoCommit(true);
+            delete.setString(1, instanceId);
+            delete.executeUpdate();
+        } catch (SQLException e) {
+            logger.debug("Could not remove the replication heartbeat: {}", e.getMessage());
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable pool) {
+                pool.close();
+            }
+        }
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+}
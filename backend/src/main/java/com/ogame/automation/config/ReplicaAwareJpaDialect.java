@@ -0,0 +1,46 @@
+package com.ogame.automation.config;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+
+/**
+ * Keeps read-only transactions, which may read from a lagging replica, from putting what they
+ * read into the second-level cache: they still read the cache, but only read-write transactions
+ * (on the primary) fill it. Otherwise a row read from a replica while its entry was absent could
+ * be served from the cache long after the replica caught up.
+ */
+class ReplicaAwareJpaDialect extends HibernateJpaDialect {
+
+    private record ReadOnlyTransactionData(Object transactionData, EntityManager entityManager,
+                                           CacheStoreMode previousStoreMode) {
+    }
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition) throws SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly()) {
+            return transactionData;
+        }
+        // A property rather than Session.setCacheMode: find() re-derives the cache mode from it
+        CacheStoreMode previous = entityManager.unwrap(Session.class).getCacheStoreMode();
+        entityManager.setProperty(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        return new ReadOnlyTransactionData(transactionData, entityManager, previous);
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof ReadOnlyTransactionData readOnly) {
+            readOnly.entityManager().setProperty(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE,
+                    readOnly.previousStoreMode());
+            super.cleanupTransaction(readOnly.transactionData());
+        } else {
+            super.cleanupTransaction(transactionData);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.ogame.automation.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Regions of the Hibernate second-level cache, created up front in a Caffeine-backed JCache
+ * manager that is handed to Hibernate. With {@code missing_cache_strategy=fail} a mapping that
+ * names any other region fails at startup instead of getting an unbounded cache.
+ *
+ * Which entities and collections are cached, and with which concurrency strategy, is set by the
+ * {@code hibernate.classcache.*}/{@code hibernate.collectioncache.*} properties.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String UNIVERSE_REGION = "universe";
+    public static final String UNIVERSE_BOTS_REGION = "universe-bots";
+    public static final String BOT_REGION = "bot";
+    public static final String USER_ACCOUNT_REGION = "user-account";
+
+    static final List<String> ENTITY_REGIONS = List.of(UNIVERSE_REGION, UNIVERSE_BOTS_REGION, BOT_REGION, USER_ACCOUNT_REGION);
+
+    @Value("${app.cache.l2.max-size:10000}")
+    private long maxSize;
+
+    @Value("${app.cache.l2.ttl:PT10M}")
+    private Duration ttl;
+
+    @Value("${app.cache.l2.query-ttl:PT5M}")
+    private Duration queryTtl;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager() {
+        // A manager per application context, so contexts (e.g. in tests) never share regions
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("classpath:second-level-cache-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        for (String region : ENTITY_REGIONS) {
+            cacheManager.createCache(region, regionConfiguration(ttl));
+        }
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, regionConfiguration(queryTtl));
+        // Update timestamps must outlive every cached query result, so they never expire
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, regionConfiguration(null));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManagerCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    private CaffeineConfiguration<Object, Object> regionConfiguration(Duration expireAfterWrite) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        if (expireAfterWrite != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        }
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -1,11 +1,17 @@
 package com.ogame.automation.config;
 
+import com.ogame.automation.auth.BotApiKeyAuthenticationFilter;
+import com.ogame.automation.auth.BotPrincipal;
 import com.ogame.automation.auth.JwtAuthenticationFilter;
 import com.ogame.automation.auth.JwtAuthenticationEntryPoint;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -30,43 +36,63 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private BotApiKeyAuthenticationFilter botApiKeyAuthenticationFilter;
+
     @Autowired
     private JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
 
     @Value("${app.cors.allowed-origins}")
     private String allowedOrigins;
 
+    @Value("${app.metrics.prometheus-public:false}")
+    private boolean prometheusPublic;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http.csrf(csrf -> csrf.disable())
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Completion of streamed responses (SSE); the original request was authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // Public endpoints
                 .requestMatchers("/api/auth/login").permitAll()
                 .requestMatchers("/swagger-ui.html", "/swagger-ui/**", "/v3/api-docs/**").permitAll()
                 .requestMatchers("/actuator/health").permitAll()
+
+                // Prometheus scrape: open only when the scraper reaches it over a private network
+                .requestMatchers("/actuator/prometheus").access(prometheusPublic
+                        ? (authentication, context) -> new AuthorizationDecision(true)
+                        : AuthorityAuthorizationManager.hasRole("ADMIN"))
                 .requestMatchers("/error").permitAll()
                 
                 // Admin only endpoints
                 .requestMatchers("/api/users/**").hasRole("ADMIN")
-                
-                // Universe endpoints - authenticated users can view, but specific operations are restricted via @PreAuthorize
-                .requestMatchers("/api/universes/**").authenticated()
-                
-                // Bot endpoints - authenticated users can view, but specific operations are restricted via @PreAuthorize
-                .requestMatchers("/api/bots/**").authenticated()
-                
-                // Authenticated endpoints
-                .requestMatchers("/api/**").authenticated()
-                
+
+                // Endpoints bots call with an API key; the controllers scope a bot to itself and its universe
+                .requestMatchers(HttpMethod.PUT, "/api/bots/*/heartbeat", "/api/bots/uuid/*/heartbeat",
+                        "/api/tasks/*/assign", "/api/tasks/*/complete")
+                    .hasAnyRole(BotPrincipal.ROLE, "USER", "ADMIN")
+                .requestMatchers(HttpMethod.GET, "/api/tasks/universe/*/available")
+                    .hasAnyRole(BotPrincipal.ROLE, "USER", "ADMIN")
+
+                // Bot push channel (WebSocket handshake with X-Bot-Key)
+                .requestMatchers("/ws/bots").hasRole(BotPrincipal.ROLE)
+
+                // Everything else is for users: bots may not list, create or read other universes' data.
+                // Specific operations are further restricted via @PreAuthorize
+                .requestMatchers("/api/**").hasAnyRole("USER", "ADMIN")
+
                 // All other requests require authentication
                 .anyRequest().authenticated()
             )
             .exceptionHandling(exceptions -> exceptions
                 .authenticationEntryPoint(jwtAuthenticationEntryPoint)
             )
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(botApiKeyAuthenticationFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -1,5 +1,6 @@
 package com.ogame.automation.config;
 
+import com.ogame.automation.auth.BotApiKeyAuthenticationFilter;
 import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
@@ -22,11 +23,17 @@ public class SwaggerConfig {
                 .addServersItem(new Server().url("http://localhost:8080").description("Development"))
                 .addServersItem(new Server().url("https://ogame-commander-backend.fly.dev").description("Production"))
                 .addSecurityItem(new SecurityRequirement().addList("bearerAuth"))
+                .addSecurityItem(new SecurityRequirement().addList("botApiKey"))
                 .components(new Components()
                         .addSecuritySchemes("bearerAuth",
                                 new SecurityScheme()
                                         .type(SecurityScheme.Type.HTTP)
                                         .scheme("bearer")
-                                        .bearerFormat("JWT")));
+                                        .bearerFormat("JWT"))
+                        .addSecuritySchemes("botApiKey",
+                                new SecurityScheme()
+                                        .type(SecurityScheme.Type.APIKEY)
+                                        .in(SecurityScheme.In.HEADER)
+                                        .name(BotApiKeyAuthenticationFilter.HEADER)));
     }
 }
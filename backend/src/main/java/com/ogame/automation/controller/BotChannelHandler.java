@@ -0,0 +1,72 @@
+package com.ogame.automation.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ogame.automation.auth.BotPrincipal;
+import com.ogame.automation.dto.BotChannelMessage;
+import com.ogame.automation.service.BotChannelRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+/**
+ * WebSocket endpoint of the bot channel ({@code /ws/bots}). The handshake is authenticated by the
+ * bot's API key like any bot request; frames are {@link BotChannelMessage} JSON documents.
+ */
+@Component
+public class BotChannelHandler extends TextWebSocketHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(BotChannelHandler.class);
+
+    private static final String CHANNEL = "botChannel";
+
+    @Autowired
+    private BotChannelRegistry botChannelRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        if (!(session.getPrincipal() instanceof Authentication authentication)
+                || !(authentication.getPrincipal() instanceof BotPrincipal bot)) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("Bot API key required"));
+            return;
+        }
+        session.getAttributes().put(CHANNEL, botChannelRegistry.register(bot, session));
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+        BotChannelRegistry.Channel channel = (BotChannelRegistry.Channel) session.getAttributes().get(CHANNEL);
+        if (channel == null) {
+            return;
+        }
+        BotChannelMessage parsed;
+        try {
+            parsed = objectMapper.readValue(message.getPayload(), BotChannelMessage.class);
+        } catch (JsonProcessingException e) {
+            parsed = new BotChannelMessage(null, null, null, null, null, null, null, null);
+        }
+        botChannelRegistry.handle(channel, parsed);
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        logger.debug("Bot channel transport error", exception);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        BotChannelRegistry.Channel channel = (BotChannelRegistry.Channel) session.getAttributes().get(CHANNEL);
+        if (channel != null) {
+            botChannelRegistry.unregister(channel);
+        }
+    }
+}
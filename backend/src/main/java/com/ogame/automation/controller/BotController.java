@@ -1,8 +1,9 @@
 package com.ogame.automation.controller;
 
-import com.ogame.automation.entity.Bot;
-import com.ogame.automation.repository.BotRepository;
-import com.ogame.automation.repository.UniverseRepository;
+import com.ogame.automation.auth.BotPrincipal;
+import com.ogame.automation.dto.BotPresence;
+import com.ogame.automation.dto.BotView;
+import com.ogame.automation.service.BotService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -23,66 +24,52 @@ import java.util.Optional;
 public class BotController {
 
     @Autowired
-    private BotRepository botRepository;
-
-    @Autowired
-    private UniverseRepository universeRepository;
+    private BotService botService;
 
     @GetMapping
     @Operation(summary = "Get all bots", description = "Retrieve a list of all bots with their status. All users can view.")
-    public ResponseEntity<List<Bot>> getAllBots() {
-        List<Bot> bots = botRepository.findAll();
+    public ResponseEntity<List<BotView>> getAllBots() {
+        List<BotView> bots = botService.getAllBots();
         return ResponseEntity.ok(bots);
     }
 
+    @GetMapping("/presence")
+    @Operation(summary = "Get bot presence", description = "Whether each bot that has sent a heartbeat is online, i.e. has sent one within the presence timeout")
+    public ResponseEntity<List<BotPresence>> getBotPresences() {
+        return ResponseEntity.ok(botService.getPresences());
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get bot by ID", description = "Retrieve a specific bot by its ID")
-    public ResponseEntity<Bot> getBotById(@PathVariable Long id) {
-        Optional<Bot> bot = botRepository.findById(id);
+    public ResponseEntity<BotView> getBotById(@PathVariable Long id) {
+        Optional<BotView> bot = botService.getBotById(id);
         return bot.map(ResponseEntity::ok)
                   .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/uuid/{uuid}")
     @Operation(summary = "Get bot by UUID", description = "Retrieve a specific bot by its UUID")
-    public ResponseEntity<Bot> getBotByUuid(@PathVariable String uuid) {
-        Optional<Bot> bot = botRepository.findByUuid(uuid);
+    public ResponseEntity<BotView> getBotByUuid(@PathVariable String uuid) {
+        Optional<BotView> bot = botService.getBotByUuid(uuid);
         return bot.map(ResponseEntity::ok)
                   .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/universe/{universeId}")
     @Operation(summary = "Get bots by universe", description = "Retrieve all bots for a specific universe")
-    public ResponseEntity<List<Bot>> getBotsByUniverse(@PathVariable Long universeId) {
-        if (!universeRepository.existsById(universeId)) {
-            return ResponseEntity.notFound().build();
-        }
-        List<Bot> bots = botRepository.findByUniverseId(universeId);
-        return ResponseEntity.ok(bots);
+    public ResponseEntity<List<BotView>> getBotsByUniverse(@PathVariable Long universeId) {
+        Optional<List<BotView>> bots = botService.getBotsByUniverse(universeId);
+        return bots.map(ResponseEntity::ok)
+                   .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Create new bot", description = "Register a new bot (Admin only)")
-    public ResponseEntity<Bot> createBot(@Valid @RequestBody CreateBotRequest request) {
+    public ResponseEntity<BotView> createBot(@Valid @RequestBody CreateBotRequest request) {
         try {
-            // Check if universe exists
-            if (!universeRepository.existsById(request.getUniverseId())) {
-                return ResponseEntity.badRequest().build();
-            }
-
-            // Check if UUID already exists
-            if (botRepository.existsByUuid(request.getUuid())) {
-                return ResponseEntity.badRequest().build();
-            }
-
-            Bot bot = new Bot();
-            bot.setUuid(request.getUuid());
-            bot.setName(request.getName());
-            bot.setUniverse(universeRepository.findById(request.getUniverseId()).get());
-
-            Bot savedBot = botRepository.save(bot);
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedBot);
+            BotView bot = botService.createBot(request.getUuid(), request.getName(), request.getUniverseId());
+            return ResponseEntity.status(HttpStatus.CREATED).body(bot);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -91,55 +78,64 @@ public class BotController {
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Update bot", description = "Update an existing bot (Admin only)")
-    public ResponseEntity<Bot> updateBot(@PathVariable Long id, @Valid @RequestBody UpdateBotRequest request) {
-        Optional<Bot> optionalBot = botRepository.findById(id);
-        
-        if (optionalBot.isPresent()) {
-            Bot bot = optionalBot.get();
-            
-            if (request.getName() != null) {
-                bot.setName(request.getName());
-            }
-            
-            if (request.getUniverseId() != null) {
-                if (!universeRepository.existsById(request.getUniverseId())) {
-                    return ResponseEntity.badRequest().build();
-                }
-                bot.setUniverse(universeRepository.findById(request.getUniverseId()).get());
-            }
-            
-            Bot updatedBot = botRepository.save(bot);
-            return ResponseEntity.ok(updatedBot);
-        } else {
-            return ResponseEntity.notFound().build();
+    public ResponseEntity<BotView> updateBot(@PathVariable Long id, @Valid @RequestBody UpdateBotRequest request) {
+        try {
+            Optional<BotView> bot = botService.updateBot(id, request.getName(), request.getUniverseId());
+            return bot.map(ResponseEntity::ok)
+                      .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
     }
 
+    @PutMapping("/me/heartbeat")
+    @Operation(summary = "Update own heartbeat", description = "Update the last seen timestamp of the bot authenticated by API key")
+    public ResponseEntity<BotView> updateOwnHeartbeat() {
+        return BotPrincipal.current()
+                .map(caller -> botService.recordHeartbeat(caller.botId())
+                        .map(ResponseEntity::ok)
+                        .orElse(ResponseEntity.notFound().build()))
+                .orElse(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+    }
+
     @PutMapping("/{id}/heartbeat")
     @Operation(summary = "Update bot heartbeat", description = "Update the last seen timestamp for a bot")
-    public ResponseEntity<Bot> updateBotHeartbeat(@PathVariable Long id) {
-        Optional<Bot> optionalBot = botRepository.findById(id);
-        
-        if (optionalBot.isPresent()) {
-            Bot bot = optionalBot.get();
-            bot.updateLastSeen();
-            Bot updatedBot = botRepository.save(bot);
-            return ResponseEntity.ok(updatedBot);
-        } else {
-            return ResponseEntity.notFound().build();
+    public ResponseEntity<BotView> updateBotHeartbeat(@PathVariable Long id) {
+        if (BotPrincipal.current().filter(caller -> !caller.isBot(id)).isPresent()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
+        Optional<BotView> bot = botService.recordHeartbeat(id);
+        return bot.map(ResponseEntity::ok)
+                  .orElse(ResponseEntity.notFound().build());
     }
 
     @PutMapping("/uuid/{uuid}/heartbeat")
     @Operation(summary = "Update bot heartbeat by UUID", description = "Update the last seen timestamp for a bot using its UUID")
-    public ResponseEntity<Bot> updateBotHeartbeatByUuid(@PathVariable String uuid) {
-        Optional<Bot> optionalBot = botRepository.findByUuid(uuid);
-        
-        if (optionalBot.isPresent()) {
-            Bot bot = optionalBot.get();
-            bot.updateLastSeen();
-            Bot updatedBot = botRepository.save(bot);
-            return ResponseEntity.ok(updatedBot);
+    public ResponseEntity<BotView> updateBotHeartbeatByUuid(@PathVariable String uuid) {
+        if (BotPrincipal.current().filter(caller -> !caller.isBot(uuid)).isPresent()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        Optional<BotView> bot = botService.recordHeartbeatByUuid(uuid);
+        return bot.map(ResponseEntity::ok)
+                  .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{id}/api-key")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Issue bot API key",
+               description = "Issue a new API key for the bot, replacing any previous one; the key is only shown in this response (Admin only)")
+    public ResponseEntity<ApiKeyResponse> issueApiKey(@PathVariable Long id) {
+        return botService.issueApiKey(id)
+                .map(apiKey -> ResponseEntity.status(HttpStatus.CREATED).body(new ApiKeyResponse(id, apiKey)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}/api-key")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Revoke bot API key", description = "Revoke the bot's API key (Admin only)")
+    public ResponseEntity<Void> revokeApiKey(@PathVariable Long id) {
+        if (botService.revokeApiKey(id)) {
+            return ResponseEntity.noContent().build();
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -149,8 +145,7 @@ public class BotController {
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Delete bot", description = "Delete a bot and all associated tasks (Admin only)")
     public ResponseEntity<Void> deleteBot(@PathVariable Long id) {
-        if (botRepository.existsById(id)) {
-            botRepository.deleteById(id);
+        if (botService.deleteBot(id)) {
             return ResponseEntity.noContent().build();
         } else {
             return ResponseEntity.notFound().build();
@@ -202,4 +197,18 @@ public class BotController {
         public Long getUniverseId() { return universeId; }
         public void setUniverseId(Long universeId) { this.universeId = universeId; }
     }
+
+    public static class ApiKeyResponse {
+        private final Long botId;
+        private final String apiKey;
+
+        public ApiKeyResponse(Long botId, String apiKey) {
+            this.botId = botId;
+            this.apiKey = apiKey;
+        }
+
+        public Long getBotId() { return botId; }
+
+        public String getApiKey() { return apiKey; }
+    }
 }
@@ -0,0 +1,35 @@
+package com.ogame.automation.controller;
+
+import com.ogame.automation.service.ColumnarExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/exports")
+@Tag(name = "Exports", description = "Columnar history exports for analytics")
+@SecurityRequirement(name = "bearerAuth")
+public class ExportController {
+
+    @Autowired
+    private ColumnarExportService columnarExportService;
+
+    @PostMapping("/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Run columnar export", description = "Append task and task result history since the last watermark to the Arrow export directory (Admin only)")
+    public ResponseEntity<List<ColumnarExportService.ExportResult>> runExport() {
+        List<ColumnarExportService.ExportResult> results = columnarExportService.runExport();
+        if (results.isEmpty()) {
+            // Another export is in progress, on this instance or another
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.ok(results);
+    }
+}
@@ -0,0 +1,55 @@
+package com.ogame.automation.controller;
+
+import com.ogame.automation.dto.LatencyPercentiles;
+import com.ogame.automation.dto.TaskStats;
+import com.ogame.automation.entity.Task;
+import com.ogame.automation.service.TaskLifecycleLatency;
+import com.ogame.automation.service.TaskStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/stats")
+@Tag(name = "Statistics", description = "Dashboard statistics served from hourly and daily rollups")
+@SecurityRequirement(name = "bearerAuth")
+public class StatsController {
+
+    private static final int MAX_DAYS = 366;
+    private static final int MAX_HOURS = 48;
+
+    @Autowired
+    private TaskStatsService taskStatsService;
+
+    @Autowired
+    private TaskLifecycleLatency taskLifecycleLatency;
+
+    @GetMapping
+    @Operation(summary = "Get dashboard statistics",
+            description = "Per-universe, per-bot and per-type task counts by status, success rate and execution-time percentiles over the last days (or hours, at most 48)")
+    public ResponseEntity<TaskStats> getStats(
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(required = false) Integer hours) {
+        if (days < 1 || days > MAX_DAYS || (hours != null && (hours < 1 || hours > MAX_HOURS))) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(taskStatsService.getStats(days, hours));
+    }
+
+    @GetMapping("/latency")
+    @Operation(summary = "Get task lifecycle latency percentiles",
+            description = "Due-to-claim, claim-to-finish and recurring schedule drift percentiles per universe and type over the sliding window of this instance")
+    public ResponseEntity<List<LatencyPercentiles>> getLatency(
+            @RequestParam(required = false) Long universeId,
+            @RequestParam(required = false) Task.TaskType type) {
+        return ResponseEntity.ok(taskLifecycleLatency.percentiles(universeId, type));
+    }
+}
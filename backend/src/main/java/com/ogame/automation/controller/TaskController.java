@@ -1,21 +1,31 @@
 package com.ogame.automation.controller;
 
+import com.ogame.automation.auth.BotPrincipal;
+import com.ogame.automation.dto.CursorPage;
+import com.ogame.automation.dto.TaskFilter;
+import com.ogame.automation.dto.TaskView;
 import com.ogame.automation.entity.Task;
+import com.ogame.automation.service.BulkTaskImportService;
+import com.ogame.automation.service.PlayerNameIndex;
+import com.ogame.automation.service.TaskEventStream;
 import com.ogame.automation.service.TaskService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @RestController
@@ -24,59 +34,124 @@ import java.util.Optional;
 @SecurityRequirement(name = "bearerAuth")
 public class TaskController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_SEARCH_RESULTS = 10000;
+
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private BulkTaskImportService bulkTaskImportService;
+
+    @Autowired
+    private TaskEventStream taskEventStream;
+
     @GetMapping
-    @Operation(summary = "Get all tasks", description = "Retrieve all tasks with optional pagination")
-    public ResponseEntity<List<Task>> getAllTasks(
+    @Operation(summary = "Get all tasks", description = "Retrieve tasks newest first with optional filters using cursor pagination; pass nextCursor back as cursor for the next page")
+    public ResponseEntity<CursorPage<TaskView>> getAllTasks(
+            @RequestParam(required = false) Task.TaskStatus status,
+            @RequestParam(required = false) Long universeId,
+            @RequestParam(required = false) Long botId,
+            @RequestParam(required = false) Task.TaskType type,
+            @RequestParam(required = false) String playerName,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Task> taskPage = taskService.getAllTasks(pageable);
-        return ResponseEntity.ok(taskPage.getContent());
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        TaskFilter filter = new TaskFilter(status, universeId, botId, type, playerName, startDate, endDate);
+        return listTasks(filter, cursor, size, page, withTotal, Sort.Direction.DESC);
+    }
+
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream task changes", description = "Server-Sent Events of task state changes (created, assigned, finished, error, rescheduled, released, deleted, imported), optionally for one universe; reconnect with Last-Event-ID to receive missed events, or a reset event when too many were missed")
+    public SseEmitter streamTaskEvents(
+            @RequestParam(required = false) Long universeId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return taskEventStream.subscribe(universeId, lastEventId);
+    }
+
+    @GetMapping("/player-search")
+    @Operation(summary = "Search player names", description = "Find task ids by player name substring or prefix (case-insensitive), served from an in-memory index")
+    public ResponseEntity<PlayerNameIndex.SearchResult> searchPlayerNames(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "SUBSTRING") PlayerNameIndex.Match match,
+            @RequestParam(defaultValue = "100") int limit) {
+        if (q.isBlank() || limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(taskService.searchPlayerNames(q, match, limit));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get task by ID", description = "Retrieve a specific task by its ID")
-    public ResponseEntity<Task> getTaskById(@PathVariable Long id) {
-        Optional<Task> task = taskService.getTaskById(id);
+    public ResponseEntity<TaskView> getTaskById(@PathVariable Long id) {
+        Optional<TaskView> task = taskService.getTaskView(id);
         return task.map(ResponseEntity::ok)
                   .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/status/{status}")
-    @Operation(summary = "Get tasks by status", description = "Retrieve tasks filtered by status")
-    public ResponseEntity<List<Task>> getTasksByStatus(@PathVariable String status) {
+    @Operation(summary = "Get tasks by status", description = "Retrieve tasks filtered by status using cursor pagination")
+    public ResponseEntity<CursorPage<TaskView>> getTasksByStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        Task.TaskStatus taskStatus;
         try {
-            Task.TaskStatus taskStatus = Task.TaskStatus.valueOf(status.toUpperCase());
-            List<Task> tasks = taskService.getTasksByStatus(taskStatus);
-            return ResponseEntity.ok(tasks);
+            taskStatus = Task.TaskStatus.valueOf(status.toUpperCase());
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         }
+        return listTasks(TaskFilter.byStatus(taskStatus), cursor, size, page, withTotal, Sort.Direction.DESC);
     }
 
     @GetMapping("/universe/{universeId}")
-    @Operation(summary = "Get tasks by universe", description = "Retrieve all tasks for a specific universe")
-    public ResponseEntity<List<Task>> getTasksByUniverse(@PathVariable Long universeId) {
-        List<Task> tasks = taskService.getTasksByUniverse(universeId);
-        return ResponseEntity.ok(tasks);
+    @Operation(summary = "Get tasks by universe", description = "Retrieve tasks for a specific universe using cursor pagination")
+    public ResponseEntity<CursorPage<TaskView>> getTasksByUniverse(
+            @PathVariable Long universeId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        return listTasks(TaskFilter.byUniverse(universeId), cursor, size, page, withTotal, Sort.Direction.DESC);
     }
 
     @GetMapping("/universe/{universeId}/available")
-    @Operation(summary = "Get available tasks", description = "Retrieve available tasks for bots to pick up")
-    public ResponseEntity<List<Task>> getAvailableTasks(@PathVariable Long universeId) {
-        List<Task> tasks = taskService.getAvailableTasks(universeId);
-        return ResponseEntity.ok(tasks);
+    @Operation(summary = "Get available tasks", description = "Retrieve available tasks for bots to pick up, oldest first, using cursor pagination")
+    public ResponseEntity<CursorPage<TaskView>> getAvailableTasks(
+            @PathVariable Long universeId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        if (BotPrincipal.current().filter(bot -> !bot.canAccessUniverse(universeId)).isPresent()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return listTasks(TaskFilter.byUniverseAndStatus(universeId, Task.TaskStatus.CREATED), cursor, size, page, withTotal, Sort.Direction.ASC);
+    }
+
+    private ResponseEntity<CursorPage<TaskView>> listTasks(TaskFilter filter, String cursor, int size, int page,
+                                                       boolean withTotal, Sort.Direction direction) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(taskService.getTasks(filter, cursor, size, page, withTotal, direction));
+        } catch (IllegalArgumentException e) {
+            // Malformed cursor
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @PostMapping
     @Operation(summary = "Create new task", description = "Create a new task")
-    public ResponseEntity<Task> createTask(@Valid @RequestBody CreateTaskRequest request) {
+    public ResponseEntity<TaskView> createTask(@Valid @RequestBody CreateTaskRequest request) {
         try {
-            Task task = taskService.createTask(
+            TaskView task = taskService.createTask(
                 request.getType(),
                 request.getUniverseId(),
                 request.getPlayerName(),
@@ -91,18 +166,50 @@ public class TaskController {
         }
     }
 
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Bulk create tasks from CSV",
+               description = "Stream task definitions as CSV (" + BulkTaskImportService.CSV_HEADER + "); invalid lines are skipped and reported (Admin only)")
+    public ResponseEntity<BulkTaskImportService.BulkImportResult> createTasksFromCsv(InputStream body) throws IOException {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(bulkTaskImportService.importTasks(body, BulkTaskImportService.Format.CSV));
+    }
+
+    @PostMapping(value = "/bulk", consumes = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Bulk create tasks from NDJSON",
+               description = "Stream task definitions as newline-delimited JSON objects; invalid lines are skipped and reported (Admin only)")
+    public ResponseEntity<BulkTaskImportService.BulkImportResult> createTasksFromNdjson(InputStream body) throws IOException {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(bulkTaskImportService.importTasks(body, BulkTaskImportService.Format.NDJSON));
+    }
+
     @PutMapping("/{id}/assign")
-    @Operation(summary = "Assign task to bot", description = "Assign a task to a bot by bot UUID")
-    public ResponseEntity<Task> assignTaskToBot(@PathVariable Long id, @RequestBody AssignTaskRequest request) {
-        Optional<Task> task = taskService.assignTaskToBot(id, request.getBotUuid());
+    @Operation(summary = "Assign task to bot", description = "Assign a task to a bot by bot UUID; a bot authenticated by API key may omit it")
+    public ResponseEntity<TaskView> assignTaskToBot(@PathVariable Long id, @RequestBody AssignTaskRequest request) {
+        String botUuid = request.getBotUuid();
+        Optional<BotPrincipal> caller = BotPrincipal.current();
+        if (caller.isPresent()) {
+            BotPrincipal bot = caller.get();
+            if (botUuid == null) {
+                botUuid = bot.uuid();
+            }
+            if (!bot.isBot(botUuid) || !taskService.canBotAccessTask(botUuid, id)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+        }
+        Optional<TaskView> task = taskService.assignTaskToBot(id, botUuid);
         return task.map(ResponseEntity::ok)
                   .orElse(ResponseEntity.badRequest().build());
     }
 
     @PutMapping("/{id}/complete")
     @Operation(summary = "Complete task", description = "Mark a task as completed and store results")
-    public ResponseEntity<Task> completeTask(@PathVariable Long id, @RequestBody CompleteTaskRequest request) {
-        Optional<Task> task = taskService.completeTask(
+    public ResponseEntity<TaskView> completeTask(@PathVariable Long id, @RequestBody CompleteTaskRequest request) {
+        if (BotPrincipal.current().filter(bot -> !taskService.canBotAccessTask(bot.uuid(), id)).isPresent()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        Optional<TaskView> task = taskService.completeTask(
             id,
             request.isSuccess(),
             request.getResult(),
@@ -1,5 +1,6 @@
 package com.ogame.automation.controller;
 
+import com.ogame.automation.dto.UniverseView;
 import com.ogame.automation.entity.Universe;
 import com.ogame.automation.service.UniverseService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -27,8 +28,8 @@ public class UniverseController {
 
     @GetMapping
     @Operation(summary = "Get all universes", description = "Retrieve a list of all universes. Admins can edit, users can only view.")
-    public ResponseEntity<List<Universe>> getAllUniverses() {
-        List<Universe> universes = universeService.getAllUniverses();
+    public ResponseEntity<List<UniverseView>> getAllUniverses() {
+        List<UniverseView> universes = universeService.getAllUniverses();
         return ResponseEntity.ok(universes);
     }
 
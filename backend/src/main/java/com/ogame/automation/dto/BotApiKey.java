@@ -0,0 +1,7 @@
+package com.ogame.automation.dto;
+
+/**
+ * A bot's API key hash with the identity it resolves to.
+ */
+public record BotApiKey(String apiKeyHash, Long botId, String uuid, Long universeId) {
+}
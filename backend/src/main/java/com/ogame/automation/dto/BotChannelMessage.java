@@ -0,0 +1,40 @@
+package com.ogame.automation.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Frame of the bot WebSocket channel, in either direction; fields not used by a type are omitted.
+ *
+ * Bot to server: {@code heartbeat}; {@code complete} with taskId, success, result, errorMessage and
+ * executionTimeMs. Server to bot: {@code assignment} and {@code completed} with the task;
+ * {@code rejected} with taskId (if any) and message.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BotChannelMessage(
+        String type,
+        Long taskId,
+        Boolean success,
+        String result,
+        String errorMessage,
+        Long executionTimeMs,
+        TaskView task,
+        String message) {
+
+    public static final String HEARTBEAT = "heartbeat";
+    public static final String COMPLETE = "complete";
+    public static final String ASSIGNMENT = "assignment";
+    public static final String COMPLETED = "completed";
+    public static final String REJECTED = "rejected";
+
+    public static BotChannelMessage assignment(TaskView task) {
+        return new BotChannelMessage(ASSIGNMENT, task.id(), null, null, null, null, task, null);
+    }
+
+    public static BotChannelMessage completed(TaskView task) {
+        return new BotChannelMessage(COMPLETED, task.id(), null, null, null, null, task, null);
+    }
+
+    public static BotChannelMessage rejected(Long taskId, String message) {
+        return new BotChannelMessage(REJECTED, taskId, null, null, null, null, null, message);
+    }
+}
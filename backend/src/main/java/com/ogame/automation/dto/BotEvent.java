@@ -0,0 +1,18 @@
+package com.ogame.automation.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A bot was registered, changed or deleted, or its API key was issued or revoked. {@code universeId}
+ * is the bot's universe after the change.
+ */
+public record BotEvent(Kind kind, Long botId, Long universeId, LocalDateTime at) implements DomainEvent {
+
+    public enum Kind {
+        CREATED, UPDATED, DELETED, CREDENTIALS_CHANGED
+    }
+
+    public static BotEvent of(Kind kind, Long botId, Long universeId) {
+        return new BotEvent(kind, botId, universeId, LocalDateTime.now());
+    }
+}
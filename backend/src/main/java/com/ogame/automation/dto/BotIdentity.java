@@ -0,0 +1,23 @@
+package com.ogame.automation.dto;
+
+import com.ogame.automation.entity.Bot;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable bot reference data (UUID → id → universe) held by the reference data cache.
+ * Volatile state such as {@code lastSeenAt} is deliberately not part of it.
+ */
+public record BotIdentity(Long id, String uuid, String name, Long universeId, LocalDateTime createdAt,
+                          LocalDateTime updatedAt) {
+
+    public static BotIdentity from(Bot bot) {
+        // universe.getId() is served from the proxy without initializing it
+        return new BotIdentity(bot.getId(), bot.getUuid(), bot.getName(), bot.getUniverse().getId(), bot.getCreatedAt(),
+                bot.getUpdatedAt());
+    }
+
+    public BotRef toRef() {
+        return new BotRef(id, uuid, name, null);
+    }
+}
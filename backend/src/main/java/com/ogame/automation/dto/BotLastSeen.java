@@ -0,0 +1,9 @@
+package com.ogame.automation.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A bot's persisted last heartbeat.
+ */
+public record BotLastSeen(Long botId, LocalDateTime lastSeenAt) {
+}
@@ -0,0 +1,10 @@
+package com.ogame.automation.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Whether a bot is online, as tracked by the presence tracker from its heartbeats. Also published
+ * as an application event whenever a bot goes online or offline.
+ */
+public record BotPresence(Long botId, boolean online, LocalDateTime lastSeenAt) {
+}
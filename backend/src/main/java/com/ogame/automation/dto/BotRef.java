@@ -0,0 +1,9 @@
+package com.ogame.automation.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bot reference embedded in task views.
+ */
+public record BotRef(Long id, String uuid, String name, LocalDateTime lastSeenAt) {
+}
@@ -0,0 +1,7 @@
+package com.ogame.automation.dto;
+
+/**
+ * Number of tasks a bot holds in one status.
+ */
+public record BotTaskCount(Long botId, long taskCount) {
+}
@@ -0,0 +1,45 @@
+package com.ogame.automation.dto;
+
+import com.ogame.automation.entity.Bot;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bot with its universe, fetched in a single joined query; the bot's tasks are not included.
+ */
+public record BotView(
+        Long id,
+        String uuid,
+        String name,
+        LocalDateTime lastSeenAt,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        UniverseLink universe) {
+
+    /**
+     * Flat constructor for JPQL constructor expressions.
+     */
+    public BotView(Long id, String uuid, String name, LocalDateTime lastSeenAt, LocalDateTime createdAt,
+                   LocalDateTime updatedAt, Long universeId, String universeName, String universeUrl) {
+        this(id, uuid, name, lastSeenAt, createdAt, updatedAt, new UniverseLink(universeId, universeName, universeUrl));
+    }
+
+    /**
+     * Maps a bot loaded with its universe (see BotRepository's "Bot.withUniverse" graph).
+     */
+    public static BotView from(Bot bot) {
+        return from(bot, UniverseLink.from(bot.getUniverse()));
+    }
+
+    /**
+     * Maps a bot using an already resolved (e.g. cached) universe reference.
+     */
+    public static BotView from(Bot bot, UniverseLink universe) {
+        return new BotView(bot.getId(), bot.getUuid(), bot.getName(), bot.getLastSeenAt(), bot.getCreatedAt(),
+                bot.getUpdatedAt(), universe);
+    }
+
+    public BotView withLastSeenAt(LocalDateTime seenAt) {
+        return new BotView(id, uuid, name, seenAt, createdAt, updatedAt, universe);
+    }
+}
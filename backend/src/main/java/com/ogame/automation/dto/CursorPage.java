@@ -0,0 +1,22 @@
+package com.ogame.automation.dto;
+
+import java.util.List;
+
+/**
+ * One keyset-paginated slice of a list endpoint.
+ *
+ * Clients pass {@code nextCursor} back as the {@code cursor} parameter to fetch the following
+ * slice; {@code number} simply echoes the page index the client says it is on. Totals are only
+ * filled in when requested and may be approximate (served from table statistics or a short-lived
+ * cache), so fetching page N costs the same as page 1.
+ */
+public record CursorPage<T>(
+        List<T> content,
+        int size,
+        int number,
+        boolean first,
+        boolean last,
+        String nextCursor,
+        Long totalElements,
+        Integer totalPages) {
+}
@@ -0,0 +1,13 @@
+package com.ogame.automation.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lifecycle event published on the domain event bus once the change that caused it has committed.
+ */
+public sealed interface DomainEvent permits TaskEvent, TaskImportEvent, BotEvent, UniverseEvent {
+
+    Long universeId();
+
+    LocalDateTime at();
+}
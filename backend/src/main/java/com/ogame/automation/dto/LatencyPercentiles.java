@@ -0,0 +1,20 @@
+package com.ogame.automation.dto;
+
+import com.ogame.automation.entity.Task;
+
+/**
+ * Latency percentiles of one task lifecycle stage in one universe and task type, over the sliding
+ * window. Percentiles and {@code maxMs} are null when nothing was recorded within the window;
+ * {@code count} covers everything recorded since startup.
+ */
+public record LatencyPercentiles(
+        String stage,
+        Long universeId,
+        Task.TaskType type,
+        long count,
+        Long p50Ms,
+        Long p90Ms,
+        Long p95Ms,
+        Long p99Ms,
+        Long maxMs) {
+}
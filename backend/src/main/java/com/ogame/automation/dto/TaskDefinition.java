@@ -0,0 +1,14 @@
+package com.ogame.automation.dto;
+
+import com.ogame.automation.entity.Task;
+
+/**
+ * One task definition line of a bulk creation request (CSV row or NDJSON object).
+ */
+public record TaskDefinition(
+        Task.TaskType type,
+        Long universeId,
+        String playerName,
+        String parameters,
+        Integer recurrenceMinutes) {
+}
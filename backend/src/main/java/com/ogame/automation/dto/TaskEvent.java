@@ -0,0 +1,32 @@
+package com.ogame.automation.dto;
+
+import com.ogame.automation.entity.Task;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compact task state change, published on the domain event bus and pushed to live viewers.
+ * {@code taskId} is null for {@link Kind#IMPORTED}, which viewers receive for a
+ * {@link TaskImportEvent}; they reload instead of receiving every task.
+ */
+public record TaskEvent(
+        Kind kind,
+        Long taskId,
+        Long universeId,
+        Long botId,
+        Task.TaskStatus status,
+        LocalDateTime at) implements DomainEvent {
+
+    public enum Kind {
+        CREATED, ASSIGNED, FINISHED, ERROR, RESCHEDULED, RELEASED, DELETED, IMPORTED
+    }
+
+    /**
+     * Captures the task as it is now; call it right after the transition.
+     */
+    public static TaskEvent of(Kind kind, Task task) {
+        // getId() on the proxies does not initialize them
+        return new TaskEvent(kind, task.getId(), task.getUniverse().getId(),
+                task.getBot() == null ? null : task.getBot().getId(), task.getStatus(), LocalDateTime.now());
+    }
+}
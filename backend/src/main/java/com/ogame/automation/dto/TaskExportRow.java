@@ -0,0 +1,23 @@
+package com.ogame.automation.dto;
+
+import com.ogame.automation.entity.Task;
+
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot of a task row as written by the columnar export.
+ */
+public record TaskExportRow(
+        Long id,
+        Long universeId,
+        Long botId,
+        Task.TaskType type,
+        Task.TaskStatus status,
+        String playerName,
+        Integer recurrenceMinutes,
+        LocalDateTime nextExecutionAt,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt) {
+}
@@ -0,0 +1,55 @@
+package com.ogame.automation.dto;
+
+import com.ogame.automation.entity.Task;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Optional criteria for task listings; null fields are not filtered on.
+ * {@code playerName} matches as a case-insensitive substring, {@code startDate}/{@code endDate} bound
+ * {@code createdAt} inclusively. {@code playerNames} holds the exact names a {@code playerName} query
+ * was resolved to through the player name index; when set it replaces the substring match.
+ */
+public record TaskFilter(
+        Task.TaskStatus status,
+        Long universeId,
+        Long botId,
+        Task.TaskType type,
+        String playerName,
+        LocalDateTime startDate,
+        LocalDateTime endDate,
+        Set<String> playerNames) {
+
+    public static final TaskFilter NONE = new TaskFilter(null, null, null, null, null, null, null);
+
+    public TaskFilter(Task.TaskStatus status, Long universeId, Long botId, Task.TaskType type, String playerName,
+                      LocalDateTime startDate, LocalDateTime endDate) {
+        this(status, universeId, botId, type, playerName, startDate, endDate, null);
+    }
+
+    public static TaskFilter byStatus(Task.TaskStatus status) {
+        return new TaskFilter(status, null, null, null, null, null, null);
+    }
+
+    public static TaskFilter byUniverse(Long universeId) {
+        return new TaskFilter(null, universeId, null, null, null, null, null);
+    }
+
+    public static TaskFilter byUniverseAndStatus(Long universeId, Task.TaskStatus status) {
+        return new TaskFilter(status, universeId, null, null, null, null, null);
+    }
+
+    public TaskFilter withPlayerNames(Set<String> names) {
+        return new TaskFilter(status, universeId, botId, type, playerName, startDate, endDate, Set.copyOf(names));
+    }
+
+    public boolean hasPlayerName() {
+        return playerName != null && !playerName.isEmpty();
+    }
+
+    public boolean isEmpty() {
+        return status == null && universeId == null && botId == null && type == null
+                && !hasPlayerName() && playerNames == null && startDate == null && endDate == null;
+    }
+}
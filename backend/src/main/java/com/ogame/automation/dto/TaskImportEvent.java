@@ -0,0 +1,16 @@
+package com.ogame.automation.dto;
+
+import com.ogame.automation.entity.Task;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Tasks created in a universe by one bulk import, summarized instead of one event per task.
+ */
+public record TaskImportEvent(
+        Long universeId,
+        Map<Task.TaskType, Integer> countsByType,
+        int recurringCount,
+        LocalDateTime at) implements DomainEvent {
+}
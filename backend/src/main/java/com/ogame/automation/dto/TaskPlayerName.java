@@ -0,0 +1,7 @@
+package com.ogame.automation.dto;
+
+/**
+ * Task id and player name pair used to build the in-memory player name index.
+ */
+public record TaskPlayerName(Long id, String playerName) {
+}
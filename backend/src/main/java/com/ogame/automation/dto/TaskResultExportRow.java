@@ -0,0 +1,22 @@
+package com.ogame.automation.dto;
+
+import com.ogame.automation.entity.Task;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat view of a task result joined with the owning task, used by the columnar export.
+ */
+public record TaskResultExportRow(
+        Long id,
+        Long taskId,
+        Long universeId,
+        Long botId,
+        Task.TaskType type,
+        String playerName,
+        Boolean success,
+        Long executionTimeMs,
+        String errorMessage,
+        String fullResult,
+        LocalDateTime createdAt) {
+}
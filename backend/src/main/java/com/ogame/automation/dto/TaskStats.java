@@ -0,0 +1,39 @@
+package com.ogame.automation.dto;
+
+import com.ogame.automation.entity.Task;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dashboard statistics. {@code countsByStatus} are current task counts: per status for universes
+ * and types, in-progress only for bots. Outcomes and execution-time percentiles cover
+ * [{@code from}, {@code to}).
+ */
+public record TaskStats(
+        LocalDateTime from,
+        LocalDateTime to,
+        List<Group> universes,
+        List<Group> bots,
+        List<Group> types) {
+
+    /**
+     * @param id universe or bot id, null for types
+     * @param successRate succeeded / (succeeded + failed), null without completions
+     * @param p50Ms percentiles are upper bounds of histogram buckets, null without timed completions
+     */
+    public record Group(
+            Long id,
+            String name,
+            Map<Task.TaskStatus, Long> countsByStatus,
+            long succeeded,
+            long failed,
+            long released,
+            Double successRate,
+            Long averageMs,
+            Long p50Ms,
+            Long p95Ms,
+            Long p99Ms) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.ogame.automation.dto;
+
+import com.ogame.automation.entity.Bot;
+import com.ogame.automation.entity.Task;
+
+import java.time.LocalDateTime;
+
+/**
+ * Task with universe and bot references; task results are never included.
+ */
+public record TaskView(
+        Long id,
+        Task.TaskType type,
+        Task.TaskStatus status,
+        String playerName,
+        String parameters,
+        Integer recurrenceMinutes,
+        LocalDateTime nextExecutionAt,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        UniverseLink universe,
+        BotRef bot) {
+
+    /**
+     * Maps a task whose universe and bot were fetched with it, either through the "Task.withReferences"
+     * entity graph or TaskSpecifications.fetchReferences.
+     */
+    public static TaskView from(Task task) {
+        Bot bot = task.getBot();
+        return from(task, UniverseLink.from(task.getUniverse()),
+                bot != null ? new BotRef(bot.getId(), bot.getUuid(), bot.getName(), bot.getLastSeenAt()) : null);
+    }
+
+    /**
+     * Maps a task using already resolved (e.g. cached) references, without touching its associations.
+     */
+    public static TaskView from(Task task, UniverseLink universe, BotRef bot) {
+        return new TaskView(
+                task.getId(),
+                task.getType(),
+                task.getStatus(),
+                task.getPlayerName(),
+                task.getParameters(),
+                task.getRecurrenceMinutes(),
+                task.getNextExecutionAt(),
+                task.getCreatedAt(),
+                task.getUpdatedAt(),
+                task.getStartedAt(),
+                task.getFinishedAt(),
+                universe,
+                bot);
+    }
+
+    public TaskView withBotLastSeenAt(LocalDateTime seenAt) {
+        BotRef seenBot = new BotRef(bot.id(), bot.uuid(), bot.name(), seenAt);
+        return new TaskView(id, type, status, playerName, parameters, recurrenceMinutes, nextExecutionAt,
+                createdAt, updatedAt, startedAt, finishedAt, universe, seenBot);
+    }
+}
@@ -0,0 +1,17 @@
+package com.ogame.automation.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A universe was created, changed or deleted.
+ */
+public record UniverseEvent(Kind kind, Long universeId, LocalDateTime at) implements DomainEvent {
+
+    public enum Kind {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static UniverseEvent of(Kind kind, Long universeId) {
+        return new UniverseEvent(kind, universeId, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,14 @@
+package com.ogame.automation.dto;
+
+import com.ogame.automation.entity.Universe;
+
+/**
+ * Universe reference embedded in bot and task views. Unlike {@link UniverseRef} it leaves out the
+ * Discord webhook, which only the admin universe endpoints return.
+ */
+public record UniverseLink(Long id, String name, String url) {
+
+    public static UniverseLink from(Universe universe) {
+        return new UniverseLink(universe.getId(), universe.getName(), universe.getUrl());
+    }
+}
@@ -0,0 +1,18 @@
+package com.ogame.automation.dto;
+
+import com.ogame.automation.entity.Universe;
+
+/**
+ * Universe reference data, cached for lookups and notifications. Views embed it as a
+ * {@link UniverseLink}, without the webhook.
+ */
+public record UniverseRef(Long id, String name, String url, String discordWebhook) {
+
+    public static UniverseRef from(Universe universe) {
+        return new UniverseRef(universe.getId(), universe.getName(), universe.getUrl(), universe.getDiscordWebhook());
+    }
+
+    public UniverseLink toLink() {
+        return new UniverseLink(id, name, url);
+    }
+}
@@ -0,0 +1,15 @@
+package com.ogame.automation.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Universe list item, selected column by column so the bot and task collections are never touched.
+ */
+public record UniverseView(
+        Long id,
+        String name,
+        String url,
+        String discordWebhook,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
@@ -11,9 +12,13 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@Cacheable
 @Table(name = "bot")
+@NamedEntityGraph(name = Bot.WITH_UNIVERSE, attributeNodes = @NamedAttributeNode("universe"))
 public class Bot {
 
+    public static final String WITH_UNIVERSE = "Bot.withUniverse";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -35,6 +40,10 @@ public class Bot {
     @Column(name = "last_seen_at")
     private LocalDateTime lastSeenAt;
 
+    @Column(name = "api_key_hash", length = 64, unique = true)
+    @JsonIgnore
+    private String apiKeyHash;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -110,6 +119,14 @@ public class Bot {
         this.lastSeenAt = lastSeenAt;
     }
 
+    public String getApiKeyHash() {
+        return apiKeyHash;
+    }
+
+    public void setApiKeyHash(String apiKeyHash) {
+        this.apiKeyHash = apiKeyHash;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
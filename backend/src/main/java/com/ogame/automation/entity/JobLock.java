@@ -0,0 +1,63 @@
+package com.ogame.automation.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease on a scheduled job, held by at most one instance at a time; see
+ * {@link com.ogame.automation.service.ScheduledJobLock}. The fencing token is incremented by every
+ * acquisition, so a holder whose lease was taken over can tell from the row that it lost it.
+ */
+@Entity
+@Table(name = "job_lock")
+public class JobLock {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(name = "fencing_token", nullable = false)
+    private long fencingToken;
+
+    @Column(name = "locked_by", length = 36)
+    private String lockedBy;
+
+    @Column(name = "locked_at")
+    private LocalDateTime lockedAt;
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    // Constructors
+    public JobLock() {}
+
+    public JobLock(String name, String lockedBy, LocalDateTime lockedAt, LocalDateTime lockedUntil) {
+        this.name = name;
+        this.fencingToken = 1;
+        this.lockedBy = lockedBy;
+        this.lockedAt = lockedAt;
+        this.lockedUntil = lockedUntil;
+    }
+
+    // Getters
+    public String getName() {
+        return name;
+    }
+
+    public long getFencingToken() {
+        return fencingToken;
+    }
+
+    public String getLockedBy() {
+        return lockedBy;
+    }
+
+    public LocalDateTime getLockedAt() {
+        return lockedAt;
+    }
+
+    public LocalDateTime getLockedUntil() {
+        return lockedUntil;
+    }
+}
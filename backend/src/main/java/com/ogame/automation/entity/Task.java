@@ -10,11 +10,30 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "task")
+@Table(name = "task", indexes = {
+    // Mirrors schema-mariadb.sql so generated test schemas get the same access paths
+    @Index(name = "idx_task_status_universe", columnList = "status, universe_id, created_at"),
+    @Index(name = "idx_task_created", columnList = "created_at"),
+    @Index(name = "idx_task_status_created", columnList = "status, created_at"),
+    @Index(name = "idx_task_universe_created", columnList = "universe_id, created_at"),
+    @Index(name = "idx_task_bot_created", columnList = "bot_id, created_at"),
+    @Index(name = "idx_task_type_created", columnList = "type, created_at"),
+    @Index(name = "idx_task_player_name", columnList = "player_name, created_at"),
+    @Index(name = "idx_task_next_execution", columnList = "next_execution_at"),
+    @Index(name = "idx_task_updated_id", columnList = "updated_at, id")
+})
+@NamedEntityGraph(name = Task.WITH_REFERENCES, attributeNodes = {
+    @NamedAttributeNode("universe"),
+    @NamedAttributeNode("bot")
+})
 public class Task {
 
+    public static final String WITH_REFERENCES = "Task.withReferences";
+
+    // Pooled sequence instead of IDENTITY so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -101,6 +120,15 @@ public class Task {
         this.startedAt = LocalDateTime.now();
     }
 
+    /**
+     * Returns an in-progress task to the queue, e.g. when its bot went offline.
+     */
+    public void release() {
+        this.status = TaskStatus.CREATED;
+        this.bot = null;
+        this.startedAt = null;
+    }
+
     public void markFinished() {
         this.status = TaskStatus.FINISHED;
         this.finishedAt = LocalDateTime.now();
@@ -0,0 +1,121 @@
+package com.ogame.automation.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Task outcomes of one bot and task type within one time bucket, maintained incrementally by
+ * {@link com.ogame.automation.service.TaskStatsService} as tasks complete or are released.
+ * Execution times are kept as a mergeable histogram
+ * ({@link com.ogame.automation.service.LatencyHistogram}) so percentiles can be read for any range
+ * of buckets.
+ */
+@MappedSuperclass
+public abstract class TaskStatsBucket {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "universe_id", nullable = false)
+    private Long universeId;
+
+    @Column(name = "bot_id", nullable = false)
+    private Long botId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Task.TaskType type;
+
+    @Column(nullable = false)
+    private long succeeded;
+
+    @Column(nullable = false)
+    private long failed;
+
+    @Column(nullable = false)
+    private long released;
+
+    @Column(name = "execution_time_count", nullable = false)
+    private long executionTimeCount;
+
+    @Column(name = "execution_time_total_ms", nullable = false)
+    private long executionTimeTotalMs;
+
+    @Column(name = "execution_time_histogram", length = 512)
+    private String executionTimeHistogram;
+
+    // Constructors
+    protected TaskStatsBucket() {}
+
+    protected TaskStatsBucket(LocalDateTime bucketStart, Long universeId, Long botId, Task.TaskType type) {
+        this.bucketStart = bucketStart;
+        this.universeId = universeId;
+        this.botId = botId;
+        this.type = type;
+    }
+
+    public void addOutcomes(long succeeded, long failed, long released) {
+        this.succeeded += succeeded;
+        this.failed += failed;
+        this.released += released;
+    }
+
+    /**
+     * @param histogram the merged histogram, in its stored form
+     */
+    public void addExecutionTimes(long count, long totalMs, String histogram) {
+        this.executionTimeCount += count;
+        this.executionTimeTotalMs += totalMs;
+        this.executionTimeHistogram = histogram;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public Long getUniverseId() {
+        return universeId;
+    }
+
+    public Long getBotId() {
+        return botId;
+    }
+
+    public Task.TaskType getType() {
+        return type;
+    }
+
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getReleased() {
+        return released;
+    }
+
+    public long getExecutionTimeCount() {
+        return executionTimeCount;
+    }
+
+    public long getExecutionTimeTotalMs() {
+        return executionTimeTotalMs;
+    }
+
+    public String getExecutionTimeHistogram() {
+        return executionTimeHistogram;
+    }
+}
@@ -0,0 +1,18 @@
+package com.ogame.automation.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "task_stats_daily", uniqueConstraints =
+        @UniqueConstraint(name = "uk_task_stats_daily_bucket", columnNames = {"bucket_start", "universe_id", "bot_id", "type"}))
+public class TaskStatsDaily extends TaskStatsBucket {
+
+    // Constructors
+    public TaskStatsDaily() {}
+
+    public TaskStatsDaily(LocalDateTime bucketStart, Long universeId, Long botId, Task.TaskType type) {
+        super(bucketStart, universeId, botId, type);
+    }
+}
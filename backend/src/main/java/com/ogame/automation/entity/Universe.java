@@ -11,6 +11,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@Cacheable
 @Table(name = "universe")
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Universe {
@@ -0,0 +1,85 @@
+package com.ogame.automation.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Materialized number of tasks per universe, type and status, kept in step with the task table by
+ * {@link com.ogame.automation.service.UniverseTaskCounter} in the same transaction as each change.
+ */
+@Entity
+@Table(name = "universe_task_count")
+@IdClass(UniverseTaskCount.Key.class)
+public class UniverseTaskCount {
+
+    @Id
+    @Column(name = "universe_id")
+    private Long universeId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Task.TaskType type;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Task.TaskStatus status;
+
+    @Column(name = "task_count", nullable = false)
+    private long taskCount;
+
+    // Constructors
+    public UniverseTaskCount() {}
+
+    public UniverseTaskCount(Long universeId, Task.TaskType type, Task.TaskStatus status, long taskCount) {
+        this.universeId = universeId;
+        this.type = type;
+        this.status = status;
+        this.taskCount = taskCount;
+    }
+
+    // Getters
+    public Long getUniverseId() {
+        return universeId;
+    }
+
+    public Task.TaskType getType() {
+        return type;
+    }
+
+    public Task.TaskStatus getStatus() {
+        return status;
+    }
+
+    public long getTaskCount() {
+        return taskCount;
+    }
+
+    public static class Key implements Serializable {
+        private Long universeId;
+        private Task.TaskType type;
+        private Task.TaskStatus status;
+
+        public Key() {}
+
+        public Key(Long universeId, Task.TaskType type, Task.TaskStatus status) {
+            this.universeId = universeId;
+            this.type = type;
+            this.status = status;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && Objects.equals(universeId, other.universeId)
+                    && type == other.type && status == other.status;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(universeId, type, status);
+        }
+    }
+}
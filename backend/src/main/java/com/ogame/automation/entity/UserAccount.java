@@ -8,6 +8,7 @@ import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
 @Table(name = "user_account")
 public class UserAccount {
 
@@ -0,0 +1,198 @@
+package com.ogame.automation.export;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes rows of one dataset into Arrow IPC files partitioned by universe and day:
+ * {@code <root>/<dataset>/universe_id=<id>/date=<yyyy-MM-dd>/part-<runId>[-<n>].arrow}.
+ *
+ * Each open partition buffers at most {@code rowGroupSize} rows before the batch is
+ * flushed as a record batch, and at most {@code maxOpenPartitions} partitions are open at
+ * once: writing to another one finishes the least recently written file, and later rows
+ * of its partition go to a further part file. Memory therefore stays bounded by both
+ * settings, whatever the number of universes and days exported.
+ * Files are written under a temporary name and only moved into place by
+ * {@link #commit()}; {@link #close()} without a commit discards them.
+ */
+public class ArrowDatasetWriter<T> implements Closeable {
+
+    private static final String TMP_SUFFIX = ".tmp";
+
+    private final BufferAllocator allocator;
+    private final Path datasetDir;
+    private final String runId;
+    private final List<ExportColumn<T>> columns;
+    private final Schema schema;
+    private final int rowGroupSize;
+    private final int maxOpenPartitions;
+    // In access order, so the first entry is the least recently written
+    private final Map<String, Partition> partitions = new LinkedHashMap<>(16, 0.75f, true);
+    // Part files per partition key, including finished ones
+    private final Map<String, Integer> partCounts = new HashMap<>();
+    private final List<Partition> finished = new ArrayList<>();
+    private long rowsWritten;
+
+    public ArrowDatasetWriter(BufferAllocator allocator, Path root, String dataset, String runId,
+                              List<ExportColumn<T>> columns, int rowGroupSize, int maxOpenPartitions) {
+        this.allocator = allocator;
+        this.datasetDir = root.resolve(dataset);
+        this.runId = runId;
+        this.columns = columns;
+        this.schema = new Schema(columns.stream().map(ExportColumn::getField).toList());
+        this.rowGroupSize = rowGroupSize;
+        this.maxOpenPartitions = maxOpenPartitions;
+    }
+
+    public void write(Long universeId, LocalDate day, T row) throws IOException {
+        String key = "universe_id=" + universeId + "/date=" + day;
+        Partition partition = partitions.get(key);
+        if (partition == null) {
+            if (partitions.size() >= maxOpenPartitions) {
+                Iterator<Partition> eldest = partitions.values().iterator();
+                Partition evicted = eldest.next();
+                eldest.remove();
+                // Tracked first, so close() still discards it if completing fails
+                finished.add(evicted);
+                evicted.complete();
+            }
+            int part = partCounts.merge(key, 1, Integer::sum);
+            partition = new Partition(datasetDir.resolve(key), part == 1 ? "part-" + runId : "part-" + runId + "-" + part);
+            partitions.put(key, partition);
+        }
+        partition.append(row);
+        rowsWritten++;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    public int getPartitionCount() {
+        return partCounts.size();
+    }
+
+    /**
+     * Flushes pending rows and publishes every part file under its final name.
+     */
+    public List<Path> commit() throws IOException {
+        Iterator<Partition> open = partitions.values().iterator();
+        while (open.hasNext()) {
+            Partition partition = open.next();
+            open.remove();
+            finished.add(partition);
+            partition.complete();
+        }
+        List<Path> published = new ArrayList<>();
+        Iterator<Partition> it = finished.iterator();
+        while (it.hasNext()) {
+            published.add(it.next().publish());
+            it.remove();
+        }
+        return published;
+    }
+
+    @Override
+    public void close() {
+        for (Partition partition : partitions.values()) {
+            partition.abort();
+        }
+        partitions.clear();
+        for (Partition partition : finished) {
+            partition.abort();
+        }
+        finished.clear();
+    }
+
+    private final class Partition {
+        private final Path tmpFile;
+        private final Path finalFile;
+        private final FileChannel channel;
+        private final VectorSchemaRoot root;
+        private final ArrowFileWriter writer;
+        private int pending;
+        private boolean completed;
+
+        Partition(Path dir, String name) throws IOException {
+            Files.createDirectories(dir);
+            this.finalFile = dir.resolve(name + ".arrow");
+            this.tmpFile = dir.resolve(finalFile.getFileName() + TMP_SUFFIX);
+            this.channel = FileChannel.open(tmpFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            this.root = VectorSchemaRoot.create(schema, allocator);
+            this.writer = new ArrowFileWriter(root, null, channel);
+            writer.start();
+            root.allocateNew();
+        }
+
+        void append(T row) throws IOException {
+            List<FieldVector> vectors = root.getFieldVectors();
+            for (int i = 0; i < columns.size(); i++) {
+                columns.get(i).write(vectors.get(i), pending, row);
+            }
+            pending++;
+            if (pending >= rowGroupSize) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            if (pending == 0) {
+                return;
+            }
+            root.setRowCount(pending);
+            writer.writeBatch();
+            root.allocateNew();
+            pending = 0;
+        }
+
+        /**
+         * Writes the file's footer and frees its buffers; the file keeps its temporary name.
+         */
+        void complete() throws IOException {
+            flush();
+            writer.end();
+            writer.close();
+            root.close();
+            completed = true;
+        }
+
+        Path publish() throws IOException {
+            Files.move(tmpFile, finalFile, StandardCopyOption.ATOMIC_MOVE);
+            return finalFile;
+        }
+
+        void abort() {
+            if (!completed) {
+                try {
+                    writer.close();
+                } catch (Exception ignored) {
+                    // Best effort - the partial file is deleted below
+                }
+                root.close();
+            }
+            try {
+                Files.deleteIfExists(tmpFile);
+            } catch (IOException ignored) {
+                // Leftover .tmp files are never read by consumers
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.ogame.automation.export;
+
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeStampMilliVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.function.Function;
+
+/**
+ * A single nullable column of an export dataset: its Arrow field plus the
+ * accessor that copies a value from a row into the column vector.
+ */
+public final class ExportColumn<T> {
+
+    private final Field field;
+    private final Setter<T> setter;
+
+    private ExportColumn(String name, ArrowType type, Setter<T> setter) {
+        this.field = new Field(name, FieldType.nullable(type), null);
+        this.setter = setter;
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    void write(FieldVector vector, int index, T row) {
+        setter.set(vector, index, row);
+    }
+
+    public static <T> ExportColumn<T> int64(String name, Function<T, Long> getter) {
+        return new ExportColumn<>(name, new ArrowType.Int(64, true), (vector, index, row) -> {
+            Long value = getter.apply(row);
+            if (value == null) {
+                ((BigIntVector) vector).setNull(index);
+            } else {
+                ((BigIntVector) vector).setSafe(index, value);
+            }
+        });
+    }
+
+    public static <T> ExportColumn<T> int32(String name, Function<T, Integer> getter) {
+        return new ExportColumn<>(name, new ArrowType.Int(32, true), (vector, index, row) -> {
+            Integer value = getter.apply(row);
+            if (value == null) {
+                ((IntVector) vector).setNull(index);
+            } else {
+                ((IntVector) vector).setSafe(index, value);
+            }
+        });
+    }
+
+    public static <T> ExportColumn<T> bool(String name, Function<T, Boolean> getter) {
+        return new ExportColumn<>(name, ArrowType.Bool.INSTANCE, (vector, index, row) -> {
+            Boolean value = getter.apply(row);
+            if (value == null) {
+                ((BitVector) vector).setNull(index);
+            } else {
+                ((BitVector) vector).setSafe(index, value ? 1 : 0);
+            }
+        });
+    }
+
+    public static <T> ExportColumn<T> utf8(String name, Function<T, String> getter) {
+        return new ExportColumn<>(name, ArrowType.Utf8.INSTANCE, (vector, index, row) -> {
+            String value = getter.apply(row);
+            if (value == null) {
+                ((VarCharVector) vector).setNull(index);
+            } else {
+                ((VarCharVector) vector).setSafe(index, value.getBytes(StandardCharsets.UTF_8));
+            }
+        });
+    }
+
+    /**
+     * Timestamps are stored timezone-naive (millis since epoch read as UTC wall-clock),
+     * matching the LocalDateTime values held in the database.
+     */
+    public static <T> ExportColumn<T> timestamp(String name, Function<T, LocalDateTime> getter) {
+        return new ExportColumn<>(name, new ArrowType.Timestamp(TimeUnit.MILLISECOND, null), (vector, index, row) -> {
+            LocalDateTime value = getter.apply(row);
+            if (value == null) {
+                ((TimeStampMilliVector) vector).setNull(index);
+            } else {
+                ((TimeStampMilliVector) vector).setSafe(index, value.toInstant(ZoneOffset.UTC).toEpochMilli());
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface Setter<T> {
+        void set(FieldVector vector, int index, T row);
+    }
+}
@@ -1,11 +1,19 @@
 package com.ogame.automation.repository;
 
+import com.ogame.automation.dto.BotApiKey;
+import com.ogame.automation.dto.BotLastSeen;
+import com.ogame.automation.dto.BotView;
 import com.ogame.automation.entity.Bot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,8 +22,41 @@ public interface BotRepository extends JpaRepository<Bot, Long> {
     
     Optional<Bot> findByUuid(String uuid);
     
+    @EntityGraph(Bot.WITH_UNIVERSE)
+    Optional<Bot> findWithUniverseById(Long id);
+    
+    @EntityGraph(Bot.WITH_UNIVERSE)
+    Optional<Bot> findWithUniverseByUuid(String uuid);
+    
     @Query("SELECT b FROM Bot b WHERE b.universe.id = :universeId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Bot> findByUniverseId(@Param("universeId") Long universeId);
+
+    long countByUniverseId(Long universeId);
+
+    boolean existsByUniverseId(Long universeId);
     
     boolean existsByUuid(String uuid);
+    
+    @Query("SELECT new com.ogame.automation.dto.BotApiKey(b.apiKeyHash, b.id, b.uuid, b.universe.id) " +
+           "FROM Bot b WHERE b.apiKeyHash IS NOT NULL")
+    List<BotApiKey> findApiKeys();
+
+    @Query("SELECT new com.ogame.automation.dto.BotApiKey(b.apiKeyHash, b.id, b.uuid, b.universe.id) " +
+           "FROM Bot b WHERE b.apiKeyHash = :apiKeyHash")
+    Optional<BotApiKey> findApiKeyByHash(@Param("apiKeyHash") String apiKeyHash);
+
+    @Query("SELECT new com.ogame.automation.dto.BotLastSeen(b.id, b.lastSeenAt) FROM Bot b WHERE b.lastSeenAt >= :since")
+    List<BotLastSeen> findLastSeenSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT b.lastSeenAt FROM Bot b WHERE b.id = :id")
+    Optional<LocalDateTime> findLastSeenAtById(@Param("id") Long id);
+    
+    @Query("SELECT new com.ogame.automation.dto.BotView(b.id, b.uuid, b.name, b.lastSeenAt, b.createdAt, b.updatedAt, " +
+           "u.id, u.name, u.url) FROM Bot b JOIN b.universe u ORDER BY b.id")
+    List<BotView> findAllViews();
+    
+    @Query("SELECT new com.ogame.automation.dto.BotView(b.id, b.uuid, b.name, b.lastSeenAt, b.createdAt, b.updatedAt, " +
+           "u.id, u.name, u.url) FROM Bot b JOIN b.universe u WHERE u.id = :universeId ORDER BY b.id")
+    List<BotView> findViewsByUniverseId(@Param("universeId") Long universeId);
 }
@@ -0,0 +1,9 @@
+package com.ogame.automation.repository;
+
+import com.ogame.automation.entity.ExportWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ExportWatermarkRepository extends JpaRepository<ExportWatermark, String> {
+}
@@ -0,0 +1,32 @@
+package com.ogame.automation.repository;
+
+import com.ogame.automation.entity.JobLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface JobLockRepository extends JpaRepository<JobLock, String> {
+
+    /**
+     * Takes the lease if it has expired, with the next fencing token.
+     * @return 1 if taken, 0 if the lease is held or the job has no row yet
+     */
+    @Modifying
+    @Query("UPDATE JobLock l SET l.fencingToken = l.fencingToken + 1, l.lockedBy = :owner, l.lockedAt = :now, " +
+           "l.lockedUntil = :until WHERE l.name = :name AND l.lockedUntil <= :now")
+    int acquire(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now,
+                @Param("until") LocalDateTime until);
+
+    /**
+     * Ends or shortens the lease, provided no later acquisition has taken it over.
+     * @return 0 if the fencing token has moved on
+     */
+    @Modifying
+    @Query("UPDATE JobLock l SET l.lockedUntil = :until WHERE l.name = :name AND l.fencingToken = :token")
+    int release(@Param("name") String name, @Param("token") long token, @Param("until") LocalDateTime until);
+}
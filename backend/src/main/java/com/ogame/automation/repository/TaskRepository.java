@@ -1,9 +1,15 @@
 package com.ogame.automation.repository;
 
+import com.ogame.automation.dto.BotTaskCount;
+import com.ogame.automation.dto.TaskExportRow;
+import com.ogame.automation.dto.TaskPlayerName;
 import com.ogame.automation.entity.Task;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,24 +19,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
-    
-    @Query("SELECT t FROM Task t WHERE " +
-           "(:status IS NULL OR t.status = :status) AND " +
-           "(:universeId IS NULL OR t.universe.id = :universeId) AND " +
-           "(:botId IS NULL OR t.bot.id = :botId) AND " +
-           "(:type IS NULL OR t.type = :type) AND " +
-           "(:playerName IS NULL OR t.playerName LIKE %:playerName%) AND " +
-           "(:startDate IS NULL OR t.createdAt >= :startDate) AND " +
-           "(:endDate IS NULL OR t.createdAt <= :endDate)")
-    Page<Task> findTasksWithFilters(@Param("status") Task.TaskStatus status,
-                                   @Param("universeId") Long universeId,
-                                   @Param("botId") Long botId,
-                                   @Param("type") Task.TaskType type,
-                                   @Param("playerName") String playerName,
-                                   @Param("startDate") LocalDateTime startDate,
-                                   @Param("endDate") LocalDateTime endDate,
-                                   Pageable pageable);
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
     
     @Query("SELECT t FROM Task t WHERE t.status = :status AND t.universe.id = :universeId ORDER BY t.createdAt ASC")
     List<Task> findAvailableTasksForUniverse(@Param("status") Task.TaskStatus status, 
@@ -40,17 +29,64 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     List<Task> findRecurringTasksToReschedule(@Param("now") LocalDateTime now);
     
     Optional<Task> findFirstByStatusAndUniverseIdOrderByCreatedAtAsc(Task.TaskStatus status, Long universeId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(Task.WITH_REFERENCES)
+    Optional<Task> findFirstForAssignmentByStatusAndUniverseIdOrderByCreatedAtAsc(Task.TaskStatus status, Long universeId);
     
     // Additional methods needed by TaskService
     List<Task> findByStatus(Task.TaskStatus status);
     
+    @EntityGraph(Task.WITH_REFERENCES)
+    Optional<Task> findWithReferencesById(Long id);
+
+    // Locked, so that a completion and a release of the same task do not both apply
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(Task.WITH_REFERENCES)
+    Optional<Task> findForCompletionById(Long id);
+    
+    @Query("SELECT t.universe.id FROM Task t WHERE t.id = :id")
+    Optional<Long> findUniverseIdById(@Param("id") Long id);
+    
     List<Task> findByUniverseId(Long universeId);
+
+    long countByUniverseId(Long universeId);
+
+    boolean existsByUniverseId(Long universeId);
     
     List<Task> findByBotId(Long botId);
+
+    List<Task> findByBotIdAndStatus(Long botId, Task.TaskStatus status);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Task> findForReleaseByBotIdAndStatus(Long botId, Task.TaskStatus status);
+
+    long countByBotIdAndStatus(Long botId, Task.TaskStatus status);
+
+    @Query("SELECT new com.ogame.automation.dto.BotTaskCount(t.bot.id, COUNT(t)) FROM Task t " +
+           "WHERE t.status = :status AND t.bot IS NOT NULL GROUP BY t.bot.id")
+    List<BotTaskCount> countByBotForStatus(@Param("status") Task.TaskStatus status);
     
     List<Task> findByUniverseIdAndStatus(Long universeId, Task.TaskStatus status);
     
     List<Task> findByStatusAndNextExecutionAtBefore(Task.TaskStatus status, LocalDateTime dateTime);
     
     List<Task> findByStatusAndStartedAtBefore(Task.TaskStatus status, LocalDateTime dateTime);
+    
+    @Query("SELECT new com.ogame.automation.dto.TaskExportRow(" +
+           "t.id, u.id, b.id, t.type, t.status, t.playerName, t.recurrenceMinutes, t.nextExecutionAt, " +
+           "t.createdAt, t.updatedAt, t.startedAt, t.finishedAt) " +
+           "FROM Task t JOIN t.universe u LEFT JOIN t.bot b " +
+           // The leading range on updated_at lets idx_task_updated_id seek to the watermark
+           "WHERE t.updatedAt >= :afterUpdatedAt AND t.updatedAt < :before " +
+           "AND (t.updatedAt > :afterUpdatedAt OR t.id > :afterId) " +
+           "ORDER BY t.updatedAt ASC, t.id ASC")
+    List<TaskExportRow> findExportRowsAfter(@Param("afterUpdatedAt") LocalDateTime afterUpdatedAt,
+                                            @Param("afterId") Long afterId,
+                                            @Param("before") LocalDateTime before,
+                                            Pageable pageable);
+    
+    @Query("SELECT new com.ogame.automation.dto.TaskPlayerName(t.id, t.playerName) FROM Task t " +
+           "WHERE t.playerName IS NOT NULL AND t.id > :afterId ORDER BY t.id ASC")
+    List<TaskPlayerName> findPlayerNamesAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
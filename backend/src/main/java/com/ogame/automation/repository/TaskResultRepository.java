@@ -1,16 +1,28 @@
 package com.ogame.automation.repository;
 
+import com.ogame.automation.dto.TaskResultExportRow;
 import com.ogame.automation.entity.TaskResult;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TaskResultRepository extends JpaRepository<TaskResult, Long> {
     
     @Query("SELECT tr FROM TaskResult tr WHERE tr.task.id = :taskId ORDER BY tr.createdAt DESC")
     List<TaskResult> findByTaskIdOrderByCreatedAtDesc(@Param("taskId") Long taskId);
+
+    Optional<TaskResult> findFirstByTaskIdOrderByIdDesc(Long taskId);
+    
+    @Query("SELECT new com.ogame.automation.dto.TaskResultExportRow(" +
+           "tr.id, t.id, u.id, b.id, t.type, t.playerName, tr.success, tr.executionTimeMs, " +
+           "tr.errorMessage, tr.fullResult, tr.createdAt) " +
+           "FROM TaskResult tr JOIN tr.task t JOIN t.universe u LEFT JOIN t.bot b " +
+           "WHERE tr.id > :afterId ORDER BY tr.id ASC")
+    List<TaskResultExportRow> findExportRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
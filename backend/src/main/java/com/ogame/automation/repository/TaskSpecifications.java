@@ -0,0 +1,82 @@
+package com.ogame.automation.repository;
+
+import com.ogame.automation.dto.TaskFilter;
+import com.ogame.automation.entity.Task;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Builds task queries that only contain the predicates actually supplied, so MariaDB can pick
+ * a matching composite index instead of scanning for {@code (:x IS NULL OR t.x = :x)} clauses.
+ */
+public final class TaskSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private TaskSpecifications() {}
+
+    public static Specification<Task> matching(TaskFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.status() != null) {
+                predicates.add(cb.equal(root.get("status"), filter.status()));
+            }
+            if (filter.universeId() != null) {
+                predicates.add(cb.equal(root.get("universe").get("id"), filter.universeId()));
+            }
+            if (filter.botId() != null) {
+                predicates.add(cb.equal(root.get("bot").get("id"), filter.botId()));
+            }
+            if (filter.type() != null) {
+                predicates.add(cb.equal(root.get("type"), filter.type()));
+            }
+            if (filter.playerNames() != null) {
+                // Names resolved by the player name index: an IN list over the player_name index
+                predicates.add(filter.playerNames().isEmpty()
+                        ? cb.disjunction()
+                        : root.get("playerName").in(filter.playerNames()));
+            } else if (filter.hasPlayerName()) {
+                // Fallback when the index can't resolve the query; a leading wildcard means a scan
+                predicates.add(cb.like(cb.lower(root.get("playerName")),
+                        "%" + escapeLike(filter.playerName().toLowerCase(Locale.ROOT)) + "%", LIKE_ESCAPE));
+            }
+            if (filter.startDate() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), filter.startDate()));
+            }
+            if (filter.endDate() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), filter.endDate()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Fetches universe and bot in the same statement, so mapping a page to list items costs no
+     * extra queries. Skipped for count queries, where a fetch join is not allowed.
+     */
+    public static Specification<Task> fetchReferences() {
+        return (root, query, cb) -> {
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                root.fetch("universe", JoinType.INNER);
+                root.fetch("bot", JoinType.LEFT);
+            }
+            return null;
+        };
+    }
+
+    static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,8 @@
+package com.ogame.automation.repository;
+
+import com.ogame.automation.entity.TaskStatsDaily;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TaskStatsDailyRepository extends TaskStatsRepository<TaskStatsDaily> {
+}
@@ -0,0 +1,8 @@
+package com.ogame.automation.repository;
+
+import com.ogame.automation.entity.TaskStatsHourly;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TaskStatsHourlyRepository extends TaskStatsRepository<TaskStatsHourly> {
+}
@@ -0,0 +1,34 @@
+package com.ogame.automation.repository;
+
+import com.ogame.automation.entity.Task;
+import com.ogame.automation.entity.TaskStatsBucket;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Queries shared by the hourly and daily rollup tables.
+ */
+@NoRepositoryBean
+public interface TaskStatsRepository<T extends TaskStatsBucket> extends JpaRepository<T, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM #{#entityName} s WHERE s.bucketStart = :bucketStart AND s.universeId = :universeId " +
+           "AND s.botId = :botId AND s.type = :type")
+    Optional<T> findForUpdate(@Param("bucketStart") LocalDateTime bucketStart, @Param("universeId") Long universeId,
+                              @Param("botId") Long botId, @Param("type") Task.TaskType type);
+
+    List<T> findByBucketStartGreaterThanEqual(LocalDateTime from);
+
+    @Modifying
+    @Query("DELETE FROM #{#entityName} s WHERE s.bucketStart < :before")
+    int deleteBefore(@Param("before") LocalDateTime before);
+}
@@ -1,9 +1,24 @@
 package com.ogame.automation.repository;
 
+import com.ogame.automation.dto.UniverseView;
 import com.ogame.automation.entity.Universe;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface UniverseRepository extends JpaRepository<Universe, Long> {
+    
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Universe> findAll();
+    
+    @Query("SELECT new com.ogame.automation.dto.UniverseView(u.id, u.name, u.url, u.discordWebhook, u.createdAt, u.updatedAt) " +
+           "FROM Universe u ORDER BY u.id")
+    List<UniverseView> findAllViews();
 }
@@ -0,0 +1,30 @@
+package com.ogame.automation.repository;
+
+import com.ogame.automation.entity.Task;
+import com.ogame.automation.entity.UniverseTaskCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UniverseTaskCountRepository extends JpaRepository<UniverseTaskCount, UniverseTaskCount.Key> {
+
+    List<UniverseTaskCount> findByUniverseId(Long universeId);
+
+    @Query("SELECT COALESCE(SUM(c.taskCount), 0) FROM UniverseTaskCount c WHERE c.status = :status")
+    long sumByStatus(@Param("status") Task.TaskStatus status);
+
+    @Modifying
+    @Query("UPDATE UniverseTaskCount c SET c.taskCount = c.taskCount + :delta " +
+           "WHERE c.universeId = :universeId AND c.type = :type AND c.status = :status")
+    int add(@Param("universeId") Long universeId, @Param("type") Task.TaskType type,
+            @Param("status") Task.TaskStatus status, @Param("delta") long delta);
+
+    @Modifying
+    @Query("DELETE FROM UniverseTaskCount c WHERE c.universeId = :universeId")
+    int deleteByUniverse(@Param("universeId") Long universeId);
+}
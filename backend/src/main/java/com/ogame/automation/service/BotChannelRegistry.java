@@ -0,0 +1,289 @@
+package com.ogame.automation.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ogame.automation.auth.BotPrincipal;
+import com.ogame.automation.dto.BotChannelMessage;
+import com.ogame.automation.dto.BotEvent;
+import com.ogame.automation.dto.DomainEvent;
+import com.ogame.automation.dto.TaskEvent;
+import com.ogame.automation.dto.TaskImportEvent;
+import com.ogame.automation.dto.TaskView;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Routes the WebSocket channels of connected bots, grouped by universe.
+ *
+ * Work is pushed: whenever a {@link TaskEvent} or {@link TaskImportEvent} from the
+ * {@link DomainEventBus} may have made work available in a universe (a task was queued or a bot
+ * freed capacity), the universe's connected bots are offered the oldest queued
+ * tasks in turn, up to {@code app.bot-channel.max-in-flight} in progress each, through
+ * {@link TaskService#assignNextTask}. Offers for a universe are coalesced and run on one thread,
+ * so a burst of events costs one pass. Events only reach the instance they were published on, so
+ * every universe with connected bots is also offered work each {@code app.bot-channel.offer-interval},
+ * which picks up tasks queued through other instances. Heartbeats and completions received on a channel go
+ * through the same {@link BotService} and {@link TaskService} logic as the REST endpoints.
+ *
+ * A bot that is deleted or moved to another universe is disconnected, so it reconnects with its
+ * new universe (or is refused), as is a bot whose API key is reissued or revoked through this
+ * instance. A key revoked through another instance stops authenticating new connections once
+ * {@code app.bot-auth.key-ttl} has passed, but leaves an open channel here connected.
+ *
+ * Channels are held per instance. A task whose assignment frame could not be written is returned
+ * to the queue at once, rather than staying in progress on a bot that may reconnect without ever
+ * having received it.
+ */
+@Component
+public class BotChannelRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(BotChannelRegistry.class);
+
+    static final CloseStatus REPLACED = new CloseStatus(4000, "Replaced by a newer connection");
+    static final CloseStatus BOT_CHANGED = new CloseStatus(4001, "Bot was changed or deleted");
+    static final CloseStatus CREDENTIALS_CHANGED = new CloseStatus(4002, "API key was reissued or revoked");
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private BotService botService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DomainEventBus domainEventBus;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.bot-channel.max-in-flight:1}")
+    private int maxInFlight;
+
+    @Value("${app.bot-channel.send-time-limit:PT10S}")
+    private Duration sendTimeLimit;
+
+    @Value("${app.bot-channel.send-buffer-size:524288}")
+    private int sendBufferSize;
+
+    private final Map<Long, Map<Long, Channel>> channelsByUniverse = new ConcurrentHashMap<>();
+    private final Set<Long> offersPending = ConcurrentHashMap.newKeySet();
+
+    private Executor offerExecutor;
+
+    /**
+     * A connected bot; sends go through a decorator that serializes concurrent writers and drops
+     * the connection of a bot that stops reading.
+     */
+    public record Channel(BotPrincipal bot, WebSocketSession session) {
+    }
+
+    @PostConstruct
+    void init() {
+        if (offerExecutor == null) {
+            offerExecutor = Executors.newSingleThreadExecutor(Thread.ofPlatform().daemon().name("bot-channel").factory());
+        }
+        if (meterRegistry != null) {
+            Gauge.builder("bots.channel.sessions", this, BotChannelRegistry::channelCount).register(meterRegistry);
+        }
+        domainEventBus.subscribe("bot-channel", this::onEvents);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        channelsByUniverse.values().forEach(channels -> channels.values().forEach(channel -> close(channel, CloseStatus.GOING_AWAY)));
+        if (offerExecutor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * Registers the bot's connection, replacing an older one, counts it as a heartbeat and offers
+     * it work.
+     */
+    public Channel register(BotPrincipal bot, WebSocketSession session) {
+        Channel channel = new Channel(bot, new ConcurrentWebSocketSessionDecorator(
+                session, (int) sendTimeLimit.toMillis(), sendBufferSize));
+        Channel previous = channelsByUniverse.computeIfAbsent(bot.universeId(), id -> new ConcurrentHashMap<>())
+                .put(bot.botId(), channel);
+        if (previous != null) {
+            close(previous, REPLACED);
+        }
+        botService.recordHeartbeat(bot.botId());
+        offerWork(bot.universeId());
+        return channel;
+    }
+
+    public void unregister(Channel channel) {
+        Map<Long, Channel> channels = channelsByUniverse.get(channel.bot().universeId());
+        if (channels != null) {
+            channels.remove(channel.bot().botId(), channel);
+        }
+    }
+
+    public void handle(Channel channel, BotChannelMessage message) {
+        BotPrincipal bot = channel.bot();
+        switch (message.type() == null ? "" : message.type()) {
+            case BotChannelMessage.HEARTBEAT -> botService.recordHeartbeat(bot.botId());
+            case BotChannelMessage.COMPLETE -> complete(channel, message);
+            default -> send(channel, BotChannelMessage.rejected(message.taskId(), "Unknown message type"));
+        }
+    }
+
+    private void complete(Channel channel, BotChannelMessage message) {
+        Long taskId = message.taskId();
+        if (taskId == null || !taskService.canBotAccessTask(channel.bot().uuid(), taskId)) {
+            send(channel, BotChannelMessage.rejected(taskId, "Task not found in this universe"));
+            return;
+        }
+        Optional<TaskView> completed = taskService.completeTask(taskId, Boolean.TRUE.equals(message.success()),
+                message.result(), message.errorMessage(), message.executionTimeMs());
+        send(channel, completed.map(BotChannelMessage::completed)
+                .orElseGet(() -> BotChannelMessage.rejected(taskId, "Task is not in progress")));
+    }
+
+    /**
+     * Queued, imported, released or rescheduled tasks, and completions that free a bot, may give
+     * the universe's connected bots something to do; each universe is offered once per batch.
+     */
+    void onEvents(List<DomainEvent> events) {
+        Set<Long> universeIds = new LinkedHashSet<>();
+        for (DomainEvent event : events) {
+            switch (event) {
+                case TaskEvent task when task.kind() != TaskEvent.Kind.ASSIGNED
+                        && task.kind() != TaskEvent.Kind.DELETED -> universeIds.add(task.universeId());
+                case TaskImportEvent imported -> universeIds.add(imported.universeId());
+                case BotEvent bot when bot.kind() != BotEvent.Kind.CREATED -> disconnectChanged(bot);
+                default -> {
+                }
+            }
+        }
+        universeIds.forEach(this::offerWork);
+    }
+
+    private void disconnectChanged(BotEvent event) {
+        channelsByUniverse.forEach((universeId, channels) -> {
+            Channel channel = channels.get(event.botId());
+            if (channel == null) {
+                return;
+            }
+            if (event.kind() == BotEvent.Kind.CREDENTIALS_CHANGED) {
+                // The connection was authenticated with the old key
+                channels.remove(event.botId(), channel);
+                close(channel, CREDENTIALS_CHANGED);
+            } else if (event.kind() == BotEvent.Kind.DELETED || !universeId.equals(event.universeId())) {
+                channels.remove(event.botId(), channel);
+                close(channel, BOT_CHANGED);
+            }
+        });
+    }
+
+    /**
+     * Offers work in every universe with connected bots, for tasks whose events were published on
+     * another instance.
+     */
+    @Scheduled(fixedDelayString = "${app.bot-channel.offer-interval:PT30S}")
+    public void offerWorkEverywhere() {
+        channelsByUniverse.forEach((universeId, channels) -> {
+            if (!channels.isEmpty()) {
+                offerWork(universeId);
+            }
+        });
+    }
+
+    private void offerWork(Long universeId) {
+        Map<Long, Channel> channels = channelsByUniverse.get(universeId);
+        if (channels == null || channels.isEmpty() || !offersPending.add(universeId)) {
+            return;
+        }
+        offerExecutor.execute(() -> {
+            offersPending.remove(universeId);
+            try {
+                offer(new ArrayList<>(channels.values()));
+            } catch (RuntimeException e) {
+                logger.warn("Failed to offer work in universe {}", universeId, e);
+            }
+        });
+    }
+
+    /**
+     * Hands out one task per bot per round, so a large queue is spread across the bots.
+     */
+    private void offer(List<Channel> channels) {
+        boolean assigned = true;
+        while (assigned) {
+            assigned = false;
+            for (Channel channel : channels) {
+                if (!channel.session().isOpen()) {
+                    continue;
+                }
+                Optional<TaskView> task = taskService.assignNextTask(channel.bot().uuid(), maxInFlight);
+                if (task.isPresent()) {
+                    if (send(channel, BotChannelMessage.assignment(task.get()))) {
+                        assigned = true;
+                    } else if (taskService.releaseTask(task.get().id(), channel.bot().botId())) {
+                        logger.info("Requeued task {} whose assignment to bot {} was not sent", task.get().id(), channel.bot().botId());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return whether the message was written or buffered for the bot
+     */
+    private boolean send(Channel channel, BotChannelMessage message) {
+        try {
+            channel.session().sendMessage(new TextMessage(objectMapper.writeValueAsString(message)));
+            return true;
+        } catch (JsonProcessingException e) {
+            logger.warn("Failed to serialize {} for bot {}", message.type(), channel.bot().botId(), e);
+        } catch (IOException | IllegalStateException | SessionLimitExceededException e) {
+            logger.debug("Failed to send {} to bot {}", message.type(), channel.bot().botId(), e);
+        }
+        return false;
+    }
+
+    private static void close(Channel channel, CloseStatus status) {
+        try {
+            channel.session().close(status);
+        } catch (IOException e) {
+            logger.debug("Failed to close channel of bot {}", channel.bot().botId(), e);
+        }
+    }
+
+    public int channelCount() {
+        return channelsByUniverse.values().stream().mapToInt(Map::size).sum();
+    }
+
+    void setOfferExecutor(Executor offerExecutor) {
+        this.offerExecutor = offerExecutor;
+    }
+}
@@ -0,0 +1,208 @@
+package com.ogame.automation.service;
+
+import com.ogame.automation.auth.BotApiKeyStore;
+import com.ogame.automation.auth.BotPrincipal;
+import com.ogame.automation.dto.BotEvent;
+import com.ogame.automation.dto.BotIdentity;
+import com.ogame.automation.dto.BotPresence;
+import com.ogame.automation.dto.BotView;
+import com.ogame.automation.dto.TaskEvent;
+import com.ogame.automation.dto.UniverseRef;
+import com.ogame.automation.entity.Bot;
+import com.ogame.automation.entity.Task;
+import com.ogame.automation.repository.BotRepository;
+import com.ogame.automation.repository.UniverseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Bot reads and writes. Every method maps to {@link BotView} inside its transaction, so callers
+ * never see an entity with an uninitialized universe. Writes evict the bot from the
+ * {@link ReferenceDataCache} and publish a {@link BotEvent}. Heartbeats go to the {@link HeartbeatBuffer}, and every read merges
+ * the buffered {@code lastSeenAt} over the persisted one.
+ */
+@Service
+@Transactional
+public class BotService {
+
+    @Autowired
+    private BotRepository botRepository;
+
+    @Autowired
+    private UniverseRepository universeRepository;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private BotApiKeyStore botApiKeyStore;
+
+    @Autowired
+    private HeartbeatBuffer heartbeatBuffer;
+
+    @Autowired
+    private PresenceTracker presenceTracker;
+
+    @Autowired
+    private DomainEventBus domainEventBus;
+
+    @Autowired
+    private UniverseTaskCounter universeTaskCounter;
+
+    @Autowired
+    private PlayerNameIndex playerNameIndex;
+
+    @Transactional(readOnly = true)
+    public List<BotView> getAllBots() {
+        return botRepository.findAllViews().stream().map(this::withBufferedHeartbeat).toList();
+    }
+
+    /**
+     * @return bots of the universe, or empty if the universe does not exist
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<BotView>> getBotsByUniverse(Long universeId) {
+        if (!universeRepository.existsById(universeId)) {
+            return Optional.empty();
+        }
+        return Optional.of(botRepository.findViewsByUniverseId(universeId).stream()
+                .map(this::withBufferedHeartbeat)
+                .toList());
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<BotView> getBotById(Long id) {
+        return botRepository.findWithUniverseById(id).map(BotView::from).map(this::withBufferedHeartbeat);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<BotView> getBotByUuid(String uuid) {
+        return botRepository.findWithUniverseByUuid(uuid).map(BotView::from).map(this::withBufferedHeartbeat);
+    }
+
+    public BotView createBot(String uuid, String name, Long universeId) {
+        UniverseRef universe = referenceDataCache.findUniverse(universeId)
+                .orElseThrow(() -> new IllegalArgumentException("Universe not found"));
+        if (botRepository.existsByUuid(uuid)) {
+            throw new IllegalArgumentException("Bot UUID already exists");
+        }
+
+        Bot bot = botRepository.save(new Bot(uuid, universeRepository.getReferenceById(universeId), name));
+        domainEventBus.publish(BotEvent.of(BotEvent.Kind.CREATED, bot.getId(), universeId));
+        return BotView.from(bot, universe.toLink());
+    }
+
+    /**
+     * @return the updated bot, or empty if it does not exist
+     * @throws IllegalArgumentException if the target universe does not exist
+     */
+    public Optional<BotView> updateBot(Long id, String name, Long universeId) {
+        Optional<Bot> optionalBot = botRepository.findWithUniverseById(id);
+        if (optionalBot.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Bot bot = optionalBot.get();
+        referenceDataCache.evictBot(id);
+        if (name != null) {
+            bot.setName(name);
+        }
+        if (universeId != null) {
+            bot.setUniverse(universeRepository.findById(universeId)
+                    .orElseThrow(() -> new IllegalArgumentException("Universe not found")));
+            botApiKeyStore.refreshAfterCommit(new BotPrincipal(bot.getId(), bot.getUuid(), universeId));
+        }
+        domainEventBus.publish(BotEvent.of(BotEvent.Kind.UPDATED, id, bot.getUniverse().getId()));
+        return Optional.of(withBufferedHeartbeat(BotView.from(botRepository.saveAndFlush(bot))));
+    }
+
+    /**
+     * Issues a new API key for the bot, replacing any previous one. Only its hash is stored.
+     *
+     * @return the key, which cannot be retrieved again, or empty if the bot does not exist
+     */
+    public Optional<String> issueApiKey(Long id) {
+        return botRepository.findById(id).map(bot -> {
+            String apiKey = botApiKeyStore.generateKey();
+            String apiKeyHash = botApiKeyStore.hash(apiKey);
+            bot.setApiKeyHash(apiKeyHash);
+            botApiKeyStore.putAfterCommit(apiKeyHash, new BotPrincipal(id, bot.getUuid(), bot.getUniverse().getId()));
+            domainEventBus.publish(BotEvent.of(BotEvent.Kind.CREDENTIALS_CHANGED, id, bot.getUniverse().getId()));
+            return apiKey;
+        });
+    }
+
+    /**
+     * @return false if the bot does not exist
+     */
+    public boolean revokeApiKey(Long id) {
+        Optional<Bot> bot = botRepository.findById(id);
+        bot.ifPresent(existing -> {
+            existing.setApiKeyHash(null);
+            botApiKeyStore.removeAfterCommit(id);
+            domainEventBus.publish(BotEvent.of(BotEvent.Kind.CREDENTIALS_CHANGED, id, existing.getUniverse().getId()));
+        });
+        return bot.isPresent();
+    }
+
+    /**
+     * Records a heartbeat in the {@link HeartbeatBuffer} without touching the database; the bot
+     * and its universe come from the reference data cache. A heartbeat for a bot deleted on
+     * another instance since it was cached is accepted and written to no row.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<BotView> recordHeartbeat(Long id) {
+        return referenceDataCache.findBotById(id).flatMap(this::touch);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<BotView> recordHeartbeatByUuid(String uuid) {
+        return referenceDataCache.findBotByUuid(uuid).flatMap(this::touch);
+    }
+
+    private Optional<BotView> touch(BotIdentity bot) {
+        LocalDateTime now = LocalDateTime.now();
+        heartbeatBuffer.record(bot.id(), now);
+        presenceTracker.heartbeat(bot.id(), now);
+        return referenceDataCache.findUniverse(bot.universeId())
+                .map(universe -> new BotView(bot.id(), bot.uuid(), bot.name(), now, bot.createdAt(),
+                        bot.updatedAt(), universe.toLink()));
+    }
+
+    /**
+     * @return presence of every bot this instance has seen a heartbeat from
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<BotPresence> getPresences() {
+        return presenceTracker.getPresences();
+    }
+
+    private BotView withBufferedHeartbeat(BotView bot) {
+        return bot.withLastSeenAt(heartbeatBuffer.lastSeen(bot.id(), bot.lastSeenAt()));
+    }
+
+    public boolean deleteBot(Long id) {
+        Optional<Bot> bot = botRepository.findById(id);
+        if (bot.isEmpty()) {
+            return false;
+        }
+        // The bot's tasks are deleted with it (Bot.tasks cascades), so account for them as deleteTask does
+        for (Task task : bot.get().getTasks()) {
+            universeTaskCounter.deleted(task);
+            domainEventBus.publish(TaskEvent.of(TaskEvent.Kind.DELETED, task));
+            playerNameIndex.removeAfterCommit(task.getId(), task.getPlayerName());
+        }
+        botRepository.delete(bot.get());
+        referenceDataCache.evictBot(id);
+        botApiKeyStore.removeAfterCommit(id);
+        presenceTracker.forget(id);
+        domainEventBus.publish(BotEvent.of(BotEvent.Kind.DELETED, id, bot.get().getUniverse().getId()));
+        return true;
+    }
+}
@@ -0,0 +1,341 @@
+package com.ogame.automation.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ogame.automation.dto.TaskDefinition;
+import com.ogame.automation.dto.TaskImportEvent;
+import com.ogame.automation.entity.Task;
+import com.ogame.automation.entity.Universe;
+import com.ogame.automation.repository.TaskRepository;
+import com.ogame.automation.repository.UniverseRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Streams CSV or NDJSON task definitions into the task table.
+ *
+ * Lines are parsed and validated one at a time; valid tasks are inserted in chunks that are
+ * flushed and detached from the persistence context, so memory stays flat and Hibernate can
+ * JDBC-batch the inserts (task ids come from a pooled sequence). Invalid lines are reported
+ * back and skipped. A single {@link TaskImportEvent} is published per universe once the
+ * import commits, instead of one event (and Discord notification) per task. Imported player
+ * names become searchable once the import commits.
+ */
+@Service
+public class BulkTaskImportService {
+
+    public static final String CSV_HEADER = "type,universeId,playerName,recurrenceMinutes,parameters";
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MAX_PLAYER_NAME_LENGTH = 100;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UniverseRepository universeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlayerNameIndex playerNameIndex;
+
+    @Autowired
+    private UniverseTaskCounter universeTaskCounter;
+
+    @Autowired
+    private DomainEventBus domainEventBus;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.tasks.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    @Transactional
+    public BulkImportResult importTasks(InputStream input, Format format) throws IOException {
+        ImportRun run = new ImportRun();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && lineNumber == 1 && isCsvHeader(line)) {
+                continue;
+            }
+
+            try {
+                TaskDefinition definition = format == Format.CSV ? parseCsv(line) : parseNdjson(line);
+                run.add(definition);
+            } catch (IllegalArgumentException e) {
+                run.reject(lineNumber, e.getMessage());
+            }
+        }
+        run.flush();
+
+        run.notifyUniverses();
+        return run.result();
+    }
+
+    private boolean isCsvHeader(String line) {
+        return line.replace(" ", "").toLowerCase(Locale.ROOT).startsWith("type,");
+    }
+
+    TaskDefinition parseCsv(String line) {
+        List<String> fields = splitCsvLine(line);
+        if (fields.size() < 2 || fields.size() > 5) {
+            throw new IllegalArgumentException("Expected columns: " + CSV_HEADER);
+        }
+        return new TaskDefinition(
+                parseType(fields.get(0)),
+                parseLong(fields.get(1), "universeId"),
+                fieldOrNull(fields, 2),
+                fieldOrNull(fields, 4),
+                parseInteger(fieldOrNull(fields, 3), "recurrenceMinutes"));
+    }
+
+    TaskDefinition parseNdjson(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON");
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+
+        JsonNode parameters = node.get("parameters");
+        String parametersText = null;
+        if (parameters != null && !parameters.isNull()) {
+            // Accept both an embedded JSON object and a pre-serialized string
+            parametersText = parameters.isTextual() ? parameters.asText() : parameters.toString();
+        }
+
+        return new TaskDefinition(
+                parseType(textOrNull(node, "type")),
+                parseLong(textOrNull(node, "universeId"), "universeId"),
+                textOrNull(node, "playerName"),
+                parametersText,
+                parseInteger(textOrNull(node, "recurrenceMinutes"), "recurrenceMinutes"));
+    }
+
+    private Task.TaskType parseType(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("type is required");
+        }
+        try {
+            return Task.TaskType.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown task type: " + value.trim());
+        }
+    }
+
+    private Long parseLong(String value, String name) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(name + " is required");
+        }
+        try {
+            return Long.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number");
+        }
+    }
+
+    private Integer parseInteger(String value, String name) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number");
+        }
+    }
+
+    private static String textOrNull(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static String fieldOrNull(List<String> fields, int index) {
+        if (index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Splits one CSV line, honouring double-quoted fields with "" escapes
+     * (needed for JSON parameters, which contain commas).
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(current.toString().trim());
+        return fields;
+    }
+
+    /**
+     * Mutable state of one import: pending chunk, universe lookups and counters.
+     */
+    private final class ImportRun {
+        private final List<Task> pending = new ArrayList<>();
+        private final Map<Long, Optional<Universe>> universes = new HashMap<>();
+        private final Map<Long, Map<Task.TaskType, Integer>> createdByUniverse = new HashMap<>();
+        private final Map<Long, Integer> recurringByUniverse = new HashMap<>();
+        private final List<String> errors = new ArrayList<>();
+        private int created;
+        private int rejected;
+
+        void add(TaskDefinition definition) {
+            Universe universe = universes
+                    .computeIfAbsent(definition.universeId(), universeRepository::findById)
+                    .orElseThrow(() -> new IllegalArgumentException("Universe not found: " + definition.universeId()));
+            validate(definition);
+
+            pending.add(TaskService.newTask(definition.type(), universe, definition.playerName(),
+                    definition.parameters(), definition.recurrenceMinutes()));
+
+            createdByUniverse.computeIfAbsent(universe.getId(), id -> new EnumMap<>(Task.TaskType.class))
+                    .merge(definition.type(), 1, Integer::sum);
+            if (definition.recurrenceMinutes() != null) {
+                recurringByUniverse.merge(universe.getId(), 1, Integer::sum);
+            }
+
+            if (pending.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        private void validate(TaskDefinition definition) {
+            if (definition.playerName() != null && definition.playerName().length() > MAX_PLAYER_NAME_LENGTH) {
+                throw new IllegalArgumentException("playerName exceeds " + MAX_PLAYER_NAME_LENGTH + " characters");
+            }
+            if (definition.recurrenceMinutes() != null && definition.recurrenceMinutes() <= 0) {
+                throw new IllegalArgumentException("recurrenceMinutes must be positive");
+            }
+            if (definition.parameters() != null) {
+                try {
+                    objectMapper.readTree(definition.parameters());
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("parameters must be valid JSON");
+                }
+            }
+        }
+
+        void reject(int lineNumber, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("Line " + lineNumber + ": " + message);
+            }
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            taskRepository.saveAll(pending);
+            entityManager.flush();
+            for (Task task : pending) {
+                playerNameIndex.addAfterCommit(task.getId(), task.getPlayerName());
+                universeTaskCounter.created(task);
+            }
+            entityManager.clear();
+            created += pending.size();
+            pending.clear();
+        }
+
+        void notifyUniverses() {
+            createdByUniverse.forEach((universeId, counts) -> domainEventBus.publish(new TaskImportEvent(
+                    universeId, counts, recurringByUniverse.getOrDefault(universeId, 0), LocalDateTime.now())));
+        }
+
+        BulkImportResult result() {
+            return new BulkImportResult(created, rejected, errors);
+        }
+    }
+
+    /**
+     * Outcome of a bulk import
+     */
+    public static class BulkImportResult {
+        private final int created;
+        private final int rejected;
+        private final List<String> errors;
+
+        public BulkImportResult(int created, int rejected, List<String> errors) {
+            this.created = created;
+            this.rejected = rejected;
+            this.errors = errors;
+        }
+
+        public int getCreated() {
+            return created;
+        }
+
+        public int getRejected() {
+            return rejected;
+        }
+
+        public List<String> getErrors() {
+            return errors;
+        }
+    }
+}
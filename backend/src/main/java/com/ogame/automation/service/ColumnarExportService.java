@@ -0,0 +1,265 @@
+package com.ogame.automation.service;
+
+import com.ogame.automation.dto.TaskExportRow;
+import com.ogame.automation.dto.TaskResultExportRow;
+import com.ogame.automation.entity.ExportWatermark;
+import com.ogame.automation.export.ArrowDatasetWriter;
+import com.ogame.automation.export.ExportColumn;
+import com.ogame.automation.repository.ExportWatermarkRepository;
+import com.ogame.automation.repository.TaskRepository;
+import com.ogame.automation.repository.TaskResultRepository;
+import jakarta.annotation.PreDestroy;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incrementally exports task and task result history into Arrow IPC files for offline analytics.
+ *
+ * Each dataset keeps a watermark in {@code export_watermark}; a run reads only rows past the
+ * watermark using keyset paging, writes them partitioned by universe and day, and advances the
+ * watermark once every file of the run has been published.
+ *
+ * A row's {@code updated_at} (or result id) is assigned before its transaction commits, so a row
+ * may become visible after rows ordered behind it have been exported. Runs therefore stop at rows
+ * younger than {@code app.export.safety-lag}, which must exceed the longest write transaction
+ * (plus clock skew between instances); such rows are picked up by the next run. Delivery is
+ * at-least-once: if the process dies between publishing the files and saving the watermark, the
+ * next run exports those rows again, so consumers de-duplicate by id (and {@code updated_at} for
+ * tasks).
+ *
+ * The {@code task_result} dataset is append-only by nature. The {@code task} dataset is a change
+ * log: every time a task row is updated a new snapshot is appended, so consumers should keep the
+ * latest row per task id (ordered by {@code updated_at}).
+ *
+ * Runs, scheduled or requested, go through {@link ScheduledJobLock}: one at a time across all
+ * instances, each in a transaction that also saves the watermarks.
+ */
+@Service
+public class ColumnarExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColumnarExportService.class);
+
+    public static final String TASK_DATASET = "task";
+    public static final String TASK_RESULT_DATASET = "task_result";
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final DateTimeFormatter RUN_ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmssSSS");
+
+    static final String JOB = "columnarExport";
+    // A scheduled run keeps the lease for half the hourly period; a requested one only while it runs
+    private static final Duration LEASE = Duration.ofHours(1);
+    private static final Duration SCHEDULED_HOLD = Duration.ofMinutes(30);
+
+    private static final List<ExportColumn<TaskResultExportRow>> TASK_RESULT_COLUMNS = List.of(
+            ExportColumn.int64("id", TaskResultExportRow::id),
+            ExportColumn.int64("task_id", TaskResultExportRow::taskId),
+            ExportColumn.int64("universe_id", TaskResultExportRow::universeId),
+            ExportColumn.int64("bot_id", TaskResultExportRow::botId),
+            ExportColumn.utf8("type", row -> row.type() != null ? row.type().name() : null),
+            ExportColumn.utf8("player_name", TaskResultExportRow::playerName),
+            ExportColumn.bool("success", TaskResultExportRow::success),
+            ExportColumn.int64("execution_time_ms", TaskResultExportRow::executionTimeMs),
+            ExportColumn.utf8("error_message", TaskResultExportRow::errorMessage),
+            ExportColumn.utf8("full_result", TaskResultExportRow::fullResult),
+            ExportColumn.timestamp("created_at", TaskResultExportRow::createdAt)
+    );
+
+    private static final List<ExportColumn<TaskExportRow>> TASK_COLUMNS = List.of(
+            ExportColumn.int64("id", TaskExportRow::id),
+            ExportColumn.int64("universe_id", TaskExportRow::universeId),
+            ExportColumn.int64("bot_id", TaskExportRow::botId),
+            ExportColumn.utf8("type", row -> row.type() != null ? row.type().name() : null),
+            ExportColumn.utf8("status", row -> row.status() != null ? row.status().name() : null),
+            ExportColumn.utf8("player_name", TaskExportRow::playerName),
+            ExportColumn.int32("recurrence_minutes", TaskExportRow::recurrenceMinutes),
+            ExportColumn.timestamp("next_execution_at", TaskExportRow::nextExecutionAt),
+            ExportColumn.timestamp("created_at", TaskExportRow::createdAt),
+            ExportColumn.timestamp("updated_at", TaskExportRow::updatedAt),
+            ExportColumn.timestamp("started_at", TaskExportRow::startedAt),
+            ExportColumn.timestamp("finished_at", TaskExportRow::finishedAt)
+    );
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskResultRepository taskResultRepository;
+
+    @Autowired
+    private ExportWatermarkRepository exportWatermarkRepository;
+
+    @Autowired
+    private ScheduledJobLock scheduledJobLock;
+
+    @Value("${app.export.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.export.directory:./exports}")
+    private String exportDirectory;
+
+    @Value("${app.export.row-group-size:10000}")
+    private int rowGroupSize;
+
+    @Value("${app.export.max-open-partitions:64}")
+    private int maxOpenPartitions;
+
+    @Value("${app.export.safety-lag:PT5M}")
+    private Duration safetyLag;
+
+    private final BufferAllocator rootAllocator = new RootAllocator();
+
+    /**
+     * Scheduled incremental export; a no-op unless {@code app.export.enabled=true}.
+     */
+    @Scheduled(cron = "${app.export.cron:0 15 * * * ?}") // Hourly by default
+    public void scheduledExport() {
+        if (enabled) {
+            export(SCHEDULED_HOLD);
+        }
+    }
+
+    /**
+     * Runs one incremental export of every dataset. Concurrent calls are skipped rather than queued.
+     * @return per-dataset results, or an empty list if another export is running (here or on
+     *         another instance) or this one lost its lease and rolled back its watermarks
+     */
+    public List<ExportResult> runExport() {
+        return export(Duration.ZERO);
+    }
+
+    private List<ExportResult> export(Duration minimumHold) {
+        List<ExportResult> results = new ArrayList<>();
+        boolean committed = scheduledJobLock.run(JOB, LEASE, minimumHold, () -> {
+            String runId = LocalDateTime.now().format(RUN_ID_FORMAT);
+            Path root = Path.of(exportDirectory);
+            try {
+                results.add(exportTaskResults(root, runId));
+                results.add(exportTasks(root, runId));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Columnar export failed", e);
+            }
+        });
+        return committed ? results : List.of();
+    }
+
+    ExportResult exportTaskResults(Path root, String runId) throws IOException {
+        ExportWatermark watermark = loadWatermark(TASK_RESULT_DATASET);
+        long lastId = watermark.getLastId() != null ? watermark.getLastId() : 0L;
+        LocalDateTime before = LocalDateTime.now().minus(safetyLag);
+
+        try (BufferAllocator allocator = rootAllocator.newChildAllocator(TASK_RESULT_DATASET, 0, Long.MAX_VALUE);
+             ArrowDatasetWriter<TaskResultExportRow> writer = new ArrowDatasetWriter<>(
+                     allocator, root, TASK_RESULT_DATASET, runId, TASK_RESULT_COLUMNS, rowGroupSize, maxOpenPartitions)) {
+
+            List<TaskResultExportRow> page;
+            boolean caughtUp = false;
+            do {
+                page = taskResultRepository.findExportRowsAfter(lastId, PageRequest.of(0, rowGroupSize));
+                for (TaskResultExportRow row : page) {
+                    // Ids follow insertion, not commit: stop at the first result that may still have earlier ones in flight
+                    if (!row.createdAt().isBefore(before)) {
+                        caughtUp = true;
+                        break;
+                    }
+                    writer.write(row.universeId(), row.createdAt().toLocalDate(), row);
+                    lastId = row.id();
+                }
+            } while (!caughtUp && page.size() == rowGroupSize);
+
+            return publish(writer, watermark, TASK_RESULT_DATASET, lastId, null);
+        }
+    }
+
+    ExportResult exportTasks(Path root, String runId) throws IOException {
+        ExportWatermark watermark = loadWatermark(TASK_DATASET);
+        long lastId = watermark.getLastId() != null ? watermark.getLastId() : 0L;
+        LocalDateTime lastUpdatedAt = watermark.getLastUpdatedAt() != null ? watermark.getLastUpdatedAt() : EPOCH;
+        LocalDateTime before = LocalDateTime.now().minus(safetyLag);
+
+        try (BufferAllocator allocator = rootAllocator.newChildAllocator(TASK_DATASET, 0, Long.MAX_VALUE);
+             ArrowDatasetWriter<TaskExportRow> writer = new ArrowDatasetWriter<>(
+                     allocator, root, TASK_DATASET, runId, TASK_COLUMNS, rowGroupSize, maxOpenPartitions)) {
+
+            List<TaskExportRow> page;
+            do {
+                page = taskRepository.findExportRowsAfter(lastUpdatedAt, lastId, before, PageRequest.of(0, rowGroupSize));
+                for (TaskExportRow row : page) {
+                    writer.write(row.universeId(), row.updatedAt().toLocalDate(), row);
+                    lastUpdatedAt = row.updatedAt();
+                    lastId = row.id();
+                }
+            } while (page.size() == rowGroupSize);
+
+            return publish(writer, watermark, TASK_DATASET, lastId, lastUpdatedAt);
+        }
+    }
+
+    private ExportResult publish(ArrowDatasetWriter<?> writer, ExportWatermark watermark, String dataset,
+                                 long lastId, LocalDateTime lastUpdatedAt) throws IOException {
+        long rows = writer.getRowsWritten();
+        int partitionCount = writer.getPartitionCount();
+        writer.commit();
+
+        if (rows > 0) {
+            watermark.setLastId(lastId);
+            if (lastUpdatedAt != null) {
+                watermark.setLastUpdatedAt(lastUpdatedAt);
+            }
+            exportWatermarkRepository.save(watermark);
+            logger.info("Exported {} {} row(s) into {} partition(s)", rows, dataset, partitionCount);
+        }
+        return new ExportResult(dataset, rows, partitionCount);
+    }
+
+    private ExportWatermark loadWatermark(String dataset) {
+        return exportWatermarkRepository.findById(dataset).orElseGet(() -> new ExportWatermark(dataset));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rootAllocator.close();
+    }
+
+    /**
+     * Outcome of exporting a single dataset
+     */
+    public static class ExportResult {
+        private final String dataset;
+        private final long rows;
+        private final int partitions;
+
+        public ExportResult(String dataset, long rows, int partitions) {
+            this.dataset = dataset;
+            this.rows = rows;
+            this.partitions = partitions;
+        }
+
+        public String getDataset() {
+            return dataset;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public int getPartitions() {
+            return partitions;
+        }
+    }
+}
@@ -1,26 +1,106 @@
 package com.ogame.automation.service;
 
+import com.ogame.automation.dto.BotPresence;
+import com.ogame.automation.dto.DomainEvent;
+import com.ogame.automation.dto.TaskEvent;
+import com.ogame.automation.dto.TaskImportEvent;
+import com.ogame.automation.dto.UniverseRef;
 import com.ogame.automation.entity.Task;
 import com.ogame.automation.entity.TaskResult;
 import com.ogame.automation.entity.Universe;
+import com.ogame.automation.repository.TaskRepository;
+import com.ogame.automation.repository.TaskResultRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Posts task and bot notifications to the webhook of their universe.
+ *
+ * Task notifications are sent from {@link DomainEventBus} events, on the bus's thread for this
+ * service, so a slow or unreachable webhook never delays the request that changed the task. The
+ * task and its result are read back once committed; a task deleted in the meantime is skipped.
+ * Webhook calls give up after {@code app.discord.timeout}, so an unresponsive webhook cannot stall
+ * the notifications behind it.
+ */
 @Service
 public class DiscordNotificationService {
 
-    private final RestTemplate restTemplate;
+    private static final Logger logger = LoggerFactory.getLogger(DiscordNotificationService.class);
 
-    public DiscordNotificationService() {
-        this.restTemplate = new RestTemplate();
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskResultRepository taskResultRepository;
+
+    @Autowired
+    private DomainEventBus domainEventBus;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.discord.timeout:PT10S}")
+    private Duration timeout;
+
+    @PostConstruct
+    void init() {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        restTemplate = new RestTemplate(requestFactory);
+        domainEventBus.subscribe("discord", this::onEvents);
+    }
+
+    void onEvents(List<DomainEvent> events) {
+        for (DomainEvent event : events) {
+            Optional<UniverseRef> universe = referenceDataCache.findUniverse(event.universeId())
+                    .filter(ref -> ref.discordWebhook() != null && !ref.discordWebhook().isEmpty());
+            if (universe.isEmpty()) {
+                continue;
+            }
+            try {
+                switch (event) {
+                    case TaskEvent task when task.kind() == TaskEvent.Kind.CREATED ->
+                            taskRepository.findById(task.taskId()).ifPresent(created ->
+                                    sendTaskCreatedNotification(created, universe.get()));
+                    case TaskEvent task when task.kind() == TaskEvent.Kind.FINISHED || task.kind() == TaskEvent.Kind.ERROR ->
+                            taskRepository.findWithReferencesById(task.taskId()).ifPresent(completed ->
+                                    taskResultRepository.findFirstByTaskIdOrderByIdDesc(task.taskId()).ifPresent(result ->
+                                            sendTaskCompletedNotification(completed, result)));
+                    case TaskImportEvent imported ->
+                            sendBulkTasksCreatedNotification(universe.get(), imported.countsByType(), imported.recurringCount());
+                    default -> {
+                    }
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Failed to send Discord notification for {}", event, e);
+            }
+        }
     }
 
     public void sendTaskCompletedNotification(Task task, TaskResult result) {
@@ -29,12 +109,16 @@ public class DiscordNotificationService {
             return; // No webhook configured
         }
 
+        sendWebhook("task_completed", universe.getDiscordWebhook(), taskCompletedPayload(task, result));
+    }
+
+    Map<String, Object> taskCompletedPayload(Task task, TaskResult result) {
+        Universe universe = task.getUniverse();
         String status = result.getSuccess() ? "✅ SUCCESS" : "❌ FAILED";
         String color = result.getSuccess() ? "3066993" : "15158332"; // Green or Red
         
         Map<String, Object> payload = new HashMap<>();
-        payload.put("embeds", new Object[]{
-            Map.of(
+        Map<String, Object> embed = new HashMap<>(Map.of(
                 "title", "OGame Task Completed",
                 "color", Integer.parseInt(color),
                 "fields", new Object[]{
@@ -46,23 +130,24 @@ public class DiscordNotificationService {
                     Map.of("name", "Execution Time", "value", result.getExecutionTimeMs() != null ? result.getExecutionTimeMs() + "ms" : "N/A", "inline", true)
                 },
                 "timestamp", result.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
-            )
-        });
+        ));
 
         if (!result.getSuccess() && result.getErrorMessage() != null) {
-            ((Map<String, Object>) ((Object[]) payload.get("embeds"))[0]).put("description", 
-                "**Error:** " + result.getErrorMessage());
+            embed.put("description", "**Error:** " + result.getErrorMessage());
         }
-
-        sendWebhook(universe.getDiscordWebhook(), payload);
+        payload.put("embeds", new Object[]{embed});
+        return payload;
     }
 
-    public void sendTaskCreatedNotification(Task task) {
-        Universe universe = task.getUniverse();
-        if (universe.getDiscordWebhook() == null || universe.getDiscordWebhook().isEmpty()) {
+    public void sendTaskCreatedNotification(Task task, UniverseRef universe) {
+        if (universe.discordWebhook() == null || universe.discordWebhook().isEmpty()) {
             return; // No webhook configured
         }
 
+        sendWebhook("task_created", universe.discordWebhook(), taskCreatedPayload(task, universe));
+    }
+
+    Map<String, Object> taskCreatedPayload(Task task, UniverseRef universe) {
         Map<String, Object> payload = new HashMap<>();
         payload.put("embeds", new Object[]{
             Map.of(
@@ -70,15 +155,41 @@ public class DiscordNotificationService {
                 "color", 3447003, // Blue
                 "fields", new Object[]{
                     Map.of("name", "Task Type", "value", task.getType().name(), "inline", true),
-                    Map.of("name", "Universe", "value", universe.getName(), "inline", true),
+                    Map.of("name", "Universe", "value", universe.name(), "inline", true),
                     Map.of("name", "Player", "value", task.getPlayerName() != null ? task.getPlayerName() : "N/A", "inline", true),
                     Map.of("name", "Recurring", "value", task.getRecurrenceMinutes() != null ? "Every " + task.getRecurrenceMinutes() + " min" : "One-time", "inline", true)
                 },
                 "timestamp", task.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
             )
         });
+        return payload;
+    }
+
+    public void sendBulkTasksCreatedNotification(UniverseRef universe, Map<Task.TaskType, Integer> countsByType, int recurringCount) {
+        if (universe.discordWebhook() == null || universe.discordWebhook().isEmpty()) {
+            return; // No webhook configured
+        }
+
+        int total = countsByType.values().stream().mapToInt(Integer::intValue).sum();
+        StringBuilder breakdown = new StringBuilder();
+        countsByType.forEach((type, count) -> breakdown.append(type.name()).append(": ").append(count).append('\n'));
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("embeds", new Object[]{
+            Map.of(
+                "title", "OGame Tasks Imported",
+                "color", 3447003, // Blue
+                "fields", new Object[]{
+                    Map.of("name", "Universe", "value", universe.name(), "inline", true),
+                    Map.of("name", "Tasks Created", "value", String.valueOf(total), "inline", true),
+                    Map.of("name", "Recurring", "value", String.valueOf(recurringCount), "inline", true),
+                    Map.of("name", "By Type", "value", breakdown.toString().trim(), "inline", false)
+                },
+                "timestamp", java.time.LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+            )
+        });
 
-        sendWebhook(universe.getDiscordWebhook(), payload);
+        sendWebhook("tasks_imported", universe.discordWebhook(), payload);
     }
 
     public void sendBotStatusNotification(String universeWebhook, String botName, String universeName, boolean isOnline) {
@@ -103,10 +214,27 @@ public class DiscordNotificationService {
             )
         });
 
-        sendWebhook(universeWebhook, payload);
+        sendWebhook("bot_status", universeWebhook, payload);
+    }
+
+    /**
+     * Announces bots going online or offline, as reported by the {@link PresenceTracker}.
+     */
+    @EventListener
+    public void onBotPresence(BotPresence presence) {
+        referenceDataCache.findBotById(presence.botId()).ifPresent(bot ->
+                referenceDataCache.findUniverse(bot.universeId()).ifPresent(universe ->
+                        sendBotStatusNotification(universe.discordWebhook(), bot.name() != null ? bot.name() : bot.uuid(),
+                                universe.name(), presence.online())));
     }
 
-    private void sendWebhook(String webhookUrl, Map<String, Object> payload) {
+    /**
+     * Timed as {@code discord.webhook.requests}, tagged with the notification kind and whether it
+     * was delivered.
+     */
+    private void sendWebhook(String notification, String webhookUrl, Map<String, Object> payload) {
+        long start = System.nanoTime();
+        String outcome = "success";
         try {
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
@@ -114,8 +242,16 @@ public class DiscordNotificationService {
             HttpEntity<Map<String, Object>> request = new HttpEntity<>(payload, headers);
             restTemplate.postForEntity(webhookUrl, request, String.class);
         } catch (Exception e) {
-            System.err.println("Failed to send Discord webhook: " + e.getMessage());
+            outcome = "failure";
+            logger.warn("Failed to send Discord webhook: {}", e.getMessage());
             // Don't throw exception - webhook failures shouldn't break the application
+        } finally {
+            if (meterRegistry != null) {
+                Timer.builder("discord.webhook.requests")
+                        .tags("notification", notification, "outcome", outcome)
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
         }
     }
 }
@@ -0,0 +1,303 @@
+package com.ogame.automation.service;
+
+import com.ogame.automation.dto.DomainEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+
+/**
+ * In-process bus for {@link DomainEvent}s: task, bot and universe lifecycle changes.
+ *
+ * Services publish events inside their transaction; they are queued once it commits (at once
+ * without one), all events of the transaction together, and dropped if it rolls back.
+ * Subscribers each get their own thread and receive the events in publication order, in batches
+ * of whatever accumulated while they were busy, so a slow subscriber (Discord) neither delays the
+ * publishing request nor the other subscribers.
+ *
+ * Events go through a ring of {@code app.events.buffer-size} preallocated slots. Publishers claim
+ * a sequence number, write the slot and then stamp it with the sequence; subscribers read slots up
+ * to the first one not stamped yet, so neither side takes a lock. Publishers never wait for
+ * subscribers: one that falls a full ring behind finds its next slot overwritten, skips to the
+ * newest event and is told how many it lost (counted by {@code events.bus.lost}, per subscriber),
+ * while the others keep receiving every event.
+ *
+ * Changes that must stay consistent with the data (task counters, statistics rollups, cache
+ * eviction) are applied in the transaction, not through the bus.
+ */
+@Component
+public class DomainEventBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(DomainEventBus.class);
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    // Stamp of a slot a publisher is writing
+    private static final long WRITING = Long.MIN_VALUE;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.events.buffer-size:4096}")
+    private int bufferSize;
+
+    @Value("${app.events.shutdown-timeout:PT5S}")
+    private Duration shutdownTimeout;
+
+    private DomainEvent[] slots;
+    private AtomicLongArray stamps;
+    private int mask;
+
+    // Highest sequence handed out to a publisher
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile boolean running = true;
+
+    /**
+     * Receives the events published since the previous call, oldest first. The list is reused
+     * after the call returns.
+     */
+    @FunctionalInterface
+    public interface Subscriber {
+        void onEvents(List<DomainEvent> events);
+    }
+
+    private final class Subscription implements Runnable {
+        private final String name;
+        private final Subscriber subscriber;
+        private final LongConsumer onLost;
+        private final Counter lost;
+        private final List<DomainEvent> batch = new ArrayList<>();
+        private final List<DomainEvent> view = Collections.unmodifiableList(batch);
+        private Thread thread;
+
+        // Highest sequence this subscriber is done with
+        private volatile long consumed;
+        private volatile boolean waiting;
+
+        Subscription(String name, Subscriber subscriber, LongConsumer onLost, long consumed) {
+            this.name = name;
+            this.subscriber = subscriber;
+            this.onLost = onLost;
+            this.consumed = consumed;
+            this.lost = meterRegistry == null ? null
+                    : Counter.builder("events.bus.lost").tag("subscriber", name).register(meterRegistry);
+        }
+
+        @Override
+        public void run() {
+            long next = consumed + 1;
+            while (true) {
+                long sequence = next;
+                boolean lapped = false;
+                while (true) {
+                    int index = index(sequence);
+                    long stamp = stamps.get(index);
+                    if (stamp != sequence) {
+                        lapped = stamp > sequence;
+                        break;
+                    }
+                    DomainEvent event = slots[index];
+                    // As in StampedLock.validate: the slot is read before the stamp is checked again
+                    VarHandle.acquireFence();
+                    if (stamps.get(index) != sequence) {
+                        lapped = true;
+                        break;
+                    }
+                    batch.add(event);
+                    sequence++;
+                }
+                boolean read = sequence > next;
+                if (read) {
+                    deliver();
+                    consumed = sequence - 1;
+                    next = sequence;
+                }
+                if (lapped) {
+                    next = skip(next);
+                } else if (read) {
+                    continue;
+                } else if (!running) {
+                    return;
+                } else {
+                    // Publishers check the flag after stamping, so either they unpark us or we see their event
+                    waiting = true;
+                    if (stamps.get(index(next)) != next && running) {
+                        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    }
+                    waiting = false;
+                }
+            }
+        }
+
+        /**
+         * Gives up on the events from {@code next} on, which publishers have overwritten or are
+         * about to, and tells the subscriber how many it lost.
+         *
+         * @return the sequence to continue from
+         */
+        private long skip(long next) {
+            long newest = claimed.get();
+            long count = newest + 1 - next;
+            consumed = newest;
+            logger.warn("Subscriber {} fell a full buffer behind and lost {} events", name, count);
+            if (lost != null) {
+                lost.increment(count);
+            }
+            try {
+                onLost.accept(count);
+            } catch (RuntimeException e) {
+                logger.warn("Subscriber {} failed to handle the loss of {} events", name, count, e);
+            }
+            return newest + 1;
+        }
+
+        private void deliver() {
+            try {
+                subscriber.onEvents(view);
+            } catch (RuntimeException e) {
+                logger.warn("Subscriber {} failed to handle {} events", name, batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        int capacity = Integer.highestOneBit(Math.max(1, bufferSize - 1)) << 1;
+        slots = new DomainEvent[capacity];
+        stamps = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            // As if stamped a lap before the first event
+            stamps.set(i, i - capacity);
+        }
+        mask = capacity - 1;
+        if (meterRegistry != null) {
+            Gauge.builder("events.bus.backlog", this, DomainEventBus::backlog).register(meterRegistry);
+        }
+    }
+
+    /**
+     * Stops the subscriber threads once they have handled the events already published.
+     */
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        for (Subscription subscription : subscriptions) {
+            LockSupport.unpark(subscription.thread);
+            try {
+                subscription.thread.join(Duration.ofNanos(Math.max(1, deadline - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Starts delivering events published from now on to the subscriber, on a thread of its own.
+     */
+    public void subscribe(String name, Subscriber subscriber) {
+        subscribe(name, subscriber, count -> {
+        });
+    }
+
+    /**
+     * As {@link #subscribe(String, Subscriber)}, calling {@code onLost} on the subscriber's thread,
+     * between the batches before and after the gap, with the number of events it fell too far
+     * behind to receive.
+     */
+    public void subscribe(String name, Subscriber subscriber, LongConsumer onLost) {
+        Subscription subscription = new Subscription(name, subscriber, onLost, claimed.get());
+        subscription.thread = Thread.ofPlatform().daemon().name("events-" + name).unstarted(subscription);
+        subscriptions.add(subscription);
+        subscription.thread.start();
+    }
+
+    /**
+     * Publishes the event once the surrounding transaction commits, or at once without one.
+     */
+    public void publish(DomainEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            offer(event);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<DomainEvent> pending = (List<DomainEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<DomainEvent> events = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, events);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    events.forEach(DomainEventBus.this::offer);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(DomainEventBus.this);
+                }
+            });
+            pending = events;
+        }
+        pending.add(event);
+    }
+
+    void offer(DomainEvent event) {
+        long sequence = claimed.incrementAndGet();
+        int index = index(sequence);
+        // Waits only while the publisher of the slot's previous lap is still writing it
+        while (!stamps.compareAndSet(index, sequence - slots.length, WRITING)) {
+            Thread.onSpinWait();
+        }
+        slots[index] = event;
+        stamps.set(index, sequence);
+        for (Subscription subscription : subscriptions) {
+            if (subscription.waiting) {
+                LockSupport.unpark(subscription.thread);
+            }
+        }
+    }
+
+    private long minimumConsumed(long fallback) {
+        long minimum = fallback;
+        for (Subscription subscription : subscriptions) {
+            minimum = Math.min(minimum, subscription.consumed);
+        }
+        return minimum;
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence & mask);
+    }
+
+    /**
+     * @return events published but not yet handled by the slowest subscriber
+     */
+    public long backlog() {
+        long published = claimed.get();
+        return published - minimumConsumed(published);
+    }
+}
@@ -0,0 +1,190 @@
+package com.ogame.automation.service;
+
+import com.ogame.automation.entity.Bot;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.NativeQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesces bot heartbeats in memory (bot id → latest epoch millis) so that recording one is a
+ * single map update, and writes them to {@code bot.last_seen_at} every
+ * {@code app.heartbeat.flush-interval} with one UPDATE per {@code app.heartbeat.flush-batch-size}
+ * bots. A bot sending many heartbeats between two flushes costs one row write.
+ *
+ * Readers of {@code lastSeenAt} merge in {@link #lastSeen(Long, LocalDateTime)}, so the value they
+ * return is never older than the last accepted heartbeat. Heartbeats not yet flushed are lost if
+ * the process dies without a graceful shutdown, which at worst makes a bot look one interval older.
+ */
+@Component
+public class HeartbeatBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(HeartbeatBuffer.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.heartbeat.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder flushed = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        if (meterRegistry != null) {
+            FunctionCounter.builder("bots.heartbeats.recorded", recorded, LongAdder::sum).register(meterRegistry);
+            FunctionCounter.builder("bots.heartbeats.flushed", flushed, LongAdder::sum).register(meterRegistry);
+            Gauge.builder("bots.heartbeats.pending", pending, Map::size).register(meterRegistry);
+        }
+    }
+
+    /**
+     * Buffers a heartbeat; a later one for the same bot replaces it, an older one is ignored.
+     */
+    public void record(Long botId, LocalDateTime seenAt) {
+        pending.merge(botId, toEpochMillis(seenAt), Math::max);
+        recorded.increment();
+    }
+
+    /**
+     * @return the later of the persisted value and the buffered heartbeat of the bot
+     */
+    public LocalDateTime lastSeen(Long botId, LocalDateTime persisted) {
+        Long buffered = pending.get(botId);
+        if (buffered == null) {
+            return persisted;
+        }
+        LocalDateTime bufferedAt = toLocalDateTime(buffered);
+        return persisted == null || bufferedAt.isAfter(persisted) ? bufferedAt : persisted;
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.heartbeat.flush-interval:PT5S}",
+            initialDelayString = "${app.heartbeat.flush-interval:PT5S}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // Entries stay buffered and are retried on the next run
+            logger.warn("Failed to flush {} bot heartbeats", pending.size(), e);
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        scheduledFlush();
+    }
+
+    /**
+     * Writes the buffered heartbeats. An entry is only removed if no newer heartbeat arrived while
+     * it was being written, so concurrent heartbeats are never lost.
+     *
+     * @return number of bots written
+     */
+    public synchronized int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        List<Map.Entry<Long, Long>> snapshot = new ArrayList<>(pending.size());
+        pending.forEach((botId, seenAt) -> snapshot.add(Map.entry(botId, seenAt)));
+
+        for (int from = 0; from < snapshot.size(); from += flushBatchSize) {
+            List<Map.Entry<Long, Long>> batch = snapshot.subList(from, Math.min(from + flushBatchSize, snapshot.size()));
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+            evict(batch);
+            batch.forEach(entry -> pending.remove(entry.getKey(), entry.getValue()));
+        }
+        flushed.add(snapshot.size());
+        logger.debug("Flushed {} bot heartbeats", snapshot.size());
+        return snapshot.size();
+    }
+
+    /**
+     * {@code UPDATE bot SET last_seen_at = CASE id WHEN ? THEN GREATEST(COALESCE(last_seen_at, ?), ?)
+     * ... END WHERE id IN (...)}. A row only moves forward, so a flush carrying an older heartbeat
+     * (from another instance's buffer, say) does not overwrite a newer one. {@code updated_at} is
+     * assigned to itself so MariaDB's ON UPDATE does not bump it: a heartbeat is not a modification
+     * of the bot. Ids of bots deleted in the meantime simply match no row.
+     * The native query is synchronized on an empty query space: without one Hibernate would evict
+     * every cache region, and synchronized on {@link Bot} it would still evict every cached bot
+     * and the cached bot queries, whose results (ids) a heartbeat does not change. Only the
+     * written bots are evicted, by {@link #evict(List)}.
+     */
+    private void write(List<Map.Entry<Long, Long>> batch) {
+        StringBuilder sql = new StringBuilder("UPDATE bot SET last_seen_at = CASE id");
+        for (int i = 0; i < batch.size(); i++) {
+            int seenAt = 2 * i + 2;
+            sql.append(" WHEN ?").append(2 * i + 1)
+                    .append(" THEN GREATEST(COALESCE(last_seen_at, ?").append(seenAt).append("), ?").append(seenAt).append(')');
+        }
+        sql.append(" ELSE last_seen_at END, updated_at = updated_at WHERE id IN (");
+        for (int i = 0; i < batch.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?").append(2 * i + 1);
+        }
+        sql.append(')');
+
+        NativeQuery<?> query = entityManager.createNativeQuery(sql.toString())
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("");
+        for (int i = 0; i < batch.size(); i++) {
+            query.setParameter(2 * i + 1, batch.get(i).getKey());
+            query.setParameter(2 * i + 2, toLocalDateTime(batch.get(i).getValue()));
+        }
+        query.executeUpdate();
+    }
+
+    /**
+     * Evicts the written bots from the second-level cache once their batch has committed, so a
+     * cached bot is not served with the {@code lastSeenAt} it had before the flush.
+     */
+    private void evict(List<Map.Entry<Long, Long>> batch) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        batch.forEach(entry -> cache.evictEntityData(Bot.class, entry.getKey()));
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
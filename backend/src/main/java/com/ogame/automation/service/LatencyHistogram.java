@@ -0,0 +1,90 @@
+package com.ogame.automation.service;
+
+import java.util.Arrays;
+
+/**
+ * Execution-time histogram with fixed, roughly logarithmic bucket bounds (1 ms to 1 h, then
+ * overflow), so histograms of any two rollup rows can be merged by adding counts and percentiles
+ * read from the merged result. Stored as comma-separated counts, one per bucket.
+ *
+ * A percentile is reported as the upper bound of the bucket it falls in, which is accurate to the
+ * bucket width (at most 2.5x) and never understates it.
+ */
+public final class LatencyHistogram {
+
+    /** Inclusive upper bounds in milliseconds; the last bucket holds everything above. */
+    static final long[] BOUNDS = {
+            1, 2, 5, 10, 20, 50, 100, 200, 500,
+            1_000, 2_000, 5_000, 10_000, 20_000, 30_000,
+            60_000, 120_000, 300_000, 600_000, 1_200_000, 1_800_000, 3_600_000
+    };
+
+    private final long[] counts;
+
+    public LatencyHistogram() {
+        this.counts = new long[BOUNDS.length + 1];
+    }
+
+    /**
+     * Parses the stored form; a blank or shorter value reads as zeros, extra values are ignored.
+     */
+    public static LatencyHistogram parse(String value) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        if (value == null || value.isBlank()) {
+            return histogram;
+        }
+        String[] parts = value.split(",");
+        for (int i = 0; i < Math.min(parts.length, histogram.counts.length); i++) {
+            histogram.counts[i] = Long.parseLong(parts[i].trim());
+        }
+        return histogram;
+    }
+
+    public String format() {
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < counts.length; i++) {
+            value.append(i == 0 ? "" : ",").append(counts[i]);
+        }
+        return value.toString();
+    }
+
+    static int bucketOf(long millis) {
+        int index = Arrays.binarySearch(BOUNDS, Math.max(millis, 0));
+        return index >= 0 ? index : -index - 1;
+    }
+
+    public void record(long millis) {
+        counts[bucketOf(millis)]++;
+    }
+
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+    }
+
+    public long count() {
+        return Arrays.stream(counts).sum();
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return upper bound in milliseconds of the bucket holding the percentile, or {@code null}
+     * when empty; times above the last bound are reported as that bound
+     */
+    public Long percentile(double percentile) {
+        long total = count();
+        if (total == 0) {
+            return null;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BOUNDS.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return BOUNDS[i];
+            }
+        }
+        return BOUNDS[BOUNDS.length - 1];
+    }
+}
@@ -0,0 +1,305 @@
+package com.ogame.automation.service;
+
+import com.ogame.automation.dto.TaskPlayerName;
+import com.ogame.automation.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory inverted index over task player names for substring and prefix search.
+ *
+ * Names are normalized to lower case and indexed once per distinct name, not per task: a sorted
+ * map answers prefix lookups with a range scan, and a trigram → names posting map answers
+ * substring lookups by walking the shortest posting list of the query's trigrams and verifying
+ * each candidate. Queries shorter than a trigram scan the distinct names directly.
+ *
+ * The index is loaded from the database once the application is ready and kept current by
+ * {@link TaskService} and {@link BulkTaskImportService} after their transactions commit. Task ids
+ * removed by other paths (e.g. cascades) may linger; callers re-check against the database.
+ */
+@Component
+public class PlayerNameIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlayerNameIndex.class);
+
+    private static final int GRAM = 3;
+    private static final int LOAD_PAGE_SIZE = 10000;
+
+    public enum Match {
+        PREFIX, SUBSTRING
+    }
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    /** normalized name → spellings and task ids */
+    private final ConcurrentSkipListMap<String, NameEntry> names = new ConcurrentSkipListMap<>();
+
+    /** trigram → normalized names containing it */
+    private final Map<String, Set<String>> trigrams = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        long lastId = 0L;
+        long loaded = 0L;
+        List<TaskPlayerName> page;
+        do {
+            page = taskRepository.findPlayerNamesAfter(lastId, PageRequest.of(0, LOAD_PAGE_SIZE));
+            for (TaskPlayerName row : page) {
+                add(row.id(), row.playerName());
+                lastId = row.id();
+            }
+            loaded += page.size();
+        } while (page.size() == LOAD_PAGE_SIZE);
+
+        ready = true;
+        logger.info("Player name index loaded {} task(s), {} distinct name(s) in {} ms",
+                loaded, names.size(), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Whether the initial load has finished; until then lookups may be incomplete.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getDistinctNameCount() {
+        return names.size();
+    }
+
+    public void add(Long taskId, String playerName) {
+        String key = normalize(playerName);
+        if (taskId == null || key == null) {
+            return;
+        }
+        names.compute(key, (k, entry) -> {
+            if (entry == null) {
+                entry = new NameEntry();
+                for (String gram : trigramsOf(k)) {
+                    trigrams.compute(gram, (g, posting) -> {
+                        Set<String> members = posting != null ? posting : ConcurrentHashMap.<String>newKeySet();
+                        members.add(k);
+                        return members;
+                    });
+                }
+            }
+            entry.spellings.add(playerName);
+            entry.taskIds.add(taskId);
+            return entry;
+        });
+    }
+
+    public void remove(Long taskId, String playerName) {
+        String key = normalize(playerName);
+        if (taskId == null || key == null) {
+            return;
+        }
+        names.computeIfPresent(key, (k, entry) -> {
+            entry.taskIds.remove(taskId);
+            if (!entry.taskIds.isEmpty()) {
+                return entry;
+            }
+            for (String gram : trigramsOf(k)) {
+                trigrams.computeIfPresent(gram, (g, posting) -> {
+                    posting.remove(k);
+                    return posting.isEmpty() ? null : posting;
+                });
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Defers {@link #add} until the surrounding transaction commits, so rolled back inserts never
+     * become searchable. Runs immediately when no transaction is active.
+     */
+    public void addAfterCommit(Long taskId, String playerName) {
+        afterCommit(() -> add(taskId, playerName));
+    }
+
+    public void removeAfterCommit(Long taskId, String playerName) {
+        afterCommit(() -> remove(taskId, playerName));
+    }
+
+    /**
+     * Player names matching the query, in their stored spellings.
+     * @param limit maximum number of distinct (normalized) names to return
+     */
+    public Set<String> findNames(String query, Match match, int limit) {
+        Set<String> result = new LinkedHashSet<>();
+        for (NameEntry entry : findEntries(query, match, limit)) {
+            result.addAll(entry.spellings);
+        }
+        return result;
+    }
+
+    /**
+     * Ids of tasks whose player name matches the query.
+     * @param limit maximum number of task ids to return
+     */
+    public SearchResult search(String query, Match match, int limit) {
+        List<Long> taskIds = new ArrayList<>();
+        Set<String> matchedNames = new LinkedHashSet<>();
+        boolean truncated = false;
+
+        for (NameEntry entry : findEntries(query, match, Integer.MAX_VALUE)) {
+            matchedNames.addAll(entry.spellings);
+            for (Long taskId : entry.taskIds) {
+                if (taskIds.size() == limit) {
+                    truncated = true;
+                    break;
+                }
+                taskIds.add(taskId);
+            }
+            if (truncated) {
+                break;
+            }
+        }
+        return new SearchResult(query, match, matchedNames, taskIds, truncated);
+    }
+
+    private List<NameEntry> findEntries(String query, Match match, int limit) {
+        String key = normalize(query);
+        List<NameEntry> result = new ArrayList<>();
+        if (key == null || limit <= 0) {
+            return result;
+        }
+
+        if (match == Match.PREFIX) {
+            for (NameEntry entry : names.subMap(key, true, key + Character.MAX_VALUE, true).values()) {
+                result.add(entry);
+                if (result.size() == limit) {
+                    break;
+                }
+            }
+            return result;
+        }
+
+        for (String candidate : substringCandidates(key)) {
+            if (candidate.contains(key)) {
+                NameEntry entry = names.get(candidate);
+                if (entry != null) {
+                    result.add(entry);
+                    if (result.size() == limit) {
+                        break;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Names that contain every trigram of the query; the shortest posting list bounds the work.
+     * Candidates still need a {@code contains} check, since trigram order is not enforced.
+     */
+    private Collection<String> substringCandidates(String key) {
+        if (key.length() < GRAM) {
+            return names.keySet();
+        }
+        Set<String> shortest = null;
+        for (String gram : trigramsOf(key)) {
+            Set<String> posting = trigrams.get(gram);
+            if (posting == null) {
+                return List.of();
+            }
+            if (shortest == null || posting.size() < shortest.size()) {
+                shortest = posting;
+            }
+        }
+        return shortest;
+    }
+
+    static Set<String> trigramsOf(String key) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= key.length(); i++) {
+            grams.add(key.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    static String normalize(String playerName) {
+        if (playerName == null || playerName.isEmpty()) {
+            return null;
+        }
+        return playerName.toLowerCase(Locale.ROOT);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class NameEntry {
+        private final Set<String> spellings = ConcurrentHashMap.newKeySet();
+        private final Set<Long> taskIds = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Result of a player name search
+     */
+    public static class SearchResult {
+        private final String query;
+        private final Match match;
+        private final Set<String> playerNames;
+        private final List<Long> taskIds;
+        private final boolean truncated;
+
+        public SearchResult(String query, Match match, Set<String> playerNames, List<Long> taskIds, boolean truncated) {
+            this.query = query;
+            this.match = match;
+            this.playerNames = playerNames;
+            this.taskIds = taskIds;
+            this.truncated = truncated;
+        }
+
+        public String getQuery() {
+            return query;
+        }
+
+        public Match getMatch() {
+            return match;
+        }
+
+        public Set<String> getPlayerNames() {
+            return playerNames;
+        }
+
+        public List<Long> getTaskIds() {
+            return taskIds;
+        }
+
+        public boolean isTruncated() {
+            return truncated;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.ogame.automation.service;
+
+import com.ogame.automation.dto.BotLastSeen;
+import com.ogame.automation.dto.BotPresence;
+import com.ogame.automation.repository.BotRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks which bots are online from their heartbeats and publishes a {@link BotPresence} event
+ * when a bot goes online (first heartbeat, or first after being offline) or offline (no
+ * heartbeat within {@code app.presence.timeout}).
+ *
+ * Heartbeat deadlines live in a deadline heap ({@link DelayQueue}) drained by one thread that
+ * sleeps until the earliest deadline, so offline transitions fire on time without polling the
+ * {@code bot} table. A heartbeat only moves the bot's deadline forward; the heap holds at most one
+ * entry per bot, which on expiry is re-armed at the bot's current deadline if it has moved.
+ * Events are delivered on a separate single thread, in order, so slow listeners (Discord) never
+ * delay expiry.
+ *
+ * Presence is held per instance, but a bot is only declared offline once the flushed
+ * {@code bot.last_seen_at} shows that no other instance has received its heartbeats within the
+ * timeout either; a bot sending them elsewhere stays online here. That costs one query per bot
+ * whose deadline passes without a heartbeat on this instance.
+ */
+@Component
+public class PresenceTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(PresenceTracker.class);
+
+    @Autowired
+    private BotRepository botRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.presence.timeout:PT90S}")
+    private Duration timeout;
+
+    private LongSupplier nanoTime = System::nanoTime;
+
+    private Clock clock = Clock.systemDefaultZone();
+
+    private final Map<Long, Presence> presences = new ConcurrentHashMap<>();
+    private final DelayQueue<Deadline> deadlines = new DelayQueue<>();
+
+    private Executor eventExecutor;
+    private Thread expiryThread;
+
+    private static final class Presence {
+        long deadline;
+        LocalDateTime lastSeenAt;
+        boolean online;
+        boolean armed;
+    }
+
+    private final class Deadline implements Delayed {
+        final Long botId;
+        final Presence presence;
+        final long at;
+
+        Deadline(Long botId, Presence presence, long at) {
+            this.botId = botId;
+            this.presence = presence;
+            this.at = at;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(at - nanoTime.getAsLong(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(at, ((Deadline) other).at);
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        if (eventExecutor == null) {
+            eventExecutor = Executors.newSingleThreadExecutor(Thread.ofPlatform().daemon().name("bot-presence-events").factory());
+        }
+        expiryThread = Thread.ofPlatform().daemon().name("bot-presence-expiry").start(this::runExpiry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        expiryThread.interrupt();
+        if (eventExecutor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * Seeds bots seen within the timeout as online, without events, so a restart does not
+     * announce every running bot again.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<BotLastSeen> recent = botRepository.findLastSeenSince(now.minus(timeout));
+        for (BotLastSeen bot : recent) {
+            long remaining = Duration.between(now, bot.lastSeenAt().plus(timeout)).toNanos();
+            Presence presence = presences.computeIfAbsent(bot.botId(), id -> new Presence());
+            synchronized (presence) {
+                if (presence.lastSeenAt == null) {
+                    presence.lastSeenAt = bot.lastSeenAt();
+                    presence.online = true;
+                    arm(bot.botId(), presence, nanoTime.getAsLong() + remaining);
+                }
+            }
+        }
+        logger.info("Presence tracker seeded with {} online bots", recent.size());
+    }
+
+    /**
+     * Pushes the bot's deadline to now + timeout, publishing an online event if it was not online.
+     */
+    public void heartbeat(Long botId, LocalDateTime seenAt) {
+        long deadline = nanoTime.getAsLong() + timeout.toNanos();
+        Presence presence = presences.computeIfAbsent(botId, id -> new Presence());
+        BotPresence wentOnline = null;
+        synchronized (presence) {
+            presence.lastSeenAt = seenAt;
+            if (!presence.armed) {
+                arm(botId, presence, deadline);
+            } else {
+                presence.deadline = deadline;
+            }
+            if (!presence.online) {
+                presence.online = true;
+                wentOnline = new BotPresence(botId, true, seenAt);
+            }
+        }
+        if (wentOnline != null) {
+            publish(wentOnline);
+        }
+    }
+
+    /**
+     * Stops tracking a deleted bot, without an event.
+     */
+    public void forget(Long botId) {
+        presences.remove(botId);
+    }
+
+    /**
+     * @return whether the bot timed out and has not sent a heartbeat since; bots never seen by
+     * this instance are not considered offline
+     */
+    public boolean isOffline(Long botId) {
+        Presence presence = presences.get(botId);
+        if (presence == null) {
+            return false;
+        }
+        synchronized (presence) {
+            return !presence.online;
+        }
+    }
+
+    public Optional<BotPresence> getPresence(Long botId) {
+        Presence presence = presences.get(botId);
+        return presence == null ? Optional.empty() : Optional.of(snapshot(botId, presence));
+    }
+
+    public List<BotPresence> getPresences() {
+        return presences.entrySet().stream()
+                .map(entry -> snapshot(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparing(BotPresence::botId))
+                .toList();
+    }
+
+    private static BotPresence snapshot(Long botId, Presence presence) {
+        synchronized (presence) {
+            return new BotPresence(botId, presence.online, presence.lastSeenAt);
+        }
+    }
+
+    private void arm(Long botId, Presence presence, long deadline) {
+        presence.deadline = deadline;
+        presence.armed = true;
+        deadlines.add(new Deadline(botId, presence, deadline));
+    }
+
+    private void runExpiry() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                expire(deadlines.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                logger.warn("Failed to expire bot presence", e);
+            }
+        }
+    }
+
+    /**
+     * Processes every deadline that is due now; the expiry thread does this as each one falls due.
+     */
+    void expireDue() {
+        Deadline due;
+        while ((due = deadlines.poll()) != null) {
+            expire(due);
+        }
+    }
+
+    private void expire(Deadline due) {
+        Presence presence = due.presence;
+        if (presences.get(due.botId) != presence) {
+            // Forgotten since it was armed
+            return;
+        }
+        synchronized (presence) {
+            if (rearmIfMoved(due.botId, presence)) {
+                return;
+            }
+        }
+        // Queried outside the lock, so heartbeats are not held up by the database
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime seenElsewhere = botRepository.findLastSeenAtById(due.botId).orElse(null);
+        BotPresence wentOffline = null;
+        synchronized (presence) {
+            if (rearmIfMoved(due.botId, presence)) {
+                return;
+            }
+            if (seenElsewhere != null && seenElsewhere.plus(timeout).isAfter(now)) {
+                // Another instance receives the bot's heartbeats
+                if (presence.lastSeenAt == null || seenElsewhere.isAfter(presence.lastSeenAt)) {
+                    presence.lastSeenAt = seenElsewhere;
+                }
+                arm(due.botId, presence, nanoTime.getAsLong() + Duration.between(now, seenElsewhere.plus(timeout)).toNanos());
+                return;
+            }
+            presence.armed = false;
+            if (presence.online) {
+                presence.online = false;
+                wentOffline = new BotPresence(due.botId, false, presence.lastSeenAt);
+            }
+        }
+        if (wentOffline != null) {
+            publish(wentOffline);
+        }
+    }
+
+    /**
+     * @return true if heartbeats moved the deadline since the entry was armed, which is then re-armed
+     */
+    private boolean rearmIfMoved(Long botId, Presence presence) {
+        long deadline = presence.deadline;
+        if (deadline - nanoTime.getAsLong() > 0) {
+            arm(botId, presence, deadline);
+            return true;
+        }
+        return false;
+    }
+
+    private void publish(BotPresence event) {
+        logger.info("Bot {} is {}", event.botId(), event.online() ? "online" : "offline");
+        eventExecutor.execute(() -> {
+            try {
+                eventPublisher.publishEvent(event);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to deliver presence event for bot {}", event.botId(), e);
+            }
+        });
+    }
+
+    void setNanoTime(LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+    }
+
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    void setEventExecutor(Executor eventExecutor) {
+        this.eventExecutor = eventExecutor;
+    }
+}
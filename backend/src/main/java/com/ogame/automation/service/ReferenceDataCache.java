@@ -0,0 +1,166 @@
+package com.ogame.automation.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.ogame.automation.config.PrimaryReads;
+import com.ogame.automation.dto.BotIdentity;
+import com.ogame.automation.dto.UniverseRef;
+import com.ogame.automation.repository.BotRepository;
+import com.ogame.automation.repository.UniverseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded in-process cache of universe and bot reference data, so steady-state bot traffic
+ * (task creation, assignment, heartbeats, access checks) resolves them without a query.
+ *
+ * Entries are immutable snapshots ({@link UniverseRef}, {@link BotIdentity}), never managed
+ * entities; callers that need an association use {@code getReferenceById}. Caches are bounded
+ * by size and expire after a TTL, which also bounds staleness across instances. Writers evict
+ * through {@link #evictUniverse}/{@link #evictBot}, both immediately and when the transaction completes, so a
+ * concurrent read cannot re-cache the pre-commit row. Misses are loaded from the primary
+ * ({@link PrimaryReads}) even with read replicas, which could still return that row. Hits and misses are published as
+ * {@code cache.gets} metrics tagged {@code cache=reference.*}.
+ */
+@Component
+public class ReferenceDataCache {
+
+    @Autowired
+    private UniverseRepository universeRepository;
+
+    @Autowired
+    private BotRepository botRepository;
+
+    @Autowired
+    private PrimaryReads primaryReads;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.cache.reference.max-size:10000}")
+    private long maxSize;
+
+    @Value("${app.cache.reference.ttl:PT10M}")
+    private Duration ttl;
+
+    private Ticker ticker = Ticker.systemTicker();
+
+    private Cache<Long, UniverseRef> universes;
+    private Cache<String, BotIdentity> botsByUuid;
+    private Cache<Long, BotIdentity> botsById;
+
+    @PostConstruct
+    void init() {
+        universes = newCache();
+        botsByUuid = newCache();
+        botsById = newCache();
+
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, universes, "reference.universes");
+            CaffeineCacheMetrics.monitor(meterRegistry, botsByUuid, "reference.bots-by-uuid");
+            CaffeineCacheMetrics.monitor(meterRegistry, botsById, "reference.bots-by-id");
+        }
+    }
+
+    private <K, V> Cache<K, V> newCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<UniverseRef> findUniverse(Long universeId) {
+        if (universeId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(universes.get(universeId,
+                id -> primaryReads.read(() -> universeRepository.findById(id).map(UniverseRef::from).orElse(null))));
+    }
+
+    public Optional<BotIdentity> findBotByUuid(String uuid) {
+        if (uuid == null) {
+            return Optional.empty();
+        }
+        BotIdentity bot = botsByUuid.get(uuid,
+                key -> primaryReads.read(() -> botRepository.findByUuid(key).map(BotIdentity::from).orElse(null)));
+        if (bot != null) {
+            botsById.put(bot.id(), bot);
+        }
+        return Optional.ofNullable(bot);
+    }
+
+    public Optional<BotIdentity> findBotById(Long botId) {
+        if (botId == null) {
+            return Optional.empty();
+        }
+        BotIdentity bot = botsById.get(botId,
+                key -> primaryReads.read(() -> botRepository.findById(key).map(BotIdentity::from).orElse(null)));
+        if (bot != null) {
+            botsByUuid.put(bot.uuid(), bot);
+        }
+        return Optional.ofNullable(bot);
+    }
+
+    public void evictUniverse(Long universeId) {
+        evictNowAndAfterCompletion(() -> universes.invalidate(universeId));
+    }
+
+    public void evictBot(Long botId) {
+        evictNowAndAfterCompletion(() -> {
+            BotIdentity bot = botsById.getIfPresent(botId);
+            botsById.invalidate(botId);
+            if (bot != null) {
+                botsByUuid.invalidate(bot.uuid());
+            }
+            // A UUID entry may exist without its id entry (or vice versa) if one was evicted by size
+            botsByUuid.asMap().values().removeIf(cached -> cached.id().equals(botId));
+        });
+    }
+
+    public void invalidateAll() {
+        universes.invalidateAll();
+        botsByUuid.invalidateAll();
+        botsById.invalidateAll();
+    }
+
+    /**
+     * Hit ratio per cache since startup, for logging and diagnostics (metrics carry the raw counts).
+     */
+    public double universeHitRatio() {
+        return universes.stats().hitRate();
+    }
+
+    public double botHitRatio() {
+        long hits = botsByUuid.stats().hitCount() + botsById.stats().hitCount();
+        long requests = botsByUuid.stats().requestCount() + botsById.stats().requestCount();
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+
+    void setTicker(Ticker ticker) {
+        this.ticker = ticker;
+    }
+
+    private static void evictNowAndAfterCompletion(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.ogame.automation.service;
+
+import com.ogame.automation.entity.JobLock;
+import com.ogame.automation.repository.JobLockRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs each scheduled job on one instance at a time, so that a second instance (during a rolling
+ * deploy, say) does not run it concurrently. A job first takes its lease in the {@code job_lock}
+ * table, then runs in a transaction of its own. A run still going on this instance, or a lease
+ * held by another one, makes the job skip its turn rather than wait.
+ *
+ * Every acquisition increments the row's fencing token. The run's transaction ends by releasing
+ * the lease under that token, so a run that outlasted its lease and was taken over by another
+ * instance rolls back instead of committing alongside the new holder's work. Lease times come
+ * from each instance's clock; leases are minutes long, so clock skew of a few seconds is harmless.
+ *
+ * Only jobs working on shared data go through here: task maintenance, the statistics prune and
+ * the columnar export. Jobs that tend this instance's own state run on every instance without a
+ * lease: the heartbeat buffer flush, SSE keepalives, bot channel offers, queue depth metrics and
+ * the replica lag check.
+ */
+@Component
+public class ScheduledJobLock {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledJobLock.class);
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final Map<String, ReentrantLock> running = new ConcurrentHashMap<>();
+
+    private Clock clock = Clock.systemDefaultZone();
+
+    private TransactionTemplate newTransaction;
+
+    private static final class LeaseLostException extends RuntimeException {
+        LeaseLostException(String job, long token) {
+            super("Lease of scheduled job " + job + " with fencing token " + token + " was taken over");
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Runs {@code work} in a new transaction if this instance gets the lease of {@code job}.
+     *
+     * @param lease how long other instances stay out if this one dies mid-run; a run taking longer
+     *              overruns and may be taken over
+     * @param minimumHold how long after acquisition the lease is kept once the run is over, so that
+     *                    instances whose schedules are a few seconds apart do not each run the job
+     * @return whether the work ran and committed
+     */
+    public boolean run(String job, Duration lease, Duration minimumHold, Runnable work) {
+        ReentrantLock local = running.computeIfAbsent(job, name -> new ReentrantLock());
+        if (!local.tryLock()) {
+            count(job, "busy");
+            logger.info("Scheduled job {} is still running, skipping", job);
+            return false;
+        }
+        try {
+            LocalDateTime acquiredAt = LocalDateTime.now(clock);
+            Long token = acquire(job, acquiredAt, acquiredAt.plus(lease));
+            if (token == null) {
+                count(job, "held");
+                logger.debug("Scheduled job {} is leased by another instance, skipping", job);
+                return false;
+            }
+            count(job, "acquired");
+            return runFenced(job, token, acquiredAt, lease, minimumHold, work);
+        } finally {
+            local.unlock();
+        }
+    }
+
+    /**
+     * @return the fencing token of the new lease, or null if another instance holds it
+     */
+    private Long acquire(String job, LocalDateTime now, LocalDateTime until) {
+        try {
+            return newTransaction.execute(status -> {
+                int taken = jobLockRepository.acquire(job, instanceId, now, until);
+                Optional<JobLock> lock = jobLockRepository.findById(job);
+                if (taken > 0) {
+                    return lock.map(JobLock::getFencingToken).orElseThrow();
+                }
+                if (lock.isPresent()) {
+                    return null;
+                }
+                return jobLockRepository.saveAndFlush(new JobLock(job, instanceId, now, until)).getFencingToken();
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the job's row first
+            return null;
+        }
+    }
+
+    private boolean runFenced(String job, long token, LocalDateTime acquiredAt, Duration lease, Duration minimumHold,
+                              Runnable work) {
+        boolean committed = false;
+        try {
+            newTransaction.executeWithoutResult(status -> {
+                work.run();
+                // The release locks the row until the commit, so no acquisition can slip in between
+                if (jobLockRepository.release(job, token, releasedUntil(acquiredAt, minimumHold)) == 0) {
+                    throw new LeaseLostException(job, token);
+                }
+            });
+            committed = true;
+        } catch (LeaseLostException e) {
+            logger.warn("{}; its work was rolled back", e.getMessage());
+        } finally {
+            Duration took = Duration.between(acquiredAt, LocalDateTime.now(clock));
+            if (took.compareTo(lease) > 0) {
+                logger.warn("Scheduled job {} took {}, longer than its lease of {}", job, took, lease);
+                if (meterRegistry != null) {
+                    Counter.builder("scheduled.jobs.overruns")
+                            .tag("job", job)
+                            .tag("outcome", committed ? "committed" : "rolled_back")
+                            .register(meterRegistry)
+                            .increment();
+                }
+            }
+            if (!committed) {
+                release(job, token, releasedUntil(acquiredAt, minimumHold));
+            }
+        }
+        return committed;
+    }
+
+    private void release(String job, long token, LocalDateTime until) {
+        try {
+            newTransaction.executeWithoutResult(status -> jobLockRepository.release(job, token, until));
+        } catch (RuntimeException e) {
+            // The lease then runs out on its own
+            logger.warn("Failed to release the lease of scheduled job {}", job, e);
+        }
+    }
+
+    private LocalDateTime releasedUntil(LocalDateTime acquiredAt, Duration minimumHold) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime held = acquiredAt.plus(minimumHold);
+        return held.isAfter(now) ? held : now;
+    }
+
+    private void count(String job, String outcome) {
+        if (meterRegistry != null) {
+            Counter.builder("scheduled.jobs.lock")
+                    .tag("job", job)
+                    .tag("outcome", outcome)
+                    .description("Lease acquisition attempts of scheduled jobs")
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    String getInstanceId() {
+        return instanceId;
+    }
+
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+}
@@ -1,40 +1,87 @@
 package com.ogame.automation.service;
 
+import com.ogame.automation.dto.TaskEvent;
 import com.ogame.automation.entity.Task;
 import com.ogame.automation.repository.TaskRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * Scheduled maintenance of tasks. Each job runs through {@link ScheduledJobLock}, on one instance
+ * at a time and in a transaction of its own, so the scheduled methods open none themselves. Runs
+ * are spaced by a fixed delay, so a slow run delays the next rather than being followed by runs
+ * catching up on the missed ones.
+ */
 @Service
 @Transactional
 public class ScheduledTaskService {
 
+    // Leases outlast a normal run many times over; each lease is kept for about half the job's
+    // period, so two instances run a job once per period between them
+    private static final Duration RECURRING_LEASE = Duration.ofMinutes(5);
+    private static final Duration RECURRING_HOLD = Duration.ofSeconds(30);
+    private static final Duration STALE_LEASE = Duration.ofMinutes(10);
+    private static final Duration STALE_HOLD = Duration.ofSeconds(150);
+    private static final Duration CLEANUP_LEASE = Duration.ofHours(1);
+    private static final Duration CLEANUP_HOLD = Duration.ofHours(1);
+
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private UniverseTaskCounter universeTaskCounter;
+
+    @Autowired
+    private TaskStatsService taskStatsService;
+
+    @Autowired
+    private DomainEventBus domainEventBus;
+
+    @Autowired
+    private TaskMetrics taskMetrics;
+
+    @Autowired
+    private TaskLifecycleLatency lifecycleLatency;
+
+    @Autowired
+    private ScheduledJobLock scheduledJobLock;
+
     /**
      * Check for recurring tasks that need to be reset every minute
      */
-    @Scheduled(fixedRate = 60000) // Run every minute
+    @Scheduled(fixedDelay = 60000) // Run every minute
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void processRecurringTasks() {
+        scheduledJobLock.run("processRecurringTasks", RECURRING_LEASE, RECURRING_HOLD, this::rescheduleRecurringTasks);
+    }
+
+    private void rescheduleRecurringTasks() {
         LocalDateTime now = LocalDateTime.now();
         List<Task> tasksToReschedule = taskRepository.findRecurringTasksToReschedule(now);
         
         for (Task task : tasksToReschedule) {
             if (task.getRecurrenceMinutes() != null && task.getRecurrenceMinutes() > 0) {
                 // Reset task status and schedule next execution
+                Task.TaskStatus previousStatus = task.getStatus();
+                LocalDateTime dueAt = task.getNextExecutionAt();
                 task.setStatus(Task.TaskStatus.CREATED);
+                universeTaskCounter.moved(task, previousStatus);
                 task.setBot(null);
                 task.setStartedAt(null);
                 task.setFinishedAt(null);
                 task.setNextExecutionAt(now.plusMinutes(task.getRecurrenceMinutes()));
                 
                 taskRepository.save(task);
+                domainEventBus.publish(TaskEvent.of(TaskEvent.Kind.RESCHEDULED, task));
+                taskMetrics.rescheduled(task);
+                lifecycleLatency.rescheduled(task, dueAt, now);
                 
                 System.out.println("Rescheduled recurring task ID: " + task.getId() + 
                     " for " + task.getNextExecutionAt());
@@ -46,7 +93,12 @@ public class ScheduledTaskService {
      * Clean up old task results and finished tasks (run daily)
      */
     @Scheduled(cron = "0 0 2 * * ?") // Run daily at 2 AM
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void cleanupOldTasks() {
+        scheduledJobLock.run("cleanupOldTasks", CLEANUP_LEASE, CLEANUP_HOLD, this::cleanup);
+    }
+
+    private void cleanup() {
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(30);
         
         // This would require additional repository methods for cleanup
@@ -62,8 +114,13 @@ public class ScheduledTaskService {
     /**
      * Check for stale tasks that have been in progress too long
      */
-    @Scheduled(fixedRate = 300000) // Run every 5 minutes
+    @Scheduled(fixedDelay = 300000) // Run every 5 minutes
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void checkStaleInProgressTasks() {
+        scheduledJobLock.run("checkStaleInProgressTasks", STALE_LEASE, STALE_HOLD, this::releaseStaleTasks);
+    }
+
+    private void releaseStaleTasks() {
         LocalDateTime staleThreshold = LocalDateTime.now().minusMinutes(30);
         
         List<Task> staleTasks = taskRepository.findByStatusAndStartedAtBefore(
@@ -74,11 +131,15 @@ public class ScheduledTaskService {
                 " started at: " + task.getStartedAt());
             
             // Reset stale tasks back to CREATED status
+            taskStatsService.recordRelease(task);
             task.setStatus(Task.TaskStatus.CREATED);
+            universeTaskCounter.moved(task, Task.TaskStatus.IN_PROGRESS);
             task.setBot(null);
             task.setStartedAt(null);
             
             taskRepository.save(task);
+            domainEventBus.publish(TaskEvent.of(TaskEvent.Kind.RELEASED, task));
+            taskMetrics.staleReleased(task);
             
             System.out.println("Reset stale task ID: " + task.getId() + " back to CREATED status");
         }
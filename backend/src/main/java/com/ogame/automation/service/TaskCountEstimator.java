@@ -0,0 +1,97 @@
+package com.ogame.automation.service;
+
+import com.ogame.automation.dto.TaskFilter;
+import com.ogame.automation.repository.TaskRepository;
+import com.ogame.automation.repository.TaskSpecifications;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Approximate task totals for paginated listings.
+ *
+ * The unfiltered total comes from MariaDB table statistics and totals by universe and/or status
+ * from the {@code universe_task_count} rows, both in constant time. Other filters run an indexed
+ * COUNT, whose cost grows with the number of matching tasks. Either way the value is cached per
+ * filter for a short TTL, so paging through a listing does not recount on every page.
+ */
+@Component
+public class TaskCountEstimator {
+
+    private static final String TABLE_ROWS_SQL =
+            "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'task'";
+
+    private static final int MAX_CACHED_FILTERS = 1000;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UniverseTaskCounter universeTaskCounter;
+
+    @Value("${app.tasks.count-cache-ttl-ms:30000}")
+    private long ttlMillis;
+
+    private final Map<TaskFilter, CachedCount> cache = new ConcurrentHashMap<>();
+
+    public long estimate(TaskFilter filter) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = cache.get(filter);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.count;
+        }
+
+        long count;
+        if (filter.isEmpty()) {
+            count = estimateTableRows();
+        } else if (isCounted(filter)) {
+            count = countFromCounters(filter);
+        } else {
+            count = taskRepository.count(TaskSpecifications.matching(filter));
+        }
+        if (cache.size() >= MAX_CACHED_FILTERS) {
+            cache.clear();
+        }
+        cache.put(filter, new CachedCount(count, now + ttlMillis));
+        return count;
+    }
+
+    /**
+     * @return whether the filter is on universe and/or status only, which the counters break down by
+     */
+    private static boolean isCounted(TaskFilter filter) {
+        return filter.equals(new TaskFilter(filter.status(), filter.universeId(), null, null, null, null, null));
+    }
+
+    private long countFromCounters(TaskFilter filter) {
+        if (filter.universeId() == null) {
+            return universeTaskCounter.total(filter.status());
+        }
+        if (filter.status() == null) {
+            return universeTaskCounter.total(filter.universeId());
+        }
+        return universeTaskCounter.countsByStatus(filter.universeId()).get(filter.status());
+    }
+
+    private long estimateTableRows() {
+        try {
+            Long rows = jdbcTemplate.queryForObject(TABLE_ROWS_SQL, Long.class);
+            if (rows != null) {
+                return rows;
+            }
+        } catch (DataAccessException e) {
+            // Not MariaDB/MySQL (e.g. H2 in tests) - fall back to an exact count
+        }
+        return taskRepository.count();
+    }
+
+    private record CachedCount(long count, long expiresAt) {}
+}
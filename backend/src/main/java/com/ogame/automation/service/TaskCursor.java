@@ -0,0 +1,47 @@
+package com.ogame.automation.service;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque keyset cursor over (created_at, id) for task listings.
+ */
+final class TaskCursor {
+
+    static final String CREATED_AT = "createdAt";
+    static final String ID = "id";
+
+    private TaskCursor() {}
+
+    static String encode(KeysetScrollPosition position) {
+        Map<String, ?> keys = position.getKeys();
+        String raw = keys.get(CREATED_AT) + "|" + keys.get(ID);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor was not produced by {@link #encode}
+     */
+    static ScrollPosition decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(CREATED_AT, LocalDateTime.parse(raw.substring(0, separator)));
+            keys.put(ID, Long.valueOf(raw.substring(separator + 1)));
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,384 @@
+package com.ogame.automation.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ogame.automation.dto.DomainEvent;
+import com.ogame.automation.dto.TaskEvent;
+import com.ogame.automation.dto.TaskImportEvent;
+import com.ogame.automation.entity.Task;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+/**
+ * Pushes {@link TaskEvent}s to live viewers over Server-Sent Events.
+ *
+ * Events arrive from the {@link DomainEventBus} after their transaction commits and are handed,
+ * a batch at a time, to a single dispatcher thread, which serializes each one once, stores it in
+ * a ring buffer of the last {@code app.sse.buffer-size} events and queues it for every matching
+ * subscriber. Subscriptions, replays and heartbeats run on the same thread, so a viewer resuming
+ * with {@code Last-Event-ID} receives the missed events followed by live ones, with no gap and no
+ * duplicate. A viewer that fell further behind than the buffer (or comes from before a restart)
+ * is sent a {@code reset} event and should reload its list.
+ *
+ * Each subscriber's queue holds at most {@code app.sse.subscriber-queue-size} events and is written
+ * by a writer thread of its own while it has any, so a viewer on a slow connection does not hold
+ * up the others. A viewer whose queue overflows is sent a {@code reset} in place of its queued
+ * events and disconnected.
+ *
+ * If this stream falls so far behind the bus that it loses events, every viewer is sent a
+ * {@code reset}, as is one resuming from before the gap.
+ *
+ * Event ids are {@code <epoch>-<sequence>}, the epoch being the start time of this instance.
+ */
+@Component
+public class TaskEventStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskEventStream.class);
+
+    static final String RESET = "reset";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DomainEventBus domainEventBus;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.sse.buffer-size:1024}")
+    private int bufferSize;
+
+    @Value("${app.sse.timeout:PT30M}")
+    private Duration timeout;
+
+    @Value("${app.sse.subscriber-queue-size:256}")
+    private int subscriberQueueSize;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    // Owned by the dispatcher thread
+    private Entry[] ring;
+    private long nextSequence = 1;
+    // Sequence of the latest events lost on the bus; resuming from before it resets
+    private long resumableAfter = 0;
+    private final List<Subscriber> subscribers = new ArrayList<>();
+
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private Executor dispatcher;
+    private Executor writers;
+    private LongFunction<SseEmitter> emitterFactory = SseEmitter::new;
+
+    private record Entry(long sequence, Long universeId, String json) {
+    }
+
+    /**
+     * A viewer and the events queued for it. The dispatcher thread queues, a writer drains.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Long universeId;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(subscriberQueueSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closing;
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, Long universeId) {
+            this.emitter = emitter;
+            this.universeId = universeId;
+        }
+
+        boolean accepts(Long eventUniverseId) {
+            return universeId == null || universeId.equals(eventUniverseId);
+        }
+
+        /**
+         * @return false if the queue is full or the viewer went away
+         */
+        boolean offer(SseEmitter.SseEventBuilder event) {
+            if (closed || closing || !queue.offer(event)) {
+                return false;
+            }
+            schedule();
+            return !closed;
+        }
+
+        /**
+         * Replaces the queued events with {@code last}, after which the connection is completed.
+         */
+        void close(SseEmitter.SseEventBuilder last) {
+            closing = true;
+            queue.clear();
+            if (last != null) {
+                queue.offer(last);
+            }
+            schedule();
+        }
+
+        boolean isClosed() {
+            return closed;
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                writers.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = queue.poll()) != null) {
+                    if (!send(emitter, event)) {
+                        closed = true;
+                        queue.clear();
+                    }
+                }
+                if (closing && !closed) {
+                    closed = true;
+                    emitter.complete();
+                }
+                draining.set(false);
+                // An event queued after the last poll but before the flag was cleared
+            } while (!closed && !queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        ring = new Entry[bufferSize];
+        if (dispatcher == null) {
+            dispatcher = Executors.newSingleThreadExecutor(Thread.ofPlatform().daemon().name("task-events").factory());
+        }
+        if (writers == null) {
+            writers = Executors.newCachedThreadPool(Thread.ofPlatform().daemon().name("task-events-writer-", 0).factory());
+        }
+        if (meterRegistry != null) {
+            Gauge.builder("tasks.events.subscribers", subscriberCount, AtomicInteger::get).register(meterRegistry);
+        }
+        domainEventBus.subscribe("sse", this::onEvents, this::onLost);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.execute(() -> {
+            subscribers.forEach(subscriber -> subscriber.close(null));
+            if (writers instanceof ExecutorService executorService) {
+                executorService.shutdown();
+            }
+        });
+        if (dispatcher instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * Bulk imports reach viewers as one {@link TaskEvent.Kind#IMPORTED} event per universe.
+     */
+    void onEvents(List<DomainEvent> events) {
+        List<TaskEvent> taskEvents = new ArrayList<>();
+        for (DomainEvent event : events) {
+            switch (event) {
+                case TaskEvent task -> taskEvents.add(task);
+                case TaskImportEvent imported -> taskEvents.add(new TaskEvent(TaskEvent.Kind.IMPORTED, null,
+                        imported.universeId(), null, Task.TaskStatus.CREATED, imported.at()));
+                default -> {
+                }
+            }
+        }
+        if (!taskEvents.isEmpty()) {
+            dispatcher.execute(() -> taskEvents.forEach(this::dispatch));
+        }
+    }
+
+    /**
+     * Events the bus could not deliver may have touched any list, so every viewer reloads. The
+     * gap takes a sequence of its own, the id of the reset, so only viewers that received the
+     * reset resume past it.
+     */
+    void onLost(long count) {
+        dispatcher.execute(() -> {
+            resumableAfter = nextSequence++;
+            subscribers.removeIf(subscriber -> {
+                boolean dropped = !deliver(subscriber, reset());
+                if (dropped) {
+                    subscriberCount.decrementAndGet();
+                }
+                return dropped;
+            });
+        });
+    }
+
+    /**
+     * @param universeId only events of this universe, or all when null
+     * @param lastEventId id of the last event the viewer received, to replay what it missed
+     */
+    public SseEmitter subscribe(Long universeId, String lastEventId) {
+        SseEmitter emitter = emitterFactory.apply(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, universeId);
+        Runnable remove = () -> dispatcher.execute(() -> {
+            if (subscribers.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+        });
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+        dispatcher.execute(() -> register(subscriber, lastEventId));
+        return emitter;
+    }
+
+    private void register(Subscriber subscriber, String lastEventId) {
+        if (lastEventId != null && !lastEventId.isBlank() && !replay(subscriber, lastEventId)) {
+            return;
+        }
+        subscribers.add(subscriber);
+        subscriberCount.incrementAndGet();
+    }
+
+    /**
+     * @return false if the subscriber was dropped while sending
+     */
+    private boolean replay(Subscriber subscriber, String lastEventId) {
+        long oldest = Math.max(resumableAfter + 1, nextSequence - ring.length);
+        long last = parseSequence(lastEventId);
+        if (last < oldest - 1 || last >= nextSequence) {
+            return deliver(subscriber, reset());
+        }
+        for (long sequence = last + 1; sequence < nextSequence; sequence++) {
+            Entry entry = ring[(int) (sequence % ring.length)];
+            if (subscriber.accepts(entry.universeId()) && !deliver(subscriber, event(entry))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long parseSequence(String lastEventId) {
+        int dash = lastEventId.indexOf('-');
+        if (dash < 0 || !lastEventId.substring(0, dash).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void dispatch(TaskEvent event) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            logger.warn("Failed to serialize task event {}", event, e);
+            return;
+        }
+        Entry entry = new Entry(nextSequence, event.universeId(), json);
+        ring[(int) (nextSequence % ring.length)] = entry;
+        nextSequence++;
+
+        for (Iterator<Subscriber> it = subscribers.iterator(); it.hasNext(); ) {
+            Subscriber subscriber = it.next();
+            if (subscriber.accepts(entry.universeId()) && !deliver(subscriber, event(entry))) {
+                it.remove();
+                subscriberCount.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Keeps idle connections (and proxies in between) open, and finds viewers that went away.
+     */
+    @Scheduled(fixedRateString = "${app.sse.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        dispatcher.execute(() -> subscribers.removeIf(subscriber -> {
+            boolean dropped = !deliver(subscriber, SseEmitter.event().comment("keepalive"));
+            if (dropped) {
+                subscriberCount.decrementAndGet();
+            }
+            return dropped;
+        }));
+    }
+
+    /**
+     * Queues the event for the subscriber, or disconnects a subscriber that cannot keep up.
+     *
+     * @return false if the subscriber was dropped
+     */
+    private boolean deliver(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (subscriber.offer(event)) {
+            return true;
+        }
+        if (!subscriber.isClosed()) {
+            logger.info("Disconnecting a task event viewer more than {} events behind", subscriberQueueSize);
+            subscriber.close(reset());
+        }
+        return false;
+    }
+
+    /**
+     * Asks the viewer to reload its list; the id lets it resume after the latest event.
+     */
+    private SseEmitter.SseEventBuilder reset() {
+        return SseEmitter.event().id(id(nextSequence - 1)).name(RESET).data("{}", MediaType.APPLICATION_JSON);
+    }
+
+    private SseEmitter.SseEventBuilder event(Entry entry) {
+        return SseEmitter.event().id(id(entry.sequence())).name("task").data(entry.json(), MediaType.APPLICATION_JSON);
+    }
+
+    private String id(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    private static boolean send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; the container completes the request with an error of its own
+            return false;
+        }
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    void setDispatcher(Executor dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    void setWriters(Executor writers) {
+        this.writers = writers;
+    }
+
+    void setEmitterFactory(LongFunction<SseEmitter> emitterFactory) {
+        this.emitterFactory = emitterFactory;
+    }
+}
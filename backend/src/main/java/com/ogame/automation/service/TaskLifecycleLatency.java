@@ -0,0 +1,161 @@
+package com.ogame.automation.service;
+
+import com.ogame.automation.dto.LatencyPercentiles;
+import com.ogame.automation.entity.Task;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency distributions of the task lifecycle, per stage, universe and task type:
+ * <ul>
+ *   <li>{@code due_to_claim}: from when the task became due (created, requeued by the scheduler or
+ *   released by its bot) until a bot claims it; grows when there are not enough bots</li>
+ *   <li>{@code claim_to_finish}: from the claim until the bot reports the task done</li>
+ *   <li>{@code schedule_drift}: how late the scheduler requeues a recurring task, relative to
+ *   {@code recurrenceMinutes} after its last run</li>
+ * </ul>
+ *
+ * Each series is a {@code tasks.lifecycle} timer whose percentiles come from HdrHistogram-based
+ * histograms over a sliding window of {@code app.latency.window}, rotated in
+ * {@code app.latency.window-buffers} steps. They are exported as {@code quantile} series and served
+ * by {@link #percentiles}. Samples are recorded once the transition commits.
+ */
+@Component
+public class TaskLifecycleLatency {
+
+    static final double[] PERCENTILES = {0.5, 0.9, 0.95, 0.99};
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.latency.window:PT10M}")
+    private Duration window;
+
+    @Value("${app.latency.window-buffers:5}")
+    private int windowBuffers;
+
+    private MeterRegistry registry;
+    private final Map<Key, Series> series = new ConcurrentHashMap<>();
+
+    public enum Stage {
+        DUE_TO_CLAIM, CLAIM_TO_FINISH, SCHEDULE_DRIFT;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private record Key(Stage stage, Long universeId, Task.TaskType type) {
+    }
+
+    private static final class Series {
+        final Timer timer;
+        volatile long lastRecorded;
+
+        Series(Timer timer) {
+            this.timer = timer;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        // Without a registry (e.g. actuator left out) the API still needs the histograms
+        registry = meterRegistry != null ? meterRegistry : new SimpleMeterRegistry();
+    }
+
+    /**
+     * @param dueAt when the task became claimable, i.e. its last change before the claim
+     */
+    public void claimed(Task task, LocalDateTime dueAt) {
+        recordAfterCommit(Stage.DUE_TO_CLAIM, task, dueAt, task.getStartedAt());
+    }
+
+    public void finished(Task task) {
+        recordAfterCommit(Stage.CLAIM_TO_FINISH, task, task.getStartedAt(), task.getFinishedAt());
+    }
+
+    /**
+     * @param dueAt the {@code nextExecutionAt} the task was scheduled for
+     */
+    public void rescheduled(Task task, LocalDateTime dueAt, LocalDateTime requeuedAt) {
+        recordAfterCommit(Stage.SCHEDULE_DRIFT, task, dueAt, requeuedAt);
+    }
+
+    private void recordAfterCommit(Stage stage, Task task, LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null) {
+            return;
+        }
+        Duration latency = Duration.between(from, to);
+        Key key = new Key(stage, task.getUniverse().getId(), task.getType());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(key, latency);
+                }
+            });
+        } else {
+            record(key, latency);
+        }
+    }
+
+    private void record(Key key, Duration latency) {
+        Series target = series.computeIfAbsent(key, k -> new Series(Timer.builder("tasks.lifecycle")
+                .tags("stage", k.stage().tag(), "universe", k.universeId().toString(), "type", k.type().name())
+                .publishPercentiles(PERCENTILES)
+                .percentilePrecision(2)
+                .distributionStatisticExpiry(window)
+                .distributionStatisticBufferLength(windowBuffers)
+                .register(registry)));
+        target.timer.record(latency.isNegative() ? Duration.ZERO : latency);
+        target.lastRecorded = registry.config().clock().monotonicTime();
+    }
+
+    /**
+     * @param universeId only this universe, or all when null
+     * @param type only this task type, or all when null
+     */
+    public List<LatencyPercentiles> percentiles(Long universeId, Task.TaskType type) {
+        long windowStart = registry.config().clock().monotonicTime() - window.toNanos();
+        return series.entrySet().stream()
+                .filter(entry -> universeId == null || universeId.equals(entry.getKey().universeId()))
+                .filter(entry -> type == null || type == entry.getKey().type())
+                .sorted(Map.Entry.comparingByKey(Comparator.comparing(Key::stage)
+                        .thenComparing(Key::universeId)
+                        .thenComparing(Key::type)))
+                .map(entry -> toPercentiles(entry.getKey(), entry.getValue(), entry.getValue().lastRecorded - windowStart > 0))
+                .toList();
+    }
+
+    private static LatencyPercentiles toPercentiles(Key key, Series series, boolean inWindow) {
+        HistogramSnapshot snapshot = series.timer.takeSnapshot();
+        Long[] values = new Long[PERCENTILES.length];
+        if (inWindow) {
+            ValueAtPercentile[] percentileValues = snapshot.percentileValues();
+            for (int i = 0; i < values.length && i < percentileValues.length; i++) {
+                values[i] = Math.round(percentileValues[i].value(TimeUnit.MILLISECONDS));
+            }
+        }
+        return new LatencyPercentiles(key.stage().tag(), key.universeId(), key.type(), snapshot.count(),
+                values[0], values[1], values[2], values[3],
+                inWindow ? Math.round(snapshot.max(TimeUnit.MILLISECONDS)) : null);
+    }
+}
@@ -0,0 +1,134 @@
+package com.ogame.automation.service;
+
+import com.ogame.automation.entity.Task;
+import com.ogame.automation.entity.UniverseTaskCount;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters of the task pipeline.
+ *
+ * {@code tasks.operations} times task creation, assignment and completion up to the end of their
+ * transaction, commit included, tagged with the {@code operation} and its {@code outcome}
+ * ({@code rolled_back} when the transaction fails). {@code tasks.queue.depth} holds the CREATED
+ * and IN_PROGRESS tasks per universe, read from the {@link UniverseTaskCounter} every
+ * {@code app.metrics.queue-depth-interval}. {@code tasks.rescheduled} and
+ * {@code tasks.stale.released} count the scheduler's resets per task type.
+ *
+ * Tags are limited to enums and universe ids, so the number of series stays bounded.
+ */
+@Component
+public class TaskMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskMetrics.class);
+
+    static final String ROLLED_BACK = "rolled_back";
+
+    private static final Set<Task.TaskStatus> QUEUE_STATUSES = Set.of(Task.TaskStatus.CREATED, Task.TaskStatus.IN_PROGRESS);
+
+    @Autowired
+    private UniverseTaskCounter universeTaskCounter;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private MultiGauge queueDepth;
+
+    public enum Operation {
+        CREATE, ASSIGN, COMPLETE;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        if (meterRegistry != null) {
+            queueDepth = MultiGauge.builder("tasks.queue.depth")
+                    .description("Tasks queued or in progress per universe")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Records the operation, started at {@code startNanos}, when the surrounding transaction
+     * completes (at once without one).
+     */
+    public void recordOnCompletion(Operation operation, String outcome, long startNanos) {
+        if (meterRegistry == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(operation, outcome, startNanos);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                record(operation, status == STATUS_COMMITTED ? outcome : ROLLED_BACK, startNanos);
+            }
+        });
+    }
+
+    private void record(Operation operation, String outcome, long startNanos) {
+        Timer.builder("tasks.operations")
+                .tags("operation", operation.tag(), "outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void rescheduled(Task task) {
+        count("tasks.rescheduled", task);
+    }
+
+    public void staleReleased(Task task) {
+        count("tasks.stale.released", task);
+    }
+
+    private void count(String name, Task task) {
+        if (meterRegistry != null) {
+            Counter.builder(name).tag("type", task.getType().name()).register(meterRegistry).increment();
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.metrics.queue-depth-interval:PT30S}")
+    public void refreshQueueDepth() {
+        if (queueDepth == null) {
+            return;
+        }
+        Map<Tags, Long> depths = new HashMap<>();
+        try {
+            for (UniverseTaskCount count : universeTaskCounter.allCounts()) {
+                if (QUEUE_STATUSES.contains(count.getStatus())) {
+                    depths.merge(Tags.of("universe", count.getUniverseId().toString(), "status", count.getStatus().name()),
+                            count.getTaskCount(), Long::sum);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to read queue depths", e);
+            return;
+        }
+        // Overwrite drops the rows of deleted universes
+        queueDepth.register(depths.entrySet().stream()
+                .<MultiGauge.Row<?>>map(entry -> MultiGauge.Row.of(entry.getKey(), entry.getValue()))
+                .toList(), true);
+    }
+}
@@ -1,27 +1,44 @@
 package com.ogame.automation.service;
 
-import com.ogame.automation.entity.Bot;
+import com.ogame.automation.dto.BotIdentity;
+import com.ogame.automation.dto.BotPresence;
+import com.ogame.automation.dto.CursorPage;
+import com.ogame.automation.dto.TaskFilter;
+import com.ogame.automation.dto.TaskEvent;
+import com.ogame.automation.dto.TaskView;
+import com.ogame.automation.dto.UniverseLink;
+import com.ogame.automation.dto.UniverseRef;
 import com.ogame.automation.entity.Task;
 import com.ogame.automation.entity.TaskResult;
 import com.ogame.automation.entity.Universe;
 import com.ogame.automation.repository.BotRepository;
 import com.ogame.automation.repository.TaskRepository;
 import com.ogame.automation.repository.TaskResultRepository;
+import com.ogame.automation.repository.TaskSpecifications;
 import com.ogame.automation.repository.UniverseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
 public class TaskService {
 
+    private static final Logger logger = LoggerFactory.getLogger(TaskService.class);
+
     @Autowired
     private TaskRepository taskRepository;
 
@@ -35,30 +52,109 @@ public class TaskService {
     private TaskResultRepository taskResultRepository;
 
     @Autowired
-    private DiscordNotificationService discordNotificationService;
+    private TaskCountEstimator taskCountEstimator;
+
+    @Autowired
+    private PlayerNameIndex playerNameIndex;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private HeartbeatBuffer heartbeatBuffer;
+
+    @Autowired
+    private PresenceTracker presenceTracker;
+
+    @Autowired
+    private UniverseTaskCounter universeTaskCounter;
+
+    @Autowired
+    private TaskStatsService taskStatsService;
+
+    @Autowired
+    private DomainEventBus domainEventBus;
+
+    @Autowired
+    private TaskMetrics taskMetrics;
 
-    public Page<Task> getAllTasks(Pageable pageable) {
-        return taskRepository.findAll(pageable);
+    @Autowired
+    private TaskLifecycleLatency lifecycleLatency;
+
+    /**
+     * Above this many matching player names the listing falls back to a LIKE scan
+     * rather than sending an oversized IN list.
+     */
+    static final int MAX_RESOLVED_PLAYER_NAMES = 500;
+
+    /**
+     * Keyset-paginated task listing ordered by (created_at, id).
+     * @param filter optional criteria
+     * @param cursor cursor returned by the previous page, or null for the first page
+     * @param size page size
+     * @param pageNumber page index the client is on, echoed back for display
+     * @param withTotal whether to include an (approximate) total
+     * @param direction DESC for newest first, ASC for queue order
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TaskView> getTasks(TaskFilter filter, String cursor, int size, int pageNumber,
+                                     boolean withTotal, Sort.Direction direction) {
+        ScrollPosition position = TaskCursor.decode(cursor);
+        filter = resolvePlayerNames(filter);
+        Sort sort = Sort.by(direction, TaskCursor.CREATED_AT, TaskCursor.ID);
+
+        Window<Task> window = taskRepository.findBy(TaskSpecifications.matching(filter).and(TaskSpecifications.fetchReferences()),
+                query -> query.sortBy(sort).limit(size).scroll(position));
+
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            nextCursor = TaskCursor.encode((KeysetScrollPosition) window.positionAt(window.size() - 1));
+        }
+
+        Long total = null;
+        Integer totalPages = null;
+        if (withTotal) {
+            total = taskCountEstimator.estimate(filter);
+            totalPages = (int) Math.max(1, (total + size - 1) / size);
+        }
+
+        List<TaskView> content = window.getContent().stream().map(TaskView::from).map(this::withBufferedHeartbeat).toList();
+        return new CursorPage<>(content, size, pageNumber, position.isInitial(), !window.hasNext(),
+                nextCursor, total, totalPages);
     }
 
-    public Optional<Task> getTaskById(Long id) {
-        return taskRepository.findById(id);
+    /**
+     * Turns a substring player name query into the exact names it matches, so the listing can
+     * use the player_name index instead of a leading-wildcard LIKE.
+     */
+    private TaskFilter resolvePlayerNames(TaskFilter filter) {
+        if (!filter.hasPlayerName() || filter.playerNames() != null || !playerNameIndex.isReady()) {
+            return filter;
+        }
+        Set<String> names = playerNameIndex.findNames(filter.playerName(), PlayerNameIndex.Match.SUBSTRING,
+                MAX_RESOLVED_PLAYER_NAMES + 1);
+        return names.size() > MAX_RESOLVED_PLAYER_NAMES ? filter : filter.withPlayerNames(names);
     }
 
-    public List<Task> getTasksByStatus(Task.TaskStatus status) {
-        return taskRepository.findByStatus(status);
+    /**
+     * Substring or prefix search over player names, served from the in-memory index.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public PlayerNameIndex.SearchResult searchPlayerNames(String query, PlayerNameIndex.Match match, int limit) {
+        return playerNameIndex.search(query, match, limit);
     }
 
-    public List<Task> getTasksByUniverse(Long universeId) {
-        return taskRepository.findByUniverseId(universeId);
+    public Optional<Task> getTaskById(Long id) {
+        return taskRepository.findById(id);
     }
 
-    public List<Task> getTasksByBot(Long botId) {
-        return taskRepository.findByBotId(botId);
+    @Transactional(readOnly = true)
+    public Optional<TaskView> getTaskView(Long id) {
+        return taskRepository.findWithReferencesById(id).map(TaskView::from).map(this::withBufferedHeartbeat);
     }
 
-    public List<Task> getAvailableTasks(Long universeId) {
-        return taskRepository.findByUniverseIdAndStatus(universeId, Task.TaskStatus.CREATED);
+    public List<Task> getTasksByBot(Long botId) {
+        return taskRepository.findByBotId(botId);
     }
 
     public List<Task> getTasksReadyForExecution() {
@@ -66,15 +162,27 @@ public class TaskService {
         return taskRepository.findByStatusAndNextExecutionAtBefore(Task.TaskStatus.CREATED, now);
     }
 
-    public Task createTask(Task.TaskType type, Long universeId, String playerName, String parameters, Integer recurrenceMinutes) {
-        Optional<Universe> universeOpt = universeRepository.findById(universeId);
-        if (universeOpt.isEmpty()) {
-            throw new IllegalArgumentException("Universe not found");
-        }
+    public TaskView createTask(Task.TaskType type, Long universeId, String playerName, String parameters, Integer recurrenceMinutes) {
+        long start = System.nanoTime();
+        UniverseRef universe = referenceDataCache.findUniverse(universeId)
+                .orElseThrow(() -> new IllegalArgumentException("Universe not found"));
+
+        // Cached reference data confirmed the universe; the FK only needs an unloaded proxy
+        Task task = newTask(type, universeRepository.getReferenceById(universeId), playerName, parameters, recurrenceMinutes);
+
+        Task savedTask = taskRepository.save(task);
+        universeTaskCounter.created(savedTask);
+        playerNameIndex.addAfterCommit(savedTask.getId(), savedTask.getPlayerName());
+        domainEventBus.publish(TaskEvent.of(TaskEvent.Kind.CREATED, savedTask));
+        taskMetrics.recordOnCompletion(TaskMetrics.Operation.CREATE, "created", start);
 
+        return TaskView.from(savedTask, universe.toLink(), null);
+    }
+
+    static Task newTask(Task.TaskType type, Universe universe, String playerName, String parameters, Integer recurrenceMinutes) {
         Task task = new Task();
         task.setType(type);
-        task.setUniverse(universeOpt.get());
+        task.setUniverse(universe);
         task.setPlayerName(playerName);
         task.setParameters(parameters);
         task.setRecurrenceMinutes(recurrenceMinutes);
@@ -82,39 +190,57 @@ public class TaskService {
         if (recurrenceMinutes != null && recurrenceMinutes > 0) {
             task.setNextExecutionAt(LocalDateTime.now().plusMinutes(recurrenceMinutes));
         }
-
-        Task savedTask = taskRepository.save(task);
-        
-        // Send Discord notification for new task
-        try {
-            discordNotificationService.sendTaskCreatedNotification(savedTask);
-        } catch (Exception e) {
-            // Log error but don't fail the task creation
-            System.err.println("Failed to send Discord notification for new task: " + e.getMessage());
-        }
-        
-        return savedTask;
+        return task;
     }
 
-    public Optional<Task> assignTaskToBot(Long taskId, String botUuid) {
-        Optional<Task> taskOpt = taskRepository.findById(taskId);
-        Optional<Bot> botOpt = botRepository.findByUuid(botUuid);
+    /**
+     * Assigns a queued task. Bots the {@link PresenceTracker} has seen go offline are not given
+     * work until their next heartbeat.
+     */
+    public Optional<TaskView> assignTaskToBot(Long taskId, String botUuid) {
+        long start = System.nanoTime();
+        Optional<Task> taskOpt = taskRepository.findWithReferencesById(taskId);
+        Optional<BotIdentity> botOpt = referenceDataCache.findBotByUuid(botUuid);
 
         if (taskOpt.isPresent() && botOpt.isPresent()) {
             Task task = taskOpt.get();
-            Bot bot = botOpt.get();
+            BotIdentity bot = botOpt.get();
             
-            if (task.getStatus() == Task.TaskStatus.CREATED) {
-                task.markInProgress(bot);
-                return Optional.of(taskRepository.save(task));
+            if (task.getStatus() == Task.TaskStatus.CREATED && !presenceTracker.isOffline(bot.id())) {
+                // Last change while queued: creation, reschedule or release by a bot
+                LocalDateTime queuedAt = task.getUpdatedAt() != null ? task.getUpdatedAt() : task.getCreatedAt();
+                task.markInProgress(botRepository.getReferenceById(bot.id()));
+                universeTaskCounter.moved(task, Task.TaskStatus.CREATED);
+                Task savedTask = taskRepository.save(task);
+                domainEventBus.publish(TaskEvent.of(TaskEvent.Kind.ASSIGNED, savedTask));
+                taskMetrics.recordOnCompletion(TaskMetrics.Operation.ASSIGN, "assigned", start);
+                lifecycleLatency.claimed(savedTask, queuedAt);
+                return Optional.of(TaskView.from(savedTask, UniverseLink.from(savedTask.getUniverse()), bot.toRef()));
             }
         }
 
+        taskMetrics.recordOnCompletion(TaskMetrics.Operation.ASSIGN, "rejected", start);
         return Optional.empty();
     }
 
-    public Optional<Task> completeTask(Long taskId, boolean success, String result, String errorMessage, Long executionTimeMs) {
-        Optional<Task> taskOpt = taskRepository.findById(taskId);
+    /**
+     * Assigns the oldest queued task of the bot's universe to it, unless it already holds
+     * {@code maxInProgress} tasks. The task row is locked while it is claimed, so concurrent
+     * callers do not hand the same task to two bots.
+     */
+    public Optional<TaskView> assignNextTask(String botUuid, int maxInProgress) {
+        Optional<BotIdentity> botOpt = referenceDataCache.findBotByUuid(botUuid);
+        if (botOpt.isEmpty()
+                || taskRepository.countByBotIdAndStatus(botOpt.get().id(), Task.TaskStatus.IN_PROGRESS) >= maxInProgress) {
+            return Optional.empty();
+        }
+        return taskRepository.findFirstForAssignmentByStatusAndUniverseIdOrderByCreatedAtAsc(Task.TaskStatus.CREATED, botOpt.get().universeId())
+                .flatMap(task -> assignTaskToBot(task.getId(), botUuid));
+    }
+
+    public Optional<TaskView> completeTask(Long taskId, boolean success, String result, String errorMessage, Long executionTimeMs) {
+        long start = System.nanoTime();
+        Optional<Task> taskOpt = taskRepository.findForCompletionById(taskId);
 
         if (taskOpt.isPresent()) {
             Task task = taskOpt.get();
@@ -135,40 +261,88 @@ public class TaskService {
                 } else {
                     task.markError();
                 }
+                universeTaskCounter.moved(task, Task.TaskStatus.IN_PROGRESS);
+                taskStatsService.recordCompletion(task, success, executionTimeMs);
 
                 Task updatedTask = taskRepository.save(task);
-                
-                // Send Discord notification for completed task
-                try {
-                    discordNotificationService.sendTaskCompletedNotification(updatedTask, taskResult);
-                } catch (Exception e) {
-                    // Log error but don't fail the task completion
-                    System.err.println("Failed to send Discord notification for completed task: " + e.getMessage());
-                }
-                
-                return Optional.of(updatedTask);
+                domainEventBus.publish(TaskEvent.of(success ? TaskEvent.Kind.FINISHED : TaskEvent.Kind.ERROR, updatedTask));
+                taskMetrics.recordOnCompletion(TaskMetrics.Operation.COMPLETE, success ? "finished" : "error", start);
+                lifecycleLatency.finished(updatedTask);
+
+                return Optional.of(withBufferedHeartbeat(TaskView.from(updatedTask)));
             }
         }
 
+        taskMetrics.recordOnCompletion(TaskMetrics.Operation.COMPLETE, "rejected", start);
         return Optional.empty();
     }
 
+    /**
+     * Returns the in-progress tasks of a bot that went offline to the queue. The tasks are locked,
+     * so a completion committing meanwhile either goes first (and the task is no longer in
+     * progress) or finds the task released.
+     */
+    @EventListener
+    public void onBotPresence(BotPresence presence) {
+        if (presence.online()) {
+            return;
+        }
+        List<Task> leased = taskRepository.findForReleaseByBotIdAndStatus(presence.botId(), Task.TaskStatus.IN_PROGRESS);
+        leased.forEach(this::release);
+        taskRepository.saveAll(leased);
+        if (!leased.isEmpty()) {
+            logger.info("Released {} tasks of offline bot {}", leased.size(), presence.botId());
+        }
+    }
+
+    /**
+     * Returns a task assigned to the bot to the queue, for an assignment the bot never received.
+     * @return false if the task was completed or released meanwhile
+     */
+    public boolean releaseTask(Long taskId, Long botId) {
+        Optional<Task> taskOpt = taskRepository.findForCompletionById(taskId);
+        if (taskOpt.isEmpty() || taskOpt.get().getStatus() != Task.TaskStatus.IN_PROGRESS
+                || taskOpt.get().getBot() == null || !botId.equals(taskOpt.get().getBot().getId())) {
+            return false;
+        }
+        Task task = taskOpt.get();
+        release(task);
+        taskRepository.save(task);
+        return true;
+    }
+
+    private void release(Task task) {
+        taskStatsService.recordRelease(task);
+        task.release();
+        universeTaskCounter.moved(task, Task.TaskStatus.IN_PROGRESS);
+        domainEventBus.publish(TaskEvent.of(TaskEvent.Kind.RELEASED, task));
+    }
+
     public void deleteTask(Long taskId) {
-        taskRepository.deleteById(taskId);
+        taskRepository.findById(taskId).ifPresent(task -> {
+            taskRepository.delete(task);
+            universeTaskCounter.deleted(task);
+            domainEventBus.publish(TaskEvent.of(TaskEvent.Kind.DELETED, task));
+            playerNameIndex.removeAfterCommit(task.getId(), task.getPlayerName());
+        });
     }
 
     public boolean canBotAccessTask(String botUuid, Long taskId) {
-        Optional<Task> taskOpt = taskRepository.findById(taskId);
-        Optional<Bot> botOpt = botRepository.findByUuid(botUuid);
-
-        if (taskOpt.isPresent() && botOpt.isPresent()) {
-            Task task = taskOpt.get();
-            Bot bot = botOpt.get();
-            
-            // Bot can access task if it's in the same universe
-            return task.getUniverse().getId().equals(bot.getUniverse().getId());
+        Optional<BotIdentity> botOpt = referenceDataCache.findBotByUuid(botUuid);
+        if (botOpt.isEmpty()) {
+            return false;
         }
 
-        return false;
+        // Bot can access task if it's in the same universe
+        return taskRepository.findUniverseIdById(taskId)
+                .map(universeId -> universeId.equals(botOpt.get().universeId()))
+                .orElse(false);
+    }
+
+    private TaskView withBufferedHeartbeat(TaskView task) {
+        if (task.bot() == null) {
+            return task;
+        }
+        return task.withBotLastSeenAt(heartbeatBuffer.lastSeen(task.bot().id(), task.bot().lastSeenAt()));
     }
 }
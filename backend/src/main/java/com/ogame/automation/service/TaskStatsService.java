@@ -0,0 +1,322 @@
+package com.ogame.automation.service;
+
+import com.ogame.automation.dto.BotIdentity;
+import com.ogame.automation.dto.BotTaskCount;
+import com.ogame.automation.dto.TaskStats;
+import com.ogame.automation.dto.UniverseRef;
+import com.ogame.automation.entity.Task;
+import com.ogame.automation.entity.TaskStatsBucket;
+import com.ogame.automation.entity.TaskStatsDaily;
+import com.ogame.automation.entity.TaskStatsHourly;
+import com.ogame.automation.entity.UniverseTaskCount;
+import com.ogame.automation.repository.TaskRepository;
+import com.ogame.automation.repository.TaskStatsDailyRepository;
+import com.ogame.automation.repository.TaskStatsHourlyRepository;
+import com.ogame.automation.repository.TaskStatsRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Maintains the {@code task_stats_hourly} and {@code task_stats_daily} rollups and serves the
+ * dashboard statistics from them, so the dashboard reads a number of rows bounded by the window
+ * and the number of bots, never the task history.
+ *
+ * Completions and releases are summed per transaction and applied just before it commits, like
+ * {@link UniverseTaskCounter}: each affected row is locked in a fixed order (all hourly rows, then
+ * all daily rows, each by bucket, universe, bot and type), so two transactions cannot deadlock on
+ * them. A row missing for a new bucket is inserted in its own transaction first; losing that race
+ * to another instance is harmless since the row then exists.
+ */
+@Service
+@Transactional
+public class TaskStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskStatsService.class);
+
+    private static final Comparator<Cell> CELL_ORDER = Comparator.comparing(Cell::hour)
+            .thenComparing(Cell::universeId).thenComparing(Cell::botId).thenComparing(Cell::type);
+
+    // Hourly by default; the lease is kept for half the period
+    private static final Duration PRUNE_LEASE = Duration.ofMinutes(10);
+    private static final Duration PRUNE_HOLD = Duration.ofMinutes(30);
+
+    @Autowired
+    private TaskStatsHourlyRepository hourlyRepository;
+
+    @Autowired
+    private TaskStatsDailyRepository dailyRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UniverseTaskCounter universeTaskCounter;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ScheduledJobLock scheduledJobLock;
+
+    @Value("${app.stats.hourly-retention:P2D}")
+    private Duration hourlyRetention;
+
+    @Value("${app.stats.daily-retention:P400D}")
+    private Duration dailyRetention;
+
+    private Clock clock = Clock.systemDefaultZone();
+
+    private TransactionTemplate newTransaction;
+
+    private record Cell(LocalDateTime hour, Long universeId, Long botId, Task.TaskType type) {
+    }
+
+    private static final class Delta {
+        long succeeded;
+        long failed;
+        long released;
+        long executionTimeTotalMs;
+        final LatencyHistogram executionTimes = new LatencyHistogram();
+    }
+
+    @PostConstruct
+    void init() {
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Records the outcome of an in-progress task, attributed to its bot.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCompletion(Task task, boolean success, Long executionTimeMs) {
+        Delta delta = delta(task);
+        if (delta == null) {
+            return;
+        }
+        if (success) {
+            delta.succeeded++;
+        } else {
+            delta.failed++;
+        }
+        if (executionTimeMs != null) {
+            delta.executionTimeTotalMs += Math.max(executionTimeMs, 0);
+            delta.executionTimes.record(executionTimeMs);
+        }
+    }
+
+    /**
+     * Records that an in-progress task was taken back from its bot; call it before the bot is cleared.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRelease(Task task) {
+        Delta delta = delta(task);
+        if (delta != null) {
+            delta.released++;
+        }
+    }
+
+    private Delta delta(Task task) {
+        if (task.getBot() == null) {
+            return null;
+        }
+        // getId() on the proxies does not initialize them
+        Cell cell = new Cell(LocalDateTime.now(clock).truncatedTo(ChronoUnit.HOURS),
+                task.getUniverse().getId(), task.getBot().getId(), task.getType());
+        @SuppressWarnings("unchecked")
+        Map<Cell, Delta> pending = (Map<Cell, Delta>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<Cell, Delta> deltas = new TreeMap<>(CELL_ORDER);
+            TransactionSynchronizationManager.bindResource(this, deltas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    apply(deltas);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(TaskStatsService.this);
+                }
+            });
+            pending = deltas;
+        }
+        return pending.computeIfAbsent(cell, key -> new Delta());
+    }
+
+    private void apply(Map<Cell, Delta> deltas) {
+        deltas.forEach((cell, delta) -> add(hourlyRepository, cell, delta,
+                bucket -> new TaskStatsHourly(bucket, cell.universeId(), cell.botId(), cell.type())));
+
+        Map<Cell, Delta> daily = new TreeMap<>(CELL_ORDER);
+        deltas.forEach((cell, delta) -> daily.merge(
+                new Cell(cell.hour().truncatedTo(ChronoUnit.DAYS), cell.universeId(), cell.botId(), cell.type()),
+                delta, TaskStatsService::merge));
+        daily.forEach((cell, delta) -> add(dailyRepository, cell, delta,
+                bucket -> new TaskStatsDaily(bucket, cell.universeId(), cell.botId(), cell.type())));
+    }
+
+    private static Delta merge(Delta left, Delta right) {
+        Delta sum = new Delta();
+        for (Delta delta : List.of(left, right)) {
+            sum.succeeded += delta.succeeded;
+            sum.failed += delta.failed;
+            sum.released += delta.released;
+            sum.executionTimeTotalMs += delta.executionTimeTotalMs;
+            sum.executionTimes.add(delta.executionTimes);
+        }
+        return sum;
+    }
+
+    private <T extends TaskStatsBucket> void add(TaskStatsRepository<T> repository, Cell cell,
+                                                 Delta delta, Function<LocalDateTime, T> newRow) {
+        LocalDateTime bucket = cell.hour();
+        T row = repository.findForUpdate(bucket, cell.universeId(), cell.botId(), cell.type()).orElse(null);
+        if (row == null) {
+            try {
+                newTransaction.executeWithoutResult(status -> repository.saveAndFlush(newRow.apply(bucket)));
+            } catch (DataIntegrityViolationException e) {
+                logger.debug("Stats row for {} at {} was created concurrently", cell, bucket);
+            }
+            row = repository.findForUpdate(bucket, cell.universeId(), cell.botId(), cell.type()).orElseThrow();
+        }
+        row.addOutcomes(delta.succeeded, delta.failed, delta.released);
+        if (delta.executionTimes.count() > 0) {
+            LatencyHistogram histogram = LatencyHistogram.parse(row.getExecutionTimeHistogram());
+            histogram.add(delta.executionTimes);
+            row.addExecutionTimes(delta.executionTimes.count(), delta.executionTimeTotalMs, histogram.format());
+        }
+    }
+
+    /**
+     * @param hours when set, the last {@code hours} hours from the hourly rollup (bounded by its
+     *              retention); otherwise the last {@code days} days, including today, from the daily one
+     */
+    @Transactional(readOnly = true)
+    public TaskStats getStats(int days, Integer hours) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime from;
+        LocalDateTime to;
+        List<? extends TaskStatsBucket> rows;
+        if (hours != null) {
+            to = now.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+            from = to.minusHours(hours);
+            rows = hourlyRepository.findByBucketStartGreaterThanEqual(from);
+        } else {
+            to = now.truncatedTo(ChronoUnit.DAYS).plusDays(1);
+            from = to.minusDays(days);
+            rows = dailyRepository.findByBucketStartGreaterThanEqual(from);
+        }
+
+        Map<Long, Aggregate> universes = new TreeMap<>();
+        Map<Long, Aggregate> bots = new TreeMap<>();
+        Map<Task.TaskType, Aggregate> types = new EnumMap<>(Task.TaskType.class);
+        for (Task.TaskType type : Task.TaskType.values()) {
+            types.put(type, new Aggregate());
+        }
+        for (TaskStatsBucket row : rows) {
+            universes.computeIfAbsent(row.getUniverseId(), id -> new Aggregate()).add(row);
+            bots.computeIfAbsent(row.getBotId(), id -> new Aggregate()).add(row);
+            types.get(row.getType()).add(row);
+        }
+        for (UniverseTaskCount count : universeTaskCounter.allCounts()) {
+            universes.computeIfAbsent(count.getUniverseId(), id -> new Aggregate()).count(count.getStatus(), count.getTaskCount());
+            types.get(count.getType()).count(count.getStatus(), count.getTaskCount());
+        }
+        for (BotTaskCount count : taskRepository.countByBotForStatus(Task.TaskStatus.IN_PROGRESS)) {
+            bots.computeIfAbsent(count.botId(), id -> new Aggregate()).count(Task.TaskStatus.IN_PROGRESS, count.taskCount());
+        }
+
+        List<TaskStats.Group> universeGroups = new ArrayList<>();
+        universes.forEach((id, aggregate) -> universeGroups.add(aggregate.toGroup(id,
+                referenceDataCache.findUniverse(id).map(UniverseRef::name).orElse(null))));
+        List<TaskStats.Group> botGroups = new ArrayList<>();
+        bots.forEach((id, aggregate) -> botGroups.add(aggregate.toGroup(id,
+                referenceDataCache.findBotById(id).map(BotIdentity::name).orElse(null))));
+        List<TaskStats.Group> typeGroups = new ArrayList<>();
+        types.forEach((type, aggregate) -> typeGroups.add(aggregate.toGroup(null, type.name())));
+        return new TaskStats(from, to, universeGroups, botGroups, typeGroups);
+    }
+
+    private static final class Aggregate {
+        final Map<Task.TaskStatus, Long> countsByStatus = new EnumMap<>(Task.TaskStatus.class);
+        long succeeded;
+        long failed;
+        long released;
+        long executionTimeCount;
+        long executionTimeTotalMs;
+        final LatencyHistogram executionTimes = new LatencyHistogram();
+
+        void add(TaskStatsBucket row) {
+            succeeded += row.getSucceeded();
+            failed += row.getFailed();
+            released += row.getReleased();
+            executionTimeCount += row.getExecutionTimeCount();
+            executionTimeTotalMs += row.getExecutionTimeTotalMs();
+            executionTimes.add(LatencyHistogram.parse(row.getExecutionTimeHistogram()));
+        }
+
+        void count(Task.TaskStatus status, long taskCount) {
+            countsByStatus.merge(status, taskCount, Long::sum);
+        }
+
+        TaskStats.Group toGroup(Long id, String name) {
+            long completed = succeeded + failed;
+            return new TaskStats.Group(id, name, countsByStatus, succeeded, failed, released,
+                    completed == 0 ? null : (double) succeeded / completed,
+                    executionTimeCount == 0 ? null : executionTimeTotalMs / executionTimeCount,
+                    executionTimes.percentile(50), executionTimes.percentile(95), executionTimes.percentile(99));
+        }
+    }
+
+    /**
+     * Drops hourly rows older than {@code app.stats.hourly-retention} and daily rows older than
+     * {@code app.stats.daily-retention}, on one instance at a time.
+     */
+    @Scheduled(cron = "${app.stats.prune-cron:0 5 * * * ?}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void prune() {
+        scheduledJobLock.run("pruneTaskStats", PRUNE_LEASE, PRUNE_HOLD, this::deleteExpired);
+    }
+
+    private void deleteExpired() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        int hourly = hourlyRepository.deleteBefore(now.minus(hourlyRetention).truncatedTo(ChronoUnit.HOURS));
+        int daily = dailyRepository.deleteBefore(now.minus(dailyRetention).truncatedTo(ChronoUnit.DAYS));
+        if (hourly + daily > 0) {
+            logger.info("Pruned {} hourly and {} daily task stats rows", hourly, daily);
+        }
+    }
+
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+}
@@ -1,8 +1,10 @@
 package com.ogame.automation.service;
 
+import com.ogame.automation.dto.UniverseEvent;
+import com.ogame.automation.dto.UniverseView;
+import com.ogame.automation.entity.Task;
 import com.ogame.automation.entity.Universe;
 import com.ogame.automation.repository.BotRepository;
-import com.ogame.automation.repository.TaskRepository;
 import com.ogame.automation.repository.UniverseRepository;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +12,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -23,18 +26,29 @@ public class UniverseService {
     private BotRepository botRepository;
 
     @Autowired
-    private TaskRepository taskRepository;
+    private ReferenceDataCache referenceDataCache;
 
-    public List<Universe> getAllUniverses() {
-        return universeRepository.findAll();
+    @Autowired
+    private UniverseTaskCounter universeTaskCounter;
+
+    @Autowired
+    private DomainEventBus domainEventBus;
+
+    @Transactional(readOnly = true)
+    public List<UniverseView> getAllUniverses() {
+        return universeRepository.findAllViews();
     }
 
+    @Transactional(readOnly = true)
     public Optional<Universe> getUniverseById(Long id) {
         return universeRepository.findById(id);
     }
 
     public Universe createUniverse(Universe universe) {
-        return universeRepository.save(universe);
+        Universe savedUniverse = universeRepository.save(universe);
+        universeTaskCounter.initialize(savedUniverse.getId());
+        domainEventBus.publish(UniverseEvent.of(UniverseEvent.Kind.CREATED, savedUniverse.getId()));
+        return savedUniverse;
     }
 
     public Optional<Universe> updateUniverse(Long id, Universe universeDetails) {
@@ -47,6 +61,8 @@ public class UniverseService {
             universe.setDiscordWebhook(universeDetails.getDiscordWebhook());
             
             Universe updatedUniverse = universeRepository.save(universe);
+            referenceDataCache.evictUniverse(id);
+            domainEventBus.publish(UniverseEvent.of(UniverseEvent.Kind.UPDATED, id));
             return Optional.of(updatedUniverse);
         }
         
@@ -54,7 +70,8 @@ public class UniverseService {
     }
 
     /**
-     * Safely delete a universe only if it has no associated bots or tasks
+     * Safely delete a universe only if it has no associated bots or tasks. Bots are counted by
+     * index, tasks are read from the universe_task_count counters.
      * @param id Universe ID to delete
      * @return DeletionResult indicating success or failure with reason
      */
@@ -66,23 +83,26 @@ public class UniverseService {
         }
 
         // Check for associated bots
-        List<com.ogame.automation.entity.Bot> associatedBots = botRepository.findByUniverseId(id);
-        if (!associatedBots.isEmpty()) {
+        long associatedBots = botRepository.countByUniverseId(id);
+        if (associatedBots > 0) {
             return new DeletionResult(false, 
                 String.format("Cannot delete universe. It has %d associated bot(s). Please delete or reassign the bots first.", 
-                    associatedBots.size()));
+                    associatedBots));
         }
 
         // Check for associated tasks
-        List<com.ogame.automation.entity.Task> associatedTasks = taskRepository.findByUniverseId(id);
-        if (!associatedTasks.isEmpty()) {
+        long associatedTasks = universeTaskCounter.total(id);
+        if (associatedTasks > 0) {
             return new DeletionResult(false, 
                 String.format("Cannot delete universe. It has %d associated task(s). Please delete or reassign the tasks first.", 
-                    associatedTasks.size()));
+                    associatedTasks));
         }
 
         // Safe to delete
+        universeTaskCounter.deleteUniverse(id);
         universeRepository.deleteById(id);
+        referenceDataCache.evictUniverse(id);
+        domainEventBus.publish(UniverseEvent.of(UniverseEvent.Kind.DELETED, id));
         return new DeletionResult(true, "Universe deleted successfully");
     }
 
@@ -91,6 +111,7 @@ public class UniverseService {
      * @param id Universe ID
      * @return UniverseSummary with counts of associated entities
      */
+    @Transactional(readOnly = true)
     public Optional<UniverseSummary> getUniverseSummary(Long id) {
         Optional<Universe> universeOpt = universeRepository.findById(id);
         
@@ -99,10 +120,10 @@ public class UniverseService {
         }
 
         Universe universe = universeOpt.get();
-        long botCount = botRepository.findByUniverseId(id).size();
-        long taskCount = taskRepository.findByUniverseId(id).size();
+        long botCount = botRepository.countByUniverseId(id);
+        Map<Task.TaskStatus, Long> taskCounts = universeTaskCounter.countsByStatus(id);
 
-        return Optional.of(new UniverseSummary(universe, botCount, taskCount));
+        return Optional.of(new UniverseSummary(universe, botCount, taskCounts));
     }
 
     /**
@@ -133,11 +154,20 @@ public class UniverseService {
         private final Universe universe;
         private final long botCount;
         private final long taskCount;
+        private final Map<Task.TaskStatus, Long> taskCountsByStatus;
 
         public UniverseSummary(Universe universe, long botCount, long taskCount) {
             this.universe = universe;
             this.botCount = botCount;
             this.taskCount = taskCount;
+            this.taskCountsByStatus = Map.of();
+        }
+
+        public UniverseSummary(Universe universe, long botCount, Map<Task.TaskStatus, Long> taskCountsByStatus) {
+            this.universe = universe;
+            this.botCount = botCount;
+            this.taskCount = taskCountsByStatus.values().stream().mapToLong(Long::longValue).sum();
+            this.taskCountsByStatus = taskCountsByStatus;
         }
 
         public Universe getUniverse() {
@@ -152,6 +182,10 @@ public class UniverseService {
             return taskCount;
         }
 
+        public Map<Task.TaskStatus, Long> getTaskCountsByStatus() {
+            return taskCountsByStatus;
+        }
+
         @JsonProperty
         public boolean canBeDeleted() {
             return botCount == 0 && taskCount == 0;
@@ -0,0 +1,138 @@
+package com.ogame.automation.service;
+
+import com.ogame.automation.entity.Task;
+import com.ogame.automation.entity.UniverseTaskCount;
+import com.ogame.automation.repository.UniverseTaskCountRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains the {@code universe_task_count} table (tasks per universe, type and status), so universe
+ * summaries, deletion checks and statistics read a few rows per universe instead of counting tasks.
+ *
+ * Changes are summed per transaction and applied just before it commits, in a fixed row order, so
+ * the counter rows are locked only for the duration of the commit and two transactions cannot
+ * deadlock on them. Every write to a task's universe or status must be reported here.
+ */
+@Component
+public class UniverseTaskCounter {
+
+    private static final Comparator<Cell> CELL_ORDER =
+            Comparator.comparing(Cell::universeId).thenComparing(Cell::type).thenComparing(Cell::status);
+
+    @Autowired
+    private UniverseTaskCountRepository universeTaskCountRepository;
+
+    private record Cell(Long universeId, Task.TaskType type, Task.TaskStatus status) {
+    }
+
+    /**
+     * Creates the zero rows of a new universe, so later changes are plain UPDATEs.
+     */
+    public void initialize(Long universeId) {
+        universeTaskCountRepository.saveAll(Arrays.stream(Task.TaskType.values())
+                .flatMap(type -> Arrays.stream(Task.TaskStatus.values())
+                        .map(status -> new UniverseTaskCount(universeId, type, status, 0)))
+                .toList());
+    }
+
+    public void created(Task task) {
+        add(task, task.getStatus(), 1);
+    }
+
+    /**
+     * Records a status change; call it with the task already in its new status.
+     */
+    public void moved(Task task, Task.TaskStatus from) {
+        if (from != task.getStatus()) {
+            add(task, from, -1);
+            add(task, task.getStatus(), 1);
+        }
+    }
+
+    public void deleted(Task task) {
+        add(task, task.getStatus(), -1);
+    }
+
+    public void deleteUniverse(Long universeId) {
+        universeTaskCountRepository.deleteByUniverse(universeId);
+    }
+
+    /**
+     * @return committed task counts of the universe for every status, including zeros
+     */
+    public Map<Task.TaskStatus, Long> countsByStatus(Long universeId) {
+        Map<Task.TaskStatus, Long> counts = new EnumMap<>(Task.TaskStatus.class);
+        for (Task.TaskStatus status : Task.TaskStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (UniverseTaskCount count : universeTaskCountRepository.findByUniverseId(universeId)) {
+            counts.merge(count.getStatus(), count.getTaskCount(), Long::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * @return committed counts of every universe, type and status
+     */
+    public List<UniverseTaskCount> allCounts() {
+        return universeTaskCountRepository.findAll();
+    }
+
+    public long total(Long universeId) {
+        return countsByStatus(universeId).values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * @return committed count of tasks in the status, across all universes
+     */
+    public long total(Task.TaskStatus status) {
+        return universeTaskCountRepository.sumByStatus(status);
+    }
+
+    private void add(Task task, Task.TaskStatus status, long delta) {
+        // getId() on the universe proxy does not initialize it
+        Cell cell = new Cell(task.getUniverse().getId(), task.getType(), status);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(Map.of(cell, delta));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<Cell, Long> pending = (Map<Cell, Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<Cell, Long> deltas = new TreeMap<>(CELL_ORDER);
+            TransactionSynchronizationManager.bindResource(this, deltas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    apply(deltas);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(UniverseTaskCounter.this);
+                }
+            });
+            pending = deltas;
+        }
+        pending.merge(cell, delta, Long::sum);
+    }
+
+    private void apply(Map<Cell, Long> deltas) {
+        deltas.forEach((cell, delta) -> {
+            if (delta != 0 && universeTaskCountRepository.add(cell.universeId(), cell.type(), cell.status(), delta) == 0) {
+                // Universe created before the counters (or outside UniverseService)
+                universeTaskCountRepository.save(new UniverseTaskCount(cell.universeId(), cell.type(), cell.status(), delta));
+            }
+        });
+    }
+}
@@ -33,14 +33,20 @@ CREATE TABLE bot (
     universe_id BIGINT NOT NULL,
     name VARCHAR(100),
     last_seen_at TIMESTAMP NULL,
+    -- HMAC-SHA256 (hex) of the bot's API key; the key itself is never stored
+    api_key_hash VARCHAR(64) NULL UNIQUE,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (universe_id) REFERENCES universe(id) ON DELETE CASCADE
 );
 
+-- Task id sequence (pooled by Hibernate in blocks of 50 so inserts can be batched).
+-- On an existing database, start it above the current MAX(task.id).
+CREATE SEQUENCE task_seq START WITH 1 INCREMENT BY 50;
+
 -- Task table
 CREATE TABLE task (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     type ENUM('CHECK_ACTIVITY', 'SPY_PLAYER') NOT NULL,
     status ENUM('CREATED', 'IN_PROGRESS', 'FINISHED', 'ERROR') NOT NULL DEFAULT 'CREATED',
     universe_id BIGINT NOT NULL,
@@ -55,8 +61,16 @@ CREATE TABLE task (
     finished_at TIMESTAMP NULL,
     FOREIGN KEY (universe_id) REFERENCES universe(id) ON DELETE CASCADE,
     FOREIGN KEY (bot_id) REFERENCES bot(id) ON DELETE SET NULL,
-    INDEX idx_task_status_universe (status, universe_id),
-    INDEX idx_task_next_execution (next_execution_at)
+    -- Keyset pagination orders by (created_at, id); InnoDB appends the primary key to every secondary index
+    INDEX idx_task_status_universe (status, universe_id, created_at),
+    INDEX idx_task_created (created_at),
+    INDEX idx_task_status_created (status, created_at),
+    INDEX idx_task_universe_created (universe_id, created_at),
+    INDEX idx_task_bot_created (bot_id, created_at),
+    INDEX idx_task_type_created (type, created_at),
+    INDEX idx_task_player_name (player_name, created_at),
+    INDEX idx_task_next_execution (next_execution_at),
+    INDEX idx_task_updated_id (updated_at, id)
 );
 
 -- Task result table
@@ -71,6 +85,90 @@ CREATE TABLE task_result (
     FOREIGN KEY (task_id) REFERENCES task(id) ON DELETE CASCADE
 );
 
+-- Tasks per universe, type and status, updated by the application in the same transaction as each
+-- task change so summaries and deletion checks do not count task rows.
+-- On an existing database, seed it with:
+--   INSERT INTO universe_task_count (universe_id, type, status, task_count)
+--   SELECT universe_id, type, status, COUNT(*) FROM task GROUP BY universe_id, type, status;
+CREATE TABLE universe_task_count (
+    universe_id BIGINT NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    task_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (universe_id, type, status),
+    FOREIGN KEY (universe_id) REFERENCES universe(id) ON DELETE CASCADE
+);
+
+-- Task outcome rollups for the dashboard (hourly and daily buckets per universe, bot and type).
+-- bot_id has no foreign key so the history of deleted bots still counts. Execution-time
+-- histograms hold comma-separated counts per LatencyHistogram bucket. On an existing database,
+-- seed the daily rollup (without histograms) with:
+--   INSERT INTO task_stats_daily (bucket_start, universe_id, bot_id, type, succeeded, failed,
+--                                 execution_time_count, execution_time_total_ms)
+--   SELECT DATE(r.created_at), t.universe_id, t.bot_id, t.type, SUM(r.success), SUM(NOT r.success),
+--          COUNT(r.execution_time_ms), COALESCE(SUM(r.execution_time_ms), 0)
+--   FROM task_result r JOIN task t ON t.id = r.task_id WHERE t.bot_id IS NOT NULL
+--   GROUP BY DATE(r.created_at), t.universe_id, t.bot_id, t.type;
+CREATE TABLE task_stats_hourly (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    -- Explicit default, so MariaDB does not give the column ON UPDATE CURRENT_TIMESTAMP
+    bucket_start TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    universe_id BIGINT NOT NULL,
+    bot_id BIGINT NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    succeeded BIGINT NOT NULL DEFAULT 0,
+    failed BIGINT NOT NULL DEFAULT 0,
+    released BIGINT NOT NULL DEFAULT 0,
+    execution_time_count BIGINT NOT NULL DEFAULT 0,
+    execution_time_total_ms BIGINT NOT NULL DEFAULT 0,
+    execution_time_histogram VARCHAR(512),
+    UNIQUE KEY uk_task_stats_hourly_bucket (bucket_start, universe_id, bot_id, type),
+    FOREIGN KEY (universe_id) REFERENCES universe(id) ON DELETE CASCADE
+);
+
+CREATE TABLE task_stats_daily (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    -- Explicit default, so MariaDB does not give the column ON UPDATE CURRENT_TIMESTAMP
+    bucket_start TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    universe_id BIGINT NOT NULL,
+    bot_id BIGINT NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    succeeded BIGINT NOT NULL DEFAULT 0,
+    failed BIGINT NOT NULL DEFAULT 0,
+    released BIGINT NOT NULL DEFAULT 0,
+    execution_time_count BIGINT NOT NULL DEFAULT 0,
+    execution_time_total_ms BIGINT NOT NULL DEFAULT 0,
+    execution_time_histogram VARCHAR(512),
+    UNIQUE KEY uk_task_stats_daily_bucket (bucket_start, universe_id, bot_id, type),
+    FOREIGN KEY (universe_id) REFERENCES universe(id) ON DELETE CASCADE
+);
+
+-- Columnar export watermarks (one row per exported dataset)
+CREATE TABLE export_watermark (
+    dataset VARCHAR(50) PRIMARY KEY,
+    last_id BIGINT,
+    last_updated_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL
+);
+
+-- Scheduled job leases (one row per job): the instance holding an unexpired lease runs the job;
+-- fencing_token is incremented by every acquisition
+CREATE TABLE job_lock (
+    name VARCHAR(100) PRIMARY KEY,
+    fencing_token BIGINT NOT NULL,
+    locked_by VARCHAR(36),
+    locked_at TIMESTAMP NULL,
+    -- Explicit default, so MariaDB does not give the column ON UPDATE CURRENT_TIMESTAMP
+    locked_until TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Replication heartbeat: with read replicas configured (app.datasource.replicas.*) each instance
+-- writes its row here on the primary and reads it back from every replica to measure its lag.
+CREATE TABLE replica_heartbeat (
+    instance_id VARCHAR(36) PRIMARY KEY,
+    beat_millis BIGINT NOT NULL
+);
+
 -- Insert default admin user
 INSERT INTO user_account (username, password_hash, role, disabled) 
 VALUES ('admin', '$2b$10$1ddD5fz5RvbtoJtJwdkZ/.en.R4HwlgIS9AXnldz2B4LOSqGrgC76', 'ADMIN', false);
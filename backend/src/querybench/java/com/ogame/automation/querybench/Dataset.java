@@ -0,0 +1,62 @@
+package com.ogame.automation.querybench;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Size of the database under test and the parameters the queries are run with, read from the
+ * data itself so a generated dataset and a copy of production are measured the same way.
+ *
+ * @param now the latest task creation, standing in for the current time
+ * @param universeId the universe with the most tasks
+ * @param botId the first bot of that universe, the busiest one in a generated dataset
+ * @param taskId a task halfway through the id range
+ * @param recurringTaskId a recurring task, with the most results per task; {@code taskId} if there is none
+ * @param playerName the player of {@code taskId}
+ * @param lastResultId the highest result id, 0 without results
+ */
+record Dataset(
+        long tasks,
+        long results,
+        long universes,
+        long bots,
+        LocalDateTime now,
+        long universeId,
+        long botId,
+        long taskId,
+        long recurringTaskId,
+        String playerName,
+        long lastResultId) {
+
+    static Dataset probe(JdbcTemplate jdbcTemplate) {
+        long tasks = count(jdbcTemplate, "SELECT COUNT(*) FROM task");
+        if (tasks == 0) {
+            throw new IllegalStateException("No tasks to query; run with --generate=true");
+        }
+        Timestamp now = jdbcTemplate.queryForObject("SELECT MAX(created_at) FROM task", Timestamp.class);
+        Long universeId = jdbcTemplate.queryForObject(
+                "SELECT universe_id FROM universe_task_count GROUP BY universe_id ORDER BY SUM(task_count) DESC LIMIT 1", Long.class);
+        Long botId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM bot WHERE universe_id = ?", Long.class, universeId);
+        Long taskId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM task WHERE id >= (SELECT (MIN(id) + MAX(id)) / 2 FROM task)", Long.class);
+        Long recurringTaskId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM task WHERE next_execution_at IS NOT NULL", Long.class);
+        return new Dataset(
+                tasks,
+                count(jdbcTemplate, "SELECT COUNT(*) FROM task_result"),
+                count(jdbcTemplate, "SELECT COUNT(*) FROM universe"),
+                count(jdbcTemplate, "SELECT COUNT(*) FROM bot"),
+                now.toLocalDateTime(),
+                universeId,
+                botId != null ? botId : 0,
+                taskId,
+                recurringTaskId != null ? recurringTaskId : taskId,
+                jdbcTemplate.queryForObject("SELECT player_name FROM task WHERE id = ?", String.class, taskId),
+                count(jdbcTemplate, "SELECT COALESCE(MAX(id), 0) FROM task_result"));
+    }
+
+    private static long count(JdbcTemplate jdbcTemplate, String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
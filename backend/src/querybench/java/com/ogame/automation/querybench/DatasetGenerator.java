@@ -0,0 +1,278 @@
+package com.ogame.automation.querybench;
+
+import com.ogame.automation.entity.Bot;
+import com.ogame.automation.entity.Task;
+import com.ogame.automation.entity.Universe;
+import com.ogame.automation.repository.BotRepository;
+import com.ogame.automation.repository.UniverseRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Adds a synthetic but realistically shaped dataset next to whatever the database already holds:
+ * <ul>
+ *   <li>universes with Zipf-distributed task volumes and bots in proportion, some much busier than others;</li>
+ *   <li>one-time tasks created evenly over {@code --days}, mostly finished, with a queue and in-progress work
+ *       concentrated in the last hours and a few in-progress tasks left stale;</li>
+ *   <li>recurring tasks, each requeued over and over and so with many results, that come due over their
+ *       recurrence with a few overdue;</li>
+ *   <li>players drawn with a heavy head, so a few players have many tasks and most have few.</li>
+ * </ul>
+ * Tasks and results are written with JDBC batches, bypassing the application, and the
+ * universe task counts and the task id sequence are brought up to date afterwards.
+ */
+class DatasetGenerator {
+
+    private static final int BATCH_SIZE = 5_000;
+    private static final int[] RECURRENCE_MINUTES = {15, 30, 60, 120, 360};
+    private static final String[] ERRORS = {"Target player is in vacation mode", "Not enough espionage probes",
+            "Session expired", "Player not found"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UniverseRepository universeRepository;
+    private final BotRepository botRepository;
+    private final QueryBenchOptions options;
+    private final SplittableRandom random;
+
+    private final List<Object[]> taskRows = new ArrayList<>();
+    private final List<Object[]> resultRows = new ArrayList<>();
+
+    DatasetGenerator(JdbcTemplate jdbcTemplate, UniverseRepository universeRepository, BotRepository botRepository,
+                     QueryBenchOptions options) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.universeRepository = universeRepository;
+        this.botRepository = botRepository;
+        this.options = options;
+        this.random = new SplittableRandom(options.seed());
+    }
+
+    void generate() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        double[] weights = new double[options.universes()];
+        double totalWeight = 0;
+        for (int u = 0; u < weights.length; u++) {
+            weights[u] = 1.0 / (u + 1);
+            totalWeight += weights[u];
+        }
+
+        List<Long> universeIds = new ArrayList<>();
+        List<List<Long>> botIds = new ArrayList<>();
+        for (int u = 0; u < options.universes(); u++) {
+            Universe universe = universeRepository.save(new Universe("Universe " + (u + 1), "https://s" + (u + 1) + "-en.ogame.gameforge.com",
+                    "https://discord.com/api/webhooks/" + (u + 1) + "/querybench"));
+            universeIds.add(universe.getId());
+            List<Long> bots = new ArrayList<>();
+            int botCount = Math.max(1, (int) Math.round(options.bots() * weights[u] / totalWeight));
+            for (int b = 0; b < botCount; b++) {
+                Bot bot = new Bot(UUID.randomUUID().toString(), universe, "Bot " + (u + 1) + "-" + (b + 1));
+                bot.setLastSeenAt(now.minusSeconds(random.nextInt(600)));
+                bots.add(botRepository.save(bot).getId());
+            }
+            botIds.add(bots);
+        }
+
+        long firstId = Math.max(count("SELECT COALESCE(MAX(id), 0) FROM task"), count("SELECT NEXT VALUE FOR task_seq")) + 1;
+        long span = Duration.ofDays(options.days()).toSeconds();
+        int recurringEvery = options.recurringTasks() > 0 ? options.tasks() / options.recurringTasks() : Integer.MAX_VALUE;
+        int playerPool = Math.max(10, options.tasks() / (50 * options.universes()));
+        for (int i = 0; i < options.tasks(); i++) {
+            int universe = pick(weights, totalWeight);
+            List<Long> bots = botIds.get(universe);
+            // In the column order of the INSERT in flush(); status and the timestamps are filled in below
+            Object[] task = {
+                    firstId + i,
+                    random.nextInt(10) < 6 ? Task.TaskType.SPY_PLAYER.name() : Task.TaskType.CHECK_ACTIVITY.name(),
+                    null, universeIds.get(universe),
+                    // Lower-numbered bots and players get more of the work
+                    bots.get(skewed(bots.size())),
+                    "Player" + skewed(playerPool),
+                    "{\"galaxy\":" + (1 + random.nextInt(9)) + ",\"system\":" + (1 + random.nextInt(499))
+                            + ",\"position\":" + (1 + random.nextInt(15)) + "}",
+                    null, null,
+                    now.minusSeconds(span - span * i / options.tasks()),
+                    null, null, null};
+            if (i % recurringEvery == 0 && i / recurringEvery < options.recurringTasks()) {
+                recurring(task, now);
+            } else {
+                oneTime(task, now);
+            }
+            taskRows.add(timestamps(task));
+            if (taskRows.size() == BATCH_SIZE) {
+                flush();
+            }
+            if ((i + 1) % (options.tasks() / 10 + 1) == 0) {
+                System.out.printf("  %,d of %,d tasks%n", i + 1, options.tasks());
+            }
+        }
+        flush();
+
+        String universes = universeIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        jdbcTemplate.update("DELETE FROM universe_task_count WHERE universe_id IN (" + universes + ")");
+        jdbcTemplate.update("INSERT INTO universe_task_count (universe_id, type, status, task_count) " +
+                "SELECT universe_id, type, status, COUNT(*) FROM task WHERE universe_id IN (" + universes + ") GROUP BY universe_id, type, status");
+        // Hibernate's pooled optimizer hands out the 50 ids up to each sequence value
+        jdbcTemplate.execute("ALTER SEQUENCE task_seq RESTART WITH " + (firstId + options.tasks() + 50));
+        analyze();
+    }
+
+    /**
+     * Mostly done; the queue and in-progress work are in the last hours, with a few in-progress tasks left stale.
+     */
+    private void oneTime(Object[] task, LocalDateTime now) {
+        LocalDateTime createdAt = (LocalDateTime) task[9];
+        long ageMinutes = Duration.between(createdAt, now).toMinutes();
+        int roll = random.nextInt(1000);
+        Task.TaskStatus status = ageMinutes < 360 ? (roll < 400 ? Task.TaskStatus.CREATED : roll < 450 ? Task.TaskStatus.IN_PROGRESS : null)
+                : ageMinutes < 1440 ? (roll < 50 ? Task.TaskStatus.CREATED : roll < 55 ? Task.TaskStatus.IN_PROGRESS : null)
+                : null;
+        if (status == null) {
+            status = roll % 10 == 0 ? Task.TaskStatus.ERROR : Task.TaskStatus.FINISHED;
+        }
+        task[2] = status.name();
+        if (status == Task.TaskStatus.CREATED) {
+            task[4] = null;
+            task[10] = createdAt;
+            return;
+        }
+        LocalDateTime startedAt = createdAt.plusSeconds(random.nextInt(Math.max(1, (int) Math.min(ageMinutes * 60, 900))));
+        task[11] = startedAt;
+        task[10] = startedAt;
+        if (status != Task.TaskStatus.IN_PROGRESS) {
+            LocalDateTime finishedAt = startedAt.plusNanos(executionMillis() * 1_000_000);
+            task[12] = finishedAt;
+            task[10] = finishedAt;
+            result((Long) task[0], status == Task.TaskStatus.FINISHED, finishedAt);
+        }
+    }
+
+    /**
+     * Between executions, due within one recurrence with a few overdue, or requeued and waiting for a bot.
+     */
+    private void recurring(Object[] task, LocalDateTime now) {
+        int recurrence = RECURRENCE_MINUTES[random.nextInt(RECURRENCE_MINUTES.length)];
+        LocalDateTime createdAt = (LocalDateTime) task[9];
+        task[7] = recurrence;
+        int roll = random.nextInt(100);
+        LocalDateTime lastRun;
+        if (roll < 10) {
+            // Requeued by the scheduler; the last run's bot and timestamps are cleared
+            LocalDateTime requeuedAt = now.minusSeconds(random.nextInt(recurrence * 60));
+            task[2] = roll < 8 ? Task.TaskStatus.CREATED.name() : Task.TaskStatus.IN_PROGRESS.name();
+            task[4] = roll < 8 ? null : task[4];
+            task[8] = requeuedAt.plusMinutes(recurrence);
+            task[10] = requeuedAt;
+            task[11] = roll < 8 ? null : requeuedAt.plusSeconds(random.nextInt(60));
+            lastRun = requeuedAt;
+        } else {
+            Task.TaskStatus status = roll < 95 ? Task.TaskStatus.FINISHED : Task.TaskStatus.ERROR;
+            // About 3% overdue, as if the scheduler had fallen behind
+            LocalDateTime finishedAt = now.minusSeconds(random.nextInt((int) (recurrence * 60 * 1.03)));
+            task[2] = status.name();
+            task[8] = finishedAt.plusMinutes(recurrence);
+            task[10] = finishedAt;
+            task[11] = finishedAt.minusNanos(executionMillis() * 1_000_000);
+            task[12] = finishedAt;
+            lastRun = finishedAt;
+        }
+        for (int r = 0; r < options.resultsPerRecurringTask(); r++) {
+            LocalDateTime runAt = lastRun.minusMinutes((long) recurrence * r);
+            if (runAt.isBefore(createdAt)) {
+                break;
+            }
+            result((Long) task[0], random.nextInt(100) >= 5, runAt);
+        }
+    }
+
+    private void result(long taskId, boolean success, LocalDateTime createdAt) {
+        resultRows.add(new Object[]{taskId, success, success ? report() : null,
+                success ? null : ERRORS[random.nextInt(ERRORS.length)], executionMillis(), Timestamp.valueOf(createdAt)});
+    }
+
+    /**
+     * An espionage-report-like JSON document of about {@code resultBytes}.
+     */
+    private String report() {
+        StringBuilder result = new StringBuilder("{\"resources\":{\"metal\":").append(random.nextInt(10_000_000))
+                .append(",\"crystal\":").append(random.nextInt(5_000_000))
+                .append(",\"deuterium\":").append(random.nextInt(2_000_000)).append("},\"fleet\":[");
+        int approximateBytes = (int) (options.resultBytes() * (0.5 + random.nextDouble()));
+        while (result.length() < approximateBytes) {
+            result.append("{\"ship\":").append(200 + random.nextInt(20)).append(",\"count\":").append(random.nextInt(100_000)).append("},");
+        }
+        result.setLength(result.length() - (result.charAt(result.length() - 1) == ',' ? 1 : 0));
+        return result.append("]}").toString();
+    }
+
+    /**
+     * Log-normal around one and a half seconds, like page loads of the game.
+     */
+    private long executionMillis() {
+        double gaussian = Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+        return Math.max(50, Math.round(1500 * Math.exp(0.6 * gaussian)));
+    }
+
+    private int pick(double[] weights, double totalWeight) {
+        double target = random.nextDouble() * totalWeight;
+        for (int i = 0; i < weights.length - 1; i++) {
+            target -= weights[i];
+            if (target < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private int skewed(int bound) {
+        double uniform = random.nextDouble();
+        return (int) (bound * uniform * uniform);
+    }
+
+    private static Object[] timestamps(Object[] task) {
+        for (int i = 8; i < task.length; i++) {
+            if (task[i] instanceof LocalDateTime dateTime) {
+                task[i] = Timestamp.valueOf(dateTime);
+            }
+        }
+        return task;
+    }
+
+    private void flush() {
+        if (!taskRows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO task (id, type, status, universe_id, bot_id, player_name, parameters, " +
+                    "recurrence_minutes, next_execution_at, created_at, updated_at, started_at, finished_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", taskRows);
+            taskRows.clear();
+        }
+        if (!resultRows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO task_result (task_id, success, full_result, error_message, execution_time_ms, created_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)", resultRows);
+            resultRows.clear();
+        }
+    }
+
+    /**
+     * Refreshes the optimizer statistics, which the plans depend on.
+     */
+    private void analyze() {
+        String product = jdbcTemplate.execute((Connection connection) -> connection.getMetaData().getDatabaseProductName());
+        if ("H2".equals(product)) {
+            jdbcTemplate.execute("ANALYZE");
+        } else if ("MariaDB".equals(product) || "MySQL".equals(product)) {
+            jdbcTemplate.execute("ANALYZE TABLE task, task_result");
+        }
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,85 @@
+package com.ogame.automation.querybench;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Command line of the query benchmark: {@code --name=value} options, with {@code --spring.*},
+ * {@code --app.*} and {@code --logging.*} passed through to the JPA context.
+ *
+ * @param generate whether to add a generated dataset before measuring; off to measure an existing database as it is
+ * @param universes universes of the generated dataset, with Zipf-distributed task volumes
+ * @param bots bots of the generated dataset, spread over the universes by volume
+ * @param tasks tasks of the generated dataset, created evenly over {@code days}
+ * @param recurringTasks how many of the tasks recur, each with {@code resultsPerRecurringTask} results
+ * @param resultsPerRecurringTask results of every recurring task; one-time tasks have one result once done
+ * @param days history the generated tasks are spread over
+ * @param resultBytes average size of a successful result
+ * @param seed seed of the generated dataset
+ * @param warmup unmeasured calls per query
+ * @param iterations measured calls per query
+ * @param maxTimePerQuery measuring of a query stops early once it has taken this long
+ * @param profile Spring profile of the JPA context; {@code test} runs on in-memory H2
+ * @param output JSON report
+ * @param applicationArgs arguments passed to the JPA context
+ */
+record QueryBenchOptions(
+        boolean generate,
+        int universes,
+        int bots,
+        int tasks,
+        int recurringTasks,
+        int resultsPerRecurringTask,
+        int days,
+        int resultBytes,
+        long seed,
+        int warmup,
+        int iterations,
+        Duration maxTimePerQuery,
+        String profile,
+        Path output,
+        List<String> applicationArgs) {
+
+    static QueryBenchOptions parse(String[] args) {
+        Map<String, String> options = new TreeMap<>();
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--spring.") || arg.startsWith("--app.") || arg.startsWith("--logging.")) {
+                applicationArgs.add(arg);
+            } else if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            } else if (!arg.isBlank()) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+        }
+        QueryBenchOptions parsed = new QueryBenchOptions(
+                Boolean.parseBoolean(options.getOrDefault("generate", "true")),
+                Integer.parseInt(options.getOrDefault("universes", "20")),
+                Integer.parseInt(options.getOrDefault("bots", "200")),
+                Integer.parseInt(options.getOrDefault("tasks", "1000000")),
+                Integer.parseInt(options.getOrDefault("recurring", "5000")),
+                Integer.parseInt(options.getOrDefault("results-per-recurring", "50")),
+                Integer.parseInt(options.getOrDefault("days", "90")),
+                Integer.parseInt(options.getOrDefault("result-bytes", "512")),
+                Long.parseLong(options.getOrDefault("seed", "42")),
+                Integer.parseInt(options.getOrDefault("warmup", "5")),
+                Integer.parseInt(options.getOrDefault("iterations", "20")),
+                Duration.parse(options.getOrDefault("max-time-per-query", "PT30S")),
+                options.getOrDefault("profile", "test"),
+                Path.of(options.getOrDefault("output", "target/querybench-result.json")),
+                List.copyOf(applicationArgs));
+        options.keySet().removeAll(List.of("generate", "universes", "bots", "tasks", "recurring", "results-per-recurring", "days",
+                "result-bytes", "seed", "warmup", "iterations", "max-time-per-query", "profile", "output"));
+        if (!options.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options " + options.keySet());
+        }
+        if (parsed.recurringTasks() > parsed.tasks() || parsed.bots() < parsed.universes()) {
+            throw new IllegalArgumentException("Expected --recurring <= --tasks and --bots >= --universes");
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,154 @@
+package com.ogame.automation.querybench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.ogame.automation.repository.BotRepository;
+import com.ogame.automation.repository.UniverseRepository;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Repository queries against a database of production size.
+ *
+ * Starts only the JPA layer, on in-memory H2 by default or on the database given with
+ * {@code --profile=} and {@code --spring.datasource.*}, adds a generated dataset of
+ * {@code --tasks} tasks with {@link DatasetGenerator} unless {@code --generate=false}, and runs
+ * every query of {@link RepositoryQueries}: rows returned, latency percentiles over
+ * {@code --iterations} calls, and the EXPLAIN plan of each statement sent, with full table and
+ * index scans flagged. The report is printed and written to {@code --output}.
+ */
+public final class QueryBenchmark {
+
+    // Not a @SpringBootConfiguration, so neither tests nor the application's component scan pick it up
+    @EnableAutoConfiguration
+    @EntityScan("com.ogame.automation.entity")
+    @EnableJpaRepositories("com.ogame.automation.repository")
+    static class JpaOnly {
+    }
+
+    private QueryBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        QueryBenchOptions options = QueryBenchOptions.parse(args);
+        Instant startedAt = Instant.now();
+        try (ConfigurableApplicationContext context = start(options)) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            if (options.generate()) {
+                System.out.printf("Generating %,d tasks (%,d recurring) in %d universes with %d bots%n",
+                        options.tasks(), options.recurringTasks(), options.universes(), options.bots());
+                long start = System.nanoTime();
+                new DatasetGenerator(jdbcTemplate, context.getBean(UniverseRepository.class), context.getBean(BotRepository.class), options)
+                        .generate();
+                System.out.printf("Generated in %.0f s%n", (System.nanoTime() - start) / 1e9);
+            }
+            Dataset dataset = Dataset.probe(jdbcTemplate);
+            System.out.printf("%,d tasks, %,d results, %d universes, %d bots%n",
+                    dataset.tasks(), dataset.results(), dataset.universes(), dataset.bots());
+
+            RecordingDataSource dataSource = (RecordingDataSource) context.getBean(DataSource.class);
+            List<QueryReport> reports = new ArrayList<>();
+            System.out.printf("  %-64s %9s %9s %9s %9s%n", "query", "rows", "p50 ms", "p95 ms", "max ms");
+            for (RepositoryQueries.Query query : RepositoryQueries.all(context, dataset)) {
+                QueryReport report = measure(query, dataSource, options);
+                print(report);
+                reports.add(report);
+            }
+            printScans(reports);
+
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            ObjectNode output = objectMapper.createObjectNode();
+            output.put("startedAt", startedAt.toString());
+            output.set("options", objectMapper.valueToTree(options));
+            output.set("dataset", objectMapper.valueToTree(dataset));
+            output.set("queries", objectMapper.valueToTree(reports));
+            Files.createDirectories(options.output().toAbsolutePath().getParent());
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(options.output().toFile(), output);
+            System.out.println("Report written to " + options.output().toAbsolutePath());
+        }
+    }
+
+    private static ConfigurableApplicationContext start(QueryBenchOptions options) {
+        List<String> args = new ArrayList<>(options.applicationArgs());
+        if (args.stream().noneMatch(arg -> arg.startsWith("--logging."))) {
+            args.addAll(List.of("--logging.level.root=WARN", "--logging.level.com.ogame.automation=WARN"));
+        }
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(JpaOnly.class)
+                .web(WebApplicationType.NONE)
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                    @Override
+                    public Object postProcessAfterInitialization(Object bean, String beanName) {
+                        return bean instanceof DataSource dataSource && !(bean instanceof RecordingDataSource)
+                                ? new RecordingDataSource(dataSource) : bean;
+                    }
+                }));
+        if (!options.profile().isBlank()) {
+            builder.profiles(options.profile());
+        }
+        return builder.run(args.toArray(String[]::new));
+    }
+
+    private static QueryReport measure(RepositoryQueries.Query query, RecordingDataSource dataSource, QueryBenchOptions options)
+            throws Exception {
+        long[] rows = new long[1];
+        List<RecordingDataSource.RecordedQuery> sent = dataSource.record(() -> rows[0] = query.run());
+        List<QueryPlan> plans = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            for (RecordingDataSource.RecordedQuery statement : sent) {
+                plans.add(QueryPlan.explain(connection, statement));
+            }
+        }
+
+        for (int i = 0; i < options.warmup(); i++) {
+            query.run();
+        }
+        long deadline = System.nanoTime() + options.maxTimePerQuery().toNanos();
+        long[] nanos = new long[options.iterations()];
+        int samples = 0;
+        while (samples < nanos.length && (samples == 0 || System.nanoTime() - deadline < 0)) {
+            long start = System.nanoTime();
+            query.run();
+            nanos[samples++] = System.nanoTime() - start;
+        }
+        long[] sorted = Arrays.copyOf(nanos, samples);
+        Arrays.sort(sorted);
+        return new QueryReport(query.name(), rows[0], samples, millis(sorted, 0.5), millis(sorted, 0.95),
+                millis(sorted, 1.0), plans.stream().anyMatch(QueryPlan::fullScan), plans);
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        int index = Math.max(0, (int) Math.ceil(percentile * sorted.length) - 1);
+        return sorted[index] / 1e6;
+    }
+
+    private static void print(QueryReport report) {
+        System.out.printf("  %-64s %9d %9.2f %9.2f %9.2f  %s%n", report.name(), report.rows(), report.p50Ms(), report.p95Ms(),
+                report.maxMs(), report.fullScan() ? "FULL SCAN" : "");
+    }
+
+    private static void printScans(List<QueryReport> reports) {
+        List<QueryReport> scanning = reports.stream().filter(QueryReport::fullScan).toList();
+        System.out.printf("%d of %d queries read a whole table or index%n", scanning.size(), reports.size());
+        for (QueryReport report : scanning) {
+            System.out.println("  " + report.name());
+            report.statements().stream().filter(QueryPlan::fullScan).forEach(plan -> {
+                System.out.println("    " + String.join(", ", plan.scans()));
+                System.out.println("    " + plan.sql());
+            });
+        }
+    }
+}
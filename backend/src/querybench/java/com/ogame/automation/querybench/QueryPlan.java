@@ -0,0 +1,92 @@
+package com.ogame.automation.querybench;
+
+import java.lang.reflect.InvocationTargetException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * EXPLAIN output of one recorded query, with the full scans found in it.
+ *
+ * @param scans one entry per table read in full, e.g. {@code table scan TASK} or
+ *              {@code full index scan TASK (IDX_TASK_CREATED)}; empty if every table is reached
+ *              through an index condition or the database's plan format is not known
+ */
+record QueryPlan(String sql, String plan, List<String> scans) {
+
+    // H2 annotates each table access as "/* PUBLIC.TASK.tableScan */" or "/* PUBLIC.<index>[: <condition>] */"
+    private static final Pattern H2_ACCESS = Pattern.compile(
+            "\\b(?:FROM|JOIN)\\s+\"?\\w+\"?\\.\"?(\\w+)\"?(?:\\s+\"?\\w+\"?)?\\s*/\\* \\w+\\.(\\w+)(\\.tableScan)?(:[^*]*)? \\*/");
+
+    static QueryPlan explain(Connection connection, RecordingDataSource.RecordedQuery query) {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + query.sql())) {
+            for (RecordingDataSource.Binding binding : query.bindings()) {
+                binding.setter().invoke(statement, binding.args());
+            }
+            String product = connection.getMetaData().getDatabaseProductName();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return product.equals("H2") ? h2(query.sql(), resultSet)
+                        : product.equals("MariaDB") || product.equals("MySQL") ? mariaDb(query.sql(), resultSet)
+                        : new QueryPlan(query.sql(), text(resultSet), List.of());
+            }
+        } catch (SQLException | IllegalAccessException | InvocationTargetException e) {
+            return new QueryPlan(query.sql(), "EXPLAIN failed: " + e, List.of());
+        }
+    }
+
+    private static QueryPlan h2(String sql, ResultSet resultSet) throws SQLException {
+        String plan = text(resultSet);
+        List<String> scans = new ArrayList<>();
+        Matcher access = H2_ACCESS.matcher(plan);
+        while (access.find()) {
+            if (access.group(3) != null) {
+                scans.add("table scan " + access.group(1));
+            } else if (access.group(4) == null) {
+                scans.add("full index scan " + access.group(1) + " (" + access.group(2) + ")");
+            }
+        }
+        return new QueryPlan(sql, plan, scans);
+    }
+
+    /**
+     * MariaDB reports one row per table: access type {@code ALL} reads the whole table,
+     * {@code index} the whole of an index.
+     */
+    private static QueryPlan mariaDb(String sql, ResultSet resultSet) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        List<String> scans = new ArrayList<>();
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        while (resultSet.next()) {
+            for (int column = 1; column <= metaData.getColumnCount(); column++) {
+                plan.append(column > 1 ? " | " : "").append(metaData.getColumnLabel(column)).append('=').append(resultSet.getString(column));
+            }
+            plan.append('\n');
+            String type = resultSet.getString("type");
+            String table = resultSet.getString("table");
+            if ("ALL".equalsIgnoreCase(type)) {
+                scans.add("table scan " + table + " (~" + resultSet.getString("rows") + " rows)");
+            } else if ("index".equalsIgnoreCase(type)) {
+                scans.add("full index scan " + table + " (" + resultSet.getString("key") + ", ~" + resultSet.getString("rows") + " rows)");
+            }
+        }
+        return new QueryPlan(sql, plan.toString(), scans);
+    }
+
+    private static String text(ResultSet resultSet) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        while (resultSet.next()) {
+            plan.append(resultSet.getString(1)).append('\n');
+        }
+        return plan.toString();
+    }
+
+    boolean fullScan() {
+        return !scans.isEmpty();
+    }
+}
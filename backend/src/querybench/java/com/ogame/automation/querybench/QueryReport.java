@@ -0,0 +1,22 @@
+package com.ogame.automation.querybench;
+
+import java.util.List;
+
+/**
+ * Results of one repository query, as printed and written to the JSON report.
+ *
+ * @param rows rows the query returned
+ * @param samples measured calls; fewer than {@code --iterations} if the query ran out of {@code --max-time-per-query}
+ * @param statements the SQL the call sent, each with its EXPLAIN output
+ * @param fullScan whether any of the statements reads a whole table or index
+ */
+record QueryReport(
+        String name,
+        long rows,
+        int samples,
+        double p50Ms,
+        double p95Ms,
+        double maxMs,
+        boolean fullScan,
+        List<QueryPlan> statements) {
+}
@@ -0,0 +1,115 @@
+package com.ogame.automation.querybench;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Records the queries a piece of code sends through the connections of this data source, with
+ * their bound parameters, so they can be run again under EXPLAIN exactly as Hibernate sent them.
+ * Only SELECTs are recorded, and only on the thread inside {@link #record}.
+ */
+class RecordingDataSource extends DelegatingDataSource {
+
+    /**
+     * One {@code PreparedStatement.setXxx(index, value, ...)} call, to be replayed on another statement.
+     */
+    record Binding(Method setter, Object[] args) {
+    }
+
+    record RecordedQuery(String sql, List<Binding> bindings) {
+    }
+
+    private static final Set<String> EXECUTE = Set.of("execute", "executeQuery");
+
+    private final ThreadLocal<List<RecordedQuery>> recording = new ThreadLocal<>();
+
+    RecordingDataSource(DataSource target) {
+        super(target);
+    }
+
+    /**
+     * Runs the action and returns the queries it sent, in order.
+     */
+    List<RecordedQuery> record(Supplier<?> action) {
+        List<RecordedQuery> queries = new ArrayList<>();
+        recording.set(queries);
+        try {
+            action.get();
+            return queries;
+        } finally {
+            recording.remove();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return recording(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return recording(super.getConnection(username, password));
+    }
+
+    private Connection recording(Connection connection) {
+        return proxy(Connection.class, connection, (method, args, result) ->
+                method.getName().equals("prepareStatement") && args != null && args[0] instanceof String sql && isSelect(sql)
+                        ? recording(sql, (PreparedStatement) result) : result);
+    }
+
+    private PreparedStatement recording(String sql, PreparedStatement statement) {
+        Map<Integer, Binding> bindings = new TreeMap<>();
+        return proxy(PreparedStatement.class, statement, (method, args, result) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bindings.put(index, new Binding(method, args.clone()));
+            } else if (name.equals("clearParameters")) {
+                bindings.clear();
+            } else if (EXECUTE.contains(name) && args == null) {
+                List<RecordedQuery> queries = recording.get();
+                if (queries != null) {
+                    queries.add(new RecordedQuery(sql, List.copyOf(bindings.values())));
+                }
+            }
+            return result;
+        });
+    }
+
+    private static boolean isSelect(String sql) {
+        String statement = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return statement.startsWith("select") || statement.startsWith("with");
+    }
+
+    private interface Interceptor {
+        Object after(Method method, Object[] args, Object result);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Interceptor interceptor) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            return interceptor.after(method, args, result);
+        };
+        return (T) Proxy.newProxyInstance(RecordingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
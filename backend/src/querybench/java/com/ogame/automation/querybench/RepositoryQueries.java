@@ -0,0 +1,117 @@
+package com.ogame.automation.querybench;
+
+import com.ogame.automation.dto.TaskFilter;
+import com.ogame.automation.entity.Task;
+import com.ogame.automation.repository.TaskRepository;
+import com.ogame.automation.repository.TaskResultRepository;
+import com.ogame.automation.repository.TaskSpecifications;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Every query of {@link TaskRepository} and {@link TaskResultRepository}, called as the
+ * application calls it where it does (page sizes, time windows, locks) and otherwise with the
+ * busiest universe and bot, so each runs against the largest slice of the data it would see.
+ * The task listing, which goes through {@link TaskSpecifications}, runs with the filter
+ * combinations the dashboard offers.
+ */
+final class RepositoryQueries {
+
+    record Query(String name, Supplier<?> call) {
+
+        /**
+         * Rows the call returned, to tell a slow query from a large result.
+         */
+        long run() {
+            Object result = call.get();
+            return switch (result) {
+                case Collection<?> rows -> rows.size();
+                case Window<?> window -> window.size();
+                case Optional<?> row -> row.isPresent() ? 1 : 0;
+                case null -> 0;
+                default -> 1;
+            };
+        }
+    }
+
+    private static final int LISTING_PAGE_SIZE = 20;
+    private static final int EXPORT_PAGE_SIZE = 10_000;
+
+    private RepositoryQueries() {
+    }
+
+    static List<Query> all(ApplicationContext context, Dataset dataset) {
+        TaskRepository tasks = context.getBean(TaskRepository.class);
+        TaskResultRepository results = context.getBean(TaskResultRepository.class);
+        // For the locking read and the listing's fetch joins, as in the services
+        TransactionTemplate transaction = context.getBean(TransactionTemplate.class);
+        Long universe = dataset.universeId();
+        Long bot = dataset.botId();
+
+        List<Query> queries = new ArrayList<>();
+        queries.add(new Query("findAvailableTasksForUniverse", () -> tasks.findAvailableTasksForUniverse(Task.TaskStatus.CREATED, universe)));
+        queries.add(new Query("findRecurringTasksToReschedule", () -> tasks.findRecurringTasksToReschedule(dataset.now())));
+        queries.add(new Query("findFirstByStatusAndUniverseIdOrderByCreatedAtAsc",
+                () -> tasks.findFirstByStatusAndUniverseIdOrderByCreatedAtAsc(Task.TaskStatus.CREATED, universe)));
+        queries.add(new Query("findFirstForAssignmentByStatusAndUniverseIdOrderByCreatedAtAsc", () -> transaction.execute(status ->
+                tasks.findFirstForAssignmentByStatusAndUniverseIdOrderByCreatedAtAsc(Task.TaskStatus.CREATED, universe))));
+        queries.add(new Query("findByStatus(IN_PROGRESS)", () -> tasks.findByStatus(Task.TaskStatus.IN_PROGRESS)));
+        queries.add(new Query("findWithReferencesById", () -> tasks.findWithReferencesById(dataset.taskId())));
+        queries.add(new Query("findUniverseIdById", () -> tasks.findUniverseIdById(dataset.taskId())));
+        queries.add(new Query("findByUniverseId", () -> tasks.findByUniverseId(universe)));
+        queries.add(new Query("countByUniverseId", () -> tasks.countByUniverseId(universe)));
+        queries.add(new Query("existsByUniverseId", () -> tasks.existsByUniverseId(universe)));
+        queries.add(new Query("findByBotId", () -> tasks.findByBotId(bot)));
+        queries.add(new Query("findByBotIdAndStatus", () -> tasks.findByBotIdAndStatus(bot, Task.TaskStatus.IN_PROGRESS)));
+        queries.add(new Query("countByBotIdAndStatus", () -> tasks.countByBotIdAndStatus(bot, Task.TaskStatus.IN_PROGRESS)));
+        queries.add(new Query("countByBotForStatus", () -> tasks.countByBotForStatus(Task.TaskStatus.IN_PROGRESS)));
+        queries.add(new Query("findByUniverseIdAndStatus", () -> tasks.findByUniverseIdAndStatus(universe, Task.TaskStatus.CREATED)));
+        queries.add(new Query("findByStatusAndNextExecutionAtBefore",
+                () -> tasks.findByStatusAndNextExecutionAtBefore(Task.TaskStatus.CREATED, dataset.now())));
+        // The stale-task check looks for tasks started more than an hour ago
+        queries.add(new Query("findByStatusAndStartedAtBefore",
+                () -> tasks.findByStatusAndStartedAtBefore(Task.TaskStatus.IN_PROGRESS, dataset.now().minusHours(1))));
+        // An incremental export a day behind
+        queries.add(new Query("findExportRowsAfter", () -> tasks.findExportRowsAfter(dataset.now().minusDays(1), 0L,
+                dataset.now().minusMinutes(5), PageRequest.of(0, EXPORT_PAGE_SIZE))));
+        queries.add(new Query("findPlayerNamesAfter", () -> tasks.findPlayerNamesAfter(dataset.taskId(), PageRequest.of(0, EXPORT_PAGE_SIZE))));
+
+        listing(queries, tasks, transaction, "universe", new TaskFilter(null, universe, null, null, null, null, null));
+        listing(queries, tasks, transaction, "status + universe", new TaskFilter(Task.TaskStatus.FINISHED, universe, null, null, null, null, null));
+        listing(queries, tasks, transaction, "bot", new TaskFilter(null, null, bot, null, null, null, null));
+        listing(queries, tasks, transaction, "type", new TaskFilter(null, null, null, Task.TaskType.CHECK_ACTIVITY, null, null, null));
+        listing(queries, tasks, transaction, "player name", new TaskFilter(null, null, null, null, dataset.playerName(), null, null)
+                .withPlayerNames(Set.of(dataset.playerName())));
+        listing(queries, tasks, transaction, "last week", new TaskFilter(null, null, null, null, null,
+                dataset.now().minusDays(7), dataset.now()));
+        listing(queries, tasks, transaction, "universe + type + last week", new TaskFilter(null, universe, null, Task.TaskType.SPY_PLAYER,
+                null, dataset.now().minusDays(7), dataset.now()));
+
+        queries.add(new Query("TaskResult.findByTaskIdOrderByCreatedAtDesc", () -> results.findByTaskIdOrderByCreatedAtDesc(dataset.recurringTaskId())));
+        queries.add(new Query("TaskResult.findFirstByTaskIdOrderByIdDesc", () -> results.findFirstByTaskIdOrderByIdDesc(dataset.recurringTaskId())));
+        queries.add(new Query("TaskResult.findExportRowsAfter", () -> results.findExportRowsAfter(
+                Math.max(0, dataset.lastResultId() - EXPORT_PAGE_SIZE), PageRequest.of(0, EXPORT_PAGE_SIZE))));
+        return queries;
+    }
+
+    /**
+     * The first page of the dashboard's task list, newest first.
+     */
+    private static void listing(List<Query> queries, TaskRepository tasks, TransactionTemplate transaction, String name, TaskFilter filter) {
+        queries.add(new Query("findBy(" + name + ")", () -> transaction.execute(status -> tasks.findBy(
+                TaskSpecifications.matching(filter).and(TaskSpecifications.fetchReferences()),
+                query -> query.sortBy(Sort.by(Sort.Direction.DESC, "createdAt", "id")).limit(LISTING_PAGE_SIZE)
+                        .scroll(ScrollPosition.keyset())))));
+    }
+}
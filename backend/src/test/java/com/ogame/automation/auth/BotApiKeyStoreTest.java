@@ -0,0 +1,97 @@
+package com.ogame.automation.auth;
+
+import com.ogame.automation.config.PrimaryReads;
+import com.ogame.automation.dto.BotApiKey;
+import com.ogame.automation.repository.BotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("BotApiKeyStore Tests")
+class BotApiKeyStoreTest {
+
+    private static final Duration TTL = Duration.ofSeconds(30);
+
+    @Mock
+    private BotRepository botRepository;
+
+    @Mock
+    private PrimaryReads primaryReads;
+
+    @InjectMocks
+    private BotApiKeyStore store;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private String key;
+    private BotApiKey apiKey;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(primaryReads.read(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        ReflectionTestUtils.setField(store, "keySecret", "test-secret");
+        ReflectionTestUtils.setField(store, "keyTtl", TTL);
+        store.setNanoTime(nanos::get);
+        when(botRepository.findApiKeys()).thenReturn(List.of());
+        when(botRepository.findApiKeyByHash(any())).thenReturn(Optional.empty());
+        store.init();
+
+        key = store.generateKey();
+        apiKey = new BotApiKey(store.hash(key), 7L, "bot-uuid", 1L);
+    }
+
+    @Test
+    @DisplayName("Should accept a key issued through another instance")
+    void testIssuedElsewhere() {
+        // Given
+        when(botRepository.findApiKeyByHash(apiKey.apiKeyHash())).thenReturn(Optional.of(apiKey));
+
+        // When
+        Optional<BotPrincipal> first = store.resolve(key);
+        Optional<BotPrincipal> second = store.resolve(key);
+
+        // Then
+        assertEquals(new BotPrincipal(7L, "bot-uuid", 1L), first.orElseThrow());
+        assertEquals(first, second);
+        verify(botRepository, times(1)).findApiKeyByHash(apiKey.apiKeyHash());
+    }
+
+    @Test
+    @DisplayName("Should reject a key revoked through another instance once its entry is older than the TTL")
+    void testRevokedElsewhere() {
+        // Given
+        store.putAfterCommit(apiKey.apiKeyHash(), new BotPrincipal(7L, "bot-uuid", 1L));
+        assertTrue(store.resolve(key).isPresent());
+
+        // When
+        nanos.addAndGet(TTL.toNanos());
+
+        // Then
+        assertTrue(store.resolve(key).isEmpty());
+        assertEquals(0, store.size());
+        verify(botRepository).findApiKeyByHash(apiKey.apiKeyHash());
+    }
+
+    @Test
+    @DisplayName("Should reject keys without the prefix without a lookup")
+    void testMalformed() {
+        assertTrue(store.resolve("not-a-key").isEmpty());
+        assertTrue(store.resolve(null).isEmpty());
+        verify(botRepository, never()).findApiKeyByHash(any());
+    }
+}
@@ -0,0 +1,127 @@
+package com.ogame.automation.auth;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JwtUtil Tests")
+class JwtUtilTest {
+
+    private static final String SECRET = "testSecretKey123456789012345678901234567890";
+
+    private JwtUtil jwtUtil;
+    private Instant now;
+    private long tickerNanos;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 100L);
+        now = Instant.now();
+        jwtUtil.setClock(Clock.fixed(now, ZoneOffset.UTC), () -> tickerNanos);
+        jwtUtil.init();
+    }
+
+    @Test
+    @DisplayName("Should decode all claims in one pass")
+    void testVerify() {
+        // Given
+        String token = jwtUtil.generateToken("admin", "ADMIN", 42L);
+
+        // When
+        Optional<JwtPrincipal> principal = jwtUtil.verify(token);
+
+        // Then
+        assertTrue(principal.isPresent());
+        assertEquals("admin", principal.get().username());
+        assertEquals("ADMIN", principal.get().role());
+        assertEquals(42L, principal.get().userId());
+        assertTrue(jwtUtil.validateToken(token));
+        assertEquals(42L, jwtUtil.getUserIdFromToken(token));
+    }
+
+    @Test
+    @DisplayName("Should serve repeated verifications from the cache")
+    void testCacheHit() {
+        // Given
+        String token = jwtUtil.generateToken("bot", "USER", 7L);
+
+        // When
+        jwtUtil.verify(token);
+        jwtUtil.verify(token);
+        jwtUtil.verify(token);
+
+        // Then
+        assertEquals(2.0 / 3, jwtUtil.cacheHitRatio(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should drop cached tokens at their exp")
+    void testCacheExpiresWithToken() {
+        // Given
+        String token = jwtUtil.generateToken("bot", "USER", 7L);
+        jwtUtil.verify(token);
+
+        // When
+        tickerNanos += Duration.ofHours(1).plusSeconds(1).toNanos();
+        jwtUtil.verify(token);
+
+        // Then: the second call missed the cache and verified again
+        assertEquals(0.0, jwtUtil.cacheHitRatio());
+    }
+
+    @Test
+    @DisplayName("Should reject tokens with a bad signature without caching them")
+    void testRejectsForgedToken() {
+        // Given
+        String forged = JWT.create()
+                .withSubject("admin")
+                .withClaim("role", "ADMIN")
+                .withExpiresAt(new Date(System.currentTimeMillis() + 60_000))
+                .sign(Algorithm.HMAC256("anotherSecret12345678901234567890123456"));
+
+        // When
+        Optional<JwtPrincipal> first = jwtUtil.verify(forged);
+        Optional<JwtPrincipal> second = jwtUtil.verify(forged);
+
+        // Then
+        assertTrue(first.isEmpty());
+        assertTrue(second.isEmpty());
+        assertEquals(0.0, jwtUtil.cacheHitRatio());
+    }
+
+    @Test
+    @DisplayName("Should reject expired tokens and tokens without exp")
+    void testRejectsExpiredToken() {
+        // Given
+        Algorithm algorithm = Algorithm.HMAC256(SECRET);
+        String expired = JWT.create()
+                .withSubject("admin")
+                .withClaim("role", "ADMIN")
+                .withExpiresAt(new Date(System.currentTimeMillis() - 60_000))
+                .sign(algorithm);
+        String withoutExp = JWT.create()
+                .withSubject("admin")
+                .withClaim("role", "ADMIN")
+                .sign(algorithm);
+
+        // Then
+        assertTrue(jwtUtil.verify(expired).isEmpty());
+        assertTrue(jwtUtil.verify(withoutExp).isEmpty());
+        assertNull(jwtUtil.getUsernameFromToken("not-a-token"));
+    }
+}
@@ -0,0 +1,228 @@
+package com.ogame.automation.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ReadReplicaRoutingDataSource Tests")
+class ReadReplicaRoutingDataSourceTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+
+    private DriverManagerDataSource primary;
+    private DriverManagerDataSource replicaDatabase;
+    private final AtomicBoolean replicaDown = new AtomicBoolean();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ReadReplicaRoutingDataSource routing;
+    private Instant now = NOW;
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replicaDatabase = database("replica");
+        routing = routing(Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        new JdbcTemplate(primary).execute("SHUTDOWN");
+        new JdbcTemplate(replicaDatabase).execute("SHUTDOWN");
+    }
+
+    @Test
+    @DisplayName("Should route read-only transactions to a replica within the lag bound")
+    void shouldRouteReadOnlyToReplica() throws SQLException {
+        // Given
+        routing.checkLag();
+        replicate();
+        routing.checkLag();
+
+        // When
+        String readOnly = readOnlyConnectionUrl();
+        String readWrite = connectionUrl();
+
+        // Then
+        assertTrue(readOnly.contains("replica"));
+        assertTrue(readWrite.contains("primary"));
+        assertTrue(routing.getReplicas().get(0).isUsable());
+        assertEquals(1.0, meterRegistry.get("datasource.reads").tag("target", "replica-1").counter().count());
+        assertEquals(0.0, meterRegistry.get("datasource.replica.lag").tag("replica", "replica-1").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should read from the primary until the replica shows the heartbeat")
+    void shouldUsePrimaryBeforeFirstHeartbeat() throws SQLException {
+        // When
+        routing.checkLag();
+
+        // Then
+        assertFalse(routing.getReplicas().get(0).isUsable());
+        assertNull(routing.getReplicas().get(0).lag());
+        assertTrue(readOnlyConnectionUrl().contains("primary"));
+        assertEquals(1.0, meterRegistry.get("datasource.reads").tag("target", "primary").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should stop using a replica whose lag exceeds the bound")
+    void shouldDropLaggingReplica() throws SQLException {
+        // Given
+        routing.checkLag();
+        replicate();
+        routing.checkLag();
+        assertTrue(readOnlyConnectionUrl().contains("replica"));
+
+        // When: replication stalls while the heartbeat moves on
+        now = NOW.plusSeconds(6);
+        routing.checkLag();
+
+        // Then
+        assertEquals(Duration.ofSeconds(6), routing.getReplicas().get(0).lag());
+        assertFalse(routing.getReplicas().get(0).isUsable());
+        assertTrue(readOnlyConnectionUrl().contains("primary"));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the primary when a replica refuses connections")
+    void shouldFallBackWhenReplicaRefusesConnection() throws SQLException {
+        // Given
+        routing.checkLag();
+        replicate();
+        routing.checkLag();
+
+        // When
+        replicaDown.set(true);
+
+        // Then
+        assertTrue(readOnlyConnectionUrl().contains("primary"));
+        assertFalse(routing.getReplicas().get(0).isUsable());
+
+        // When: a later check reaches it again
+        replicaDown.set(false);
+        routing.checkLag();
+
+        // Then
+        assertTrue(readOnlyConnectionUrl().contains("replica"));
+    }
+
+    @Test
+    @DisplayName("Should route connections opened with credentials like the others")
+    void shouldRouteConnectionsWithCredentials() throws SQLException {
+        // Given
+        routing.checkLag();
+        replicate();
+        routing.checkLag();
+
+        // When
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        String readOnly;
+        try (Connection connection = routing.getConnection("", "")) {
+            readOnly = connection.getMetaData().getURL();
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+        String readWrite;
+        try (Connection connection = routing.getConnection("", "")) {
+            readWrite = connection.getMetaData().getURL();
+        }
+
+        // Then
+        assertTrue(readOnly.contains("replica"));
+        assertTrue(readWrite.contains("primary"));
+    }
+
+    @Test
+    @DisplayName("Should remove its heartbeat on close")
+    void shouldRemoveHeartbeatOnClose() throws Exception {
+        // Given
+        routing.checkLag();
+
+        // When
+        routing.close();
+
+        // Then
+        assertEquals(0, new JdbcTemplate(primary).queryForObject("SELECT COUNT(*) FROM replica_heartbeat", Integer.class));
+    }
+
+    private ReadReplicaRoutingDataSource routing(Duration maxLag) {
+        DataSource replica = new DriverManagerDataSource(replicaDatabase.getUrl()) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                if (replicaDown.get()) {
+                    throw new SQLException("Connection refused");
+                }
+                return super.getConnection();
+            }
+        };
+        return new ReadReplicaRoutingDataSource(primary, List.of(new ReadReplicaRoutingDataSource.Replica("replica-1", replica)),
+                maxLag, clock, meterRegistry);
+    }
+
+    private static DriverManagerDataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        new JdbcTemplate(dataSource).execute(
+                "CREATE TABLE replica_heartbeat (instance_id VARCHAR(36) PRIMARY KEY, beat_millis BIGINT NOT NULL)");
+        return dataSource;
+    }
+
+    // Replication: copy the primary's heartbeat rows to the replica
+    private void replicate() {
+        JdbcTemplate replica = new JdbcTemplate(replicaDatabase);
+        replica.update("DELETE FROM replica_heartbeat");
+        new JdbcTemplate(primary).query("SELECT instance_id, beat_millis FROM replica_heartbeat", row -> {
+            replica.update("INSERT INTO replica_heartbeat (instance_id, beat_millis) VALUES (?, ?)",
+                    row.getString(1), row.getLong(2));
+        });
+    }
+
+    private String readOnlyConnectionUrl() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            return connectionUrl();
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    private String connectionUrl() throws SQLException {
+        try (Connection connection = routing.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.ogame.automation.config;
+
+import com.ogame.automation.entity.Bot;
+import com.ogame.automation.entity.Universe;
+import com.ogame.automation.repository.BotRepository;
+import com.ogame.automation.repository.UniverseRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({SecondLevelCacheConfig.class, ReplicaAwareJpaDialectTest.Dialect.class})
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.cache.use_second_level_cache=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("ReplicaAwareJpaDialect Tests")
+class ReplicaAwareJpaDialectTest {
+
+    @TestConfiguration
+    static class Dialect {
+        @Bean
+        static BeanPostProcessor replicaAwareJpaDialect() {
+            return ReadReplicaConfig.replicaAwareJpaDialect();
+        }
+    }
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UniverseRepository universeRepository;
+
+    @Autowired
+    private BotRepository botRepository;
+
+    private Statistics statistics;
+    private Bot bot;
+
+    @BeforeEach
+    void setUp() {
+        Universe universe = universeRepository.save(new Universe("Replica Universe", "http://replica", "http://hook"));
+        bot = botRepository.save(new Bot("replica-bot", universe, "Replica Bot"));
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        botRepository.deleteAll();
+        universeRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should fill the second-level cache only from read-write transactions")
+    void testReadOnlyDoesNotPut() {
+        // Given
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // When: the repository's own read-only transaction, then an explicit one
+        botRepository.findById(bot.getId());
+        readOnly.executeWithoutResult(status -> botRepository.findById(bot.getId()));
+
+        // Then
+        assertEquals(0, statistics.getSecondLevelCachePutCount());
+
+        // When
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> botRepository.findById(bot.getId()));
+        readOnly.executeWithoutResult(status -> botRepository.findById(bot.getId()));
+
+        // Then: read-only transactions still read what the read-write one cached
+        assertEquals(1, statistics.getSecondLevelCachePutCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
+}
@@ -0,0 +1,164 @@
+package com.ogame.automation.controller;
+
+import com.ogame.automation.auth.BotApiKeyAuthenticationFilter;
+import com.ogame.automation.entity.Bot;
+import com.ogame.automation.entity.Task;
+import com.ogame.automation.entity.Universe;
+import com.ogame.automation.repository.BotRepository;
+import com.ogame.automation.repository.TaskRepository;
+import com.ogame.automation.repository.UniverseRepository;
+import com.ogame.automation.service.BotService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Bot API key authentication")
+class BotApiKeyAuthenticationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BotService botService;
+
+    @Autowired
+    private UniverseRepository universeRepository;
+
+    @Autowired
+    private BotRepository botRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private Universe universe;
+    private Universe otherUniverse;
+    private Bot bot;
+    private Bot otherBot;
+    private String apiKey;
+
+    @BeforeEach
+    void setUp() {
+        universe = universeRepository.save(new Universe("Key Universe", "http://key", "http://localhost:1/webhook"));
+        otherUniverse = universeRepository.save(new Universe("Other Universe", "http://other", "http://localhost:1/webhook"));
+        bot = botRepository.save(new Bot("key-bot", universe, "Key Bot"));
+        otherBot = botRepository.save(new Bot("other-bot", otherUniverse, "Other Bot"));
+        apiKey = botService.issueApiKey(bot.getId()).orElseThrow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll();
+        botService.deleteBot(bot.getId());
+        botService.deleteBot(otherBot.getId());
+        universeRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should authenticate a heartbeat by API key alone")
+    void testOwnHeartbeat() throws Exception {
+        mockMvc.perform(put("/api/bots/me/heartbeat").header(BotApiKeyAuthenticationFilter.HEADER, apiKey))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.uuid").value("key-bot"))
+                .andExpect(jsonPath("$.lastSeenAt").exists());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown and revoked keys")
+    void testRejectsInvalidKeys() throws Exception {
+        mockMvc.perform(put("/api/bots/me/heartbeat").header(BotApiKeyAuthenticationFilter.HEADER, apiKey + "x"))
+                .andExpect(status().isUnauthorized());
+
+        botService.revokeApiKey(bot.getId());
+
+        mockMvc.perform(put("/api/bots/me/heartbeat").header(BotApiKeyAuthenticationFilter.HEADER, apiKey))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("Should replace the previous key when a new one is issued")
+    void testReissue() throws Exception {
+        String newKey = botService.issueApiKey(bot.getId()).orElseThrow();
+
+        mockMvc.perform(put("/api/bots/me/heartbeat").header(BotApiKeyAuthenticationFilter.HEADER, apiKey))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(put("/api/bots/me/heartbeat").header(BotApiKeyAuthenticationFilter.HEADER, newKey))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should scope a bot to its own identity and universe")
+    void testScope() throws Exception {
+        Task otherTask = taskRepository.save(new Task(Task.TaskType.SPY_PLAYER, otherUniverse, "Elsewhere"));
+
+        mockMvc.perform(get("/api/tasks/universe/" + universe.getId() + "/available")
+                        .header(BotApiKeyAuthenticationFilter.HEADER, apiKey))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/tasks/universe/" + otherUniverse.getId() + "/available")
+                        .header(BotApiKeyAuthenticationFilter.HEADER, apiKey))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(put("/api/bots/" + otherBot.getId() + "/heartbeat")
+                        .header(BotApiKeyAuthenticationFilter.HEADER, apiKey))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(put("/api/tasks/" + otherTask.getId() + "/assign")
+                        .header(BotApiKeyAuthenticationFilter.HEADER, apiKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Should assign a task to the calling bot without a UUID in the body")
+    void testAssignAsBot() throws Exception {
+        Task task = taskRepository.save(new Task(Task.TaskType.CHECK_ACTIVITY, universe, "Here"));
+
+        mockMvc.perform(put("/api/tasks/" + task.getId() + "/assign")
+                        .header(BotApiKeyAuthenticationFilter.HEADER, apiKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bot.uuid").value("key-bot"));
+    }
+
+    @Test
+    @DisplayName("Should not grant admin operations to bots")
+    void testNoAdminAccess() throws Exception {
+        mockMvc.perform(delete("/api/bots/" + otherBot.getId()).header(BotApiKeyAuthenticationFilter.HEADER, apiKey))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Should keep bots out of every endpoint that is not a bot endpoint")
+    void testUserEndpointsForbidden() throws Exception {
+        Task otherTask = taskRepository.save(new Task(Task.TaskType.SPY_PLAYER, otherUniverse, "Elsewhere"));
+
+        for (String path : new String[]{"/api/tasks?universeId=" + otherUniverse.getId(), "/api/tasks/" + otherTask.getId(),
+                "/api/tasks/events", "/api/universes", "/api/universes/" + otherUniverse.getId(), "/api/bots",
+                "/api/bots/" + otherBot.getId(), "/api/stats"}) {
+            mockMvc.perform(get(path).header(BotApiKeyAuthenticationFilter.HEADER, apiKey))
+                    .andExpect(status().isForbidden());
+        }
+        mockMvc.perform(post("/api/tasks")
+                        .header(BotApiKeyAuthenticationFilter.HEADER, apiKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"type\":\"SPY_PLAYER\",\"universeId\":" + universe.getId() + ",\"playerName\":\"Bot\"}"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/tasks/bulk")
+                        .header(BotApiKeyAuthenticationFilter.HEADER, apiKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isForbidden());
+    }
+}
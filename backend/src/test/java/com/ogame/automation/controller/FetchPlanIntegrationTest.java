@@ -0,0 +1,168 @@
+package com.ogame.automation.controller;
+
+import com.ogame.automation.entity.Bot;
+import com.ogame.automation.entity.Task;
+import com.ogame.automation.entity.TaskResult;
+import com.ogame.automation.entity.Universe;
+import com.ogame.automation.repository.BotRepository;
+import com.ogame.automation.repository.TaskRepository;
+import com.ogame.automation.repository.TaskResultRepository;
+import com.ogame.automation.repository.UniverseRepository;
+import com.ogame.automation.service.ReferenceDataCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Runs the full stack with open-session-in-view disabled (test profile): any entity that
+ * reaches Jackson with an uninitialized association fails with LazyInitializationException,
+ * so every endpoint must return views built from an explicit fetch plan.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+@DisplayName("Fetch plans without open-session-in-view")
+class FetchPlanIntegrationTest {
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UniverseRepository universeRepository;
+
+    @Autowired
+    private BotRepository botRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskResultRepository taskResultRepository;
+
+    private Universe universe;
+    private Bot bot;
+    private Task assignedTask;
+    private Task openTask;
+
+    @BeforeEach
+    void setUp() {
+        universe = universeRepository.save(new Universe("Fetch Universe", "http://fetch", "http://localhost:1/webhook"));
+        bot = botRepository.save(new Bot("fetch-bot", universe, "Fetch Bot"));
+
+        assignedTask = new Task(Task.TaskType.SPY_PLAYER, universe, "Assigned");
+        assignedTask.markInProgress(bot);
+        assignedTask = taskRepository.save(assignedTask);
+        taskResultRepository.save(new TaskResult(assignedTask, true, "{}", null, 5L));
+
+        openTask = taskRepository.save(new Task(Task.TaskType.CHECK_ACTIVITY, universe, "Open"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskResultRepository.deleteAll();
+        taskRepository.deleteAll();
+        botRepository.deleteAll();
+        universeRepository.deleteAll();
+        // The repositories bypass the services, which would otherwise evict these
+        referenceDataCache.invalidateAll();
+    }
+
+    @Nested
+    @DisplayName("Bots")
+    class BotEndpoints {
+
+        @Test
+        @DisplayName("Should serialize bot views with their universe")
+        void testBotReads() throws Exception {
+            mockMvc.perform(get("/api/bots"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].universe.name").value("Fetch Universe"))
+                    .andExpect(jsonPath("$[0].universe.discordWebhook").doesNotExist())
+                    .andExpect(jsonPath("$[0].tasks").doesNotExist());
+            mockMvc.perform(get("/api/bots/" + bot.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.universe.url").value("http://fetch"))
+                    .andExpect(jsonPath("$.universe.discordWebhook").doesNotExist());
+            mockMvc.perform(get("/api/bots/uuid/fetch-bot"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.name").value("Fetch Bot"));
+        }
+
+        @Test
+        @DisplayName("Should serialize the bot after a heartbeat")
+        void testHeartbeat() throws Exception {
+            mockMvc.perform(put("/api/bots/uuid/fetch-bot/heartbeat"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.lastSeenAt").exists())
+                    .andExpect(jsonPath("$.universe.id").value(universe.getId()));
+
+            // Not flushed yet, but merged into reads
+            mockMvc.perform(get("/api/bots/" + bot.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.lastSeenAt").exists());
+        }
+    }
+
+    @Nested
+    @DisplayName("Tasks")
+    class TaskEndpoints {
+
+        @Test
+        @DisplayName("Should serialize task views with universe and bot")
+        void testTaskReads() throws Exception {
+            mockMvc.perform(get("/api/tasks").param("universeId", universe.getId().toString()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content.length()").value(2))
+                    .andExpect(jsonPath("$.content[0].results").doesNotExist())
+                    .andExpect(jsonPath("$.content[0].universe.discordWebhook").doesNotExist());
+            mockMvc.perform(get("/api/tasks/" + assignedTask.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.universe.name").value("Fetch Universe"))
+                    .andExpect(jsonPath("$.universe.discordWebhook").doesNotExist())
+                    .andExpect(jsonPath("$.bot.uuid").value("fetch-bot"));
+        }
+
+        @Test
+        @DisplayName("Should serialize tasks returned by assign and complete")
+        void testTaskTransitions() throws Exception {
+            mockMvc.perform(put("/api/tasks/" + openTask.getId() + "/assign")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"botUuid\":\"fetch-bot\"}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status").value("IN_PROGRESS"))
+                    .andExpect(jsonPath("$.bot.name").value("Fetch Bot"));
+            mockMvc.perform(put("/api/tasks/" + openTask.getId() + "/complete")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"success\":true,\"result\":\"{}\",\"executionTimeMs\":12}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status").value("FINISHED"))
+                    .andExpect(jsonPath("$.universe.name").value("Fetch Universe"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should serialize universe list and summary")
+    void testUniverseReads() throws Exception {
+        mockMvc.perform(get("/api/universes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Fetch Universe"));
+        mockMvc.perform(get("/api/universes/" + universe.getId() + "/summary"))
+                .andExpect(status().isOk());
+    }
+}
@@ -1,5 +1,6 @@
 package com.ogame.automation.controller;
 
+import com.ogame.automation.dto.UniverseView;
 import com.ogame.automation.entity.Universe;
 import com.ogame.automation.service.UniverseService;
 import com.ogame.automation.config.TestSecurityConfig;
@@ -18,7 +19,6 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,6 +32,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @WebMvcTest(controllers = UniverseController.class, excludeFilters = {
         @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = {
                 com.ogame.automation.auth.JwtAuthenticationFilter.class,
+                com.ogame.automation.auth.BotApiKeyAuthenticationFilter.class,
                 com.ogame.automation.auth.JwtUtil.class,
                 com.ogame.automation.auth.JwtAuthenticationEntryPoint.class
         })
@@ -73,7 +74,8 @@ class UniverseControllerTest {
         @WithMockUser
         void testGetAllUniverses() throws Exception {
             // Given
-            List<Universe> universes = Arrays.asList(universe);
+            List<UniverseView> universes = List.of(new UniverseView(1L, "Test Universe", "http://universe.com",
+                    "http://webhook.discord.com", null, null));
             when(universeService.getAllUniverses()).thenReturn(universes);
 
             // When & Then
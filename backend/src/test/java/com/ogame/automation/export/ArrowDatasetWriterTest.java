@@ -0,0 +1,151 @@
+package com.ogame.automation.export;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ArrowDatasetWriter Tests")
+class ArrowDatasetWriterTest {
+
+    private record Row(Long id, String name) {}
+
+    private static final List<ExportColumn<Row>> COLUMNS = List.of(
+            ExportColumn.int64("id", Row::id),
+            ExportColumn.utf8("name", Row::name)
+    );
+
+    @TempDir
+    Path root;
+
+    private BufferAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        allocator = new RootAllocator();
+    }
+
+    @AfterEach
+    void tearDown() {
+        allocator.close();
+    }
+
+    @Test
+    @DisplayName("Should partition rows by universe and day and flush bounded row groups")
+    void testWriteAndCommit() throws IOException {
+        LocalDate day = LocalDate.of(2024, 5, 1);
+
+        try (ArrowDatasetWriter<Row> writer = new ArrowDatasetWriter<>(allocator, root, "task", "run1", COLUMNS, 2, 8)) {
+            writer.write(1L, day, new Row(1L, "alpha"));
+            writer.write(1L, day, new Row(2L, null));
+            writer.write(1L, day, new Row(3L, "gamma"));
+            writer.write(2L, day.plusDays(1), new Row(4L, "delta"));
+
+            assertEquals(4, writer.getRowsWritten());
+            assertEquals(2, writer.getPartitionCount());
+
+            List<Path> files = writer.commit();
+            assertEquals(2, files.size());
+        }
+
+        Path first = root.resolve("task/universe_id=1/date=2024-05-01/part-run1.arrow");
+        assertTrue(Files.exists(first));
+        assertTrue(Files.exists(root.resolve("task/universe_id=2/date=2024-05-02/part-run1.arrow")));
+
+        try (FileChannel channel = FileChannel.open(first, StandardOpenOption.READ);
+             ArrowFileReader reader = new ArrowFileReader(channel, allocator)) {
+            // Three rows with a row group size of two become two record batches
+            assertEquals(2, reader.getRecordBlocks().size());
+
+            VectorSchemaRoot batch = reader.getVectorSchemaRoot();
+            assertTrue(reader.loadNextBatch());
+            assertEquals(2, batch.getRowCount());
+            assertEquals(1L, ((BigIntVector) batch.getVector("id")).get(0));
+            assertEquals("alpha", ((VarCharVector) batch.getVector("name")).getObject(0).toString());
+            assertTrue(batch.getVector("name").isNull(1));
+
+            assertTrue(reader.loadNextBatch());
+            assertEquals(1, batch.getRowCount());
+            assertEquals(3L, ((BigIntVector) batch.getVector("id")).get(0));
+        }
+    }
+
+    @Test
+    @DisplayName("Should finish the least recently written partition when too many are open")
+    void testMaxOpenPartitions() throws IOException {
+        LocalDate day = LocalDate.of(2024, 5, 1);
+
+        try (ArrowDatasetWriter<Row> writer = new ArrowDatasetWriter<>(allocator, root, "task", "run3", COLUMNS, 10, 2)) {
+            writer.write(1L, day, new Row(1L, "alpha"));
+            writer.write(2L, day, new Row(2L, "beta"));
+            writer.write(1L, day, new Row(3L, "gamma"));
+            // Universe 2 is the least recently written, so its file is finished
+            writer.write(3L, day, new Row(4L, "delta"));
+            // And universe 2 goes on in a second part file
+            writer.write(2L, day, new Row(5L, "epsilon"));
+
+            assertEquals(3, writer.getPartitionCount());
+            assertEquals(4, writer.commit().size());
+        }
+
+        assertEquals(2, rowCount(root.resolve("task/universe_id=1/date=2024-05-01/part-run3.arrow")));
+        assertEquals(1, rowCount(root.resolve("task/universe_id=2/date=2024-05-01/part-run3.arrow")));
+        assertEquals(1, rowCount(root.resolve("task/universe_id=2/date=2024-05-01/part-run3-2.arrow")));
+        assertEquals(1, rowCount(root.resolve("task/universe_id=3/date=2024-05-01/part-run3.arrow")));
+    }
+
+    @Test
+    @DisplayName("Should discard finished part files when closed without commit")
+    void testCloseWithoutCommitAfterEviction() throws IOException {
+        try (ArrowDatasetWriter<Row> writer = new ArrowDatasetWriter<>(allocator, root, "task", "run4", COLUMNS, 10, 1)) {
+            writer.write(1L, LocalDate.of(2024, 5, 1), new Row(1L, "alpha"));
+            writer.write(2L, LocalDate.of(2024, 5, 1), new Row(2L, "beta"));
+        }
+
+        try (Stream<Path> files = Files.walk(root)) {
+            assertTrue(files.noneMatch(Files::isRegularFile));
+        }
+        assertEquals(0, allocator.getAllocatedMemory());
+    }
+
+    private long rowCount(Path file) throws IOException {
+        long rows = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             ArrowFileReader reader = new ArrowFileReader(channel, allocator)) {
+            while (reader.loadNextBatch()) {
+                rows += reader.getVectorSchemaRoot().getRowCount();
+            }
+        }
+        return rows;
+    }
+
+    @Test
+    @DisplayName("Should discard partial files when closed without commit")
+    void testCloseWithoutCommit() throws IOException {
+        try (ArrowDatasetWriter<Row> writer = new ArrowDatasetWriter<>(allocator, root, "task", "run2", COLUMNS, 10, 8)) {
+            writer.write(1L, LocalDate.of(2024, 5, 1), new Row(1L, "alpha"));
+        }
+
+        try (Stream<Path> files = Files.walk(root)) {
+            assertTrue(files.noneMatch(Files::isRegularFile));
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.ogame.automation.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records every SQL statement Hibernate prepares, so tests can inspect the generated queries.
+ */
+public class CapturingStatementInspector implements StatementInspector {
+
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        statements.add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        statements.clear();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(statements);
+    }
+}
@@ -0,0 +1,124 @@
+package com.ogame.automation.repository;
+
+import com.ogame.automation.dto.BotView;
+import com.ogame.automation.dto.TaskFilter;
+import com.ogame.automation.dto.TaskView;
+import com.ogame.automation.dto.UniverseView;
+import com.ogame.automation.entity.Bot;
+import com.ogame.automation.entity.Task;
+import com.ogame.automation.entity.TaskResult;
+import com.ogame.automation.entity.Universe;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * List endpoints must cost a constant number of statements regardless of how many rows,
+ * tasks per bot or results per task exist.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.ogame.automation.repository.CapturingStatementInspector")
+@DisplayName("List projection statement counts")
+class ListProjectionQueryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UniverseRepository universeRepository;
+
+    @Autowired
+    private BotRepository botRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private Universe universe;
+
+    @BeforeEach
+    void setUp() {
+        for (int u = 0; u < 2; u++) {
+            Universe current = entityManager.persist(new Universe("Universe " + u, "http://u" + u, "http://hook"));
+            for (int b = 0; b < 3; b++) {
+                Bot bot = entityManager.persist(new Bot("uuid-" + u + "-" + b, current, "Bot " + b));
+                for (int t = 0; t < 3; t++) {
+                    Task task = new Task(Task.TaskType.SPY_PLAYER, current, "Player" + t);
+                    task.markInProgress(bot);
+                    entityManager.persist(task);
+                    entityManager.persist(new TaskResult(task, true, "{}", null, 10L));
+                }
+            }
+            universe = current;
+        }
+        entityManager.persist(new Task(Task.TaskType.CHECK_ACTIVITY, universe, "Unassigned"));
+        entityManager.flush();
+        entityManager.clear();
+        CapturingStatementInspector.clear();
+    }
+
+    @Test
+    @DisplayName("Should list universes in one statement")
+    void testUniverseList() {
+        // When
+        List<UniverseView> universes = universeRepository.findAllViews();
+
+        // Then
+        assertEquals(2, universes.size());
+        assertEquals(1, CapturingStatementInspector.statements().size());
+    }
+
+    @Test
+    @DisplayName("Should list bots with their universe in one statement")
+    void testBotList() {
+        // When
+        List<BotView> all = botRepository.findAllViews();
+        List<BotView> byUniverse = botRepository.findViewsByUniverseId(universe.getId());
+
+        // Then
+        assertEquals(6, all.size());
+        assertEquals(3, byUniverse.size());
+        assertEquals(universe.getName(), byUniverse.get(0).universe().name());
+        assertEquals(2, CapturingStatementInspector.statements().size());
+    }
+
+    @Test
+    @DisplayName("Should list a task page with universe and bot in one statement")
+    void testTaskPage() {
+        // When
+        Window<Task> window = taskRepository.findBy(
+                TaskSpecifications.matching(TaskFilter.NONE).and(TaskSpecifications.fetchReferences()),
+                query -> query.sortBy(Sort.by(Sort.Direction.DESC, "createdAt", "id")).limit(50).scroll(ScrollPosition.keyset()));
+        List<TaskView> tasks = window.getContent().stream().map(TaskView::from).toList();
+
+        // Then
+        assertEquals(19, tasks.size());
+        assertTrue(tasks.stream().allMatch(task -> task.universe().name() != null));
+        assertEquals(18, tasks.stream().filter(task -> task.bot() != null && task.bot().name() != null).count());
+        assertEquals(1, CapturingStatementInspector.statements().size());
+    }
+
+    @Test
+    @DisplayName("Should still count filtered tasks without fetch joins")
+    void testCountWithFetchSpecification() {
+        // When
+        long count = taskRepository.count(
+                TaskSpecifications.matching(TaskFilter.byUniverse(universe.getId())).and(TaskSpecifications.fetchReferences()));
+
+        // Then
+        assertEquals(10, count);
+    }
+}
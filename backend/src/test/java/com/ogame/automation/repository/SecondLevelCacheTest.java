@@ -0,0 +1,218 @@
+package com.ogame.automation.repository;
+
+import com.ogame.automation.config.SecondLevelCacheConfig;
+import com.ogame.automation.entity.Bot;
+import com.ogame.automation.entity.Universe;
+import com.ogame.automation.entity.UserAccount;
+import com.ogame.automation.service.HeartbeatBuffer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Each repository call runs in its own committed transaction here, as in production: within
+ * one transaction Hibernate skips query cache lookups for tables it has already written.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({SecondLevelCacheConfig.class, HeartbeatBuffer.class})
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Second-level cache")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UniverseRepository universeRepository;
+
+    @Autowired
+    private BotRepository botRepository;
+
+    @Autowired
+    private UserAccountRepository userAccountRepository;
+
+    @Autowired
+    private HeartbeatBuffer heartbeatBuffer;
+
+    private Statistics statistics;
+    private Universe universe;
+    private Bot bot;
+
+    @BeforeEach
+    void setUp() {
+        universe = universeRepository.save(new Universe("Cached Universe", "http://cached", "http://hook"));
+        bot = botRepository.save(new Bot("cached-bot", universe, "Cached Bot"));
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        botRepository.deleteAll();
+        universeRepository.deleteAll();
+        userAccountRepository.deleteAll();
+    }
+
+    private void updateLastSeenAt(Long botId, LocalDateTime seenAt) {
+        transactionTemplate.executeWithoutResult(status -> entityManager
+                .createQuery("UPDATE Bot b SET b.lastSeenAt = :seenAt WHERE b.id = :id")
+                .setParameter("seenAt", seenAt)
+                .setParameter("id", botId)
+                .executeUpdate());
+    }
+
+    @Nested
+    @DisplayName("Entity regions")
+    class EntityRegions {
+
+        @Test
+        @DisplayName("Should load a universe from the cache after the first read")
+        void testUniverseHit() {
+            // When
+            universeRepository.findById(universe.getId());
+            universeRepository.findById(universe.getId());
+
+            // Then
+            assertEquals(1, statistics.getPrepareStatementCount());
+            assertEquals(1, statistics.getDomainDataRegionStatistics(SecondLevelCacheConfig.UNIVERSE_REGION).getHitCount());
+        }
+
+        @Test
+        @DisplayName("Should see a heartbeat written by a bulk update")
+        void testBulkUpdateEvictsBot() {
+            // Given
+            botRepository.findById(bot.getId());
+            LocalDateTime seenAt = LocalDateTime.now().plusMinutes(5).truncatedTo(ChronoUnit.SECONDS);
+
+            // When
+            updateLastSeenAt(bot.getId(), seenAt);
+            Bot reloaded = botRepository.findById(bot.getId()).orElseThrow();
+
+            // Then
+            assertEquals(seenAt, reloaded.getLastSeenAt());
+        }
+
+        @Test
+        @DisplayName("Should evict only the bots whose heartbeats were flushed")
+        void testHeartbeatFlushEvictsFlushedBots() {
+            // Given
+            Bot other = botRepository.save(new Bot("other-bot", universe, "Other Bot"));
+            botRepository.findById(bot.getId());
+            botRepository.findById(other.getId());
+            LocalDateTime seenAt = LocalDateTime.now().plusMinutes(5).truncatedTo(ChronoUnit.SECONDS);
+            heartbeatBuffer.record(bot.getId(), seenAt);
+
+            // When
+            heartbeatBuffer.flush();
+            statistics.clear();
+            Bot reloaded = botRepository.findById(bot.getId()).orElseThrow();
+            botRepository.findById(other.getId());
+
+            // Then
+            assertEquals(seenAt, reloaded.getLastSeenAt());
+            assertEquals(1, statistics.getDomainDataRegionStatistics(SecondLevelCacheConfig.BOT_REGION).getMissCount());
+            assertEquals(1, statistics.getDomainDataRegionStatistics(SecondLevelCacheConfig.BOT_REGION).getHitCount());
+        }
+
+        @Test
+        @DisplayName("Should see the access time written by updateLastAccessAt")
+        void testBulkUpdateEvictsUser() {
+            // Given
+            UserAccount user = userAccountRepository.save(new UserAccount("cached-user", "hash", UserAccount.Role.USER));
+            userAccountRepository.findById(user.getId());
+            LocalDateTime accessedAt = LocalDateTime.now().plusMinutes(5).truncatedTo(ChronoUnit.SECONDS);
+
+            // When
+            transactionTemplate.executeWithoutResult(status -> userAccountRepository.updateLastAccessAt(user.getId(), accessedAt));
+            UserAccount reloaded = userAccountRepository.findById(user.getId()).orElseThrow();
+
+            // Then
+            assertEquals(accessedAt, reloaded.getLastAccessAt());
+        }
+    }
+
+    @Nested
+    @DisplayName("Query regions")
+    class QueryRegions {
+
+        @Test
+        @DisplayName("Should answer repeated universe listings from the query cache")
+        void testFindAllCached() {
+            // When
+            universeRepository.findAll();
+            List<Universe> universes = universeRepository.findAll();
+
+            // Then
+            assertEquals(1, universes.size());
+            assertEquals(1, statistics.getQueryCacheHitCount());
+            assertEquals(1, statistics.getPrepareStatementCount());
+        }
+
+        @Test
+        @DisplayName("Should invalidate cached bot listings when a bot is added")
+        void testFindByUniverseIdInvalidated() {
+            // Given
+            assertEquals(1, botRepository.findByUniverseId(universe.getId()).size());
+            assertEquals(1, botRepository.findByUniverseId(universe.getId()).size());
+            assertEquals(1, statistics.getQueryCacheHitCount());
+
+            // When
+            botRepository.save(new Bot("second-bot", universe, "Second Bot"));
+            List<Bot> bots = botRepository.findByUniverseId(universe.getId());
+
+            // Then
+            assertEquals(2, bots.size());
+            assertEquals(1, statistics.getQueryCacheHitCount());
+        }
+
+        @Test
+        @DisplayName("Should invalidate cached bot listings on a bulk update")
+        void testFindByUniverseIdAfterBulkUpdate() {
+            // Given
+            botRepository.findByUniverseId(universe.getId());
+            LocalDateTime seenAt = LocalDateTime.now().plusMinutes(5).truncatedTo(ChronoUnit.SECONDS);
+
+            // When
+            updateLastSeenAt(bot.getId(), seenAt);
+            List<Bot> bots = botRepository.findByUniverseId(universe.getId());
+
+            // Then
+            assertEquals(seenAt, bots.get(0).getLastSeenAt());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.ogame.automation.repository;
+
+import com.ogame.automation.dto.TaskFilter;
+import com.ogame.automation.entity.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query-plan regression test: every supported task filter combination must be answered
+ * through an index rather than a full table scan. Runs the generated SQL through H2's
+ * EXPLAIN against the indexes declared on {@link Task} (mirrored in schema-mariadb.sql).
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.ogame.automation.repository.CapturingStatementInspector")
+@DisplayName("Task filter query plans")
+class TaskQueryPlanTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2024, 2, 1, 0, 0);
+    private static final Set<String> NAMES = Set.of("Foo", "BigFoot");
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        CapturingStatementInspector.clear();
+    }
+
+    static Stream<Arguments> filterCombinations() {
+        return Stream.of(
+                Arguments.of("status", filter(Task.TaskStatus.CREATED, null, null, null, null, null, null), "STATUS ="),
+                Arguments.of("universe", filter(null, 1L, null, null, null, null, null), "UNIVERSE_ID ="),
+                Arguments.of("bot", filter(null, null, 1L, null, null, null, null), "BOT_ID ="),
+                Arguments.of("type", filter(null, null, null, Task.TaskType.SPY_PLAYER, null, null, null), "TYPE ="),
+                Arguments.of("playerName", filter(null, null, null, null, "Foo", null, null).withPlayerNames(NAMES), "PLAYER_NAME IN"),
+                Arguments.of("date range", filter(null, null, null, null, null, FROM, TO), "CREATED_AT >="),
+                Arguments.of("status + universe", filter(Task.TaskStatus.CREATED, 1L, null, null, null, null, null), "UNIVERSE_ID ="),
+                Arguments.of("universe + type", filter(null, 1L, null, Task.TaskType.SPY_PLAYER, null, null, null), "UNIVERSE_ID ="),
+                Arguments.of("status + bot", filter(Task.TaskStatus.IN_PROGRESS, null, 1L, null, null, null, null), "BOT_ID ="),
+                Arguments.of("universe + date range", filter(null, 1L, null, null, null, FROM, TO), "UNIVERSE_ID ="),
+                Arguments.of("all filters", filter(Task.TaskStatus.FINISHED, 1L, 1L, Task.TaskType.CHECK_ACTIVITY, "Foo", FROM, TO).withPlayerNames(NAMES), "_ID =")
+        );
+    }
+
+    private static TaskFilter filter(Task.TaskStatus status, Long universeId, Long botId, Task.TaskType type,
+                                     String playerName, LocalDateTime startDate, LocalDateTime endDate) {
+        return new TaskFilter(status, universeId, botId, type, playerName, startDate, endDate);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("filterCombinations")
+    @DisplayName("Should use an index for each filter combination")
+    void testFilterUsesIndex(String name, TaskFilter filter, String indexCondition) {
+        taskRepository.findBy(TaskSpecifications.matching(filter),
+                query -> query.sortBy(Sort.by(Sort.Direction.DESC, "createdAt", "id")).limit(20).scroll(ScrollPosition.keyset()));
+
+        String sql = CapturingStatementInspector.statements().stream()
+                .filter(statement -> statement.toLowerCase(Locale.ROOT).contains("from task"))
+                .reduce((first, second) -> second)
+                .orElseThrow(() -> new AssertionError("No task query captured"));
+
+        // H2 annotates the access path as "/* PUBLIC.<index>: <index condition> */"
+        String plan = explain(sql).toUpperCase(Locale.ROOT);
+        String accessPath = plan.substring(plan.indexOf("/*"), plan.indexOf("*/") + 2);
+        assertFalse(plan.contains("TABLESCAN"), () -> name + " scans the task table:\n" + plan);
+        assertTrue(accessPath.contains(indexCondition), () -> name + " is not driven by an index on " + indexCondition + ":\n" + plan);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                // Bind every placeholder to NULL; the plan only depends on which columns are constrained
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    StringBuilder plan = new StringBuilder();
+                    while (resultSet.next()) {
+                        plan.append(resultSet.getString(1)).append('\n');
+                    }
+                    return plan.toString();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,252 @@
+package com.ogame.automation.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ogame.automation.auth.BotPrincipal;
+import com.ogame.automation.dto.BotChannelMessage;
+import com.ogame.automation.dto.BotEvent;
+import com.ogame.automation.dto.TaskImportEvent;
+import com.ogame.automation.dto.TaskView;
+import com.ogame.automation.entity.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("BotChannelRegistry Tests")
+class BotChannelRegistryTest {
+
+    private static final BotPrincipal FIRST = new BotPrincipal(1L, "bot-1", 10L);
+    private static final BotPrincipal SECOND = new BotPrincipal(2L, "bot-2", 10L);
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private BotService botService;
+
+    @Mock
+    private DomainEventBus domainEventBus;
+
+    @InjectMocks
+    private BotChannelRegistry registry;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(registry, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(registry, "maxInFlight", 1);
+        ReflectionTestUtils.setField(registry, "sendTimeLimit", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(registry, "sendBufferSize", 65536);
+        registry.setOfferExecutor(Runnable::run);
+        registry.init();
+        when(taskService.assignNextTask(any(), anyInt())).thenReturn(Optional.empty());
+    }
+
+    private static WebSocketSession session(String id) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        return session;
+    }
+
+    private static TaskView task(long id, Task.TaskStatus status) {
+        return new TaskView(id, Task.TaskType.SPY_PLAYER, status, "Player", null, null, null,
+                LocalDateTime.now(), null, null, null, null, null);
+    }
+
+    private List<BotChannelMessage> sent(WebSocketSession session) throws Exception {
+        ArgumentCaptor<TextMessage> captor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session, atLeast(0)).sendMessage(captor.capture());
+        return captor.getAllValues().stream().map(message -> {
+            try {
+                return objectMapper.readValue(message.getPayload(), BotChannelMessage.class);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }).toList();
+    }
+
+    @Test
+    @DisplayName("Should count a connection as a heartbeat and push queued work")
+    void testConnectPushesWork() throws Exception {
+        // Given
+        WebSocketSession session = session("s1");
+        when(taskService.assignNextTask("bot-1", 1)).thenReturn(Optional.of(task(5L, Task.TaskStatus.IN_PROGRESS)), Optional.empty());
+
+        // When
+        registry.register(FIRST, session);
+
+        // Then
+        verify(botService).recordHeartbeat(1L);
+        List<BotChannelMessage> sent = sent(session);
+        assertEquals(1, sent.size());
+        assertEquals(BotChannelMessage.ASSIGNMENT, sent.get(0).type());
+        assertEquals(5L, sent.get(0).task().id());
+        assertEquals(1, registry.channelCount());
+    }
+
+    @Test
+    @DisplayName("Should spread new work across the bots of the task's universe only")
+    void testRoutesByUniverse() throws Exception {
+        // Given
+        WebSocketSession first = session("s1");
+        WebSocketSession second = session("s2");
+        WebSocketSession elsewhere = session("s3");
+        registry.register(FIRST, first);
+        registry.register(SECOND, second);
+        registry.register(new BotPrincipal(3L, "bot-3", 20L), elsewhere);
+        when(taskService.assignNextTask("bot-1", 1)).thenReturn(Optional.of(task(6L, Task.TaskStatus.IN_PROGRESS)), Optional.empty());
+        when(taskService.assignNextTask("bot-2", 1)).thenReturn(Optional.of(task(7L, Task.TaskStatus.IN_PROGRESS)), Optional.empty());
+        clearInvocations(taskService);
+
+        // When
+        registry.onEvents(List.of(new TaskImportEvent(10L, Map.of(Task.TaskType.SPY_PLAYER, 2), 0, LocalDateTime.now())));
+
+        // Then
+        assertEquals(6L, sent(first).get(0).taskId());
+        assertEquals(7L, sent(second).get(0).taskId());
+        verify(taskService, never()).assignNextTask(eq("bot-3"), anyInt());
+        assertTrue(sent(elsewhere).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should periodically offer work in every universe with connected bots")
+    void testOffersWorkEverywhere() throws Exception {
+        // Given: tasks queued through another instance, whose events this one never sees
+        WebSocketSession first = session("s1");
+        WebSocketSession elsewhere = session("s2");
+        registry.register(FIRST, first);
+        registry.register(new BotPrincipal(3L, "bot-3", 20L), elsewhere);
+        when(taskService.assignNextTask("bot-1", 1)).thenReturn(Optional.of(task(6L, Task.TaskStatus.IN_PROGRESS)), Optional.empty());
+        when(taskService.assignNextTask("bot-3", 1)).thenReturn(Optional.of(task(7L, Task.TaskStatus.IN_PROGRESS)), Optional.empty());
+
+        // When
+        registry.offerWorkEverywhere();
+
+        // Then
+        assertEquals(6L, sent(first).get(0).taskId());
+        assertEquals(7L, sent(elsewhere).get(0).taskId());
+    }
+
+    @Test
+    @DisplayName("Should requeue a task whose assignment could not be sent")
+    void testRequeuesUnsentAssignment() throws Exception {
+        // Given
+        WebSocketSession session = session("s1");
+        doThrow(new IOException("Broken pipe")).when(session).sendMessage(any());
+        when(taskService.assignNextTask("bot-1", 1)).thenReturn(Optional.of(task(5L, Task.TaskStatus.IN_PROGRESS)), Optional.empty());
+        when(taskService.releaseTask(5L, 1L)).thenReturn(true);
+
+        // When
+        registry.register(FIRST, session);
+
+        // Then
+        verify(taskService).releaseTask(5L, 1L);
+        verify(taskService, times(1)).assignNextTask("bot-1", 1);
+    }
+
+    @Test
+    @DisplayName("Should complete tasks and heartbeat through the channel")
+    void testInbound() throws Exception {
+        // Given
+        WebSocketSession session = session("s1");
+        BotChannelRegistry.Channel channel = registry.register(FIRST, session);
+        when(taskService.canBotAccessTask("bot-1", 5L)).thenReturn(true);
+        when(taskService.completeTask(5L, true, "{}", null, 42L)).thenReturn(Optional.of(task(5L, Task.TaskStatus.FINISHED)));
+
+        // When
+        registry.handle(channel, new BotChannelMessage(BotChannelMessage.HEARTBEAT, null, null, null, null, null, null, null));
+        registry.handle(channel, new BotChannelMessage(BotChannelMessage.COMPLETE, 5L, true, "{}", null, 42L, null, null));
+        registry.handle(channel, new BotChannelMessage(BotChannelMessage.COMPLETE, 8L, true, "{}", null, 1L, null, null));
+        registry.handle(channel, new BotChannelMessage("dance", null, null, null, null, null, null, null));
+
+        // Then
+        verify(botService, times(2)).recordHeartbeat(1L);
+        List<BotChannelMessage> sent = sent(session);
+        assertEquals(List.of(BotChannelMessage.COMPLETED, BotChannelMessage.REJECTED, BotChannelMessage.REJECTED),
+                sent.stream().map(BotChannelMessage::type).toList());
+        assertEquals(Task.TaskStatus.FINISHED, sent.get(0).task().status());
+        assertEquals(8L, sent.get(1).taskId());
+        verify(taskService, never()).completeTask(eq(8L), anyBoolean(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should close the older connection of a bot that reconnects")
+    void testReplaces() throws Exception {
+        // Given
+        WebSocketSession old = session("s1");
+        BotChannelRegistry.Channel oldChannel = registry.register(FIRST, old);
+
+        // When
+        registry.register(FIRST, session("s2"));
+        registry.unregister(oldChannel);
+
+        // Then
+        verify(old).close(BotChannelRegistry.REPLACED);
+        assertEquals(1, registry.channelCount());
+    }
+
+    @Test
+    @DisplayName("Should disconnect bots that are deleted or moved to another universe")
+    void testDisconnectsChangedBots() throws Exception {
+        // Given
+        WebSocketSession deleted = session("s1");
+        WebSocketSession moved = session("s2");
+        WebSocketSession renamed = session("s3");
+        registry.register(FIRST, deleted);
+        registry.register(SECOND, moved);
+        registry.register(new BotPrincipal(3L, "bot-3", 10L), renamed);
+
+        // When
+        registry.onEvents(List.of(
+                BotEvent.of(BotEvent.Kind.DELETED, 1L, 10L),
+                BotEvent.of(BotEvent.Kind.UPDATED, 2L, 20L),
+                BotEvent.of(BotEvent.Kind.UPDATED, 3L, 10L)));
+
+        // Then
+        verify(deleted).close(BotChannelRegistry.BOT_CHANGED);
+        verify(moved).close(BotChannelRegistry.BOT_CHANGED);
+        verify(renamed, never()).close(any());
+        assertEquals(1, registry.channelCount());
+    }
+
+    @Test
+    @DisplayName("Should disconnect a bot whose API key was reissued or revoked")
+    void testDisconnectsOnCredentialsChange() throws Exception {
+        // Given
+        WebSocketSession revoked = session("s1");
+        WebSocketSession other = session("s2");
+        registry.register(FIRST, revoked);
+        registry.register(SECOND, other);
+
+        // When
+        registry.onEvents(List.of(BotEvent.of(BotEvent.Kind.CREDENTIALS_CHANGED, 1L, 10L)));
+
+        // Then
+        verify(revoked).close(BotChannelRegistry.CREDENTIALS_CHANGED);
+        verify(other, never()).close(any());
+        assertEquals(1, registry.channelCount());
+    }
+}
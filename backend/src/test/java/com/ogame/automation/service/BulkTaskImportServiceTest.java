@@ -0,0 +1,140 @@
+package com.ogame.automation.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ogame.automation.dto.DomainEvent;
+import com.ogame.automation.dto.TaskDefinition;
+import com.ogame.automation.dto.TaskImportEvent;
+import com.ogame.automation.entity.Task;
+import com.ogame.automation.entity.Universe;
+import com.ogame.automation.repository.TaskRepository;
+import com.ogame.automation.repository.UniverseRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("BulkTaskImportService Tests")
+class BulkTaskImportServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private UniverseRepository universeRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlayerNameIndex playerNameIndex;
+
+    @Mock
+    private UniverseTaskCounter universeTaskCounter;
+
+    @Mock
+    private DomainEventBus domainEventBus;
+
+    @InjectMocks
+    private BulkTaskImportService bulkTaskImportService;
+
+    private Universe universe;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(bulkTaskImportService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(bulkTaskImportService, "entityManager", entityManager);
+        ReflectionTestUtils.setField(bulkTaskImportService, "chunkSize", 2);
+
+        universe = new Universe("Test Universe", "http://universe", "http://webhook");
+        universe.setId(1L);
+        when(universeRepository.findById(1L)).thenReturn(Optional.of(universe));
+        when(universeRepository.findById(2L)).thenReturn(Optional.empty());
+    }
+
+    @Test
+    @DisplayName("Should split quoted CSV fields containing commas")
+    void testSplitCsvLine() {
+        List<String> fields = BulkTaskImportService.splitCsvLine("SPY_PLAYER,1,Foo,,\"{\"\"galaxy\"\": 1, \"\"system\"\": 2}\"");
+
+        assertEquals(5, fields.size());
+        assertEquals("", fields.get(3));
+        assertEquals("{\"galaxy\": 1, \"system\": 2}", fields.get(4));
+    }
+
+    @Test
+    @DisplayName("Should insert valid CSV rows in chunks and report invalid lines")
+    void testImportCsv() throws IOException {
+        String csv = BulkTaskImportService.CSV_HEADER + "\n"
+                + "CHECK_ACTIVITY,1,Alice,60,\n"
+                + "CHECK_ACTIVITY,1,Bob,,\n"
+                + "UNKNOWN,1,Carol,,\n"
+                + "SPY_PLAYER,2,Dave,,\n"
+                + "SPY_PLAYER,1,Eve,,\"{\"\"galaxy\"\":1}\"\n";
+
+        BulkTaskImportService.BulkImportResult result = bulkTaskImportService.importTasks(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), BulkTaskImportService.Format.CSV);
+
+        assertEquals(3, result.getCreated());
+        assertEquals(2, result.getRejected());
+        assertEquals(List.of("Line 4: Unknown task type: UNKNOWN", "Line 5: Universe not found: 2"), result.getErrors());
+
+        // Chunk size 2: one full chunk plus the trailing remainder
+        verify(taskRepository, times(2)).saveAll(anyList());
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+        verify(universeRepository, times(1)).findById(1L);
+        verify(universeTaskCounter, times(3)).created(any(Task.class));
+
+        // One summary event for the universe instead of one per task
+        ArgumentCaptor<DomainEvent> events = ArgumentCaptor.forClass(DomainEvent.class);
+        verify(domainEventBus, times(1)).publish(events.capture());
+        TaskImportEvent imported = (TaskImportEvent) events.getValue();
+        assertEquals(1L, imported.universeId());
+        assertEquals(Map.of(Task.TaskType.CHECK_ACTIVITY, 2, Task.TaskType.SPY_PLAYER, 1), imported.countsByType());
+        assertEquals(1, imported.recurringCount());
+    }
+
+    @Test
+    @DisplayName("Should accept NDJSON with embedded parameter objects")
+    void testParseNdjson() {
+        TaskDefinition definition = bulkTaskImportService.parseNdjson(
+                "{\"type\":\"spy_player\",\"universeId\":1,\"playerName\":\"Foo\",\"recurrenceMinutes\":30,\"parameters\":{\"galaxy\":1}}");
+
+        assertEquals(Task.TaskType.SPY_PLAYER, definition.type());
+        assertEquals(1L, definition.universeId());
+        assertEquals(30, definition.recurrenceMinutes());
+        assertEquals("{\"galaxy\":1}", definition.parameters());
+    }
+
+    @Test
+    @DisplayName("Should reject NDJSON lines with invalid parameters JSON")
+    void testImportNdjsonRejectsInvalidParameters() throws IOException {
+        String ndjson = "{\"type\":\"CHECK_ACTIVITY\",\"universeId\":1,\"parameters\":\"{not json\"}\n"
+                + "not even json\n";
+
+        BulkTaskImportService.BulkImportResult result = bulkTaskImportService.importTasks(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), BulkTaskImportService.Format.NDJSON);
+
+        assertEquals(0, result.getCreated());
+        assertEquals(List.of("Line 1: parameters must be valid JSON", "Line 2: Malformed JSON"), result.getErrors());
+        verify(taskRepository, never()).saveAll(anyList());
+        verifyNoInteractions(domainEventBus);
+    }
+}
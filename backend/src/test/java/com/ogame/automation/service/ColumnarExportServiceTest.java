@@ -0,0 +1,242 @@
+package com.ogame.automation.service;
+
+import com.ogame.automation.entity.ExportWatermark;
+import com.ogame.automation.entity.Task;
+import com.ogame.automation.entity.TaskResult;
+import com.ogame.automation.entity.Universe;
+import com.ogame.automation.repository.ExportWatermarkRepository;
+import com.ogame.automation.repository.JobLockRepository;
+import com.ogame.automation.repository.TaskRepository;
+import com.ogame.automation.repository.TaskResultRepository;
+import com.ogame.automation.repository.UniverseRepository;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ColumnarExportService.class, ScheduledJobLock.class})
+@TestPropertySource(properties = {"app.export.safety-lag=PT5M", "app.export.row-group-size=2"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("ColumnarExportService Tests")
+class ColumnarExportServiceTest {
+
+    @Autowired
+    private ColumnarExportService exportService;
+
+    @Autowired
+    private ScheduledJobLock scheduledJobLock;
+
+    @Autowired
+    private UniverseRepository universeRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskResultRepository taskResultRepository;
+
+    @Autowired
+    private ExportWatermarkRepository exportWatermarkRepository;
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path root;
+
+    private final BufferAllocator allocator = new RootAllocator();
+
+    private Universe universe;
+    private LocalDateTime settled;
+    private LocalDateTime recent;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(exportService, "exportDirectory", root.toString());
+        universe = universeRepository.save(new Universe("Export Universe", "http://export", "http://hook"));
+        settled = LocalDateTime.now().minusHours(1).truncatedTo(ChronoUnit.SECONDS);
+        recent = LocalDateTime.now().minusMinutes(1).truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskResultRepository.deleteAll();
+        taskRepository.deleteAll();
+        universeRepository.deleteAll();
+        exportWatermarkRepository.deleteAll();
+        jobLockRepository.deleteAll();
+        allocator.close();
+    }
+
+    private Task task(LocalDateTime updatedAt) {
+        Task task = taskRepository.save(new Task(Task.TaskType.SPY_PLAYER, universe, "Player"));
+        jdbcTemplate.update("UPDATE task SET updated_at = ? WHERE id = ?", updatedAt, task.getId());
+        return task;
+    }
+
+    private TaskResult result(Task task, LocalDateTime createdAt) {
+        TaskResult result = taskResultRepository.save(new TaskResult(task, true, "{}", null, 10L));
+        jdbcTemplate.update("UPDATE task_result SET created_at = ? WHERE id = ?", createdAt, result.getId());
+        return result;
+    }
+
+    /**
+     * Ids of every row in every file of the dataset, in no particular order.
+     */
+    private List<Long> exportedIds(String dataset) throws IOException {
+        Path directory = root.resolve(dataset);
+        if (!Files.exists(directory)) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.filter(path -> path.toString().endsWith(".arrow")).toList()) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                     ArrowFileReader reader = new ArrowFileReader(channel, allocator)) {
+                    VectorSchemaRoot batch = reader.getVectorSchemaRoot();
+                    while (reader.loadNextBatch()) {
+                        BigIntVector id = (BigIntVector) batch.getVector("id");
+                        for (int row = 0; row < batch.getRowCount(); row++) {
+                            ids.add(id.get(row));
+                        }
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static List<Long> sorted(List<Long> ids) {
+        return ids.stream().sorted().toList();
+    }
+
+    @Test
+    @DisplayName("Should export rows once they are older than the safety lag, without duplicating or skipping any")
+    void testIncrementalExport() throws IOException {
+        // Given: settled rows on both sides of a recent one, which the safety lag holds back
+        Task firstTask = task(settled);
+        Task recentTask = task(recent);
+        Task lastTask = task(settled.plusMinutes(1));
+        TaskResult firstResult = result(firstTask, settled);
+        TaskResult recentResult = result(recentTask, recent);
+        TaskResult lastResult = result(lastTask, settled.plusMinutes(1));
+
+        // When
+        List<ColumnarExportService.ExportResult> firstRun = exportService.runExport();
+
+        // Then: results stop at the recent one, tasks skip it by updated_at
+        assertEquals(List.of(firstResult.getId()), exportedIds(ColumnarExportService.TASK_RESULT_DATASET));
+        assertEquals(List.of(firstTask.getId(), lastTask.getId()), sorted(exportedIds(ColumnarExportService.TASK_DATASET)));
+        assertEquals(List.of(1L, 2L), firstRun.stream().map(ColumnarExportService.ExportResult::getRows).toList());
+        ExportWatermark resultMark = exportWatermarkRepository.findById(ColumnarExportService.TASK_RESULT_DATASET).orElseThrow();
+        ExportWatermark taskMark = exportWatermarkRepository.findById(ColumnarExportService.TASK_DATASET).orElseThrow();
+        assertEquals(firstResult.getId(), resultMark.getLastId());
+        assertEquals(lastTask.getId(), taskMark.getLastId());
+        assertEquals(settled.plusMinutes(1), taskMark.getLastUpdatedAt());
+
+        // When: the recent rows settle and the export runs again
+        jdbcTemplate.update("UPDATE task SET updated_at = ? WHERE id = ?", settled.plusMinutes(2), recentTask.getId());
+        jdbcTemplate.update("UPDATE task_result SET created_at = ? WHERE id = ?", settled.plusMinutes(2), recentResult.getId());
+        List<ColumnarExportService.ExportResult> secondRun = exportService.runExport();
+
+        // Then
+        assertEquals(List.of(firstResult.getId(), recentResult.getId(), lastResult.getId()),
+                sorted(exportedIds(ColumnarExportService.TASK_RESULT_DATASET)));
+        assertEquals(List.of(firstTask.getId(), recentTask.getId(), lastTask.getId()),
+                sorted(exportedIds(ColumnarExportService.TASK_DATASET)));
+        assertEquals(List.of(2L, 1L), secondRun.stream().map(ColumnarExportService.ExportResult::getRows).toList());
+        assertEquals(lastResult.getId(),
+                exportWatermarkRepository.findById(ColumnarExportService.TASK_RESULT_DATASET).orElseThrow().getLastId());
+        taskMark = exportWatermarkRepository.findById(ColumnarExportService.TASK_DATASET).orElseThrow();
+        assertEquals(recentTask.getId(), taskMark.getLastId());
+        assertEquals(settled.plusMinutes(2), taskMark.getLastUpdatedAt());
+
+        // When: nothing new
+        List<ColumnarExportService.ExportResult> thirdRun = exportService.runExport();
+
+        // Then
+        assertEquals(List.of(0L, 0L), thirdRun.stream().map(ColumnarExportService.ExportResult::getRows).toList());
+        assertEquals(3, exportedIds(ColumnarExportService.TASK_DATASET).size());
+    }
+
+    @Test
+    @DisplayName("Should skip a run while an export is running here or another instance holds its lease")
+    void testSkipsWhileRunning() throws Exception {
+        // Given
+        task(settled);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread export = Thread.ofPlatform().start(() -> scheduledJobLock.run(ColumnarExportService.JOB,
+                Duration.ofMinutes(5), Duration.ZERO, () -> {
+                    running.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        // When
+        List<ColumnarExportService.ExportResult> whileRunning = exportService.runExport();
+        release.countDown();
+        export.join();
+
+        // Then
+        assertTrue(whileRunning.isEmpty());
+        assertTrue(exportedIds(ColumnarExportService.TASK_DATASET).isEmpty());
+        assertTrue(exportWatermarkRepository.findById(ColumnarExportService.TASK_DATASET).isEmpty());
+
+        // When: another instance took the lease
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("UPDATE job_lock SET locked_by = ?, locked_until = ? WHERE name = ?",
+                "other-instance", now.plusMinutes(5), ColumnarExportService.JOB);
+
+        // Then
+        assertTrue(exportService.runExport().isEmpty());
+        assertTrue(exportedIds(ColumnarExportService.TASK_DATASET).isEmpty());
+
+        // When: the lease ran out
+        jdbcTemplate.update("UPDATE job_lock SET locked_until = ? WHERE name = ?", now.minusMinutes(1), ColumnarExportService.JOB);
+
+        // Then
+        assertEquals(1, exportService.runExport().get(1).getRows());
+        assertEquals(1, exportedIds(ColumnarExportService.TASK_DATASET).size());
+    }
+}
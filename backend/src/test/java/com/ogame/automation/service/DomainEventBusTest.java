@@ -0,0 +1,205 @@
+package com.ogame.automation.service;
+
+import com.ogame.automation.dto.DomainEvent;
+import com.ogame.automation.dto.UniverseEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DomainEventBus Tests")
+class DomainEventBusTest {
+
+    private DomainEventBus bus;
+
+    private DomainEventBus bus(int bufferSize) {
+        bus = new DomainEventBus();
+        ReflectionTestUtils.setField(bus, "bufferSize", bufferSize);
+        ReflectionTestUtils.setField(bus, "shutdownTimeout", Duration.ofSeconds(5));
+        bus.init();
+        return bus;
+    }
+
+    @AfterEach
+    void tearDown() {
+        bus.shutdown();
+    }
+
+    private static UniverseEvent event(long universeId) {
+        return UniverseEvent.of(UniverseEvent.Kind.UPDATED, universeId);
+    }
+
+    /**
+     * Copies each batch, since the bus reuses the list.
+     */
+    private static DomainEventBus.Subscriber recording(BlockingQueue<List<DomainEvent>> batches) {
+        return events -> batches.add(List.copyOf(events));
+    }
+
+    private static List<Long> universeIds(BlockingQueue<List<DomainEvent>> batches, int count) throws InterruptedException {
+        List<Long> ids = new ArrayList<>();
+        while (ids.size() < count) {
+            List<DomainEvent> batch = batches.poll(5, TimeUnit.SECONDS);
+            assertNotNull(batch, "Timed out after " + ids.size() + " events");
+            batch.forEach(event -> ids.add(event.universeId()));
+        }
+        return ids;
+    }
+
+    @Test
+    @DisplayName("Should deliver every event of concurrent publishers to every subscriber, in each publisher's order")
+    void testConcurrentPublishers() throws Exception {
+        // Given
+        bus(1 << 16);
+        BlockingQueue<List<DomainEvent>> first = new LinkedBlockingQueue<>();
+        BlockingQueue<List<DomainEvent>> second = new LinkedBlockingQueue<>();
+        bus.subscribe("first", recording(first));
+        bus.subscribe("second", recording(second));
+        int publishers = 4;
+        int perPublisher = 5_000;
+
+        // When
+        List<Thread> threads = new ArrayList<>();
+        for (int publisher = 0; publisher < publishers; publisher++) {
+            long base = publisher * 1_000_000L;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < perPublisher; i++) {
+                    bus.publish(event(base + i));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then
+        for (BlockingQueue<List<DomainEvent>> batches : List.of(first, second)) {
+            List<Long> ids = universeIds(batches, publishers * perPublisher);
+            assertEquals(publishers * perPublisher, ids.size());
+            long[] last = {-1, -1, -1, -1};
+            for (long id : ids) {
+                int publisher = (int) (id / 1_000_000L);
+                assertTrue(id % 1_000_000L > last[publisher], "Out of order: " + id);
+                last[publisher] = id % 1_000_000L;
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should hand a busy subscriber what accumulated as one batch")
+    void testBatches() throws Exception {
+        // Given
+        bus(8);
+        CountDownLatch handling = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingQueue<List<DomainEvent>> batches = new LinkedBlockingQueue<>();
+        bus.subscribe("slow", blockingFirst(batches, handling, release));
+        bus.offer(event(1));
+        assertTrue(handling.await(5, TimeUnit.SECONDS));
+
+        // When
+        for (long universeId = 2; universeId <= 4; universeId++) {
+            bus.offer(event(universeId));
+        }
+        release.countDown();
+
+        // Then
+        assertEquals(List.of(1L), universeIds(batches, 1));
+        assertEquals(List.of(2L, 3L, 4L), batches.poll(5, TimeUnit.SECONDS).stream().map(DomainEvent::universeId).toList());
+    }
+
+    @Test
+    @DisplayName("Should skip a subscriber a buffer behind to the newest event, tell it how many it lost, and keep the others whole")
+    void testLaggingSubscriber() throws Exception {
+        // Given
+        bus(4);
+        CountDownLatch handling = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingQueue<List<DomainEvent>> slow = new LinkedBlockingQueue<>();
+        BlockingQueue<Long> lost = new LinkedBlockingQueue<>();
+        BlockingQueue<List<DomainEvent>> fast = new LinkedBlockingQueue<>();
+        bus.subscribe("slow", blockingFirst(slow, handling, release), lost::add);
+        bus.subscribe("fast", recording(fast));
+        bus.offer(event(1));
+        assertTrue(handling.await(5, TimeUnit.SECONDS));
+
+        assertEquals(List.of(1L), universeIds(fast, 1));
+
+        // When: five more events, each awaited by the fast subscriber, lap the slow one's next slot
+        for (long universeId = 2; universeId <= 6; universeId++) {
+            bus.offer(event(universeId));
+            assertEquals(List.of(universeId), universeIds(fast, 1));
+        }
+        release.countDown();
+        assertEquals(5L, lost.poll(5, TimeUnit.SECONDS));
+        bus.offer(event(7));
+
+        // Then
+        assertEquals(List.of(1L, 7L), universeIds(slow, 2));
+        assertEquals(List.of(7L), universeIds(fast, 1));
+        assertTrue(lost.isEmpty());
+    }
+
+    /**
+     * Records batches, holding the first one until released.
+     */
+    private static DomainEventBus.Subscriber blockingFirst(BlockingQueue<List<DomainEvent>> batches,
+                                                           CountDownLatch handling, CountDownLatch release) {
+        return events -> {
+            batches.add(List.copyOf(events));
+            handling.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Should publish a transaction's events once it commits and drop them when it rolls back")
+    void testAfterCommit() throws Exception {
+        // Given
+        bus(16);
+        BlockingQueue<List<DomainEvent>> batches = new LinkedBlockingQueue<>();
+        bus.subscribe("viewer", recording(batches));
+
+        // When
+        inTransaction(() -> bus.publish(event(1)), false);
+        inTransaction(() -> {
+            bus.publish(event(2));
+            bus.publish(event(3));
+        }, true);
+
+        // Then
+        assertEquals(List.of(2L, 3L), universeIds(batches, 2));
+        assertTrue(batches.isEmpty());
+    }
+
+    private static void inTransaction(Runnable work, boolean commit) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            if (commit) {
+                TransactionSynchronizationUtils.triggerAfterCommit();
+            }
+            TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(), commit
+                    ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.ogame.automation.service;
+
+import com.ogame.automation.entity.Bot;
+import com.ogame.automation.entity.Universe;
+import com.ogame.automation.repository.BotRepository;
+import com.ogame.automation.repository.UniverseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(HeartbeatBuffer.class)
+@TestPropertySource(properties = "app.heartbeat.flush-batch-size=2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Heartbeat buffer")
+class HeartbeatBufferTest {
+
+    @Autowired
+    private HeartbeatBuffer heartbeatBuffer;
+
+    @Autowired
+    private UniverseRepository universeRepository;
+
+    @Autowired
+    private BotRepository botRepository;
+
+    private Bot first;
+    private Bot second;
+    private Bot third;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        Universe universe = universeRepository.save(new Universe("Buffer Universe", "http://buffer", "http://hook"));
+        first = botRepository.save(new Bot("buffer-bot-1", universe, "First"));
+        second = botRepository.save(new Bot("buffer-bot-2", universe, "Second"));
+        third = botRepository.save(new Bot("buffer-bot-3", universe, "Third"));
+        base = LocalDateTime.now().plusMinutes(1).truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        heartbeatBuffer.flush();
+        botRepository.deleteAll();
+        universeRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should keep only the latest heartbeat per bot")
+    void testCoalesces() {
+        // When
+        heartbeatBuffer.record(first.getId(), base);
+        heartbeatBuffer.record(first.getId(), base.plusSeconds(2));
+        heartbeatBuffer.record(first.getId(), base.plusSeconds(1));
+
+        // Then
+        assertEquals(1, heartbeatBuffer.pendingCount());
+        assertEquals(base.plusSeconds(2), heartbeatBuffer.lastSeen(first.getId(), null));
+        assertEquals(base.plusSeconds(3), heartbeatBuffer.lastSeen(first.getId(), base.plusSeconds(3)));
+        assertEquals(base, heartbeatBuffer.lastSeen(second.getId(), base));
+    }
+
+    @Test
+    @DisplayName("Should write buffered heartbeats in batches without touching updated_at")
+    void testFlush() {
+        // Given
+        LocalDateTime updatedAt = botRepository.findById(first.getId()).orElseThrow().getUpdatedAt();
+        heartbeatBuffer.record(first.getId(), base);
+        heartbeatBuffer.record(second.getId(), base.plusSeconds(1));
+        heartbeatBuffer.record(third.getId(), base.plusSeconds(2));
+        heartbeatBuffer.record(Long.MAX_VALUE, base);
+
+        // When
+        int written = heartbeatBuffer.flush();
+
+        // Then
+        assertEquals(4, written);
+        assertEquals(0, heartbeatBuffer.pendingCount());
+        Bot flushed = botRepository.findById(first.getId()).orElseThrow();
+        assertEquals(base, flushed.getLastSeenAt());
+        assertEquals(updatedAt, flushed.getUpdatedAt());
+        assertEquals(base.plusSeconds(1), botRepository.findById(second.getId()).orElseThrow().getLastSeenAt());
+        assertEquals(base.plusSeconds(2), botRepository.findById(third.getId()).orElseThrow().getLastSeenAt());
+    }
+
+    @Test
+    @DisplayName("Should not move last_seen_at back when an older heartbeat is flushed later")
+    void testMonotonic() {
+        // Given
+        heartbeatBuffer.record(first.getId(), base.plusSeconds(10));
+        heartbeatBuffer.flush();
+
+        // When: a heartbeat buffered before it, on another instance say, arrives afterwards
+        heartbeatBuffer.record(first.getId(), base);
+        heartbeatBuffer.record(second.getId(), base);
+        heartbeatBuffer.flush();
+
+        // Then
+        assertEquals(base.plusSeconds(10), botRepository.findById(first.getId()).orElseThrow().getLastSeenAt());
+        assertEquals(base, botRepository.findById(second.getId()).orElseThrow().getLastSeenAt());
+    }
+
+    @Test
+    @DisplayName("Should have nothing to write when no heartbeat arrived")
+    void testEmptyFlush() {
+        assertEquals(0, heartbeatBuffer.flush());
+    }
+}
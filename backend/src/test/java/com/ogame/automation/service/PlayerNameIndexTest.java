@@ -0,0 +1,154 @@
+package com.ogame.automation.service;
+
+import com.ogame.automation.dto.TaskPlayerName;
+import com.ogame.automation.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@DisplayName("PlayerNameIndex Tests")
+class PlayerNameIndexTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @InjectMocks
+    private PlayerNameIndex playerNameIndex;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        playerNameIndex.add(1L, "DarkLord");
+        playerNameIndex.add(2L, "darklord");
+        playerNameIndex.add(3L, "LordVader");
+        playerNameIndex.add(4L, "Miner49");
+    }
+
+    @Nested
+    @DisplayName("Substring search")
+    class SubstringTests {
+
+        @Test
+        @DisplayName("Should match names containing the query, ignoring case")
+        void testSubstringMatch() {
+            // When
+            PlayerNameIndex.SearchResult result = playerNameIndex.search("LORD", PlayerNameIndex.Match.SUBSTRING, 100);
+
+            // Then
+            assertEquals(Set.of(1L, 2L, 3L), Set.copyOf(result.getTaskIds()));
+            assertEquals(Set.of("DarkLord", "darklord", "LordVader"), result.getPlayerNames());
+            assertFalse(result.isTruncated());
+        }
+
+        @Test
+        @DisplayName("Should verify candidates that share trigrams out of order")
+        void testTrigramsOutOfOrder() {
+            // Given - contains every trigram of "ordar" (ord, rda, dar), but not the string itself
+            playerNameIndex.add(5L, "dar-rda-ord");
+
+            // When
+            Set<String> names = playerNameIndex.findNames("ordar", PlayerNameIndex.Match.SUBSTRING, 100);
+
+            // Then
+            assertTrue(names.isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should handle queries shorter than a trigram")
+        void testShortQuery() {
+            // When
+            Set<String> names = playerNameIndex.findNames("49", PlayerNameIndex.Match.SUBSTRING, 100);
+
+            // Then
+            assertEquals(Set.of("Miner49"), names);
+        }
+
+        @Test
+        @DisplayName("Should return nothing for an unknown trigram")
+        void testNoMatch() {
+            // When / Then
+            assertTrue(playerNameIndex.findNames("xyz", PlayerNameIndex.Match.SUBSTRING, 100).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Prefix search")
+    class PrefixTests {
+
+        @Test
+        @DisplayName("Should only match names starting with the query")
+        void testPrefixMatch() {
+            // When
+            PlayerNameIndex.SearchResult result = playerNameIndex.search("lord", PlayerNameIndex.Match.PREFIX, 100);
+
+            // Then
+            assertEquals(List.of(3L), result.getTaskIds());
+        }
+
+        @Test
+        @DisplayName("Should truncate at the task id limit")
+        void testLimit() {
+            // When
+            PlayerNameIndex.SearchResult result = playerNameIndex.search("dark", PlayerNameIndex.Match.PREFIX, 1);
+
+            // Then
+            assertEquals(1, result.getTaskIds().size());
+            assertTrue(result.isTruncated());
+        }
+    }
+
+    @Nested
+    @DisplayName("Maintenance")
+    class MaintenanceTests {
+
+        @Test
+        @DisplayName("Should drop a name once its last task is removed")
+        void testRemove() {
+            // When
+            playerNameIndex.remove(3L, "LordVader");
+
+            // Then
+            assertEquals(Set.of("DarkLord", "darklord"),
+                    playerNameIndex.findNames("lord", PlayerNameIndex.Match.SUBSTRING, 100));
+            assertEquals(2, playerNameIndex.getDistinctNameCount());
+        }
+
+        @Test
+        @DisplayName("Should keep a name while other tasks still use it")
+        void testRemoveShared() {
+            // When
+            playerNameIndex.remove(1L, "DarkLord");
+
+            // Then
+            assertEquals(List.of(2L), playerNameIndex.search("darklord", PlayerNameIndex.Match.PREFIX, 100).getTaskIds());
+        }
+
+        @Test
+        @DisplayName("Should load every task page on rebuild")
+        void testRebuild() {
+            // Given
+            when(taskRepository.findPlayerNamesAfter(eq(0L), any(Pageable.class)))
+                    .thenReturn(List.of(new TaskPlayerName(10L, "Zed")));
+
+            // When
+            playerNameIndex.rebuild();
+
+            // Then
+            assertTrue(playerNameIndex.isReady());
+            assertEquals(List.of(10L), playerNameIndex.search("ze", PlayerNameIndex.Match.PREFIX, 100).getTaskIds());
+        }
+    }
+}
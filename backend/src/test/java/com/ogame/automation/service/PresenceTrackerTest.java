@@ -0,0 +1,199 @@
+package com.ogame.automation.service;
+
+import com.ogame.automation.dto.BotLastSeen;
+import com.ogame.automation.dto.BotPresence;
+import com.ogame.automation.repository.BotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("PresenceTracker Tests")
+class PresenceTrackerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(90);
+
+    @Mock
+    private BotRepository botRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private PresenceTracker presenceTracker;
+
+    private long nanos;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(presenceTracker, "timeout", TIMEOUT);
+        presenceTracker.setNanoTime(() -> nanos);
+        presenceTracker.setEventExecutor(Runnable::run);
+        now = LocalDateTime.now();
+        presenceTracker.setClock(clockAt(now));
+    }
+
+    private static Clock clockAt(LocalDateTime time) {
+        return Clock.fixed(time.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+    }
+
+    private void advance(Duration duration) {
+        nanos += duration.toNanos();
+        now = now.plus(duration);
+        presenceTracker.setClock(clockAt(now));
+        presenceTracker.expireDue();
+    }
+
+    @Test
+    @DisplayName("Should publish an online event only on the first heartbeat")
+    void testOnline() {
+        // When
+        presenceTracker.heartbeat(1L, now);
+        advance(Duration.ofSeconds(30));
+        presenceTracker.heartbeat(1L, now);
+
+        // Then
+        verify(eventPublisher, times(1)).publishEvent(any(Object.class));
+        verify(eventPublisher).publishEvent(new BotPresence(1L, true, now.minusSeconds(30)));
+        assertTrue(presenceTracker.getPresence(1L).orElseThrow().online());
+        assertFalse(presenceTracker.isOffline(1L));
+    }
+
+    @Test
+    @DisplayName("Should publish an offline event once the timeout passes without a heartbeat")
+    void testOffline() {
+        // Given
+        LocalDateTime seenAt = now;
+        presenceTracker.heartbeat(1L, seenAt);
+
+        // When
+        advance(TIMEOUT.minusSeconds(1));
+        verify(eventPublisher, never()).publishEvent(new BotPresence(1L, false, seenAt));
+        advance(Duration.ofSeconds(1));
+
+        // Then
+        verify(eventPublisher).publishEvent(new BotPresence(1L, false, seenAt));
+        assertTrue(presenceTracker.isOffline(1L));
+        assertEquals(List.of(new BotPresence(1L, false, seenAt)), presenceTracker.getPresences());
+    }
+
+    @Test
+    @DisplayName("Should keep a bot online while another instance receives its heartbeats")
+    void testSeenElsewhere() {
+        // Given: the bot's later heartbeats go to another instance, which flushes them
+        LocalDateTime seenAt = now;
+        presenceTracker.heartbeat(1L, seenAt);
+        LocalDateTime flushedAt = now.plusSeconds(10);
+        when(botRepository.findLastSeenAtById(1L)).thenReturn(Optional.of(flushedAt));
+
+        // When
+        advance(TIMEOUT);
+
+        // Then
+        verify(eventPublisher, never()).publishEvent(new BotPresence(1L, false, seenAt));
+        assertFalse(presenceTracker.isOffline(1L));
+        assertEquals(flushedAt, presenceTracker.getPresence(1L).orElseThrow().lastSeenAt());
+
+        // When: those heartbeats stop as well
+        advance(TIMEOUT);
+
+        // Then
+        verify(eventPublisher).publishEvent(new BotPresence(1L, false, flushedAt));
+        assertTrue(presenceTracker.isOffline(1L));
+    }
+
+    @Test
+    @DisplayName("Should push the deadline forward with each heartbeat")
+    void testDeadlineMoves() {
+        // Given
+        presenceTracker.heartbeat(1L, now);
+        advance(Duration.ofSeconds(60));
+        presenceTracker.heartbeat(1L, now);
+
+        // When: the first deadline passes
+        advance(Duration.ofSeconds(40));
+
+        // Then
+        assertFalse(presenceTracker.isOffline(1L));
+
+        // When: the second one passes
+        advance(Duration.ofSeconds(50));
+
+        // Then
+        assertTrue(presenceTracker.isOffline(1L));
+        verify(eventPublisher, times(2)).publishEvent(any(Object.class));
+    }
+
+    @Test
+    @DisplayName("Should come back online on the next heartbeat")
+    void testBackOnline() {
+        // Given
+        presenceTracker.heartbeat(1L, now);
+        advance(TIMEOUT);
+
+        // When
+        presenceTracker.heartbeat(1L, now);
+
+        // Then
+        verify(eventPublisher).publishEvent(new BotPresence(1L, true, now));
+        assertFalse(presenceTracker.isOffline(1L));
+
+        // And it expires again
+        advance(TIMEOUT);
+        assertTrue(presenceTracker.isOffline(1L));
+        verify(eventPublisher, times(4)).publishEvent(any(Object.class));
+    }
+
+    @Test
+    @DisplayName("Should not report forgotten or unknown bots")
+    void testForget() {
+        // Given
+        presenceTracker.heartbeat(1L, now);
+
+        // When
+        presenceTracker.forget(1L);
+        advance(TIMEOUT);
+
+        // Then
+        verify(eventPublisher, times(1)).publishEvent(any(Object.class));
+        assertTrue(presenceTracker.getPresence(1L).isEmpty());
+        assertFalse(presenceTracker.isOffline(1L));
+        assertFalse(presenceTracker.isOffline(2L));
+    }
+
+    @Test
+    @DisplayName("Should seed recently seen bots as online without events")
+    void testSeed() {
+        // Given
+        LocalDateTime seenAt = LocalDateTime.now().minusSeconds(60);
+        when(botRepository.findLastSeenSince(any())).thenReturn(List.of(new BotLastSeen(1L, seenAt)));
+
+        // When
+        presenceTracker.seed();
+
+        // Then
+        assertEquals(List.of(new BotPresence(1L, true, seenAt)), presenceTracker.getPresences());
+        verifyNoInteractions(eventPublisher);
+
+        // And it expires a timeout after it was last seen
+        advance(Duration.ofSeconds(35));
+        verify(eventPublisher).publishEvent(new BotPresence(1L, false, seenAt));
+    }
+}
@@ -0,0 +1,153 @@
+package com.ogame.automation.service;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.ogame.automation.config.PrimaryReads;
+import com.ogame.automation.dto.BotIdentity;
+import com.ogame.automation.dto.UniverseRef;
+import com.ogame.automation.entity.Bot;
+import com.ogame.automation.entity.Universe;
+import com.ogame.automation.repository.BotRepository;
+import com.ogame.automation.repository.UniverseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ReferenceDataCache Tests")
+class ReferenceDataCacheTest {
+
+    @Mock
+    private UniverseRepository universeRepository;
+
+    @Mock
+    private BotRepository botRepository;
+
+    @Mock
+    private PrimaryReads primaryReads;
+
+    @InjectMocks
+    private ReferenceDataCache cache;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private Universe universe;
+    private Bot bot;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(primaryReads.read(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofMinutes(10));
+        cache.setTicker((Ticker) nanos::get);
+        cache.init();
+
+        universe = new Universe("Test Universe", "http://universe", "http://webhook");
+        universe.setId(1L);
+        bot = new Bot("bot-uuid", universe, "Test Bot");
+        bot.setId(7L);
+
+        when(universeRepository.findById(1L)).thenReturn(Optional.of(universe));
+        when(botRepository.findByUuid("bot-uuid")).thenReturn(Optional.of(bot));
+        when(botRepository.findById(7L)).thenReturn(Optional.of(bot));
+    }
+
+    @Test
+    @DisplayName("Should serve repeated universe lookups from the cache")
+    void testUniverseHit() {
+        // When
+        Optional<UniverseRef> first = cache.findUniverse(1L);
+        Optional<UniverseRef> second = cache.findUniverse(1L);
+
+        // Then
+        assertTrue(first.isPresent());
+        assertEquals("Test Universe", second.get().name());
+        verify(universeRepository, times(1)).findById(1L);
+        assertEquals(0.5, cache.universeHitRatio());
+    }
+
+    @Test
+    @DisplayName("Should reload a universe after eviction")
+    void testUniverseEviction() {
+        // Given
+        cache.findUniverse(1L);
+        universe.setName("Renamed");
+
+        // When
+        cache.evictUniverse(1L);
+        Optional<UniverseRef> reloaded = cache.findUniverse(1L);
+
+        // Then
+        assertEquals("Renamed", reloaded.get().name());
+        verify(universeRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Should reload entries once the TTL has passed")
+    void testTtlExpiry() {
+        // Given
+        cache.findUniverse(1L);
+        nanos.addAndGet(Duration.ofMinutes(9).toNanos());
+        cache.findUniverse(1L);
+
+        // When
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+        cache.findUniverse(1L);
+
+        // Then
+        verify(universeRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Should not cache missing rows")
+    void testMissingUniverse() {
+        // When
+        Optional<UniverseRef> missing = cache.findUniverse(99L);
+        cache.findUniverse(99L);
+
+        // Then
+        assertTrue(missing.isEmpty());
+        verify(universeRepository, times(2)).findById(99L);
+    }
+
+    @Test
+    @DisplayName("Should resolve a bot by UUID and serve id lookups without a query")
+    void testBotByUuidPopulatesById() {
+        // When
+        BotIdentity byUuid = cache.findBotByUuid("bot-uuid").orElseThrow();
+        BotIdentity byId = cache.findBotById(7L).orElseThrow();
+
+        // Then
+        assertEquals(byUuid, byId);
+        assertEquals(1L, byId.universeId());
+        verify(botRepository, never()).findById(anyLong());
+        verify(botRepository, times(1)).findByUuid("bot-uuid");
+    }
+
+    @Test
+    @DisplayName("Should evict both bot keys")
+    void testBotEviction() {
+        // Given
+        cache.findBotByUuid("bot-uuid");
+
+        // When
+        cache.evictBot(7L);
+        cache.findBotByUuid("bot-uuid");
+        cache.findBotById(7L);
+
+        // Then
+        verify(botRepository, times(2)).findByUuid("bot-uuid");
+        verify(botRepository, never()).findById(anyLong());
+    }
+}
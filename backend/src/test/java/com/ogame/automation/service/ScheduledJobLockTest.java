@@ -0,0 +1,186 @@
+package com.ogame.automation.service;
+
+import com.ogame.automation.entity.ExportWatermark;
+import com.ogame.automation.entity.JobLock;
+import com.ogame.automation.repository.ExportWatermarkRepository;
+import com.ogame.automation.repository.JobLockRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("ScheduledJobLock Tests")
+class ScheduledJobLockTest {
+
+    private static final String JOB = "testJob";
+    private static final Duration LEASE = Duration.ofMinutes(5);
+    private static final Duration HOLD = Duration.ofSeconds(30);
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    @Autowired
+    private ExportWatermarkRepository exportWatermarkRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private Instant now = Instant.parse("2024-06-01T12:00:00Z");
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    };
+
+    private ScheduledJobLock first;
+    private ScheduledJobLock second;
+
+    @BeforeEach
+    void setUp() {
+        first = instance();
+        second = instance();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobLockRepository.deleteAll();
+        exportWatermarkRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should run a job on one instance per lease")
+    void shouldRunOncePerLease() {
+        // Given
+        AtomicInteger runs = new AtomicInteger();
+
+        // When
+        boolean firstRan = first.run(JOB, LEASE, HOLD, runs::incrementAndGet);
+        boolean secondRan = second.run(JOB, LEASE, HOLD, runs::incrementAndGet);
+
+        // Then
+        assertTrue(firstRan);
+        assertFalse(secondRan);
+        assertEquals(1, runs.get());
+        JobLock lock = jobLockRepository.findById(JOB).orElseThrow();
+        assertEquals(1, lock.getFencingToken());
+        assertEquals(first.getInstanceId(), lock.getLockedBy());
+        assertEquals(1.0, lockCount("acquired"));
+        assertEquals(1.0, lockCount("held"));
+    }
+
+    @Test
+    @DisplayName("Should let another instance run the job once the lease is released")
+    void shouldHandOverAfterMinimumHold() {
+        // Given
+        first.run(JOB, LEASE, HOLD, () -> { });
+
+        // When
+        now = now.plus(HOLD);
+        boolean secondRan = second.run(JOB, LEASE, HOLD, () -> { });
+
+        // Then
+        assertTrue(secondRan);
+        JobLock lock = jobLockRepository.findById(JOB).orElseThrow();
+        assertEquals(2, lock.getFencingToken());
+        assertEquals(second.getInstanceId(), lock.getLockedBy());
+    }
+
+    @Test
+    @DisplayName("Should roll back a run whose lease was taken over")
+    void shouldRollBackAfterTakeover() {
+        // When: the first run outlasts its lease and the second instance takes the job over meanwhile
+        boolean firstRan = first.run(JOB, LEASE, HOLD, () -> {
+            exportWatermarkRepository.save(new ExportWatermark("first"));
+            now = now.plus(LEASE).plusSeconds(1);
+            assertTrue(second.run(JOB, LEASE, HOLD, () -> exportWatermarkRepository.save(new ExportWatermark("second"))));
+        });
+
+        // Then
+        assertFalse(firstRan);
+        assertFalse(exportWatermarkRepository.existsById("first"));
+        assertTrue(exportWatermarkRepository.existsById("second"));
+        assertEquals(2, jobLockRepository.findById(JOB).orElseThrow().getFencingToken());
+        assertEquals(1.0, meterRegistry.get("scheduled.jobs.overruns").tag("job", JOB).tag("outcome", "rolled_back")
+                .counter().count());
+    }
+
+    @Test
+    @DisplayName("Should skip a job still running on this instance")
+    void shouldSkipWhileRunning() {
+        // Given
+        AtomicBoolean concurrentRan = new AtomicBoolean(true);
+
+        // When
+        first.run(JOB, LEASE, HOLD, () -> {
+            Thread concurrent = new Thread(() -> concurrentRan.set(first.run(JOB, LEASE, HOLD, () -> { })));
+            concurrent.start();
+            assertDoesNotThrow(() -> concurrent.join());
+        });
+
+        // Then
+        assertFalse(concurrentRan.get());
+        assertEquals(1.0, lockCount("busy"));
+    }
+
+    @Test
+    @DisplayName("Should release the lease when a run fails")
+    void shouldReleaseAfterFailure() {
+        // When
+        assertThrows(IllegalStateException.class, () -> first.run(JOB, LEASE, Duration.ZERO, () -> {
+            exportWatermarkRepository.save(new ExportWatermark("first"));
+            throw new IllegalStateException("boom");
+        }));
+
+        // Then
+        assertFalse(exportWatermarkRepository.existsById("first"));
+        assertTrue(second.run(JOB, LEASE, HOLD, () -> { }));
+    }
+
+    private ScheduledJobLock instance() {
+        ScheduledJobLock lock = new ScheduledJobLock();
+        ReflectionTestUtils.setField(lock, "jobLockRepository", jobLockRepository);
+        ReflectionTestUtils.setField(lock, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(lock, "meterRegistry", meterRegistry);
+        lock.setClock(clock);
+        lock.init();
+        return lock;
+    }
+
+    private double lockCount(String outcome) {
+        return meterRegistry.get("scheduled.jobs.lock").tag("job", JOB).tag("outcome", outcome).counter().count();
+    }
+}
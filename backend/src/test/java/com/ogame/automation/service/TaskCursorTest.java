@@ -0,0 +1,45 @@
+package com.ogame.automation.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TaskCursor Tests")
+class TaskCursorTest {
+
+    @Test
+    @DisplayName("Should round-trip created_at and id through an opaque cursor")
+    void testRoundTrip() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(TaskCursor.CREATED_AT, LocalDateTime.of(2024, 5, 1, 10, 15, 30, 123_000_000));
+        keys.put(TaskCursor.ID, 42L);
+
+        String cursor = TaskCursor.encode(ScrollPosition.forward(keys));
+        ScrollPosition decoded = TaskCursor.decode(cursor);
+
+        assertInstanceOf(KeysetScrollPosition.class, decoded);
+        assertEquals(keys, ((KeysetScrollPosition) decoded).getKeys());
+        assertFalse(cursor.contains("|"), "Cursor should be opaque");
+    }
+
+    @Test
+    @DisplayName("Should start from the beginning without a cursor")
+    void testInitialPosition() {
+        assertTrue(TaskCursor.decode(null).isInitial());
+        assertTrue(TaskCursor.decode("").isInitial());
+    }
+
+    @Test
+    @DisplayName("Should reject malformed cursors")
+    void testMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> TaskCursor.decode("not-a-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> TaskCursor.decode("bm8tc2VwYXJhdG9y"));
+    }
+}
@@ -0,0 +1,223 @@
+package com.ogame.automation.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ogame.automation.dto.TaskEvent;
+import com.ogame.automation.entity.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("TaskEventStream Tests")
+class TaskEventStreamTest {
+
+    private TaskEventStream stream;
+
+    /**
+     * Records the text of every event sent to it, or fails like a disconnected client.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        final List<String> sent = new ArrayList<>();
+        boolean disconnected;
+        boolean completed;
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (disconnected) {
+                throw new IOException("Broken pipe");
+            }
+            sent.add(builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .map(Object::toString)
+                    .collect(Collectors.joining()));
+        }
+
+        List<String> ids() {
+            return sent.stream().filter(text -> text.startsWith("id:"))
+                    .map(text -> text.substring(3, text.indexOf('\n')))
+                    .toList();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        stream = new TaskEventStream();
+        ReflectionTestUtils.setField(stream, "objectMapper", new ObjectMapper().registerModule(new JavaTimeModule()));
+        ReflectionTestUtils.setField(stream, "domainEventBus", mock(DomainEventBus.class));
+        ReflectionTestUtils.setField(stream, "bufferSize", 3);
+        ReflectionTestUtils.setField(stream, "timeout", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(stream, "subscriberQueueSize", 2);
+        stream.setDispatcher(Runnable::run);
+        stream.setWriters(Runnable::run);
+        stream.setEmitterFactory(timeout -> new RecordingEmitter());
+        stream.init();
+    }
+
+    private static TaskEvent event(long taskId, long universeId) {
+        return new TaskEvent(TaskEvent.Kind.CREATED, taskId, universeId, null, Task.TaskStatus.CREATED, LocalDateTime.now());
+    }
+
+    private void publish(TaskEvent event) {
+        stream.onEvents(List.of(event));
+    }
+
+    private RecordingEmitter subscribe(Long universeId, String lastEventId) {
+        return (RecordingEmitter) stream.subscribe(universeId, lastEventId);
+    }
+
+    @Test
+    @DisplayName("Should push events to subscribers of their universe")
+    void testFilters() {
+        // Given
+        RecordingEmitter all = subscribe(null, null);
+        RecordingEmitter second = subscribe(2L, null);
+
+        // When
+        publish(event(10L, 1L));
+        publish(event(11L, 2L));
+
+        // Then
+        assertEquals(2, all.sent.size());
+        assertEquals(1, second.sent.size());
+        assertTrue(second.sent.get(0).startsWith("id:"));
+        assertTrue(second.sent.get(0).contains("event:task\n"));
+        assertTrue(second.sent.get(0).contains("\"taskId\":11"));
+        assertEquals(2, stream.subscriberCount());
+    }
+
+    @Test
+    @DisplayName("Should replay the events after Last-Event-ID before live ones")
+    void testResume() {
+        // Given
+        RecordingEmitter first = subscribe(null, null);
+        publish(event(10L, 1L));
+        publish(event(11L, 1L));
+        publish(event(12L, 1L));
+        String lastSeen = first.ids().get(0);
+
+        // When
+        RecordingEmitter resumed = subscribe(null, lastSeen);
+        publish(event(13L, 1L));
+
+        // Then
+        assertEquals(first.ids().subList(1, 4), resumed.ids());
+    }
+
+    @Test
+    @DisplayName("Should ask viewers to reload when they missed more than the buffer holds")
+    void testReset() {
+        // Given
+        RecordingEmitter first = subscribe(null, null);
+        for (long taskId = 10; taskId < 15; taskId++) {
+            publish(event(taskId, 1L));
+        }
+
+        // When
+        RecordingEmitter tooOld = subscribe(null, first.ids().get(0));
+        RecordingEmitter otherInstance = subscribe(null, "0-3");
+
+        // Then
+        for (RecordingEmitter emitter : List.of(tooOld, otherInstance)) {
+            assertEquals(1, emitter.sent.size());
+            assertTrue(emitter.sent.get(0).contains("event:" + TaskEventStream.RESET + "\n"));
+            assertEquals(first.ids().get(4), emitter.ids().get(0));
+        }
+    }
+
+    @Test
+    @DisplayName("Should ask every viewer to reload when the bus lost events, and not resume across the gap")
+    void testLostEvents() {
+        // Given
+        RecordingEmitter viewer = subscribe(1L, null);
+        publish(event(10L, 1L));
+        String beforeGap = viewer.ids().get(0);
+
+        // When
+        stream.onLost(5);
+        publish(event(11L, 1L));
+        RecordingEmitter stale = subscribe(1L, beforeGap);
+        RecordingEmitter reloaded = subscribe(1L, viewer.ids().get(1));
+
+        // Then
+        assertEquals(3, viewer.sent.size());
+        assertTrue(viewer.sent.get(1).contains("event:" + TaskEventStream.RESET + "\n"));
+        assertEquals(1, stale.sent.size());
+        assertTrue(stale.sent.get(0).contains("event:" + TaskEventStream.RESET + "\n"));
+        assertEquals(List.of(viewer.ids().get(2)), reloaded.ids());
+        assertEquals(3, stream.subscriberCount());
+    }
+
+    @Test
+    @DisplayName("Should drop disconnected viewers on the next event or heartbeat")
+    void testDropsDisconnected() {
+        // Given
+        RecordingEmitter gone = subscribe(null, null);
+        RecordingEmitter idle = subscribe(null, null);
+        RecordingEmitter live = subscribe(null, null);
+        gone.disconnected = true;
+
+        // When
+        publish(event(10L, 1L));
+
+        // Then
+        assertEquals(2, stream.subscriberCount());
+        assertEquals(1, live.sent.size());
+
+        // When
+        idle.disconnected = true;
+        stream.heartbeat();
+
+        // Then
+        assertEquals(1, stream.subscriberCount());
+        assertTrue(live.sent.get(1).startsWith(":keepalive"));
+    }
+
+    @Test
+    @DisplayName("Should write to each viewer on its own and drop one that falls too far behind")
+    void testSlowViewer() {
+        // Given: writes are held back until the test runs them
+        List<Runnable> writes = new ArrayList<>();
+        stream.setWriters(writes::add);
+        RecordingEmitter slow = subscribe(null, null);
+        RecordingEmitter fast = subscribe(null, null);
+
+        // When: the fast viewer's writer keeps up, the slow one's never runs
+        for (long taskId = 10; taskId < 13; taskId++) {
+            publish(event(taskId, 1L));
+            writes.remove(writes.size() - 1).run();
+        }
+
+        // Then
+        assertEquals(3, fast.sent.size());
+        assertTrue(slow.sent.isEmpty());
+        assertEquals(1, stream.subscriberCount());
+
+        // When
+        writes.forEach(Runnable::run);
+
+        // Then: the queued events were replaced with a reset
+        assertEquals(1, slow.sent.size());
+        assertTrue(slow.sent.get(0).contains("event:" + TaskEventStream.RESET + "\n"));
+        assertEquals(fast.ids().get(2), slow.ids().get(0));
+        assertTrue(slow.completed);
+        assertFalse(fast.completed);
+    }
+}
@@ -0,0 +1,113 @@
+package com.ogame.automation.service;
+
+import com.ogame.automation.dto.LatencyPercentiles;
+import com.ogame.automation.entity.Task;
+import com.ogame.automation.entity.Universe;
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TaskLifecycleLatency Tests")
+class TaskLifecycleLatencyTest {
+
+    private final MockClock clock = new MockClock();
+    private TaskLifecycleLatency latency;
+
+    @BeforeEach
+    void setUp() {
+        latency = new TaskLifecycleLatency();
+        ReflectionTestUtils.setField(latency, "meterRegistry", new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock));
+        ReflectionTestUtils.setField(latency, "window", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(latency, "windowBuffers", 5);
+        latency.init();
+    }
+
+    private static Task task(long universeId, Task.TaskType type, LocalDateTime startedAt) {
+        Universe universe = new Universe("Universe " + universeId, "http://universe", null);
+        universe.setId(universeId);
+        Task task = new Task();
+        task.setUniverse(universe);
+        task.setType(type);
+        task.setStartedAt(startedAt);
+        return task;
+    }
+
+    @Test
+    @DisplayName("Should report percentiles per stage, universe and type, filtered by universe and type")
+    void testPercentiles() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        for (int seconds = 1; seconds <= 100; seconds++) {
+            latency.claimed(task(1L, Task.TaskType.SPY_PLAYER, now), now.minusSeconds(seconds));
+        }
+        latency.claimed(task(2L, Task.TaskType.SPY_PLAYER, now), now.minusSeconds(5));
+        Task finished = task(1L, Task.TaskType.CHECK_ACTIVITY, now.minusSeconds(30));
+        finished.setFinishedAt(now);
+        latency.finished(finished);
+        // Clock skew between nodes must not produce negative latencies
+        latency.rescheduled(task(1L, Task.TaskType.CHECK_ACTIVITY, null), now.plusSeconds(2), now);
+
+        // When
+        List<LatencyPercentiles> all = latency.percentiles(null, null);
+        List<LatencyPercentiles> first = latency.percentiles(1L, Task.TaskType.SPY_PLAYER);
+
+        // Then
+        assertEquals(List.of("due_to_claim", "due_to_claim", "claim_to_finish", "schedule_drift"),
+                all.stream().map(LatencyPercentiles::stage).toList());
+        assertEquals(1, first.size());
+        LatencyPercentiles claim = first.get(0);
+        assertEquals(100, claim.count());
+        assertEquals(50_000, claim.p50Ms(), 1_000);
+        assertEquals(99_000, claim.p99Ms(), 2_000);
+        assertEquals(100_000, claim.maxMs());
+        assertEquals(30_000, all.get(2).p50Ms(), 500);
+        assertEquals(0, all.get(3).maxMs());
+    }
+
+    @Test
+    @DisplayName("Should record only once the transition commits, and report no percentiles once the window has passed")
+    void testCommitAndWindow() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        for (int status : new int[]{TransactionSynchronization.STATUS_ROLLED_BACK, TransactionSynchronization.STATUS_COMMITTED}) {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                latency.claimed(task(1L, Task.TaskType.SPY_PLAYER, now), now.minusSeconds(3));
+                assertTrue(latency.percentiles(null, null).isEmpty());
+                if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                    TransactionSynchronizationUtils.triggerAfterCommit();
+                }
+                TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(), status);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+
+        // Then
+        LatencyPercentiles recorded = latency.percentiles(null, null).get(0);
+        assertEquals(1, recorded.count());
+        assertEquals(3_000, recorded.p50Ms(), 100);
+
+        // When
+        clock.add(Duration.ofMinutes(11));
+
+        // Then
+        LatencyPercentiles expired = latency.percentiles(null, null).get(0);
+        assertEquals(1, expired.count());
+        assertNull(expired.p50Ms());
+        assertNull(expired.maxMs());
+    }
+}
@@ -0,0 +1,102 @@
+package com.ogame.automation.service;
+
+import com.ogame.automation.entity.Task;
+import com.ogame.automation.entity.UniverseTaskCount;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@DisplayName("TaskMetrics Tests")
+class TaskMetricsTest {
+
+    @Mock
+    private UniverseTaskCounter universeTaskCounter;
+
+    @InjectMocks
+    private TaskMetrics taskMetrics;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(taskMetrics, "meterRegistry", registry);
+        taskMetrics.init();
+    }
+
+    private long operations(String operation, String outcome) {
+        var timer = registry.find("tasks.operations").tags("operation", operation, "outcome", outcome).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private Double depth(String universe, String status) {
+        var gauge = registry.find("tasks.queue.depth").tags("universe", universe, "status", status).gauge();
+        return gauge == null ? null : gauge.value();
+    }
+
+    @Test
+    @DisplayName("Should time operations when their transaction completes, as rolled back if it fails")
+    void testOperations() {
+        // When
+        for (int status : new int[]{TransactionSynchronization.STATUS_COMMITTED, TransactionSynchronization.STATUS_ROLLED_BACK}) {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                long before = operations("create", "created") + operations("create", TaskMetrics.ROLLED_BACK);
+                taskMetrics.recordOnCompletion(TaskMetrics.Operation.CREATE, "created", System.nanoTime());
+                assertEquals(before, operations("create", "created") + operations("create", TaskMetrics.ROLLED_BACK));
+                TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(), status);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+        taskMetrics.recordOnCompletion(TaskMetrics.Operation.ASSIGN, "rejected", System.nanoTime());
+
+        // Then
+        assertEquals(1, operations("create", "created"));
+        assertEquals(1, operations("create", TaskMetrics.ROLLED_BACK));
+        assertEquals(1, operations("assign", "rejected"));
+    }
+
+    @Test
+    @DisplayName("Should report queued and in-progress tasks per universe across types, and drop deleted universes")
+    void testQueueDepth() {
+        // Given
+        when(universeTaskCounter.allCounts()).thenReturn(List.of(
+                new UniverseTaskCount(1L, Task.TaskType.SPY_PLAYER, Task.TaskStatus.CREATED, 4),
+                new UniverseTaskCount(1L, Task.TaskType.CHECK_ACTIVITY, Task.TaskStatus.CREATED, 3),
+                new UniverseTaskCount(1L, Task.TaskType.SPY_PLAYER, Task.TaskStatus.IN_PROGRESS, 2),
+                new UniverseTaskCount(1L, Task.TaskType.SPY_PLAYER, Task.TaskStatus.FINISHED, 90),
+                new UniverseTaskCount(2L, Task.TaskType.SPY_PLAYER, Task.TaskStatus.CREATED, 1)));
+
+        // When
+        taskMetrics.refreshQueueDepth();
+
+        // Then
+        assertEquals(7.0, depth("1", "CREATED"));
+        assertEquals(2.0, depth("1", "IN_PROGRESS"));
+        assertNull(depth("1", "FINISHED"));
+        assertEquals(1.0, depth("2", "CREATED"));
+
+        // When
+        when(universeTaskCounter.allCounts()).thenReturn(List.of(
+                new UniverseTaskCount(1L, Task.TaskType.SPY_PLAYER, Task.TaskStatus.CREATED, 5)));
+        taskMetrics.refreshQueueDepth();
+
+        // Then
+        assertEquals(5.0, depth("1", "CREATED"));
+        assertNull(depth("2", "CREATED"));
+    }
+}
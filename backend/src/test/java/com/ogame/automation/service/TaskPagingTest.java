@@ -0,0 +1,199 @@
+package com.ogame.automation.service;
+
+import com.ogame.automation.dto.CursorPage;
+import com.ogame.automation.dto.TaskFilter;
+import com.ogame.automation.dto.TaskView;
+import com.ogame.automation.entity.Task;
+import com.ogame.automation.entity.Universe;
+import com.ogame.automation.repository.TaskRepository;
+import com.ogame.automation.repository.UniverseRepository;
+import com.ogame.automation.repository.UniverseTaskCountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({TaskService.class, TaskCountEstimator.class, UniverseTaskCounter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Task paging")
+class TaskPagingTest {
+
+    private static final int PAGE_SIZE = 3;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UniverseTaskCounter counter;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UniverseRepository universeRepository;
+
+    @Autowired
+    private UniverseTaskCountRepository universeTaskCountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockBean
+    private PlayerNameIndex playerNameIndex;
+
+    @MockBean
+    private ReferenceDataCache referenceDataCache;
+
+    @MockBean
+    private HeartbeatBuffer heartbeatBuffer;
+
+    @MockBean
+    private PresenceTracker presenceTracker;
+
+    @MockBean
+    private TaskStatsService taskStatsService;
+
+    @MockBean
+    private DomainEventBus domainEventBus;
+
+    @MockBean
+    private TaskMetrics taskMetrics;
+
+    @MockBean
+    private TaskLifecycleLatency lifecycleLatency;
+
+    private Long universeId;
+    private final List<Task> tasks = new ArrayList<>();
+
+    /**
+     * Eight tasks created in three instants (3, 3 and 2 tasks), so pages of three end in the
+     * middle of a run of equal created_at values; every other one is still queued.
+     */
+    @BeforeEach
+    void setUp() {
+        Universe universe = universeRepository.save(new Universe("Paged Universe", "http://paged", "http://hook"));
+        universeId = universe.getId();
+        transactionTemplate.executeWithoutResult(status -> counter.initialize(universeId));
+
+        LocalDateTime base = LocalDateTime.now().minusHours(1).truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 8; i++) {
+            Task task = new Task(Task.TaskType.SPY_PLAYER, universe, "Player" + i);
+            task.setStatus(i % 2 == 0 ? Task.TaskStatus.CREATED : Task.TaskStatus.FINISHED);
+            Task saved = transactionTemplate.execute(status -> {
+                Task created = taskRepository.save(task);
+                counter.created(created);
+                return created;
+            });
+            LocalDateTime createdAt = base.plusSeconds(i / 3);
+            jdbcTemplate.update("UPDATE task SET created_at = ? WHERE id = ?", createdAt, saved.getId());
+            saved.setCreatedAt(createdAt);
+            tasks.add(saved);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll();
+        universeTaskCountRepository.deleteAll();
+        universeRepository.deleteAll();
+    }
+
+    private List<CursorPage<TaskView>> pageThrough(TaskFilter filter, Sort.Direction direction) {
+        List<CursorPage<TaskView>> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<TaskView> page = taskService.getTasks(filter, cursor, PAGE_SIZE, pages.size(), true, direction);
+            pages.add(page);
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return pages;
+    }
+
+    private static List<Long> ids(List<CursorPage<TaskView>> pages) {
+        return pages.stream().flatMap(page -> page.content().stream()).map(TaskView::id).toList();
+    }
+
+    @Test
+    @DisplayName("Should page newest first through equal created_at values without skipping or repeating a task")
+    void testDescending() {
+        // When
+        List<CursorPage<TaskView>> pages = pageThrough(TaskFilter.byUniverse(universeId), Sort.Direction.DESC);
+
+        // Then
+        List<Long> expected = tasks.stream()
+                .sorted(Comparator.comparing(Task::getCreatedAt).thenComparing(Task::getId).reversed())
+                .map(Task::getId)
+                .toList();
+        assertEquals(expected, ids(pages));
+        assertEquals(3, pages.size());
+        assertTrue(pages.get(0).first());
+        assertFalse(pages.get(1).first());
+        assertTrue(pages.get(2).last());
+        assertEquals(8L, pages.get(0).totalElements());
+        assertEquals(3, pages.get(0).totalPages());
+    }
+
+    @Test
+    @DisplayName("Should page the queue oldest first, as /available does")
+    void testAscending() {
+        // When
+        List<CursorPage<TaskView>> pages = pageThrough(
+                TaskFilter.byUniverseAndStatus(universeId, Task.TaskStatus.CREATED), Sort.Direction.ASC);
+
+        // Then
+        List<Long> expected = tasks.stream()
+                .filter(task -> task.getStatus() == Task.TaskStatus.CREATED)
+                .sorted(Comparator.comparing(Task::getCreatedAt).thenComparing(Task::getId))
+                .map(Task::getId)
+                .toList();
+        assertEquals(expected, ids(pages));
+        assertEquals(2, pages.size());
+        assertEquals(4L, pages.get(0).totalElements());
+        assertEquals(2, pages.get(0).totalPages());
+    }
+
+    @Test
+    @DisplayName("Should serve universe and status totals from the task counters")
+    void testTotalsFromCounters() {
+        // Given: a task the counters were not told about
+        Universe universe = universeRepository.findById(universeId).orElseThrow();
+        taskRepository.save(new Task(Task.TaskType.SPY_PLAYER, universe, "Uncounted"));
+
+        // When
+        CursorPage<TaskView> byStatus = taskService.getTasks(TaskFilter.byStatus(Task.TaskStatus.FINISHED), null,
+                PAGE_SIZE, 0, true, Sort.Direction.DESC);
+        CursorPage<TaskView> byUniverse = taskService.getTasks(TaskFilter.byUniverse(universeId), null,
+                PAGE_SIZE, 0, true, Sort.Direction.DESC);
+        CursorPage<TaskView> byPlayer = taskService.getTasks(
+                new TaskFilter(null, universeId, null, null, "Player", null, null), null,
+                PAGE_SIZE, 0, true, Sort.Direction.DESC);
+
+        // Then
+        assertEquals(4L, byStatus.totalElements());
+        assertEquals(8L, byUniverse.totalElements());
+        assertEquals(8L, byPlayer.totalElements());
+    }
+}
@@ -0,0 +1,193 @@
+package com.ogame.automation.service;
+
+import com.ogame.automation.config.PrimaryReads;
+import com.ogame.automation.dto.TaskStats;
+import com.ogame.automation.entity.Bot;
+import com.ogame.automation.entity.Task;
+import com.ogame.automation.entity.TaskStatsDaily;
+import com.ogame.automation.entity.TaskStatsHourly;
+import com.ogame.automation.entity.Universe;
+import com.ogame.automation.repository.BotRepository;
+import com.ogame.automation.repository.JobLockRepository;
+import com.ogame.automation.repository.TaskRepository;
+import com.ogame.automation.repository.TaskStatsDailyRepository;
+import com.ogame.automation.repository.TaskStatsHourlyRepository;
+import com.ogame.automation.repository.UniverseRepository;
+import com.ogame.automation.repository.UniverseTaskCountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({TaskStatsService.class, UniverseTaskCounter.class, ReferenceDataCache.class, PrimaryReads.class,
+        ScheduledJobLock.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Task statistics rollups")
+class TaskStatsServiceTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2026, 3, 14, 0, 0);
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    @Autowired
+    private TaskStatsService taskStatsService;
+
+    @Autowired
+    private UniverseTaskCounter universeTaskCounter;
+
+    @Autowired
+    private UniverseRepository universeRepository;
+
+    @Autowired
+    private BotRepository botRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskStatsHourlyRepository hourlyRepository;
+
+    @Autowired
+    private TaskStatsDailyRepository dailyRepository;
+
+    @Autowired
+    private UniverseTaskCountRepository universeTaskCountRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Universe universe;
+    private Bot bot;
+
+    @BeforeEach
+    void setUp() {
+        universe = universeRepository.save(new Universe("Stats Universe", "http://stats", "http://hook"));
+        bot = botRepository.save(new Bot("stats-bot", universe, "Stats Bot"));
+        transactionTemplate.executeWithoutResult(status -> universeTaskCounter.initialize(universe.getId()));
+        at(DAY.plusHours(10).plusMinutes(15));
+    }
+
+    @AfterEach
+    void tearDown() {
+        hourlyRepository.deleteAll();
+        dailyRepository.deleteAll();
+        jobLockRepository.deleteAll();
+        universeTaskCountRepository.deleteAll();
+        taskRepository.deleteAll();
+        botRepository.deleteAll();
+        universeRepository.deleteAll();
+    }
+
+    private void at(LocalDateTime time) {
+        taskStatsService.setClock(Clock.fixed(time.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault()));
+    }
+
+    private Task leased(Task.TaskType type) {
+        Task task = new Task(type, universe, "Player");
+        task.markInProgress(bot);
+        return task;
+    }
+
+    @Test
+    @DisplayName("Should add completions and releases to the hourly and daily rows")
+    void testRollsUp() {
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            taskStatsService.recordCompletion(leased(Task.TaskType.SPY_PLAYER), true, 40L);
+            taskStatsService.recordCompletion(leased(Task.TaskType.SPY_PLAYER), false, 3_000L);
+            taskStatsService.recordRelease(leased(Task.TaskType.SPY_PLAYER));
+        });
+        at(DAY.plusHours(11));
+        transactionTemplate.executeWithoutResult(status ->
+                taskStatsService.recordCompletion(leased(Task.TaskType.SPY_PLAYER), true, 45L));
+
+        // Then
+        List<TaskStatsHourly> hourly = hourlyRepository.findByBucketStartGreaterThanEqual(DAY);
+        assertEquals(2, hourly.size());
+        List<TaskStatsDaily> daily = dailyRepository.findByBucketStartGreaterThanEqual(DAY);
+        assertEquals(1, daily.size());
+        TaskStatsDaily row = daily.get(0);
+        assertEquals(DAY, row.getBucketStart());
+        assertEquals(2, row.getSucceeded());
+        assertEquals(1, row.getFailed());
+        assertEquals(1, row.getReleased());
+        assertEquals(3, row.getExecutionTimeCount());
+        assertEquals(3_085, row.getExecutionTimeTotalMs());
+    }
+
+    @Test
+    @DisplayName("Should report outcomes, percentiles and current counts per universe, bot and type")
+    void testStats() {
+        // Given
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < 9; i++) {
+                taskStatsService.recordCompletion(leased(Task.TaskType.CHECK_ACTIVITY), true, 80L);
+            }
+            taskStatsService.recordCompletion(leased(Task.TaskType.CHECK_ACTIVITY), false, 4_000L);
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            Task task = taskRepository.save(leased(Task.TaskType.SPY_PLAYER));
+            universeTaskCounter.created(task);
+        });
+
+        // When
+        TaskStats stats = taskStatsService.getStats(7, null);
+
+        // Then
+        assertEquals(DAY.minusDays(6), stats.from());
+        assertEquals(DAY.plusDays(1), stats.to());
+
+        TaskStats.Group universeGroup = stats.universes().get(0);
+        assertEquals("Stats Universe", universeGroup.name());
+        assertEquals(10, universeGroup.succeeded() + universeGroup.failed());
+        assertEquals(0.9, universeGroup.successRate(), 1e-9);
+        assertEquals(100L, universeGroup.p50Ms());
+        assertEquals(5_000L, universeGroup.p99Ms());
+        assertEquals(1L, universeGroup.countsByStatus().get(Task.TaskStatus.IN_PROGRESS));
+
+        TaskStats.Group botGroup = stats.bots().get(0);
+        assertEquals(bot.getId(), botGroup.id());
+        assertEquals("Stats Bot", botGroup.name());
+        assertEquals(1L, botGroup.countsByStatus().get(Task.TaskStatus.IN_PROGRESS));
+
+        TaskStats.Group spy = stats.types().stream().filter(group -> group.name().equals("SPY_PLAYER")).findFirst().orElseThrow();
+        assertEquals(0, spy.succeeded());
+        assertNull(spy.successRate());
+        assertNull(spy.p50Ms());
+        assertEquals(1L, spy.countsByStatus().get(Task.TaskStatus.IN_PROGRESS));
+    }
+
+    @Test
+    @DisplayName("Should prune hourly rows past their retention and keep the daily ones")
+    void testPrune() {
+        // Given
+        transactionTemplate.executeWithoutResult(status ->
+                taskStatsService.recordCompletion(leased(Task.TaskType.SPY_PLAYER), true, 10L));
+
+        // When
+        at(DAY.plusDays(3));
+        taskStatsService.prune();
+
+        // Then
+        assertTrue(hourlyRepository.findAll().isEmpty());
+        assertEquals(1, dailyRepository.findAll().size());
+        assertEquals(1, taskStatsService.getStats(7, null).bots().get(0).succeeded());
+    }
+}
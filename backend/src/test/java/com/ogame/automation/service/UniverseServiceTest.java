@@ -1,7 +1,7 @@
 package com.ogame.automation.service;
 
-import com.ogame.automation.entity.Bot;
 import com.ogame.automation.entity.Task;
+import com.ogame.automation.dto.UniverseView;
 import com.ogame.automation.entity.Universe;
 import com.ogame.automation.repository.BotRepository;
 import com.ogame.automation.repository.TaskRepository;
@@ -14,9 +14,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -34,30 +33,25 @@ class UniverseServiceTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
+    @Mock
+    private UniverseTaskCounter universeTaskCounter;
+
+    @Mock
+    private DomainEventBus domainEventBus;
+
     @InjectMocks
     private UniverseService universeService;
 
     private Universe universe;
-    private Bot bot;
-    private Task task;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
         universe = new Universe("Test Universe", "http://universe", "http://webhook");
         universe.setId(1L);
-        
-        bot = new Bot();
-        bot.setId(1L);
-        bot.setUuid("test-bot-uuid");
-        bot.setName("Test Bot");
-        bot.setUniverse(universe);
-        
-        task = new Task();
-        task.setId(1L);
-        task.setType(Task.TaskType.CHECK_ACTIVITY);
-        task.setUniverse(universe);
-        task.setPlayerName("TestPlayer");
     }
 
     @Nested
@@ -69,8 +63,8 @@ class UniverseServiceTest {
         void testDeleteUniverse_NoAssociations() {
             // Given
             when(universeRepository.findById(1L)).thenReturn(Optional.of(universe));
-            when(botRepository.findByUniverseId(1L)).thenReturn(Collections.emptyList());
-            when(taskRepository.findByUniverseId(1L)).thenReturn(Collections.emptyList());
+            when(botRepository.countByUniverseId(1L)).thenReturn(0L);
+            when(universeTaskCounter.total(1L)).thenReturn(0L);
 
             // When
             UniverseService.DeletionResult result = universeService.deleteUniverse(1L);
@@ -79,8 +73,10 @@ class UniverseServiceTest {
             assertTrue(result.isSuccess());
             assertEquals("Universe deleted successfully", result.getMessage());
             verify(universeRepository, times(1)).deleteById(1L);
-            verify(botRepository, times(1)).findByUniverseId(1L);
-            verify(taskRepository, times(1)).findByUniverseId(1L);
+            verify(botRepository, times(1)).countByUniverseId(1L);
+            verify(universeTaskCounter, times(1)).total(1L);
+            verify(universeTaskCounter, times(1)).deleteUniverse(1L);
+            verify(taskRepository, never()).findByUniverseId(anyLong());
         }
 
         @Test
@@ -88,7 +84,7 @@ class UniverseServiceTest {
         void testDeleteUniverse_WithSingleBot() {
             // Given
             when(universeRepository.findById(1L)).thenReturn(Optional.of(universe));
-            when(botRepository.findByUniverseId(1L)).thenReturn(Collections.singletonList(bot));
+            when(botRepository.countByUniverseId(1L)).thenReturn(1L);
 
             // When
             UniverseService.DeletionResult result = universeService.deleteUniverse(1L);
@@ -97,20 +93,15 @@ class UniverseServiceTest {
             assertFalse(result.isSuccess());
             assertEquals("Cannot delete universe. It has 1 associated bot(s). Please delete or reassign the bots first.", result.getMessage());
             verify(universeRepository, never()).deleteById(1L);
-            verify(taskRepository, never()).findByUniverseId(1L); // Should not check tasks if bots exist
+            verify(universeTaskCounter, never()).total(1L); // Should not check tasks if bots exist
         }
 
         @Test
         @DisplayName("Should prevent deletion when universe has multiple bots")
         void testDeleteUniverse_WithMultipleBots() {
             // Given
-            Bot bot2 = new Bot();
-            bot2.setId(2L);
-            bot2.setUuid("test-bot-uuid-2");
-            bot2.setUniverse(universe);
-            
             when(universeRepository.findById(1L)).thenReturn(Optional.of(universe));
-            when(botRepository.findByUniverseId(1L)).thenReturn(Arrays.asList(bot, bot2));
+            when(botRepository.countByUniverseId(1L)).thenReturn(2L);
 
             // When
             UniverseService.DeletionResult result = universeService.deleteUniverse(1L);
@@ -126,8 +117,8 @@ class UniverseServiceTest {
         void testDeleteUniverse_WithSingleTask() {
             // Given
             when(universeRepository.findById(1L)).thenReturn(Optional.of(universe));
-            when(botRepository.findByUniverseId(1L)).thenReturn(Collections.emptyList());
-            when(taskRepository.findByUniverseId(1L)).thenReturn(Collections.singletonList(task));
+            when(botRepository.countByUniverseId(1L)).thenReturn(0L);
+            when(universeTaskCounter.total(1L)).thenReturn(1L);
 
             // When
             UniverseService.DeletionResult result = universeService.deleteUniverse(1L);
@@ -142,14 +133,9 @@ class UniverseServiceTest {
         @DisplayName("Should prevent deletion when universe has multiple tasks")
         void testDeleteUniverse_WithMultipleTasks() {
             // Given
-            Task task2 = new Task();
-            task2.setId(2L);
-            task2.setType(Task.TaskType.SPY_PLAYER);
-            task2.setUniverse(universe);
-            
             when(universeRepository.findById(1L)).thenReturn(Optional.of(universe));
-            when(botRepository.findByUniverseId(1L)).thenReturn(Collections.emptyList());
-            when(taskRepository.findByUniverseId(1L)).thenReturn(Arrays.asList(task, task2));
+            when(botRepository.countByUniverseId(1L)).thenReturn(0L);
+            when(universeTaskCounter.total(1L)).thenReturn(2L);
 
             // When
             UniverseService.DeletionResult result = universeService.deleteUniverse(1L);
@@ -173,8 +159,8 @@ class UniverseServiceTest {
             assertFalse(result.isSuccess());
             assertEquals("Universe not found", result.getMessage());
             verify(universeRepository, never()).deleteById(anyLong());
-            verify(botRepository, never()).findByUniverseId(anyLong());
-            verify(taskRepository, never()).findByUniverseId(anyLong());
+            verify(botRepository, never()).countByUniverseId(anyLong());
+            verify(universeTaskCounter, never()).total(anyLong());
         }
     }
 
@@ -187,8 +173,10 @@ class UniverseServiceTest {
         void testGetUniverseSummary_WithCounts() {
             // Given
             when(universeRepository.findById(1L)).thenReturn(Optional.of(universe));
-            when(botRepository.findByUniverseId(1L)).thenReturn(Arrays.asList(bot));
-            when(taskRepository.findByUniverseId(1L)).thenReturn(Arrays.asList(task));
+            when(botRepository.countByUniverseId(1L)).thenReturn(1L);
+            when(universeTaskCounter.countsByStatus(1L)).thenReturn(Map.of(
+                    Task.TaskStatus.CREATED, 0L, Task.TaskStatus.IN_PROGRESS, 1L,
+                    Task.TaskStatus.FINISHED, 0L, Task.TaskStatus.ERROR, 0L));
 
             // When
             Optional<UniverseService.UniverseSummary> result = universeService.getUniverseSummary(1L);
@@ -199,6 +187,7 @@ class UniverseServiceTest {
             assertEquals(universe, summary.getUniverse());
             assertEquals(1, summary.getBotCount());
             assertEquals(1, summary.getTaskCount());
+            assertEquals(1L, summary.getTaskCountsByStatus().get(Task.TaskStatus.IN_PROGRESS));
             assertFalse(summary.canBeDeleted()); // Has associations
         }
 
@@ -207,8 +196,8 @@ class UniverseServiceTest {
         void testGetUniverseSummary_CanBeDeleted() {
             // Given
             when(universeRepository.findById(1L)).thenReturn(Optional.of(universe));
-            when(botRepository.findByUniverseId(1L)).thenReturn(Collections.emptyList());
-            when(taskRepository.findByUniverseId(1L)).thenReturn(Collections.emptyList());
+            when(botRepository.countByUniverseId(1L)).thenReturn(0L);
+            when(universeTaskCounter.countsByStatus(1L)).thenReturn(Map.of());
 
             // When
             Optional<UniverseService.UniverseSummary> result = universeService.getUniverseSummary(1L);
@@ -244,15 +233,16 @@ class UniverseServiceTest {
         @DisplayName("Should get all universes")
         void testGetAllUniverses() {
             // Given
-            List<Universe> universes = Arrays.asList(universe);
-            when(universeRepository.findAll()).thenReturn(universes);
+            List<UniverseView> universes = List.of(new UniverseView(1L, "Test Universe", "http://universe.com",
+                    "http://webhook.discord.com", null, null));
+            when(universeRepository.findAllViews()).thenReturn(universes);
 
             // When
-            List<Universe> result = universeService.getAllUniverses();
+            List<UniverseView> result = universeService.getAllUniverses();
 
             // Then
             assertEquals(universes, result);
-            verify(universeRepository, times(1)).findAll();
+            verify(universeRepository, times(1)).findAllViews();
         }
 
         @Test
@@ -281,6 +271,7 @@ class UniverseServiceTest {
             // Then
             assertEquals(universe, result);
             verify(universeRepository, times(1)).save(universe);
+            verify(universeTaskCounter, times(1)).initialize(1L);
         }
 
         @Test
@@ -0,0 +1,181 @@
+package com.ogame.automation.service;
+
+import com.ogame.automation.auth.BotApiKeyStore;
+import com.ogame.automation.entity.Bot;
+import com.ogame.automation.entity.Task;
+import com.ogame.automation.entity.Universe;
+import com.ogame.automation.repository.BotRepository;
+import com.ogame.automation.repository.TaskRepository;
+import com.ogame.automation.repository.UniverseRepository;
+import com.ogame.automation.repository.UniverseTaskCountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({UniverseTaskCounter.class, BotService.class, UniverseService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Universe task counter")
+class UniverseTaskCounterTest {
+
+    @Autowired
+    private UniverseTaskCounter counter;
+
+    @Autowired
+    private UniverseRepository universeRepository;
+
+    @Autowired
+    private UniverseTaskCountRepository universeTaskCountRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BotService botService;
+
+    @Autowired
+    private UniverseService universeService;
+
+    @Autowired
+    private BotRepository botRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @MockBean
+    private ReferenceDataCache referenceDataCache;
+
+    @MockBean
+    private BotApiKeyStore botApiKeyStore;
+
+    @MockBean
+    private HeartbeatBuffer heartbeatBuffer;
+
+    @MockBean
+    private PresenceTracker presenceTracker;
+
+    @MockBean
+    private DomainEventBus domainEventBus;
+
+    @MockBean
+    private PlayerNameIndex playerNameIndex;
+
+    private Universe universe;
+    private Long universeId;
+
+    @BeforeEach
+    void setUp() {
+        universe = universeRepository.save(new Universe("Counted Universe", "http://counted", "http://hook"));
+        universeId = universe.getId();
+        transactionTemplate.executeWithoutResult(status -> counter.initialize(universeId));
+    }
+
+    private static Task task(Universe universe, Task.TaskType type, Task.TaskStatus status) {
+        Task task = new Task(type, universe, "Player");
+        task.setStatus(status);
+        return task;
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll();
+        botRepository.deleteAll();
+        universeTaskCountRepository.deleteAll();
+        universeRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should apply the changes of a transaction when it commits")
+    void testCommit() {
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            counter.created(task(universe, Task.TaskType.SPY_PLAYER, Task.TaskStatus.CREATED));
+            counter.created(task(universe, Task.TaskType.SPY_PLAYER, Task.TaskStatus.CREATED));
+            counter.created(task(universe, Task.TaskType.CHECK_ACTIVITY, Task.TaskStatus.CREATED));
+            counter.moved(task(universe, Task.TaskType.SPY_PLAYER, Task.TaskStatus.FINISHED), Task.TaskStatus.CREATED);
+            counter.moved(task(universe, Task.TaskType.CHECK_ACTIVITY, Task.TaskStatus.IN_PROGRESS), Task.TaskStatus.CREATED);
+            counter.deleted(task(universe, Task.TaskType.SPY_PLAYER, Task.TaskStatus.CREATED));
+
+            // Then: nothing is visible before commit
+            assertEquals(0, counter.total(universeId));
+        });
+
+        // Then
+        assertEquals(Map.of(Task.TaskStatus.CREATED, 0L, Task.TaskStatus.IN_PROGRESS, 1L,
+                Task.TaskStatus.FINISHED, 1L, Task.TaskStatus.ERROR, 0L), counter.countsByStatus(universeId));
+        assertEquals(2, counter.total(universeId));
+        assertEquals(8, counter.allCounts().size());
+        assertTrue(counter.allCounts().stream().anyMatch(count -> count.getType() == Task.TaskType.CHECK_ACTIVITY
+                && count.getStatus() == Task.TaskStatus.IN_PROGRESS && count.getTaskCount() == 1));
+    }
+
+    @Test
+    @DisplayName("Should discard the changes of a rolled back transaction")
+    void testRollback() {
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            counter.created(task(universe, Task.TaskType.SPY_PLAYER, Task.TaskStatus.CREATED));
+            status.setRollbackOnly();
+        });
+
+        // Then
+        assertEquals(0, counter.total(universeId));
+    }
+
+    @Test
+    @DisplayName("Should create missing rows for universes created without counters")
+    void testMissingRows() {
+        // Given
+        Universe uncounted = universeRepository.save(new Universe("Uncounted", "http://uncounted", "http://hook"));
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            counter.created(task(uncounted, Task.TaskType.SPY_PLAYER, Task.TaskStatus.CREATED));
+            counter.created(task(uncounted, Task.TaskType.SPY_PLAYER, Task.TaskStatus.CREATED));
+        });
+        transactionTemplate.executeWithoutResult(status ->
+                counter.created(task(uncounted, Task.TaskType.SPY_PLAYER, Task.TaskStatus.CREATED)));
+
+        // Then
+        assertEquals(3L, counter.countsByStatus(uncounted.getId()).get(Task.TaskStatus.CREATED));
+        assertEquals(0L, counter.countsByStatus(uncounted.getId()).get(Task.TaskStatus.ERROR));
+    }
+
+    @Test
+    @DisplayName("Should count out the tasks of a deleted bot, so its universe can be deleted")
+    void testDeleteBotWithTasks() {
+        // Given
+        Long botId = transactionTemplate.execute(status -> {
+            Bot bot = botRepository.save(new Bot("counted-bot", universe, "Counted Bot"));
+            for (Task.TaskStatus taskStatus : new Task.TaskStatus[]{Task.TaskStatus.IN_PROGRESS, Task.TaskStatus.FINISHED}) {
+                Task task = task(universe, Task.TaskType.SPY_PLAYER, taskStatus);
+                task.setBot(bot);
+                counter.created(taskRepository.save(task));
+            }
+            return bot.getId();
+        });
+        assertEquals(2, counter.total(universeId));
+
+        // When
+        assertTrue(botService.deleteBot(botId));
+
+        // Then
+        assertEquals(0, taskRepository.count());
+        assertEquals(0, counter.total(universeId));
+        assertTrue(universeService.deleteUniverse(universeId).isSuccess());
+    }
+}
@@ -97,8 +97,10 @@ export interface TaskFilters {
   type?: string;
   startDate?: string;
   endDate?: string;
+  cursor?: string;
   page?: number;
   size?: number;
+  withTotal?: boolean;
 }
 
 export interface PagedResponse<T> {
@@ -109,4 +111,5 @@ export interface PagedResponse<T> {
   number: number;
   first: boolean;
   last: boolean;
+  nextCursor?: string | null;
 }
@@ -104,8 +104,10 @@ describe('TaskService', () => {
         universeId: 1,
         status: 'CREATED',
         type: 'SPY_PLAYER',
-        page: 0,
-        size: 20
+        cursor: 'abc',
+        page: 1,
+        size: 20,
+        withTotal: true
       };
 
       service.getTasks(filters).subscribe(response => {
@@ -119,8 +121,10 @@ describe('TaskService', () => {
                request.params.get('universeId') === '1' &&
                request.params.get('status') === 'CREATED' &&
                request.params.get('type') === 'SPY_PLAYER' &&
-               request.params.get('page') === '0' &&
-               request.params.get('size') === '20';
+               request.params.get('cursor') === 'abc' &&
+               request.params.get('page') === '1' &&
+               request.params.get('size') === '20' &&
+               request.params.get('withTotal') === 'true';
       });
       expect(req.request.method).toBe('GET');
       req.flush(mockPagedResponse);
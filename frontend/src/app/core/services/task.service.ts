@@ -23,8 +23,10 @@ export class TaskService {
       if (filters.type) params = params.set('type', filters.type);
       if (filters.startDate) params = params.set('startDate', filters.startDate);
       if (filters.endDate) params = params.set('endDate', filters.endDate);
+      if (filters.cursor) params = params.set('cursor', filters.cursor);
       if (filters.page !== undefined) params = params.set('page', filters.page.toString());
       if (filters.size !== undefined) params = params.set('size', filters.size.toString());
+      if (filters.withTotal) params = params.set('withTotal', 'true');
     }
 
     return this.http.get<PagedResponse<Task>>(this.apiUrl, { params });
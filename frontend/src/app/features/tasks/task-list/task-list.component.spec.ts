@@ -188,6 +188,17 @@ describe('TaskListComponent', () => {
       expect(taskServiceSpy.getTasks).toHaveBeenCalled();
     });
 
+    it('should request the next page with the returned cursor', () => {
+      component.currentPage = 0;
+      component.pageData = { ...mockPagedResponse, last: false, nextCursor: 'cursor-1' };
+
+      component.nextPage();
+
+      expect(taskServiceSpy.getTasks).toHaveBeenCalledWith(
+        jasmine.objectContaining({ cursor: 'cursor-1', page: 1 })
+      );
+    });
+
     it('should not go to previous page if on first page', () => {
       component.pageData = { ...mockPagedResponse, first: true };
       component.currentPage = 0;
@@ -285,6 +285,8 @@ export class TaskListComponent implements OnInit {
   pageData: PagedResponse<Task> | null = null;
   currentPage = 0;
   pageSize = 20;
+  // Cursor that fetches each visited page (index 0 = first page, no cursor)
+  private pageCursors: (string | undefined)[] = [undefined];
 
   constructor(
     private taskService: TaskService,
@@ -316,7 +318,7 @@ export class TaskListComponent implements OnInit {
         distinctUntilChanged()
       )
       .subscribe(() => {
-        this.currentPage = 0;
+        this.resetPaging();
         this.loadTasks();
       });
   }
@@ -325,13 +327,16 @@ export class TaskListComponent implements OnInit {
     this.isLoading = true;
     const filters: TaskFilters = {
       ...this.filterForm.value,
+      cursor: this.pageCursors[this.currentPage],
       page: this.currentPage,
-      size: this.pageSize
+      size: this.pageSize,
+      withTotal: true
     };
 
     // Remove empty values
     Object.keys(filters).forEach(key => {
-      if (filters[key as keyof TaskFilters] === '' || filters[key as keyof TaskFilters] === null) {
+      const value = filters[key as keyof TaskFilters];
+      if (value === '' || value === null || value === undefined) {
         delete filters[key as keyof TaskFilters];
       }
     });
@@ -373,10 +378,15 @@ export class TaskListComponent implements OnInit {
 
   clearFilters(): void {
     this.filterForm.reset();
-    this.currentPage = 0;
+    this.resetPaging();
     this.loadTasks();
   }
 
+  private resetPaging(): void {
+    this.currentPage = 0;
+    this.pageCursors = [undefined];
+  }
+
   previousPage(): void {
     if (this.pageData && !this.pageData.first) {
       this.currentPage--;
@@ -387,6 +397,7 @@ export class TaskListComponent implements OnInit {
   nextPage(): void {
     if (this.pageData && !this.pageData.last) {
       this.currentPage++;
+      this.pageCursors[this.currentPage] = this.pageData.nextCursor ?? undefined;
       this.loadTasks();
     }
   }